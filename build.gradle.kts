@@ -25,6 +25,7 @@ plugins {
     id("org.asciidoctor.jvm.convert").version(Versions.Plugins.asciiDoctor)
     id("org.flywaydb.flyway").version(Versions.Plugins.flyway)
     id("nu.studer.jooq").version(Versions.Plugins.jooq)
+    id("me.champeau.jmh").version(Versions.Plugins.jmh)
     id("application")
 
     idea
@@ -104,6 +105,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("com.fasterxml.jackson.module:jackson-module-kotlin")
     implementation("org.flywaydb:flyway-core")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     runtimeOnly("ch.qos.logback:logback-classic")
     runtimeOnly("org.postgresql:postgresql")
@@ -292,6 +294,11 @@ tasks.withType<JacocoCoverageVerification> {
     mustRunAfter(tasks.jacocoTestReport)
 }
 
+jmh {
+    jmhVersion.set(Versions.Tools.jmh)
+    includes.set(listOfNotNull(project.findProperty("jmhIncludes")?.toString()))
+}
+
 detekt {
     source = files("src/main/kotlin")
     config = files("detekt-config.yml")
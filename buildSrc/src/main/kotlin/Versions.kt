@@ -21,12 +21,14 @@ object Versions {
         const val jooq = "7.1.1"
         const val jib = "3.3.0"
         const val asciiDoctor = "3.3.2"
+        const val jmh = "0.6.8"
     }
 
     object Tools {
         const val ktlint = "0.45.2"
         const val jacoco = "0.8.8"
         const val solidity = "0.8.0"
+        const val jmh = "1.35"
     }
 
     object Dependencies {
@@ -29,7 +29,6 @@ import dev3.blockchainapiservice.model.result.EventArgumentHash
 import dev3.blockchainapiservice.model.result.EventArgumentValue
 import dev3.blockchainapiservice.model.result.EventInfo
 import dev3.blockchainapiservice.model.result.FullContractDeploymentTransactionInfo
-import dev3.blockchainapiservice.service.CurrentUtcDateTimeProvider
 import dev3.blockchainapiservice.service.RandomUuidProvider
 import dev3.blockchainapiservice.testcontainers.HardhatTestContainer
 import dev3.blockchainapiservice.testcontainers.SharedTestContainers
@@ -47,6 +46,7 @@ import dev3.blockchainapiservice.util.TransactionHash
 import dev3.blockchainapiservice.util.UtcDateTime
 import dev3.blockchainapiservice.util.WalletAddress
 import dev3.blockchainapiservice.util.ZeroAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Disabled
 import org.junit.jupiter.api.Test
@@ -66,6 +66,7 @@ import org.web3j.utils.Convert
 import org.web3j.utils.Numeric
 import java.math.BigDecimal
 import java.math.BigInteger
+import java.time.Duration
 
 @Disabled("test only locally due to instability")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -775,7 +776,7 @@ class Web3jBlockchainServiceIntegTest : TestBase() {
                 events = emptyList()
             )!!
 
-            expectThat(transactionInfo.events)
+            expectThat(transactionInfo.events.withByteLists())
                 .isEqualTo(
                     listOf(
                         EventInfo(
@@ -908,7 +909,7 @@ class Web3jBlockchainServiceIntegTest : TestBase() {
                 )
             )!!
 
-            expectThat(transactionInfo.events)
+            expectThat(transactionInfo.events.withByteLists())
                 .isEqualTo(
                     listOf(
                         EventInfo(
@@ -1464,7 +1465,8 @@ class Web3jBlockchainServiceIntegTest : TestBase() {
                 startBlockNumber = null,
                 chainExplorerApiUrl = null,
                 chainExplorerApiKey = null,
-                minBlockConfirmationsForCaching = null
+                minBlockConfirmationsForCaching = null,
+                latestBlockCacheDuration = Duration.ZERO
             )
         )
     }
@@ -1475,9 +1477,9 @@ class Web3jBlockchainServiceIntegTest : TestBase() {
         Web3jBlockchainService(
             abiDecoderService = EthereumAbiDecoderService(),
             uuidProvider = RandomUuidProvider(),
-            utcDateTimeProvider = CurrentUtcDateTimeProvider(),
             web3jBlockchainServiceCacheRepository = mock(),
-            applicationProperties = hardhatProperties()
+            applicationProperties = hardhatProperties(),
+            meterRegistry = SimpleMeterRegistry()
         )
 
     // This is needed to make web3j work correctly with Hardhat until https://github.com/web3j/web3j/pull/1580 is merged
@@ -1542,4 +1544,15 @@ class Web3jBlockchainServiceIntegTest : TestBase() {
         }
 
     private fun byteList(vararg bytes: Byte): List<Byte> = bytes.toList()
+
+    // decoded bytes are byte arrays which are compared by reference, so they are converted into lists
+    private fun List<EventInfo>.withByteLists(): List<EventInfo> =
+        map { event ->
+            event.copy(
+                arguments = event.arguments.map { argument ->
+                    val value = (argument as? EventArgumentValue)?.value
+                    if (value is ByteArray) EventArgumentValue(argument.name, value.toList()) else argument
+                }
+            )
+        }
 }
@@ -159,7 +159,8 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         assetContractAddress = contractAddress,
                         blockNumber = BlockNumber(BigInteger("123")),
                         merkleHash = merkleTree.root.hash,
-                        hashFn = HashFunction.IDENTITY
+                        hashFn = HashFunction.IDENTITY,
+                        proofBackfillFailed = false
                     )
                 )
         }
@@ -183,7 +184,9 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         id = leafUuid,
                         merkleRoot = treeRootUuid,
                         walletAddress = leafNode.address,
-                        assetAmount = leafNode.balance
+                        assetAmount = leafNode.balance,
+                        leafIndex = merkleTree.leafIndex(leafNode),
+                        merkleProof = merkleTree.merkleProof(leafNode)
                     )
                 )
         }
@@ -239,7 +242,8 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         assetContractAddress = contractAddress,
                         blockNumber = BlockNumber(BigInteger("123")),
                         merkleHash = merkleTree.root.hash,
-                        hashFn = HashFunction.IDENTITY
+                        hashFn = HashFunction.IDENTITY,
+                        proofBackfillFailed = false
                     )
                 )
         }
@@ -263,7 +267,9 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         id = leaf1Uuid,
                         merkleRoot = treeRootUuid,
                         walletAddress = leafNode1.address,
-                        assetAmount = leafNode1.balance
+                        assetAmount = leafNode1.balance,
+                        leafIndex = merkleTree.leafIndex(leafNode1),
+                        merkleProof = merkleTree.merkleProof(leafNode1)
                     )
                 )
 
@@ -277,7 +283,9 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         id = leaf2Uuid,
                         merkleRoot = treeRootUuid,
                         walletAddress = leafNode2.address,
-                        assetAmount = leafNode2.balance
+                        assetAmount = leafNode2.balance,
+                        leafIndex = merkleTree.leafIndex(leafNode2),
+                        merkleProof = merkleTree.merkleProof(leafNode2)
                     )
                 )
 
@@ -291,7 +299,9 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         id = leaf3Uuid,
                         merkleRoot = treeRootUuid,
                         walletAddress = leafNode3.address,
-                        assetAmount = leafNode3.balance
+                        assetAmount = leafNode3.balance,
+                        leafIndex = merkleTree.leafIndex(leafNode3),
+                        merkleProof = merkleTree.merkleProof(leafNode3)
                     )
                 )
 
@@ -305,7 +315,9 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                         id = leaf4Uuid,
                         merkleRoot = treeRootUuid,
                         walletAddress = leafNode4.address,
-                        assetAmount = leafNode4.balance
+                        assetAmount = leafNode4.balance,
+                        leafIndex = merkleTree.leafIndex(leafNode4),
+                        merkleProof = merkleTree.merkleProof(leafNode4)
                     )
                 )
         }
@@ -562,4 +574,207 @@ class JooqMerkleTreeRepositoryIntegTest : TestBase() {
                 .isFalse()
         }
     }
+
+    @Test
+    fun mustCorrectlyFetchStoredMerkleTreePath() {
+        val treeRootUuid = MerkleTreeRootId(UUID.randomUUID())
+
+        suppose("UUID provider will return specified UUIDs") {
+            call(uuidProvider.getUuid(MerkleTreeRootId))
+                .willReturn(treeRootUuid)
+            call(uuidProvider.getUuid(MerkleTreeLeafId))
+                .willAnswer { MerkleTreeLeafId(UUID.randomUUID()) }
+        }
+
+        val leafNode1 = PayoutAccountBalance(WalletAddress("a"), Balance(BigInteger.ZERO))
+        val leafNode2 = PayoutAccountBalance(WalletAddress("b"), Balance(BigInteger("100")))
+        val leafNode3 = PayoutAccountBalance(WalletAddress("c"), Balance(BigInteger("200")))
+        val merkleTree = MerkleTree(listOf(leafNode1, leafNode2, leafNode3), HashFunction.KECCAK_256)
+
+        suppose("multi-node Merkle tree is stored into database") {
+            repository.storeTree(
+                tree = merkleTree,
+                chainId = ChainId(1L),
+                assetContractAddress = ContractAddress("b"),
+                blockNumber = BlockNumber(BigInteger("123"))
+            )
+        }
+
+        verify("stored Merkle tree paths are correctly fetched") {
+            listOf(leafNode1, leafNode2, leafNode3).forEach {
+                expectThat(repository.fetchPath(merkleTree.pathParams(it.address)))
+                    .isEqualTo(merkleTree.leafPathByAddress(it.address))
+            }
+        }
+
+        verify("null is returned for non-existent Merkle tree paths") {
+            expectThat(repository.fetchPath(merkleTree.pathParams(WalletAddress("5"))))
+                .isNull()
+            expectThat(repository.fetchPath(merkleTree.pathParams(leafNode1.address).copy(chainId = ChainId(2L))))
+                .isNull()
+        }
+    }
+
+    @Test
+    fun mustBackfillMissingMerkleTreeProofs() {
+        val treeRootUuid = MerkleTreeRootId(UUID.randomUUID())
+
+        suppose("UUID provider will return specified UUIDs") {
+            call(uuidProvider.getUuid(MerkleTreeRootId))
+                .willReturn(treeRootUuid)
+            call(uuidProvider.getUuid(MerkleTreeLeafId))
+                .willAnswer { MerkleTreeLeafId(UUID.randomUUID()) }
+        }
+
+        val leafNode1 = PayoutAccountBalance(WalletAddress("a"), Balance(BigInteger.ZERO))
+        val leafNode2 = PayoutAccountBalance(WalletAddress("b"), Balance(BigInteger("100")))
+        val leafNode3 = PayoutAccountBalance(WalletAddress("c"), Balance(BigInteger("200")))
+        val merkleTree = MerkleTree(listOf(leafNode1, leafNode2, leafNode3), HashFunction.KECCAK_256)
+
+        suppose("multi-node Merkle tree is stored into database") {
+            repository.storeTree(
+                tree = merkleTree,
+                chainId = ChainId(1L),
+                assetContractAddress = ContractAddress("b"),
+                blockNumber = BlockNumber(BigInteger("123"))
+            )
+        }
+
+        suppose("Merkle tree was stored without proofs") {
+            dslContext.update(MerkleTreeLeafNodeTable)
+                .setNull(MerkleTreeLeafNodeTable.LEAF_INDEX)
+                .setNull(MerkleTreeLeafNodeTable.MERKLE_PROOF)
+                .execute()
+        }
+
+        verify("Merkle tree path is fetched by rebuilding the tree") {
+            expectThat(repository.fetchPath(merkleTree.pathParams(leafNode2.address)))
+                .isEqualTo(merkleTree.leafPathByAddress(leafNode2.address))
+        }
+
+        verify("Merkle tree without proofs is returned") {
+            expectThat(repository.getTreeIdsWithoutProofs(10))
+                .isEqualTo(listOf(treeRootUuid))
+        }
+
+        suppose("missing Merkle proofs are stored") {
+            repository.storeMissingProofs(treeRootUuid)
+        }
+
+        verify("Merkle proofs are correctly stored") {
+            expectThat(repository.getTreeIdsWithoutProofs(10))
+                .isEmpty()
+
+            listOf(leafNode1, leafNode2, leafNode3).forEach {
+                val leafRecord = dslContext.selectFrom(MerkleTreeLeafNodeTable)
+                    .where(MerkleTreeLeafNodeTable.WALLET_ADDRESS.eq(it.address))
+                    .fetchOne()
+
+                expectThat(leafRecord?.leafIndex)
+                    .isEqualTo(merkleTree.leafIndex(it))
+                expectThat(leafRecord?.merkleProof?.toList())
+                    .isEqualTo(merkleTree.merkleProof(it).toList())
+            }
+        }
+    }
+
+    @Test
+    fun mustNotBackfillMerkleTreeProofsAgainWhenTreeReconstructionFails() {
+        val treeRootUuid = MerkleTreeRootId(UUID.randomUUID())
+        val leaf3Uuid = MerkleTreeLeafId(UUID.randomUUID())
+
+        suppose("UUID provider will return specified UUIDs") {
+            call(uuidProvider.getUuid(MerkleTreeRootId))
+                .willReturn(treeRootUuid)
+            call(uuidProvider.getUuid(MerkleTreeLeafId))
+                .willReturn(MerkleTreeLeafId(UUID.randomUUID()), MerkleTreeLeafId(UUID.randomUUID()), leaf3Uuid)
+        }
+
+        val leafNode1 = PayoutAccountBalance(WalletAddress("a"), Balance(BigInteger.ZERO))
+        val leafNode2 = PayoutAccountBalance(WalletAddress("b"), Balance(BigInteger("100")))
+        val leafNode3 = PayoutAccountBalance(WalletAddress("c"), Balance(BigInteger("200")))
+        val merkleTree = MerkleTree(listOf(leafNode1, leafNode2, leafNode3), HashFunction.KECCAK_256)
+
+        suppose("multi-node Merkle tree is stored into database") {
+            repository.storeTree(
+                tree = merkleTree,
+                chainId = ChainId(1L),
+                assetContractAddress = ContractAddress("b"),
+                blockNumber = BlockNumber(BigInteger("123"))
+            )
+        }
+
+        suppose("Merkle tree was stored without proofs and one of its leaf nodes was deleted") {
+            dslContext.update(MerkleTreeLeafNodeTable)
+                .setNull(MerkleTreeLeafNodeTable.LEAF_INDEX)
+                .setNull(MerkleTreeLeafNodeTable.MERKLE_PROOF)
+                .execute()
+            dslContext.deleteFrom(MerkleTreeLeafNodeTable)
+                .where(MerkleTreeLeafNodeTable.ID.eq(leaf3Uuid))
+                .execute()
+        }
+
+        suppose("storing missing Merkle proofs is attempted") {
+            repository.storeMissingProofs(treeRootUuid)
+        }
+
+        verify("Merkle tree is not returned for proof backfill anymore") {
+            expectThat(repository.getTreeIdsWithoutProofs(10))
+                .isEmpty()
+
+            val rootRecord = dslContext.selectFrom(MerkleTreeRootTable)
+                .where(MerkleTreeRootTable.ID.eq(treeRootUuid))
+                .fetchOne()
+
+            expectThat(rootRecord?.proofBackfillFailed)
+                .isTrue()
+        }
+    }
+
+    @Test
+    fun mustCorrectlyStoreMerkleTreeWithManyLeavesIntoDatabase() {
+        val treeRootUuid = MerkleTreeRootId(UUID.randomUUID())
+
+        suppose("UUID provider will return specified UUIDs") {
+            call(uuidProvider.getUuid(MerkleTreeRootId))
+                .willReturn(treeRootUuid)
+            call(uuidProvider.getUuid(MerkleTreeLeafId))
+                .willAnswer { MerkleTreeLeafId(UUID.randomUUID()) }
+        }
+
+        val leafNodes = (1..6_000).map {
+            PayoutAccountBalance(WalletAddress(it.toString(16)), Balance(BigInteger.valueOf(it.toLong())))
+        }
+        val merkleTree = MerkleTree(leafNodes, HashFunction.KECCAK_256)
+
+        suppose("Merkle tree with many leaves is stored into database") {
+            repository.storeTree(
+                tree = merkleTree,
+                chainId = ChainId(1L),
+                assetContractAddress = ContractAddress("b"),
+                blockNumber = BlockNumber(BigInteger("123"))
+            )
+        }
+
+        verify("Merkle tree is correctly reconstructed from database") {
+            expectThat(repository.getById(treeRootUuid))
+                .isEqualTo(merkleTree)
+            expectThat(repository.fetchPath(merkleTree.pathParams(leafNodes.last().address)))
+                .isEqualTo(merkleTree.leafPathByAddress(leafNodes.last().address))
+        }
+    }
+
+    private fun MerkleTree.leafIndex(leafNode: PayoutAccountBalance): Int =
+        leafPathByAddress(leafNode.address)!!.leafIndex
+
+    private fun MerkleTree.merkleProof(leafNode: PayoutAccountBalance): Array<String> =
+        leafPathByAddress(leafNode.address)!!.path.map { it.siblingHash.value }.toTypedArray()
+
+    private fun MerkleTree.pathParams(walletAddress: WalletAddress) =
+        FetchMerkleTreePathParams(
+            rootHash = rootHash,
+            chainId = ChainId(1L),
+            assetContractAddress = ContractAddress("b"),
+            walletAddress = walletAddress
+        )
 }
@@ -2,8 +2,10 @@ package dev3.blockchainapiservice.features.payout.respository
 
 import dev3.blockchainapiservice.TestBase
 import dev3.blockchainapiservice.TestData
+import dev3.blockchainapiservice.features.payout.model.params.ClaimPendingAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.CreateAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.result.AssetSnapshot
+import dev3.blockchainapiservice.features.payout.model.result.HolderScanProgress
 import dev3.blockchainapiservice.features.payout.model.result.OtherAssetSnapshotData
 import dev3.blockchainapiservice.features.payout.model.result.PendingAssetSnapshot
 import dev3.blockchainapiservice.features.payout.model.result.SuccessfulAssetSnapshotData
@@ -31,6 +33,7 @@ import dev3.blockchainapiservice.util.BaseUrl
 import dev3.blockchainapiservice.util.BlockNumber
 import dev3.blockchainapiservice.util.ChainId
 import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.UtcDateTime
 import dev3.blockchainapiservice.util.WalletAddress
 import org.jooq.DSLContext
 import org.junit.jupiter.api.BeforeEach
@@ -42,6 +45,7 @@ import org.springframework.boot.test.mock.mockito.MockBean
 import org.springframework.context.annotation.Import
 import java.math.BigInteger
 import java.util.UUID
+import kotlin.time.Duration.Companion.hours
 
 @JooqTest
 @Import(JooqAssetSnapshotRepository::class)
@@ -52,6 +56,12 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
         private val PROJECT_ID_1 = ProjectId(UUID.randomUUID())
         private val PROJECT_ID_2 = ProjectId(UUID.randomUUID())
         private val OWNER_ID = UserId(UUID.randomUUID())
+        private val CLAIM_PARAMS = ClaimPendingAssetSnapshotParams(
+            claimedAt = TestData.TIMESTAMP,
+            claimExpiredBefore = TestData.TIMESTAMP - 1.hours,
+            excludedProjectIds = emptySet(),
+            excludedChainIds = emptySet()
+        )
     }
 
     @BeforeEach
@@ -122,7 +132,8 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     assetContractAddress = assetContractAddress,
                     blockNumber = payoutBlock,
                     merkleHash = treeRootHash,
-                    hashFn = hashFn
+                    hashFn = hashFn,
+                    proofBackfillFailed = false
                 )
             )
         }
@@ -146,7 +157,9 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     failureCause = null,
                     resultTree = treeUuid,
                     treeIpfsHash = treeIpfsHash,
-                    totalAssetAmount = totalAssetAmount
+                    totalAssetAmount = totalAssetAmount,
+                    claimedAt = null,
+                    createdAt = TestData.TIMESTAMP
                 )
             )
         }
@@ -197,7 +210,9 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     failureCause = null,
                     resultTree = null,
                     treeIpfsHash = null,
-                    totalAssetAmount = null
+                    totalAssetAmount = null,
+                    claimedAt = null,
+                    createdAt = TestData.TIMESTAMP
                 )
             )
         }
@@ -244,7 +259,9 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     failureCause = AssetSnapshotFailureCause.OTHER,
                     resultTree = null,
                     treeIpfsHash = null,
-                    totalAssetAmount = null
+                    totalAssetAmount = null,
+                    claimedAt = null,
+                    createdAt = TestData.TIMESTAMP
                 )
             )
         }
@@ -353,7 +370,8 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     assetContractAddress = assetContractAddress,
                     payoutBlock = payoutBlock,
                     ignoredHolderAddresses = ignoredHolderAddresses
-                )
+                ),
+                createdAt = TestData.TIMESTAMP
             )
         }
 
@@ -381,14 +399,16 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                         failureCause = null,
                         resultTree = null,
                         treeIpfsHash = null,
-                        totalAssetAmount = null
+                        totalAssetAmount = null,
+                        claimedAt = null,
+                        createdAt = TestData.TIMESTAMP
                     )
                 )
         }
     }
 
     @Test
-    fun mustCorrectlyFetchSinglePendingAssetSnapshotFromDatabase() {
+    fun mustCorrectlyClaimSinglePendingAssetSnapshotFromDatabase() {
         val assetSnapshotUuid = AssetSnapshotId(UUID.randomUUID())
         val name = "asset-snapshot-name"
         val chainId = ChainId(1L)
@@ -410,13 +430,15 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     failureCause = null,
                     resultTree = null,
                     treeIpfsHash = null,
-                    totalAssetAmount = null
+                    totalAssetAmount = null,
+                    claimedAt = null,
+                    createdAt = TestData.TIMESTAMP
                 )
             )
         }
 
-        verify("single pending asset snapshot is fetched from database") {
-            val result = repository.getPending()
+        verify("single pending asset snapshot is claimed from database") {
+            val result = repository.claimPending(CLAIM_PARAMS)
 
             expectThat(result)
                 .isEqualTo(
@@ -435,14 +457,155 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
 
     @Test
     fun mustReturnNullWhenThereAreNoPendingAssetSnapshots() {
-        verify("null is returned when fetching single pending asset snapshot") {
-            val result = repository.getPending()
+        verify("null is returned when claiming single pending asset snapshot") {
+            val result = repository.claimPending(CLAIM_PARAMS)
 
             expectThat(result)
                 .isNull()
         }
     }
 
+    @Test
+    fun mustNotClaimAlreadyClaimedAssetSnapshotUntilClaimExpires() {
+        val record = assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.PENDING, null)
+
+        suppose("pending asset snapshot is stored into database") {
+            dslContext.executeInsert(record)
+        }
+
+        verify("pending asset snapshot is claimed only once") {
+            expectThat(repository.claimPending(CLAIM_PARAMS)?.id)
+                .isEqualTo(record.id)
+            expectThat(repository.claimPending(CLAIM_PARAMS))
+                .isNull()
+        }
+
+        verify("pending asset snapshot is claimed again after claim expires") {
+            val laterClaimParams = CLAIM_PARAMS.copy(
+                claimedAt = TestData.TIMESTAMP + 2.hours,
+                claimExpiredBefore = TestData.TIMESTAMP + 1.hours
+            )
+
+            expectThat(repository.claimPending(laterClaimParams)?.id)
+                .isEqualTo(record.id)
+        }
+    }
+
+    @Test
+    fun mustClaimPendingAssetSnapshotsInOrderOfCreation() {
+        val newerRecord = assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.PENDING, null, TestData.TIMESTAMP)
+        val olderRecord = assetSnapshotRecord(
+            projectId = PROJECT_ID_2,
+            status = AssetSnapshotStatus.PENDING,
+            failureCause = null,
+            createdAt = TestData.TIMESTAMP - 1.hours
+        )
+
+        suppose("some pending asset snapshots are stored into database") {
+            dslContext.batchInsert(newerRecord, olderRecord).execute()
+        }
+
+        verify("older pending asset snapshot is claimed first") {
+            expectThat(repository.claimPending(CLAIM_PARAMS)?.id)
+                .isEqualTo(olderRecord.id)
+            expectThat(repository.claimPending(CLAIM_PARAMS)?.id)
+                .isEqualTo(newerRecord.id)
+        }
+    }
+
+    @Test
+    fun mustNotClaimAssetSnapshotWithRenewedClaim() {
+        val record = assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.PENDING, null)
+
+        suppose("pending asset snapshot is stored into database and claimed") {
+            dslContext.executeInsert(record)
+            repository.claimPending(CLAIM_PARAMS)
+        }
+
+        suppose("asset snapshot claim is renewed") {
+            repository.renewClaims(setOf(record.id), TestData.TIMESTAMP + 2.hours)
+        }
+
+        verify("asset snapshot is not claimed while renewed claim is valid") {
+            val laterClaimParams = CLAIM_PARAMS.copy(
+                claimedAt = TestData.TIMESTAMP + 2.hours,
+                claimExpiredBefore = TestData.TIMESTAMP + 1.hours
+            )
+
+            expectThat(repository.claimPending(laterClaimParams))
+                .isNull()
+        }
+    }
+
+    @Test
+    fun mustNotClaimPendingAssetSnapshotsForExcludedProjectsAndChains() {
+        val record = assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.PENDING, null)
+
+        suppose("pending asset snapshot is stored into database") {
+            dslContext.executeInsert(record)
+        }
+
+        verify("pending asset snapshot is not claimed for excluded project or chain") {
+            expectThat(repository.claimPending(CLAIM_PARAMS.copy(excludedProjectIds = setOf(PROJECT_ID_1))))
+                .isNull()
+            expectThat(repository.claimPending(CLAIM_PARAMS.copy(excludedChainIds = setOf(record.chainId))))
+                .isNull()
+        }
+
+        verify("pending asset snapshot is claimed for other projects and chains") {
+            val params = CLAIM_PARAMS.copy(
+                excludedProjectIds = setOf(PROJECT_ID_2),
+                excludedChainIds = setOf(ChainId(1337L))
+            )
+
+            expectThat(repository.claimPending(params)?.id)
+                .isEqualTo(record.id)
+        }
+    }
+
+    @Test
+    fun mustCorrectlyCountPendingAssetSnapshots() {
+        suppose("some asset snapshots are stored into database") {
+            dslContext.batchInsert(
+                assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.PENDING, null),
+                assetSnapshotRecord(PROJECT_ID_2, AssetSnapshotStatus.PENDING, null),
+                assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.FAILED, AssetSnapshotFailureCause.OTHER)
+            ).execute()
+        }
+
+        verify("pending asset snapshots are counted") {
+            expectThat(repository.countPending())
+                .isEqualTo(2)
+        }
+    }
+
+    @Test
+    fun mustCorrectlySaveHolderScanProgressWithManyHolders() {
+        val record = assetSnapshotRecord(PROJECT_ID_1, AssetSnapshotStatus.PENDING, null)
+
+        suppose("pending asset snapshot is stored into database") {
+            dslContext.executeInsert(record)
+        }
+
+        val firstHolders = (1..2_500).mapTo(HashSet()) { WalletAddress(it.toString(16)) }
+        val secondHolders = (2_001..20_000).mapTo(HashSet()) { WalletAddress(it.toString(16)) }
+
+        suppose("holder scan progress is saved twice") {
+            repository.saveHolderScanProgress(record.id, BlockNumber(BigInteger.ONE), firstHolders)
+            repository.saveHolderScanProgress(record.id, BlockNumber(BigInteger.TWO), secondHolders)
+        }
+
+        verify("all holders and latest checkpoint are fetched") {
+            expectThat(repository.getHolderScanProgress(record.id))
+                .isEqualTo(
+                    HolderScanProgress(
+                        scannedUntilBlock = BlockNumber(BigInteger.TWO),
+                        holders = firstHolders + secondHolders
+                    )
+                )
+        }
+    }
+
     @Test
     fun mustCorrectlyCompleteAssetSnapshot() {
         val assetSnapshotUuid = AssetSnapshotId(UUID.randomUUID())
@@ -467,7 +630,8 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     assetContractAddress = assetContractAddress,
                     payoutBlock = payoutBlock,
                     ignoredHolderAddresses = ignoredHolderAddresses
-                )
+                ),
+                createdAt = TestData.TIMESTAMP
             )
         }
 
@@ -488,7 +652,8 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     assetContractAddress = assetContractAddress,
                     blockNumber = payoutBlock,
                     merkleHash = treeRootHash,
-                    hashFn = hashFn
+                    hashFn = hashFn,
+                    proofBackfillFailed = false
                 )
             )
         }
@@ -554,7 +719,8 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
                     assetContractAddress = assetContractAddress,
                     payoutBlock = payoutBlock,
                     ignoredHolderAddresses = ignoredHolderAddresses
-                )
+                ),
+                createdAt = TestData.TIMESTAMP
             )
         }
 
@@ -592,7 +758,8 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
     private fun assetSnapshotRecord(
         projectId: ProjectId,
         status: AssetSnapshotStatus,
-        failureCause: AssetSnapshotFailureCause?
+        failureCause: AssetSnapshotFailureCause?,
+        createdAt: UtcDateTime = TestData.TIMESTAMP
     ): AssetSnapshotRecord {
         val id = AssetSnapshotId(UUID.randomUUID())
         return AssetSnapshotRecord(
@@ -607,7 +774,9 @@ class JooqSnapshotRepositoryIntegTest : TestBase() {
             failureCause = failureCause,
             resultTree = null,
             treeIpfsHash = null,
-            totalAssetAmount = null
+            totalAssetAmount = null,
+            claimedAt = null,
+            createdAt = createdAt
         )
     }
 
@@ -53,7 +53,7 @@ class JooqContractArbitraryCallRequestRepositoryIntegTest : TestBase() {
         private val DEPLOYED_CONTRACT_ID = ContractDeploymentRequestId(UUID.randomUUID())
         private val CONTRACT_ADDRESS = ContractAddress("1337")
         private const val FUNCTION_NAME = "balanceOf"
-        private val FUNCTION_DATA = FunctionData("test")
+        private val FUNCTION_DATA = FunctionData("0x74657374")
         private val ETH_AMOUNT = Balance(BigInteger("10000"))
         private val CHAIN_ID = ChainId(1337L)
         private const val REDIRECT_URL = "redirect-url"
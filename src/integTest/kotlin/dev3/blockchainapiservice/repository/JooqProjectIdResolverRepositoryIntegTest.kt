@@ -451,7 +451,9 @@ class JooqProjectIdResolverRepositoryIntegTest : TestBase() {
                     resultTree = null,
                     treeIpfsHash = null,
                     totalAssetAmount = null,
-                    failureCause = null
+                    failureCause = null,
+                    claimedAt = null,
+                    createdAt = TestData.TIMESTAMP
                 )
             )
         }
@@ -8,6 +8,7 @@ import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchErc20AccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
 import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.result.BlockHeader
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.model.result.FullContractDeploymentTransactionInfo
 import dev3.blockchainapiservice.testcontainers.SharedTestContainers
@@ -69,7 +70,7 @@ class JooqWeb3jBlockchainServiceCacheRepositoryIntegTest : TestBase() {
             deployedContractAddress = CONTRACT_ADDRESS,
             data = TX_INFO.data,
             value = TX_INFO.value,
-            binary = ContractBinaryData("abc1223"),
+            binary = ContractBinaryData("abc122"),
             blockNumber = BLOCK_NUMBER,
             events = emptyList()
         )
@@ -168,6 +169,87 @@ class JooqWeb3jBlockchainServiceCacheRepositoryIntegTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustCorrectlyFetchMultipleCachedTransactionInfos() {
+        val otherTxInfo = TX_INFO.copy(hash = TransactionHash("other-tx-hash"))
+
+        suppose("some fetchTransactionInfo calls are cached") {
+            listOf(TX_INFO, otherTxInfo).forEach {
+                repository.cacheFetchTransactionInfo(
+                    id = FetchTransactionInfoCacheId(UUID.randomUUID()),
+                    chainSpec = CHAIN_SPEC,
+                    txHash = it.hash,
+                    blockNumber = BlockNumber(BLOCK_NUMBER.value - it.blockConfirmations),
+                    txInfo = it,
+                    eventLogs = listOf(
+                        EventLog(
+                            data = "data",
+                            topics = listOf("topic")
+                        )
+                    )
+                )
+            }
+        }
+
+        verify("cached fetchTransactionInfo calls are correctly fetched") {
+            expectThat(
+                repository.getCachedFetchTransactionInfos(
+                    chainSpec = CHAIN_SPEC,
+                    txHashes = setOf(TX_INFO.hash, otherTxInfo.hash, TransactionHash("uncached-tx-hash")),
+                    currentBlockNumber = BLOCK_NUMBER
+                )
+            ).isEqualTo(
+                mapOf(
+                    TX_INFO.hash to Pair(TX_INFO, listOf(EventLog("data", listOf("topic")))),
+                    otherTxInfo.hash to Pair(otherTxInfo, listOf(EventLog("data", listOf("topic"))))
+                )
+            )
+        }
+    }
+
+    @Test
+    fun mustIgnoreDuplicateEntriesWhenCachingMultipleEntries() {
+        val entry = FetchTransactionInfoCacheEntry(
+            id = FetchTransactionInfoCacheId(UUID.randomUUID()),
+            chainSpec = CHAIN_SPEC,
+            txHash = TX_INFO.hash,
+            blockNumber = BlockNumber(BLOCK_NUMBER.value - TX_INFO.blockConfirmations),
+            txInfo = TX_INFO,
+            eventLogs = emptyList()
+        )
+        val duplicateEntry = entry.copy(id = FetchTransactionInfoCacheId(UUID.randomUUID()))
+        val accountBalanceEntry = FetchAccountBalanceCacheEntry(
+            id = FetchAccountBalanceCacheId(UUID.randomUUID()),
+            chainSpec = CHAIN_SPEC,
+            accountBalance = ACCOUNT_BALANCE
+        )
+
+        suppose("some entries are already cached") {
+            repository.cacheAll(listOf(entry))
+        }
+
+        suppose("multiple entries including duplicates are cached") {
+            repository.cacheAll(listOf(entry, duplicateEntry, accountBalanceEntry))
+        }
+
+        verify("all entries are cached") {
+            expectThat(
+                repository.getCachedFetchTransactionInfo(
+                    chainSpec = CHAIN_SPEC,
+                    txHash = TX_INFO.hash,
+                    currentBlockNumber = BLOCK_NUMBER
+                )
+            ).isEqualTo(Pair(TX_INFO, emptyList<EventLog>()))
+            expectThat(
+                repository.getCachedFetchAccountBalance(
+                    chainSpec = CHAIN_SPEC,
+                    walletAddress = ACCOUNT_BALANCE.wallet,
+                    blockNumber = ACCOUNT_BALANCE.blockNumber
+                )
+            ).isEqualTo(ACCOUNT_BALANCE)
+        }
+    }
+
     @Test
     fun mustCorrectlyCacheContractDeploymentTransaction() {
         val id = ContractDeploymentTransactionCacheId(UUID.randomUUID())
@@ -196,4 +278,24 @@ class JooqWeb3jBlockchainServiceCacheRepositoryIntegTest : TestBase() {
             ).isEqualTo(Pair(CONTRACT_DEPLOYMENT_TRANSACTION_INFO, listOf(EventLog("data", listOf("topic")))))
         }
     }
+
+    @Test
+    fun mustCorrectlyCacheBlockHeader() {
+        val blockHeader = BlockHeader(
+            blockNumber = BLOCK_NUMBER,
+            hash = "block-hash",
+            timestamp = TestData.TIMESTAMP
+        )
+
+        suppose("block header will be cached") {
+            repository.cacheBlockHeader(CHAIN_SPEC, blockHeader)
+        }
+
+        verify("block header is correctly cached") {
+            expectThat(repository.getCachedBlockHeader(CHAIN_SPEC, BLOCK_NUMBER))
+                .isEqualTo(blockHeader)
+            expectThat(repository.getCachedBlockHeader(CHAIN_SPEC, BlockNumber(BigInteger.ONE)))
+                .isNull()
+        }
+    }
 }
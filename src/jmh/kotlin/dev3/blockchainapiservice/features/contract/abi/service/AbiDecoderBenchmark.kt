@@ -0,0 +1,133 @@
+package dev3.blockchainapiservice.features.contract.abi.service
+
+import dev3.blockchainapiservice.features.contract.abi.model.AbiType
+import dev3.blockchainapiservice.features.contract.abi.model.AddressType
+import dev3.blockchainapiservice.features.contract.abi.model.BoolType
+import dev3.blockchainapiservice.features.contract.abi.model.DynamicArrayType
+import dev3.blockchainapiservice.features.contract.abi.model.DynamicBytesType
+import dev3.blockchainapiservice.features.contract.abi.model.StaticBytesType
+import dev3.blockchainapiservice.features.contract.abi.model.StringType
+import dev3.blockchainapiservice.features.contract.abi.model.TupleType
+import dev3.blockchainapiservice.features.contract.abi.model.UintType
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import org.web3j.abi.FunctionEncoder
+import org.web3j.abi.datatypes.Address
+import org.web3j.abi.datatypes.Bool
+import org.web3j.abi.datatypes.DynamicArray
+import org.web3j.abi.datatypes.DynamicBytes
+import org.web3j.abi.datatypes.DynamicStruct
+import org.web3j.abi.datatypes.Type
+import org.web3j.abi.datatypes.Utf8String
+import org.web3j.abi.datatypes.generated.Bytes32
+import org.web3j.abi.datatypes.generated.Uint256
+import java.math.BigInteger
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Compares [EthereumAbiDecoderService] with the previous [HexStringAbiDecoder] implementation on event log data, large
+ * `bytes` values and nested tuple arrays. Run with: `./gradlew jmh -PjmhIncludes=AbiDecoderBenchmark`; allocation rates
+ * can be compared by adding `-prof gc` to the JMH arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+open class AbiDecoderBenchmark {
+
+    companion object {
+        private const val EVENT_LOG_COUNT = 200
+        private const val TUPLE_COUNT = 100
+        private const val TUPLE_ARRAY_SIZE = 8
+        private val EVENT_TYPES = listOf(UintType, AddressType, BoolType, StaticBytesType(32))
+        private val BYTES_TYPES = listOf(DynamicBytesType)
+        private val TUPLE_ARRAY_TYPES = listOf(
+            DynamicArrayType(TupleType(UintType, DynamicArrayType(UintType), StringType))
+        )
+    }
+
+    @Param("4096", "262144")
+    var bytesLength: Int = 0
+
+    private val decoder = EthereumAbiDecoderService()
+    private val hexStringDecoder = HexStringAbiDecoder()
+
+    private lateinit var eventLogs: List<String>
+    private lateinit var largeBytes: String
+    private lateinit var tupleArray: String
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val random = Random(0)
+
+        eventLogs = List(EVENT_LOG_COUNT) {
+            encode(
+                Uint256(BigInteger(1, random.nextBytes(32))),
+                Address(BigInteger(1, random.nextBytes(20))),
+                Bool(it % 2 == 0),
+                Bytes32(random.nextBytes(32))
+            )
+        }
+        largeBytes = encode(DynamicBytes(random.nextBytes(bytesLength)))
+        tupleArray = encode(
+            DynamicArray(
+                DynamicStruct::class.java,
+                List(TUPLE_COUNT) {
+                    DynamicStruct(
+                        Uint256(it.toLong()),
+                        DynamicArray(Uint256::class.java, List(TUPLE_ARRAY_SIZE) { i -> Uint256(i.toLong()) }),
+                        Utf8String("tuple-$it")
+                    )
+                }
+            )
+        )
+
+        check(eventLogs.all { decoder.decode(EVENT_TYPES, it) == hexStringDecoder.decode(EVENT_TYPES, it) }) {
+            "ABI decoder implementations produced different event log values"
+        }
+        check(decoder.decode(BYTES_TYPES, largeBytes) == hexStringDecoder.decode(BYTES_TYPES, largeBytes)) {
+            "ABI decoder implementations produced different bytes values"
+        }
+        check(decoder.decode(TUPLE_ARRAY_TYPES, tupleArray) == hexStringDecoder.decode(TUPLE_ARRAY_TYPES, tupleArray)) {
+            "ABI decoder implementations produced different tuple array values"
+        }
+    }
+
+    @Benchmark
+    fun decodeEventLogs(blackhole: Blackhole) {
+        eventLogs.forEach { blackhole.consume(decoder.decode(EVENT_TYPES, it)) }
+    }
+
+    @Benchmark
+    fun hexStringDecodeEventLogs(blackhole: Blackhole) {
+        eventLogs.forEach { blackhole.consume(hexStringDecoder.decode(EVENT_TYPES, it)) }
+    }
+
+    @Benchmark
+    fun decodeLargeBytes(): List<Any> = decoder.decode(BYTES_TYPES, largeBytes)
+
+    @Benchmark
+    fun hexStringDecodeLargeBytes(): List<Any> = hexStringDecoder.decode(BYTES_TYPES, largeBytes)
+
+    @Benchmark
+    fun decodeTupleArray(): List<Any> = decoder.decode(TUPLE_ARRAY_TYPES, tupleArray)
+
+    @Benchmark
+    fun hexStringDecodeTupleArray(): List<Any> = hexStringDecoder.decode(TUPLE_ARRAY_TYPES, tupleArray)
+
+    private fun encode(vararg values: Type<*>): String = FunctionEncoder.encodeConstructor(values.toList())
+}
@@ -0,0 +1,78 @@
+package dev3.blockchainapiservice.features.payout.util
+
+import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.WalletAddress
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.math.BigInteger
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares [MerkleTree] with the previous [LinkedMerkleTree] implementation. Run with:
+ * `./gradlew jmh -PjmhIncludes=MerkleTreeBenchmark`; allocation rates can be compared by adding `-prof gc` to the
+ * JMH arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = ["-Xmx8g"])
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+open class MerkleTreeBenchmark {
+
+    companion object {
+        private const val PROOF_SAMPLE = 100
+    }
+
+    @Param("10000", "100000", "1000000")
+    var leafCount: Int = 0
+
+    private lateinit var balances: List<PayoutAccountBalance>
+    private lateinit var proofBalances: List<PayoutAccountBalance>
+    private lateinit var tree: MerkleTree
+    private lateinit var linkedTree: LinkedMerkleTree
+
+    @Setup(Level.Trial)
+    fun setup() {
+        balances = (1..leafCount).map {
+            PayoutAccountBalance(WalletAddress(it.toString(16)), Balance(BigInteger.valueOf(it.toLong())))
+        }
+        proofBalances = balances.shuffled().take(PROOF_SAMPLE)
+        tree = MerkleTree(balances, HashFunction.KECCAK_256)
+        linkedTree = LinkedMerkleTree(balances, HashFunction.KECCAK_256)
+
+        check(tree.rootHash == linkedTree.root.hash) { "Merkle tree implementations produced different root hashes" }
+        check(proofBalances.all { tree.pathTo(it) == linkedTree.pathTo(it) }) {
+            "Merkle tree implementations produced different proofs"
+        }
+    }
+
+    @Benchmark
+    fun buildMerkleTree(): MerkleTree = MerkleTree(balances, HashFunction.KECCAK_256)
+
+    @Benchmark
+    fun buildLinkedMerkleTree(): LinkedMerkleTree = LinkedMerkleTree(balances, HashFunction.KECCAK_256)
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    fun merkleTreeProofs(blackhole: Blackhole) {
+        proofBalances.forEach { blackhole.consume(tree.pathTo(it)) }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    fun linkedMerkleTreeProofs(blackhole: Blackhole) {
+        proofBalances.forEach { blackhole.consume(linkedTree.pathTo(it)) }
+    }
+}
@@ -0,0 +1,92 @@
+package db.migration
+
+import org.flywaydb.core.api.migration.BaseJavaMigration
+import org.flywaydb.core.api.migration.Context
+import java.sql.Connection
+import java.util.UUID
+
+/**
+ * Converts function and contract binary data which was stored as ASCII hex text into raw bytes. Rows are converted in
+ * batches of [BATCH_SIZE] to keep statements small, but within the single migration transaction: converted values can
+ * look like hex text again, so a partially applied conversion could not be safely repeated. Values which are not
+ * even-length hex text cannot be converted without changing them and would be misread as raw bytes afterwards, so the
+ * migration fails when any such value is present.
+ */
+@Suppress("ClassNaming")
+class V49__Convert_hex_binary_data_to_raw_bytes : BaseJavaMigration() {
+
+    companion object {
+        private const val SCHEMA = "blockchain_api_service"
+        private const val BATCH_SIZE = 1_000
+        private const val HEX_TEXT_PATTERN = "^(0x)?([0-9a-fA-F]{2})*$"
+        private val COLUMNS = listOf(
+            Pair("contract_deployment_request", "contract_data"),
+            Pair("contract_arbitrary_call_request", "function_data"),
+            Pair("fetch_transaction_info_cache", "tx_data"),
+            Pair("contract_deployment_transaction_cache", "tx_data"),
+            Pair("contract_deployment_transaction_cache", "contract_binary")
+        )
+    }
+
+    override fun migrate(context: Context) {
+        COLUMNS.forEach { (table, column) -> convertColumn(context.connection, table, column) }
+    }
+
+    private fun convertColumn(connection: Connection, table: String, column: String) {
+        checkHexText(connection, table, column)
+
+        var lastId: UUID? = null
+
+        do {
+            val ids = selectIdBatch(connection, table, lastId)
+
+            if (ids.isNotEmpty()) {
+                convertBatch(connection, table, column, ids)
+                lastId = ids.last()
+            }
+        } while (ids.size == BATCH_SIZE)
+    }
+
+    private fun checkHexText(connection: Connection, table: String, column: String) {
+        val invalidValues = connection.prepareStatement(
+            "SELECT COUNT(*) FROM $SCHEMA.$table WHERE NOT encode($column, 'escape') ~ '$HEX_TEXT_PATTERN'"
+        ).use { statement ->
+            statement.executeQuery().use { resultSet -> if (resultSet.next()) resultSet.getLong(1) else 0L }
+        }
+
+        check(invalidValues == 0L) {
+            "Cannot convert $SCHEMA.$table.$column into raw bytes, $invalidValues values are not even-length hex text"
+        }
+    }
+
+    private fun selectIdBatch(connection: Connection, table: String, lastId: UUID?): List<UUID> =
+        connection.prepareStatement(
+            "SELECT id FROM $SCHEMA.$table WHERE CAST(? AS UUID) IS NULL OR id > ? ORDER BY id LIMIT $BATCH_SIZE"
+        ).use { statement ->
+            statement.setObject(1, lastId)
+            statement.setObject(2, lastId)
+
+            statement.executeQuery().use { resultSet ->
+                generateSequence { if (resultSet.next()) resultSet.getObject(1, UUID::class.java) else null }.toList()
+            }
+        }
+
+    private fun convertBatch(connection: Connection, table: String, column: String, ids: List<UUID>) {
+        connection.prepareStatement(
+            """
+            UPDATE $SCHEMA.$table
+            SET $column = decode(hex_value, 'hex')
+            FROM (
+                SELECT id AS batch_id, regexp_replace(encode($column, 'escape'), '^0x', '') AS hex_value
+                FROM $SCHEMA.$table
+                WHERE id = ANY(?)
+            ) AS batch
+            WHERE id = batch_id
+              AND encode($column, 'escape') ~ '$HEX_TEXT_PATTERN'
+            """.trimIndent()
+        ).use { statement ->
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toTypedArray()))
+            statement.executeUpdate()
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.config.LogScanProperties
+import dev3.blockchainapiservice.exception.BlockchainEventReadException
+import dev3.blockchainapiservice.exception.BlockchainReadException
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ContractAddress
+import mu.KLogging
+import org.web3j.protocol.Web3j
+import org.web3j.protocol.core.DefaultBlockParameter
+import org.web3j.protocol.core.methods.request.EthFilter
+import org.web3j.protocol.core.methods.response.Log
+import java.math.BigInteger
+
+/**
+ * Reads contract logs in consecutive block ranges. The range is halved whenever RPC provider rejects it and doubled
+ * (up to the configured maximum) whenever a range contains fewer logs than `sparseLogCount`.
+ */
+class AdaptiveLogScanner(private val web3j: Web3j, private val logScanProperties: LogScanProperties) {
+
+    companion object : KLogging() {
+        private val TWO = BigInteger.TWO
+
+        private sealed interface LogsResult {
+            data class Success(val logs: List<Log>) : LogsResult
+            data class Failure(val cause: Throwable) : LogsResult
+        }
+    }
+
+    fun scan(
+        contractAddress: ContractAddress,
+        topic: String,
+        fromBlock: BlockNumber,
+        toBlock: BlockNumber,
+        onChunk: (chunkEndBlock: BlockNumber, logs: List<Log>) -> Unit
+    ) {
+        val maxBlockRange = BigInteger.valueOf(logScanProperties.maxBlockRange).max(BigInteger.ONE)
+        var blockRange = BigInteger.valueOf(logScanProperties.initialBlockRange).max(BigInteger.ONE).min(maxBlockRange)
+        var chunkStartBlock = fromBlock.value
+
+        while (chunkStartBlock <= toBlock.value) {
+            val chunkEndBlock = (chunkStartBlock + blockRange - BigInteger.ONE).min(toBlock.value)
+            val chunkSize = chunkEndBlock - chunkStartBlock + BigInteger.ONE
+
+            when (val result = fetchLogs(contractAddress, topic, chunkStartBlock, chunkEndBlock)) {
+                is LogsResult.Success -> {
+                    onChunk(BlockNumber(chunkEndBlock), result.logs)
+                    chunkStartBlock = chunkEndBlock + BigInteger.ONE
+
+                    if (result.logs.size < logScanProperties.sparseLogCount) {
+                        blockRange = (blockRange * TWO).min(maxBlockRange)
+                    }
+                }
+
+                is LogsResult.Failure -> {
+                    if (chunkSize <= BigInteger.ONE) {
+                        throw BlockchainEventReadException(
+                            "Unable to read logs for contract: $contractAddress at block: $chunkStartBlock",
+                            result.cause
+                        )
+                    }
+
+                    blockRange = (chunkSize / TWO).max(BigInteger.ONE)
+                    logger.debug {
+                        "Shrinking log scan block range to $blockRange blocks for contract: $contractAddress," +
+                            " fromBlock: $chunkStartBlock"
+                    }
+                }
+            }
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun fetchLogs(
+        contractAddress: ContractAddress,
+        topic: String,
+        fromBlock: BigInteger,
+        toBlock: BigInteger
+    ): LogsResult =
+        try {
+            val filter = EthFilter(
+                DefaultBlockParameter.valueOf(fromBlock),
+                DefaultBlockParameter.valueOf(toBlock),
+                contractAddress.rawValue
+            ).addSingleTopic(topic)
+            val response = web3j.ethGetLogs(filter).send()
+
+            if (response.hasError()) {
+                logger.warn { "Failed to fetch logs from block: $fromBlock to: $toBlock: ${response.error.message}" }
+                LogsResult.Failure(BlockchainReadException(response.error.message))
+            } else {
+                LogsResult.Success(response.logs.mapNotNull { it.get() as? Log })
+            }
+        } catch (ex: Exception) {
+            logger.warn { "Failed to fetch logs from block: $fromBlock to: $toBlock: ${ex.message}" }
+            LogsResult.Failure(ex)
+        }
+}
@@ -0,0 +1,150 @@
+package dev3.blockchainapiservice.blockchain
+
+import com.fasterxml.jackson.databind.JsonNode
+import mu.KLogging
+import okhttp3.OkHttpClient
+import org.web3j.protocol.core.Request
+import org.web3j.protocol.core.Response
+import org.web3j.protocol.http.HttpService
+import org.web3j.utils.Async
+import java.io.IOException
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * HTTP service which collects all requests issued within `batchWindow` (across all callers) and sends them as a
+ * single JSON-RPC batch request. The first request of each batch elects its caller as the batch leader, which waits
+ * for the window to pass (or for the batch to fill up) and then executes the batch on behalf of all other callers,
+ * so no additional dispatcher threads are needed.
+ */
+class BatchingHttpService(
+    url: String,
+    httpClient: OkHttpClient,
+    private val batchWindow: Duration,
+    private val maxBatchSize: Int
+) : HttpService(url, httpClient) {
+
+    companion object : KLogging() {
+        private class PendingRequest<T : Response<*>>(
+            val request: Request<*, *>,
+            val responseType: Class<T>,
+            val future: CompletableFuture<T> = CompletableFuture()
+        ) {
+            @Suppress("TooGenericExceptionCaught")
+            fun completeWith(response: () -> T) {
+                try {
+                    future.complete(response())
+                } catch (ex: Exception) {
+                    future.completeExceptionally(ex)
+                }
+            }
+        }
+    }
+
+    constructor(url: String, batchWindow: Duration, maxBatchSize: Int) :
+        this(url, HttpService.getOkHttpClientBuilder().build(), batchWindow, maxBatchSize)
+
+    private val lock = ReentrantLock()
+    private val batchFull = lock.newCondition()
+    private var pending = ArrayList<PendingRequest<*>>()
+
+    override fun <T : Response<*>> send(request: Request<*, *>, responseType: Class<T>): T {
+        val (pendingRequest, isLeader) = enqueue(request, responseType)
+
+        if (isLeader) {
+            dispatch()
+        }
+
+        return try {
+            pendingRequest.future.get()
+        } catch (ex: ExecutionException) {
+            throw ex.cause as? IOException ?: IOException("Failed JSON-RPC batch request", ex.cause)
+        }
+    }
+
+    override fun <T : Response<*>> sendAsync(request: Request<*, *>, responseType: Class<T>): CompletableFuture<T> {
+        val (pendingRequest, isLeader) = enqueue(request, responseType)
+
+        if (isLeader) {
+            Async.run { dispatch() }
+        }
+
+        return pendingRequest.future
+    }
+
+    private fun <T : Response<*>> enqueue(
+        request: Request<*, *>,
+        responseType: Class<T>
+    ): Pair<PendingRequest<T>, Boolean> {
+        val pendingRequest = PendingRequest(request, responseType)
+
+        val isLeader = lock.withLock {
+            pending.add(pendingRequest)
+
+            if (pending.size >= maxBatchSize) {
+                batchFull.signalAll()
+            }
+
+            pending.size == 1
+        }
+
+        return Pair(pendingRequest, isLeader)
+    }
+
+    private fun dispatch() {
+        val batch = lock.withLock {
+            var remainingNanos = batchWindow.toNanos()
+
+            while (pending.size < maxBatchSize && remainingNanos > 0L) {
+                remainingNanos = batchFull.awaitNanos(remainingNanos)
+            }
+
+            pending.also { pending = ArrayList() }
+        }
+
+        batch.chunked(maxBatchSize).forEach { sendChunk(it) }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun sendChunk(chunk: List<PendingRequest<*>>) {
+        if (chunk.size == 1) {
+            chunk[0].sendSingle()
+            return
+        }
+
+        logger.debug { "Sending JSON-RPC batch request of size: ${chunk.size}" }
+
+        val responsesById = try {
+            val payload = objectMapper.writeValueAsString(chunk.map { it.request })
+            val responseNode = performIO(payload)?.use { objectMapper.readTree(it) }
+                ?: throw IOException("Empty JSON-RPC batch response")
+
+            if (responseNode.isArray.not()) {
+                throw IOException("Invalid JSON-RPC batch response: $responseNode")
+            }
+
+            responseNode.associateBy { it.path("id").asLong() }
+        } catch (ex: Exception) {
+            logger.warn(ex) { "Failed JSON-RPC batch request of size: ${chunk.size}" }
+            chunk.forEach { it.future.completeExceptionally(ex) }
+            return
+        }
+
+        chunk.forEach { it.completeFrom(responsesById) }
+    }
+
+    private fun <T : Response<*>> PendingRequest<T>.sendSingle() =
+        completeWith { sendUnbatched(request, responseType) }
+
+    private fun <T : Response<*>> PendingRequest<T>.completeFrom(responsesById: Map<Long, JsonNode>) =
+        completeWith {
+            responsesById[request.id]?.let { objectMapper.treeToValue(it, responseType) }
+                ?: throw IOException("Missing JSON-RPC batch response for request with id: ${request.id}")
+        }
+
+    private fun <T : Response<*>> sendUnbatched(request: Request<*, *>, responseType: Class<T>): T =
+        super.send(request, responseType)
+}
@@ -5,8 +5,10 @@ import dev3.blockchainapiservice.features.contract.readcall.model.params.Execute
 import dev3.blockchainapiservice.features.contract.readcall.model.result.ReadonlyFunctionCallResult
 import dev3.blockchainapiservice.features.payout.model.params.GetPayoutsForInvestorParams
 import dev3.blockchainapiservice.features.payout.model.result.PayoutForInvestor
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
 import dev3.blockchainapiservice.features.payout.util.PayoutAccountBalance
 import dev3.blockchainapiservice.model.DeserializableEvent
+import dev3.blockchainapiservice.model.params.RawEthCallParams
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.model.result.ContractDeploymentTransactionInfo
 import dev3.blockchainapiservice.util.AccountBalance
@@ -45,12 +47,24 @@ interface BlockchainService {
         events: List<DeserializableEvent>
     ): BlockchainTransactionInfo?
 
+    fun fetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        events: List<DeserializableEvent>
+    ): Map<TransactionHash, BlockchainTransactionInfo>
+
     fun callReadonlyFunction(
         chainSpec: ChainSpec,
         params: ExecuteReadonlyFunctionCallParams,
         blockParameter: BlockParameter = BlockName.LATEST
     ): ReadonlyFunctionCallResult
 
+    fun executeEthCalls(
+        chainSpec: ChainSpec,
+        calls: List<RawEthCallParams>,
+        blockParameter: BlockParameter = BlockName.LATEST
+    ): List<String?>
+
     fun findContractDeploymentTransaction(
         chainSpec: ChainSpec,
         contractAddress: ContractAddress,
@@ -62,7 +76,8 @@ interface BlockchainService {
         erc20ContractAddress: ContractAddress,
         ignoredErc20Addresses: Set<WalletAddress>,
         startBlock: BlockNumber?,
-        endBlock: BlockNumber
+        endBlock: BlockNumber,
+        holderScanCheckpoint: HolderScanCheckpoint = HolderScanCheckpoint.None
     ): List<PayoutAccountBalance>
 
     fun getPayoutsForInvestor(chainSpec: ChainSpec, params: GetPayoutsForInvestorParams): List<PayoutForInvestor>
@@ -0,0 +1,128 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.config.ChainHeadTrackerProperties
+import dev3.blockchainapiservice.exception.TemporaryBlockchainReadException
+import dev3.blockchainapiservice.model.result.BlockHeader
+import io.micrometer.core.instrument.util.NamedThreadFactory
+import mu.KLogging
+import org.web3j.protocol.Web3j
+import org.web3j.protocol.core.DefaultBlockParameterName
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Keeps track of the latest block of each used chain by polling it in the background, so that request threads can
+ * read the current chain head without waiting for RPC calls. Only the first request for some chain, or a request made
+ * after polling has been failing for a while, fetches the chain head inline. Chains which are no longer requested stop
+ * being tracked after `idleTimeout`.
+ */
+class ChainHeadTracker(
+    private val chainHeadTrackerProperties: ChainHeadTrackerProperties,
+    private val nanoTime: () -> Long = System::nanoTime
+) : AutoCloseable {
+
+    companion object : KLogging() {
+        private const val STALE_HEAD_POLL_INTERVALS = 10L
+    }
+
+    private data class TrackedHead(val head: BlockHeader, val updatedAt: Long)
+
+    private class TrackedChain(@Volatile var web3j: Web3j, pollInterval: Duration, now: Long) {
+        val pollIntervalNanos = pollInterval.toNanos()
+        val head = AtomicReference<TrackedHead?>(null)
+
+        @Volatile
+        var lastAccessedAt = now
+
+        @Volatile
+        var pollTask: ScheduledFuture<*>? = null
+
+        fun currentHead(now: Long): BlockHeader? =
+            head.get()?.takeIf { now - it.updatedAt < pollIntervalNanos * STALE_HEAD_POLL_INTERVALS }?.head
+
+        fun update(newHead: BlockHeader, now: Long): BlockHeader =
+            head.accumulateAndGet(TrackedHead(newHead, now)) { current, new ->
+                // chain head must not go backwards when some RPC endpoint returns an older block
+                if (current != null && current.head.blockNumber.value > new.head.blockNumber.value) {
+                    current.copy(updatedAt = new.updatedAt)
+                } else {
+                    new
+                }
+            }!!.head
+    }
+
+    private val trackedChains = ConcurrentHashMap<ChainSpec, TrackedChain>()
+    private val scheduler = Executors.newScheduledThreadPool(
+        chainHeadTrackerProperties.parallelism,
+        NamedThreadFactory("chain-head-tracker")
+    )
+
+    fun getHead(chainSpec: ChainSpec, web3j: Web3j, pollInterval: Duration): BlockHeader {
+        if (pollInterval.isZero) {
+            return fetchHead(web3j)
+        }
+
+        val now = nanoTime()
+        val trackedChain = trackedChains.computeIfAbsent(chainSpec) { TrackedChain(web3j, pollInterval, now) }
+
+        trackedChain.web3j = web3j
+        trackedChain.lastAccessedAt = now
+
+        return trackedChain.currentHead(now) ?: refreshInline(chainSpec, trackedChain)
+    }
+
+    override fun close() = scheduler.shutdown()
+
+    private fun refreshInline(chainSpec: ChainSpec, trackedChain: TrackedChain): BlockHeader =
+        synchronized(trackedChain) {
+            // some other request may have already refreshed the chain head
+            trackedChain.currentHead(nanoTime()) ?: trackedChain.update(fetchHead(trackedChain.web3j), nanoTime())
+                .also {
+                    if (trackedChain.pollTask == null) {
+                        logger.debug { "Starting chain head tracking for chain: ${chainSpec.chainId}" }
+                        trackedChain.pollTask = scheduler.scheduleWithFixedDelay(
+                            { poll(chainSpec, trackedChain) },
+                            trackedChain.pollIntervalNanos,
+                            trackedChain.pollIntervalNanos,
+                            TimeUnit.NANOSECONDS
+                        )
+                    }
+                }
+        }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun poll(chainSpec: ChainSpec, trackedChain: TrackedChain) {
+        if (nanoTime() - trackedChain.lastAccessedAt > chainHeadTrackerProperties.idleTimeout.toNanos()) {
+            logger.debug { "Stopping chain head tracking for idle chain: ${chainSpec.chainId}" }
+            trackedChains.remove(chainSpec, trackedChain)
+            trackedChain.pollTask?.cancel(false)
+            return
+        }
+
+        try {
+            trackedChain.update(fetchHead(trackedChain.web3j), nanoTime())
+        } catch (ex: Exception) {
+            // exceptions must not escape, otherwise no further polling would be scheduled
+            logger.warn { "Unable to update chain head for chain: ${chainSpec.chainId}, reason: ${ex.message}" }
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun fetchHead(web3j: Web3j): BlockHeader {
+        val block = try {
+            web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send()
+                ?.takeIf { it.hasError().not() }
+                ?.block
+        } catch (ex: Exception) {
+            logger.warn("Failed blockchain call", ex)
+            throw TemporaryBlockchainReadException(ex)
+        }
+
+        return BlockHeader.from(block) ?: throw TemporaryBlockchainReadException()
+    }
+}
@@ -0,0 +1,328 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.config.RpcFailoverProperties
+import io.micrometer.core.instrument.util.NamedThreadFactory
+import io.reactivex.Flowable
+import mu.KLogging
+import org.web3j.protocol.Web3jService
+import org.web3j.protocol.core.BatchRequest
+import org.web3j.protocol.core.BatchResponse
+import org.web3j.protocol.core.DefaultBlockParameterName
+import org.web3j.protocol.core.Request
+import org.web3j.protocol.core.Response
+import org.web3j.protocol.core.methods.response.EthBlock
+import org.web3j.protocol.core.methods.response.EthBlockNumber
+import org.web3j.protocol.websocket.events.Notification
+import org.web3j.utils.Async
+import java.io.IOException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * JSON-RPC service which routes requests of a single chain to multiple RPC endpoints. Endpoints are ranked by their
+ * health score (average latency, penalized by consecutive failures) and an endpoint which keeps failing is skipped for
+ * a cooldown period, so requests fail over to the next endpoint. Transport failures and retryable JSON-RPC errors
+ * (internal errors, rate limits, unavailable state) count as endpoint failures.
+ *
+ * Read requests are hedged: when the first attempt does not complete within `hedgeDelay`, the request is also sent to
+ * the next endpoint on a bounded executor owned by this service. Both attempts run concurrently and the first
+ * successful response is returned, so a slow endpoint costs at most `hedgeDelay` plus the latency of the next one. The
+ * request fails only when both attempts fail.
+ *
+ * Chain head responses lower than the highest block number seen so far are rejected, so the chain head never goes
+ * backwards when requests are moved to a lagging endpoint. Reads are routed to endpoints known to be at the highest
+ * seen head first, and empty transaction or block lookups from an endpoint which is not known to be at that head are
+ * retried on the next endpoint, since the data may simply not be there yet.
+ */
+class FailoverHttpService(
+    private val endpoints: List<Endpoint>,
+    private val properties: RpcFailoverProperties,
+    private val nanoTime: () -> Long = System::nanoTime
+) : Web3jService {
+
+    companion object : KLogging() {
+        private val HEDGED_METHODS = setOf(
+            "eth_blockNumber",
+            "eth_call",
+            "eth_chainId",
+            "eth_estimateGas",
+            "eth_getBalance",
+            "eth_getBlockByHash",
+            "eth_getBlockByNumber",
+            "eth_getCode",
+            "eth_getLogs",
+            "eth_getStorageAt",
+            "eth_getTransactionByHash",
+            "eth_getTransactionReceipt",
+            "net_version"
+        )
+        private val CHAIN_STATE_LOOKUP_METHODS = setOf(
+            "eth_getBlockByHash",
+            "eth_getBlockByNumber",
+            "eth_getTransactionByHash",
+            "eth_getTransactionReceipt"
+        )
+        private val RETRYABLE_ERROR_CODES = setOf(
+            -32603, // internal error
+            -32005, // limit exceeded
+            -32002, // resource unavailable
+            429 // too many requests
+        )
+        private val RETRYABLE_ERROR_MESSAGE = Regex(
+            "rate limit|too many requests|header not found|missing trie node|timeout|timed out|unavailable",
+            RegexOption.IGNORE_CASE
+        )
+    }
+
+    class Endpoint(val name: String, val service: Web3jService) {
+
+        companion object {
+            private const val LATENCY_SMOOTHING_FACTOR = 0.2
+        }
+
+        private val consecutiveFailures = AtomicInteger(0)
+        internal val observedHead = AtomicLong(-1L)
+
+        @Volatile
+        private var averageLatencyNanos = 0.0
+
+        @Volatile
+        private var lastFailureAt = 0L
+
+        internal fun isAvailable(now: Long, properties: RpcFailoverProperties): Boolean =
+            consecutiveFailures.get() < properties.failureThreshold ||
+                now - lastFailureAt >= properties.cooldown.toNanos()
+
+        internal fun score(): Double = averageLatencyNanos * (1 + consecutiveFailures.get())
+
+        @Suppress("TooGenericExceptionCaught")
+        internal fun <R> call(nanoTime: () -> Long, action: (Web3jService) -> R): R {
+            val startedAt = nanoTime()
+
+            val result = try {
+                action(service)
+            } catch (ex: Exception) {
+                lastFailureAt = nanoTime()
+                consecutiveFailures.incrementAndGet()
+                throw ex as? IOException ?: IOException("RPC request to endpoint $name failed", ex)
+            }
+
+            val latency = (nanoTime() - startedAt).toDouble()
+            val average = averageLatencyNanos
+
+            averageLatencyNanos =
+                if (average == 0.0) latency else average + LATENCY_SMOOTHING_FACTOR * (latency - average)
+            consecutiveFailures.set(0)
+
+            return result
+        }
+    }
+
+    /**
+     * Response which was received, but should not be used when some other endpoint can provide a better one. It is
+     * still returned when all endpoints fail, so that callers see the original JSON-RPC response.
+     */
+    private class RejectedResponseException(message: String, val response: Response<*>) : IOException(message)
+
+    private val highestHead = AtomicLong(-1L)
+    private val hedgeExecutor = ScheduledThreadPoolExecutor(
+        properties.maxHedgedRequests,
+        NamedThreadFactory("rpc-hedged-request")
+    ).apply { removeOnCancelPolicy = true }
+    private val requestExecutor = Executors.newCachedThreadPool(NamedThreadFactory("rpc-request"))
+
+    override fun <T : Response<*>> send(request: Request<*, *>, responseType: Class<T>): T {
+        val rankedEndpoints = rankedEndpoints()
+        val shouldHedge = request.method in HEDGED_METHODS && properties.hedgeDelay.isZero.not()
+
+        return if (shouldHedge && rankedEndpoints.size > 1) {
+            sendHedged(rankedEndpoints) { it.sendAndCheck(request, responseType) }
+        } else {
+            sendWithFailover(rankedEndpoints) { it.sendAndCheck(request, responseType) }
+        }
+    }
+
+    override fun <T : Response<*>> sendAsync(request: Request<*, *>, responseType: Class<T>): CompletableFuture<T> =
+        Async.run { send(request, responseType) }
+
+    override fun sendBatch(batchRequest: BatchRequest): BatchResponse =
+        sendWithFailover(rankedEndpoints()) { endpoint -> endpoint.call(nanoTime) { it.sendBatch(batchRequest) } }
+
+    override fun sendBatchAsync(batchRequest: BatchRequest): CompletableFuture<BatchResponse> =
+        Async.run { sendBatch(batchRequest) }
+
+    override fun <T : Notification<*>> subscribe(
+        request: Request<*, *>,
+        unsubscribeMethod: String,
+        responseType: Class<T>
+    ): Flowable<T> = throw UnsupportedOperationException("Subscriptions are not supported by FailoverHttpService")
+
+    override fun close() {
+        hedgeExecutor.shutdownNow()
+        requestExecutor.shutdownNow()
+        endpoints.forEach { it.service.close() }
+    }
+
+    /**
+     * Available endpoints come first, followed by endpoints which are not known to lag behind the highest seen chain
+     * head, and endpoints with better score are preferred among those. Unavailable endpoints are still kept as the last
+     * resort.
+     */
+    private fun rankedEndpoints(): List<Endpoint> {
+        val now = nanoTime()
+        val head = highestHead.get()
+
+        return endpoints.sortedWith(
+            compareBy<Endpoint> { it.isAvailable(now, properties).not() }
+                .thenBy { it.observedHead.get() < head }
+                .thenBy { it.score() }
+        )
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun <R> sendWithFailover(
+        rankedEndpoints: List<Endpoint>,
+        previouslyRejected: RejectedResponseException? = null,
+        send: (Endpoint) -> R
+    ): R {
+        var rejected = previouslyRejected
+        var lastException: IOException? = previouslyRejected
+
+        for (endpoint in rankedEndpoints) {
+            try {
+                return send(endpoint)
+            } catch (ex: IOException) {
+                logger.warn { "RPC request to endpoint ${endpoint.name} failed: ${ex.message}" }
+                rejected = rejected ?: ex as? RejectedResponseException
+                lastException = ex
+            }
+        }
+
+        return rejected?.response as R? ?: throw lastException ?: IOException("No RPC endpoints configured")
+    }
+
+    private fun <R> sendHedged(rankedEndpoints: List<Endpoint>, send: (Endpoint) -> R): R {
+        val remainingEndpoints = rankedEndpoints.drop(1)
+        val response = CompletableFuture<R>()
+        val hedgedAttempt = CompletableFuture<R>()
+        val hedgedRequest = hedgeExecutor.schedule(
+            {
+                // hedged request is not needed anymore if the first attempt has succeeded in the meantime
+                if (response.isDone.not()) {
+                    logger.debug { "Sending hedged RPC request to endpoint: ${remainingEndpoints.first().name}" }
+                    hedgedAttempt.completeWith { sendWithFailover(remainingEndpoints, send = send) }
+                }
+            },
+            properties.hedgeDelay.toNanos(),
+            TimeUnit.NANOSECONDS
+        )
+        val firstAttempt = CompletableFuture.supplyAsync({ send(rankedEndpoints.first()) }, requestExecutor)
+
+        firstAttempt.whenComplete { result, ex ->
+            if (ex == null) {
+                hedgedRequest.cancel(false)
+                response.complete(result)
+            } else {
+                logger.warn { "RPC request to endpoint ${rankedEndpoints.first().name} failed: ${ex.unwrap().message}" }
+
+                // when the hedged request was not started yet, the remaining endpoints are tried right away
+                if (hedgedRequest.cancel(false)) {
+                    val rejected = ex.unwrap() as? RejectedResponseException
+                    hedgedAttempt.completeWith { sendWithFailover(remainingEndpoints, rejected, send) }
+                }
+            }
+        }
+
+        // the first successful attempt wins, the request fails only when both attempts have failed
+        hedgedAttempt.whenComplete { result, ex ->
+            if (ex == null) {
+                response.complete(result)
+            } else {
+                firstAttempt.whenComplete { _, firstEx -> firstEx?.let { response.completeWithFailure(it, ex) } }
+            }
+        }
+
+        return try {
+            response.get()
+        } catch (ex: ExecutionException) {
+            throw ex.cause as? IOException ?: IOException("Hedged request failed", ex.cause)
+        }
+    }
+
+    /**
+     * Rejected response of the first attempt is still preferred over failure of the hedged attempt, so that callers
+     * see the original JSON-RPC response.
+     */
+    @Suppress("UNCHECKED_CAST")
+    private fun <R> CompletableFuture<R>.completeWithFailure(firstAttemptEx: Throwable, hedgedAttemptEx: Throwable) {
+        val rejected = firstAttemptEx.unwrap() as? RejectedResponseException
+
+        if (rejected != null) {
+            complete(rejected.response as R)
+        } else {
+            completeExceptionally(hedgedAttemptEx.unwrap())
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun <R> CompletableFuture<R>.completeWith(action: () -> R) {
+        try {
+            complete(action())
+        } catch (ex: Throwable) {
+            completeExceptionally(ex)
+        }
+    }
+
+    private fun Throwable.unwrap(): Throwable = (this as? CompletionException)?.cause ?: this
+
+    private fun <T : Response<*>> Endpoint.sendAndCheck(request: Request<*, *>, responseType: Class<T>): T {
+        val response = call(nanoTime) { service ->
+            service.send(request, responseType).also { it.checkRetryableError(name) }
+        }
+        val head = when {
+            response.hasError() -> null
+            response is EthBlockNumber -> response.blockNumber
+            response is EthBlock && request.params.firstOrNull() == DefaultBlockParameterName.LATEST.value ->
+                response.block?.number
+            else -> null
+        }?.toLong()
+
+        if (head != null) {
+            observedHead.accumulateAndGet(head, ::maxOf)
+
+            val highest = highestHead.accumulateAndGet(head, ::maxOf)
+
+            if (head < highest) {
+                throw IOException("RPC endpoint $name is lagging behind, head: $head, highest seen head: $highest")
+            }
+        } else if (request.method in CHAIN_STATE_LOOKUP_METHODS && response.isEmpty() && isBehindHighestHead()) {
+            throw RejectedResponseException("RPC endpoint $name returned empty result behind chain head", response)
+        }
+
+        return response
+    }
+
+    private fun Endpoint.isBehindHighestHead(): Boolean = observedHead.get() < highestHead.get()
+
+    private fun Response<*>.isEmpty(): Boolean = hasError().not() && result == null
+
+    private fun Response<*>.checkRetryableError(endpointName: String) {
+        val error = error ?: return
+        val message = error.message.orEmpty()
+        val isRetryable = message.contains("revert", ignoreCase = true).not() &&
+            (error.code in RETRYABLE_ERROR_CODES || RETRYABLE_ERROR_MESSAGE.containsMatchIn(message))
+
+        if (isRetryable) {
+            throw RejectedResponseException(
+                "RPC endpoint $endpointName returned retryable error: ${error.code} $message",
+                this
+            )
+        }
+    }
+}
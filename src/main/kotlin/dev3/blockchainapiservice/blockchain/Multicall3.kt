@@ -0,0 +1,69 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.features.contract.abi.model.BoolType
+import dev3.blockchainapiservice.features.contract.abi.model.DynamicArrayType
+import dev3.blockchainapiservice.features.contract.abi.model.DynamicBytesType
+import dev3.blockchainapiservice.features.contract.abi.model.Tuple
+import dev3.blockchainapiservice.features.contract.abi.model.TupleType
+import dev3.blockchainapiservice.model.params.RawEthCallParams
+import dev3.blockchainapiservice.util.FunctionData
+import java.math.BigInteger
+
+/**
+ * Encoding for `aggregate3((address target, bool allowFailure, bytes callData)[])` of the Multicall3 contract.
+ * All calls are encoded with `allowFailure = true`, so that a single reverted call does not fail the whole batch.
+ */
+object Multicall3 {
+
+    private const val AGGREGATE_3_SELECTOR = "82ad56cb"
+    private const val BYTES_PER_VALUE = 32
+    private const val VALUE_LENGTH = BYTES_PER_VALUE * 2
+    private const val HEX_RADIX = 16
+    private const val TUPLE_HEAD_VALUES = 4
+    private const val BYTES_OFFSET_IN_TUPLE = 3 * BYTES_PER_VALUE
+
+    val RETURN_TYPES = listOf(DynamicArrayType(TupleType(BoolType, DynamicBytesType)))
+
+    fun encodeAggregate3(calls: List<RawEthCallParams>): FunctionData {
+        val encodedTuples = calls.map { it.encodeTuple() }
+        val offsets = encodedTuples.runningFold(calls.size * BYTES_PER_VALUE) { offset, tuple ->
+            offset + tuple.length / 2
+        }.dropLast(1)
+
+        val encoded = StringBuilder(AGGREGATE_3_SELECTOR)
+            .append(BYTES_PER_VALUE.encodeValue())
+            .append(calls.size.encodeValue())
+
+        offsets.forEach { encoded.append(it.encodeValue()) }
+        encodedTuples.forEach { encoded.append(it) }
+
+        return FunctionData(encoded.toString())
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    fun decodeAggregate3Result(decodedValues: List<Any>): List<String?> =
+        (decodedValues.first() as List<Tuple>).map { tuple ->
+            val success = tuple.elems[0] as Boolean
+            val returnData = tuple.elems[1] as ByteArray
+
+            if (success && returnData.isNotEmpty()) {
+                returnData.joinToString(separator = "", prefix = "0x") { "%02x".format(it) }
+            } else null
+        }
+
+    private fun RawEthCallParams.encodeTuple(): String {
+        val callData = functionData.withoutPrefix
+        val callDataLength = callData.length / 2
+        val paddedCallDataLength = (callData.length + VALUE_LENGTH - 1) / VALUE_LENGTH * VALUE_LENGTH
+
+        return StringBuilder(TUPLE_HEAD_VALUES * VALUE_LENGTH + paddedCallDataLength)
+            .append(contractAddress.rawValue.removePrefix("0x").padStart(VALUE_LENGTH, '0'))
+            .append(1.encodeValue())
+            .append(BYTES_OFFSET_IN_TUPLE.encodeValue())
+            .append(callDataLength.encodeValue())
+            .append(callData.padEnd(paddedCallDataLength, '0'))
+            .toString()
+    }
+
+    private fun Int.encodeValue(): String = BigInteger.valueOf(toLong()).toString(HEX_RADIX).padStart(VALUE_LENGTH, '0')
+}
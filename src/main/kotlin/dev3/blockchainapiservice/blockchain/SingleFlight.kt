@@ -0,0 +1,64 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Coalesces identical blockchain reads which are in flight at the same time. The first caller for some
+ * `(chainSpec, method, params)` key executes the read on its own thread, while concurrent callers with the same key
+ * wait for and share its result (or exception). The key is released as soon as the read completes, so results are
+ * never reused for reads which start afterwards - caching is left to the caller.
+ */
+class SingleFlight(meterRegistry: MeterRegistry) {
+
+    private data class Key(val chainSpec: ChainSpec, val method: String, val params: List<Any?>)
+
+    private val inFlight = ConcurrentHashMap<Key, CompletableFuture<Any?>>()
+    private val executedReads = Counter.builder("web3j.single.flight.reads")
+        .tag("result", "executed")
+        .description("Number of blockchain reads which were executed")
+        .register(meterRegistry)
+    private val coalescedReads = Counter.builder("web3j.single.flight.reads")
+        .tag("result", "coalesced")
+        .description("Number of blockchain reads which shared the result of an identical in-flight read")
+        .register(meterRegistry)
+
+    init {
+        Gauge.builder("web3j.single.flight.in.flight", inFlight) { it.size.toDouble() }
+            .description("Number of distinct blockchain reads currently in flight")
+            .register(meterRegistry)
+    }
+
+    @Suppress("TooGenericExceptionCaught", "UNCHECKED_CAST")
+    fun <T> execute(chainSpec: ChainSpec, method: String, params: List<Any?>, read: () -> T): T {
+        val key = Key(chainSpec, method, params)
+        val future = CompletableFuture<Any?>()
+        val existingFuture = inFlight.putIfAbsent(key, future)
+
+        if (existingFuture != null) {
+            coalescedReads.increment()
+
+            return try {
+                existingFuture.join() as T
+            } catch (ex: CompletionException) {
+                throw ex.cause ?: ex
+            }
+        }
+
+        executedReads.increment()
+
+        try {
+            return read().also { future.complete(it) }
+        } catch (ex: Throwable) {
+            future.completeExceptionally(ex)
+            throw ex
+        } finally {
+            inFlight.remove(key, future)
+        }
+    }
+}
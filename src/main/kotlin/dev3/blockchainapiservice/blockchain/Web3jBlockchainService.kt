@@ -1,25 +1,30 @@
 package dev3.blockchainapiservice.blockchain
 
 import dev3.blockchainapiservice.blockchain.properties.ChainPropertiesHandler
+import dev3.blockchainapiservice.blockchain.properties.ChainPropertiesWithServices
 import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.config.ApplicationProperties
 import dev3.blockchainapiservice.exception.AbiDecodingException
-import dev3.blockchainapiservice.exception.BlockchainEventReadException
 import dev3.blockchainapiservice.exception.BlockchainReadException
 import dev3.blockchainapiservice.exception.TemporaryBlockchainReadException
 import dev3.blockchainapiservice.features.contract.abi.model.StaticBytesType
+import dev3.blockchainapiservice.features.contract.abi.model.UintType
 import dev3.blockchainapiservice.features.contract.abi.service.AbiDecoderService
 import dev3.blockchainapiservice.features.contract.readcall.model.params.ExecuteReadonlyFunctionCallParams
 import dev3.blockchainapiservice.features.contract.readcall.model.result.ReadonlyFunctionCallResult
 import dev3.blockchainapiservice.features.payout.model.params.GetPayoutsForInvestorParams
 import dev3.blockchainapiservice.features.payout.model.result.PayoutForInvestor
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
 import dev3.blockchainapiservice.features.payout.util.PayoutAccountBalance
 import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentTransactionCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchErc20AccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
 import dev3.blockchainapiservice.model.DeserializableEvent
+import dev3.blockchainapiservice.model.DeserializableEvents
 import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.params.RawEthCallParams
+import dev3.blockchainapiservice.model.result.BlockHeader
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.model.result.ContractBinaryInfo
 import dev3.blockchainapiservice.model.result.ContractDeploymentTransactionInfo
@@ -28,11 +33,12 @@ import dev3.blockchainapiservice.model.result.EventArgumentValue
 import dev3.blockchainapiservice.model.result.EventInfo
 import dev3.blockchainapiservice.model.result.FullContractDeploymentTransactionInfo
 import dev3.blockchainapiservice.repository.Web3jBlockchainServiceCacheRepository
-import dev3.blockchainapiservice.service.UtcDateTimeProvider
 import dev3.blockchainapiservice.service.UuidProvider
 import dev3.blockchainapiservice.util.AccountBalance
+import dev3.blockchainapiservice.util.AddressSet
 import dev3.blockchainapiservice.util.Balance
 import dev3.blockchainapiservice.util.BinarySearch
+import dev3.blockchainapiservice.util.BlockName
 import dev3.blockchainapiservice.util.BlockNumber
 import dev3.blockchainapiservice.util.BlockParameter
 import dev3.blockchainapiservice.util.ContractAddress
@@ -46,35 +52,46 @@ import dev3.blockchainapiservice.util.WalletAddress
 import dev3.blockchainapiservice.util.ZeroAddress
 import dev3.blockchainapiservice.util.bind
 import dev3.blockchainapiservice.util.shortCircuiting
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.util.NamedThreadFactory
 import mu.KLogging
+import org.springframework.beans.factory.DisposableBean
 import org.springframework.stereotype.Service
+import org.web3j.abi.EventEncoder
+import org.web3j.abi.FunctionEncoder
+import org.web3j.abi.datatypes.Function
 import org.web3j.protocol.Web3j
 import org.web3j.protocol.core.DefaultBlockParameter
-import org.web3j.protocol.core.DefaultBlockParameterName
 import org.web3j.protocol.core.RemoteFunctionCall
 import org.web3j.protocol.core.Request
 import org.web3j.protocol.core.Response
 import org.web3j.protocol.core.methods.request.Transaction
 import org.web3j.protocol.core.methods.response.EthBlock
+import org.web3j.protocol.core.methods.response.Log
 import org.web3j.protocol.core.methods.response.TransactionReceipt
 import org.web3j.tx.ReadonlyTransactionManager
 import org.web3j.tx.gas.DefaultGasProvider
 import java.math.BigInteger
 import java.time.Duration
-import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 
 @Service
 @Suppress("TooManyFunctions")
 class Web3jBlockchainService(
     private val abiDecoderService: AbiDecoderService,
     private val uuidProvider: UuidProvider,
-    private val utcDateTimeProvider: UtcDateTimeProvider,
     private val web3jBlockchainServiceCacheRepository: Web3jBlockchainServiceCacheRepository,
-    applicationProperties: ApplicationProperties
-) : BlockchainService {
+    applicationProperties: ApplicationProperties,
+    meterRegistry: MeterRegistry
+) : BlockchainService, DisposableBean {
 
     companion object : KLogging() {
         private const val ETH_VALUE_LENGTH = 64
+        private val TRANSFER_EVENT_TOPIC = EventEncoder.encode(IERC20.TRANSFER_EVENT)
         private val BYTES_32 = StaticBytesType(32)
 
         private data class BlockDescriptor(
@@ -82,18 +99,24 @@ class Web3jBlockchainService(
             val blockConfirmations: BigInteger,
             val timestamp: UtcDateTime
         )
-
-        private data class CachedBlockNumber(
-            val blockNumber: BlockNumber,
-            val cachedAt: UtcDateTime
-        ) {
-            fun shouldInvalidate(now: UtcDateTime, cacheDuration: Duration) =
-                (cachedAt.value + cacheDuration).isBefore(now.value)
-        }
     }
 
-    private val chainHandler = ChainPropertiesHandler(applicationProperties)
-    private val latestBlockCache = ConcurrentHashMap<ChainSpec, CachedBlockNumber>()
+    private val chainHandler = ChainPropertiesHandler(applicationProperties, meterRegistry)
+    private val chainHeadTracker = ChainHeadTracker(applicationProperties.chainHeadTracker)
+    private val singleFlight = SingleFlight(meterRegistry)
+    private val transactionInfoExecutorService = Executors.newFixedThreadPool(
+        applicationProperties.transactionInfoFetchParallelism,
+        NamedThreadFactory("transaction-info-fetch")
+    )
+
+    override fun destroy() {
+        logger.info { "Shutting down transaction info fetch executor service..." }
+        transactionInfoExecutorService.shutdown()
+        logger.info { "Shutting down chain head tracker..." }
+        chainHeadTracker.close()
+        logger.info { "Closing Web3j clients..." }
+        chainHandler.close()
+    }
 
     override fun readStorageSlot(
         chainSpec: ChainSpec,
@@ -124,17 +147,16 @@ class Web3jBlockchainService(
                 " blockParameter: $blockParameter"
         }
         val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
-        val blockDescriptor = blockchainProperties.web3j.getBlockDescriptor(
+        val blockDescriptor = blockchainProperties.getBlockDescriptor(
             blockParameter = blockParameter,
-            chainSpec = chainSpec,
-            cacheDuration = blockchainProperties.latestBlockCacheDuration
+            chainSpec = chainSpec
         )
 
         return web3jBlockchainServiceCacheRepository.getCachedFetchAccountBalance(
             chainSpec = chainSpec,
             walletAddress = walletAddress,
             blockNumber = blockDescriptor.blockNumber
-        ) ?: run {
+        ) ?: singleFlight.execute(chainSpec, "eth_getBalance", listOf(walletAddress, blockDescriptor.blockNumber)) {
             val balance = blockchainProperties.web3j.ethGetBalance(
                 walletAddress.rawValue,
                 blockDescriptor.blockNumber.toWeb3Parameter()
@@ -171,10 +193,9 @@ class Web3jBlockchainService(
                 " walletAddress: $walletAddress, blockParameter: $blockParameter"
         }
         val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
-        val blockDescriptor = blockchainProperties.web3j.getBlockDescriptor(
+        val blockDescriptor = blockchainProperties.getBlockDescriptor(
             blockParameter = blockParameter,
-            chainSpec = chainSpec,
-            cacheDuration = blockchainProperties.latestBlockCacheDuration
+            chainSpec = chainSpec
         )
 
         return web3jBlockchainServiceCacheRepository.getCachedFetchErc20AccountBalance(
@@ -182,7 +203,11 @@ class Web3jBlockchainService(
             contractAddress = contractAddress,
             walletAddress = walletAddress,
             blockNumber = blockDescriptor.blockNumber
-        ) ?: run {
+        ) ?: singleFlight.execute(
+            chainSpec = chainSpec,
+            method = "erc20_balanceOf",
+            params = listOf(contractAddress, walletAddress, blockDescriptor.blockNumber)
+        ) {
             val contract = IERC20.load(
                 contractAddress.rawValue,
                 blockchainProperties.web3j,
@@ -225,52 +250,58 @@ class Web3jBlockchainService(
     ): BlockchainTransactionInfo? {
         logger.debug { "Fetching transaction, chainSpec: $chainSpec, txHash: $txHash" }
         val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
-        val web3j = blockchainProperties.web3j
+        val currentBlockNumber = blockchainProperties.web3j.latestBlockNumber(
+            chainSpec = chainSpec,
+            cacheDuration = blockchainProperties.latestBlockCacheDuration
+        )
 
-        return shortCircuiting {
-            val currentBlockNumber = web3j.latestBlockNumber(chainSpec, blockchainProperties.latestBlockCacheDuration)
+        return web3jBlockchainServiceCacheRepository.getCachedFetchTransactionInfo(
+            chainSpec = chainSpec,
+            txHash = txHash,
+            currentBlockNumber = currentBlockNumber
+        )?.let { it.first.copy(events = it.second.extractEvents(events)) }
+            ?: blockchainProperties.fetchUncachedTransactionInfo(chainSpec, txHash, currentBlockNumber, events)
+    }
 
-            web3jBlockchainServiceCacheRepository.getCachedFetchTransactionInfo(
-                chainSpec = chainSpec,
-                txHash = txHash,
-                currentBlockNumber = currentBlockNumber
-            )?.let { it.first.copy(events = it.second.extractEvents(events)) } ?: run {
-                val transaction = web3j.ethGetTransactionByHash(txHash.value).sendSafely()
-                    ?.transaction?.orElse(null).bind()
-                val receipt = web3j.ethGetTransactionReceipt(txHash.value).sendSafely()
-                    ?.transactionReceipt?.orElse(null).bind()
-                val blockConfirmations = currentBlockNumber.value - transaction.blockNumber.bind()
-                val txBlockNumber = transaction.blockNumber
-                val timestamp = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(txBlockNumber), false)
-                    .sendSafely()?.block?.timestamp?.let { UtcDateTime.ofEpochSeconds(it.longValueExact()) }.bind()
-                val eventLogs = receipt.extractLogs()
-                val txInfo = BlockchainTransactionInfo(
-                    hash = TransactionHash(transaction.hash),
-                    from = WalletAddress(transaction.from),
-                    to = transaction.to?.let { WalletAddress(it) } ?: ZeroAddress.toWalletAddress(),
-                    deployedContractAddress = receipt.contractAddress?.let { ContractAddress(it) },
-                    data = FunctionData(transaction.input),
-                    value = Balance(transaction.value),
-                    blockConfirmations = blockConfirmations,
-                    timestamp = timestamp,
-                    success = receipt.isStatusOK,
-                    events = eventLogs.extractEvents(events)
-                )
+    override fun fetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        events: List<DeserializableEvent>
+    ): Map<TransactionHash, BlockchainTransactionInfo> {
+        logger.debug { "Fetching transactions, chainSpec: $chainSpec, txHashes: $txHashes" }
 
-                if (blockchainProperties.shouldCache(blockConfirmations)) {
-                    web3jBlockchainServiceCacheRepository.cacheFetchTransactionInfo(
-                        id = uuidProvider.getUuid(FetchTransactionInfoCacheId),
-                        chainSpec = chainSpec,
-                        txHash = txHash,
-                        blockNumber = BlockNumber(txBlockNumber),
-                        txInfo = txInfo,
-                        eventLogs = eventLogs
-                    )
-                }
+        if (txHashes.isEmpty()) {
+            return emptyMap()
+        }
 
-                txInfo
+        val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
+        val currentBlockNumber = blockchainProperties.web3j.latestBlockNumber(
+            chainSpec = chainSpec,
+            cacheDuration = blockchainProperties.latestBlockCacheDuration
+        )
+        val cachedTxInfos = web3jBlockchainServiceCacheRepository.getCachedFetchTransactionInfos(
+            chainSpec = chainSpec,
+            txHashes = txHashes,
+            currentBlockNumber = currentBlockNumber
+        ).mapValues { it.value.first.copy(events = it.value.second.extractEvents(events)) }
+
+        val uncachedTxInfos = (txHashes - cachedTxInfos.keys)
+            .map { txHash ->
+                txHash to transactionInfoExecutorService.submit(
+                    Callable {
+                        blockchainProperties.fetchUncachedTransactionInfo(
+                            chainSpec = chainSpec,
+                            txHash = txHash,
+                            currentBlockNumber = currentBlockNumber,
+                            events = events
+                        )
+                    }
+                )
             }
-        }
+            .mapNotNull { (txHash, future) -> future.getUnwrapped()?.let { txHash to it } }
+            .toMap()
+
+        return cachedTxInfos + uncachedTxInfos
     }
 
     override fun callReadonlyFunction(
@@ -282,10 +313,9 @@ class Web3jBlockchainService(
             "Executing read-only function call, chainSpec: $chainSpec, params: $params, blockParameter: $blockParameter"
         }
         val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
-        val blockDescriptor = blockchainProperties.web3j.getBlockDescriptor(
+        val blockDescriptor = blockchainProperties.getBlockDescriptor(
             blockParameter = blockParameter,
-            chainSpec = chainSpec,
-            cacheDuration = blockchainProperties.latestBlockCacheDuration
+            chainSpec = chainSpec
         )
         val functionCallResponse = blockchainProperties.web3j.ethCall(
             Transaction.createEthCallTransaction(
@@ -311,6 +341,34 @@ class Web3jBlockchainService(
         )
     }
 
+    override fun executeEthCalls(
+        chainSpec: ChainSpec,
+        calls: List<RawEthCallParams>,
+        blockParameter: BlockParameter
+    ): List<String?> {
+        logger.debug {
+            "Executing bulk eth_call, chainSpec: $chainSpec, numOfCalls: ${calls.size}, blockParameter: $blockParameter"
+        }
+        val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
+        val multicall3Address = blockchainProperties.ethCall.multicall3Address
+        val parallelism = blockchainProperties.ethCall.parallelism.coerceAtLeast(1)
+
+        return if (multicall3Address != null) {
+            val multicallBatchSize = blockchainProperties.ethCall.multicallBatchSize.coerceAtLeast(1)
+
+            calls.chunked(multicallBatchSize)
+                .mapWithParallelism(parallelism) { batch ->
+                    blockchainProperties.web3j.sendMulticall(multicall3Address, batch, blockParameter)
+                        .thenApply { Pair(batch, it) }
+                }
+                .flatMap { (batch, results) ->
+                    results ?: blockchainProperties.executeSeparateEthCalls(batch, blockParameter, parallelism)
+                }
+        } else {
+            blockchainProperties.executeSeparateEthCalls(calls, blockParameter, parallelism)
+        }
+    }
+
     @Suppress("LongMethod", "ComplexMethod")
     override fun findContractDeploymentTransaction(
         chainSpec: ChainSpec,
@@ -400,7 +458,8 @@ class Web3jBlockchainService(
         erc20ContractAddress: ContractAddress,
         ignoredErc20Addresses: Set<WalletAddress>,
         startBlock: BlockNumber?,
-        endBlock: BlockNumber
+        endBlock: BlockNumber,
+        holderScanCheckpoint: HolderScanCheckpoint
     ): List<PayoutAccountBalance> {
         logger.info {
             "Fetching balances ERC20 account balances, chainSpec: $chainSpec," +
@@ -408,30 +467,36 @@ class Web3jBlockchainService(
                 " startBlock: $startBlock, endBlock: $endBlock"
         }
         val blockchainProperties = chainHandler.getBlockchainProperties(chainSpec)
-        val contract = IERC20.load(
-            erc20ContractAddress.rawValue,
-            blockchainProperties.web3j,
-            ReadonlyTransactionManager(blockchainProperties.web3j, erc20ContractAddress.rawValue),
-            DefaultGasProvider()
-        )
+        val progress = holderScanCheckpoint.load()
+        val scanStartBlock = progress?.let { BlockNumber(it.scannedUntilBlock.value + BigInteger.ONE) }
+            ?: startBlock ?: BlockNumber(BigInteger.ZERO)
 
-        val startBlockParameter =
-            startBlock?.value?.let(DefaultBlockParameter::valueOf) ?: DefaultBlockParameterName.EARLIEST
-        val endBlockParameter = DefaultBlockParameter.valueOf(endBlock.value)
-
-        logger.debug { "Block range from: ${startBlockParameter.value} to: ${endBlockParameter.value}" }
+        logger.debug {
+            "Block range from: ${scanStartBlock.value} to: ${endBlock.value}," +
+                " previously found holders: ${progress?.holders?.size ?: 0}"
+        }
 
-        // TODO split this into 2k blocks for larger assets - TBD on sprint planning
-        val accounts = contract.findAccounts(startBlockParameter, endBlockParameter) - ignoredErc20Addresses
+        val accounts = blockchainProperties.findAccounts(
+            contractAddress = erc20ContractAddress,
+            startBlock = scanStartBlock,
+            endBlock = endBlock,
+            knownAccounts = progress?.holders.orEmpty(),
+            holderScanCheckpoint = holderScanCheckpoint
+        )
+        val accountList = accounts.filterNot { it in ignoredErc20Addresses }
 
-        logger.debug { "Found ${accounts.size} holder addresses for ERC20 contract: $erc20ContractAddress" }
+        logger.debug { "Found ${accountList.size} holder addresses for ERC20 contract: $erc20ContractAddress" }
 
-        contract.setDefaultBlockParameter(endBlockParameter)
+        val balances = executeEthCalls(
+            chainSpec = chainSpec,
+            calls = accountList.map { RawEthCallParams(erc20ContractAddress, it.balanceOfFunctionData()) },
+            blockParameter = endBlock
+        )
 
-        return accounts.map { account ->
-            val balance = contract.balanceOf(account.rawValue).sendSafely()?.let { Balance(it) }
+        return accountList.zip(balances).map { (account, balance) ->
+            val decodedBalance = balance?.let { abiDecoderService.decode(listOf(UintType), it).first() as BigInteger }
                 ?: throw BlockchainReadException("Unable to fetch balance for address: $account")
-            PayoutAccountBalance(account, balance)
+            PayoutAccountBalance(account, Balance(decodedBalance))
         }.filter { it.balance.rawValue > BigInteger.ZERO }
     }
 
@@ -457,67 +522,168 @@ class Web3jBlockchainService(
             ?: throw BlockchainReadException("Failed reading payout data for investor")
     }
 
-    private fun Web3j.getBlockDescriptor(
-        blockParameter: BlockParameter,
+    private fun ChainPropertiesWithServices.fetchUncachedTransactionInfo(
         chainSpec: ChainSpec,
-        cacheDuration: Duration
+        txHash: TransactionHash,
+        currentBlockNumber: BlockNumber,
+        events: List<DeserializableEvent>
+    ): BlockchainTransactionInfo? =
+        singleFlight.execute(chainSpec, "eth_getTransactionByHash", listOf(txHash, currentBlockNumber, events)) {
+            shortCircuiting {
+                // both requests are sent asynchronously so that they can be grouped into a single RPC batch
+                val transactionResponse = web3j.ethGetTransactionByHash(txHash.value).sendAsyncSafely()
+                val receiptResponse = web3j.ethGetTransactionReceipt(txHash.value).sendAsyncSafely()
+                val transaction = transactionResponse.join()?.transaction?.orElse(null).bind()
+                val receipt = receiptResponse.join()?.transactionReceipt?.orElse(null).bind()
+                val blockConfirmations = currentBlockNumber.value - transaction.blockNumber.bind()
+                val txBlockNumber = transaction.blockNumber
+                val timestamp = getBlockHeader(chainSpec, BlockNumber(txBlockNumber), currentBlockNumber)
+                    ?.timestamp.bind()
+                val eventLogs = receipt.extractLogs()
+                val txInfo = BlockchainTransactionInfo(
+                    hash = TransactionHash(transaction.hash),
+                    from = WalletAddress(transaction.from),
+                    to = transaction.to?.let { WalletAddress(it) } ?: ZeroAddress.toWalletAddress(),
+                    deployedContractAddress = receipt.contractAddress?.let { ContractAddress(it) },
+                    data = FunctionData(transaction.input),
+                    value = Balance(transaction.value),
+                    blockConfirmations = blockConfirmations,
+                    timestamp = timestamp,
+                    success = receipt.isStatusOK,
+                    events = eventLogs.extractEvents(events)
+                )
+
+                if (shouldCache(blockConfirmations)) {
+                    web3jBlockchainServiceCacheRepository.cacheFetchTransactionInfo(
+                        id = uuidProvider.getUuid(FetchTransactionInfoCacheId),
+                        chainSpec = chainSpec,
+                        txHash = txHash,
+                        blockNumber = BlockNumber(txBlockNumber),
+                        txInfo = txInfo,
+                        eventLogs = eventLogs
+                    )
+                }
+
+                txInfo
+            }
+        }
+
+    private fun ChainPropertiesWithServices.getBlockDescriptor(
+        blockParameter: BlockParameter,
+        chainSpec: ChainSpec
     ): BlockDescriptor {
-        val block = ethGetBlockByNumber(blockParameter.toWeb3Parameter(), false).sendSafely()?.block
-        val blockNumber = block?.number?.let { BlockNumber(it) }
-        val currentBlockNumber = latestBlockNumber(chainSpec, cacheDuration)
-        val timestamp = block?.timestamp?.let { UtcDateTime.ofEpochSeconds(it.longValueExact()) }
-
-        return if (blockNumber != null && timestamp != null) {
-            BlockDescriptor(
-                blockNumber = blockNumber,
-                blockConfirmations = (currentBlockNumber.value - blockNumber.value).max(BigInteger.ZERO),
-                timestamp = timestamp
+        val head = chainHeadTracker.getHead(chainSpec, web3j, latestBlockCacheDuration)
+        val block = when (blockParameter) {
+            BlockName.LATEST -> head
+            is BlockNumber -> getBlockHeader(chainSpec, blockParameter, head.blockNumber)
+            else -> BlockHeader.from(
+                web3j.ethGetBlockByNumber(blockParameter.toWeb3Parameter(), false).sendSafely()?.block
             )
-        } else {
-            throw TemporaryBlockchainReadException()
-        }
+        } ?: throw TemporaryBlockchainReadException()
+
+        return BlockDescriptor(
+            blockNumber = block.blockNumber,
+            blockConfirmations = (head.blockNumber.value - block.blockNumber.value).max(BigInteger.ZERO),
+            timestamp = block.timestamp
+        )
     }
 
-    private fun Web3j.latestBlockNumber(chainSpec: ChainSpec, cacheDuration: Duration): BlockNumber {
-        val now = utcDateTimeProvider.getUtcDateTime()
-        val cachedBlockNumber = latestBlockCache[chainSpec]?.takeIf { it.shouldInvalidate(now, cacheDuration).not() }
-            ?.blockNumber
+    /**
+     * Headers of blocks with enough confirmations can no longer change, so they are cached and requests pinned to
+     * such blocks do not need to fetch them again.
+     */
+    private fun ChainPropertiesWithServices.getBlockHeader(
+        chainSpec: ChainSpec,
+        blockNumber: BlockNumber,
+        currentBlockNumber: BlockNumber
+    ): BlockHeader? =
+        web3jBlockchainServiceCacheRepository.getCachedBlockHeader(chainSpec, blockNumber)
+            ?: singleFlight.execute(chainSpec, "eth_getBlockByNumber", listOf(blockNumber)) {
+                BlockHeader.from(web3j.ethGetBlockByNumber(blockNumber.toWeb3Parameter(), false).sendSafely()?.block)
+                    ?.also {
+                        if (shouldCache(currentBlockNumber.value - blockNumber.value)) {
+                            web3jBlockchainServiceCacheRepository.cacheBlockHeader(chainSpec, it)
+                        }
+                    }
+            }
+
+    private fun Web3j.latestBlockNumber(chainSpec: ChainSpec, cacheDuration: Duration): BlockNumber =
+        chainHeadTracker.getHead(chainSpec, this, cacheDuration).blockNumber
 
-        return if (cachedBlockNumber != null) {
-            cachedBlockNumber
-        } else {
-            val ethLatestBlockNumber = ethBlockNumber().sendSafely()?.blockNumber?.let { BlockNumber(it) }
-                ?: throw TemporaryBlockchainReadException()
-            latestBlockCache[chainSpec] = CachedBlockNumber(ethLatestBlockNumber, now)
-            ethLatestBlockNumber
+    private fun ChainPropertiesWithServices.findAccounts(
+        contractAddress: ContractAddress,
+        startBlock: BlockNumber,
+        endBlock: BlockNumber,
+        knownAccounts: Set<WalletAddress>,
+        holderScanCheckpoint: HolderScanCheckpoint
+    ): AddressSet {
+        val accounts = AddressSet.of(knownAccounts)
+
+        AdaptiveLogScanner(web3j, logScan).scan(
+            contractAddress = contractAddress,
+            topic = TRANSFER_EVENT_TOPIC,
+            fromBlock = startBlock,
+            toBlock = endBlock
+        ) { chunkEndBlock, logs ->
+            val newAccounts = AddressSet()
+
+            logs.forEach { log ->
+                log.transferParticipantTopics().filter { accounts.addHex(it) }.forEach { newAccounts.addHex(it) }
+            }
+
+            holderScanCheckpoint.save(chunkEndBlock, newAccounts)
         }
+
+        return accounts
     }
 
-    private fun IERC20.findAccounts(
-        startBlockParameter: DefaultBlockParameter,
-        endBlockParameter: DefaultBlockParameter
-    ): Set<WalletAddress> {
-        val accounts = HashSet<WalletAddress>()
-        val errors = mutableListOf<BlockchainEventReadException>()
-
-        transferEventFlowable(startBlockParameter, endBlockParameter)
-            .subscribe(
-                { event ->
-                    accounts.add(WalletAddress(event.from))
-                    accounts.add(WalletAddress(event.to))
-                },
-                { error ->
-                    logger.error(error) { "Error processing contract transfer event" }
-                    errors += BlockchainEventReadException("Error processing contract transfer event", error)
+    private fun WalletAddress.balanceOfFunctionData(): FunctionData =
+        FunctionData(FunctionEncoder.encode(Function("balanceOf", listOf(value), emptyList())))
+
+    private fun Web3j.sendEthCall(call: RawEthCallParams, blockParameter: BlockParameter): CompletableFuture<String?> =
+        ethCall(
+            Transaction.createEthCallTransaction(
+                ZeroAddress.rawValue,
+                call.contractAddress.rawValue,
+                call.functionData.value
+            ),
+            blockParameter.toWeb3Parameter()
+        ).sendAsyncSafely().thenApply { it?.value?.takeIf { value -> value != "0x" } }
+
+    private fun Web3j.sendMulticall(
+        multicall3Address: ContractAddress,
+        calls: List<RawEthCallParams>,
+        blockParameter: BlockParameter
+    ): CompletableFuture<List<String?>?> =
+        sendEthCall(RawEthCallParams(multicall3Address, Multicall3.encodeAggregate3(calls)), blockParameter)
+            .thenApply { result ->
+                result?.decodeMulticallResult()?.takeIf { it.size == calls.size }.also {
+                    if (it == null) {
+                        logger.warn { "Multicall failed for ${calls.size} calls, falling back to separate eth_calls" }
+                    }
                 }
-            ).dispose()
+            }
 
-        if (errors.isNotEmpty()) {
-            throw errors[0]
+    // at most `parallelism` JSON-RPC batches are in flight at once
+    private fun ChainPropertiesWithServices.executeSeparateEthCalls(
+        calls: List<RawEthCallParams>,
+        blockParameter: BlockParameter,
+        parallelism: Int
+    ): List<String?> =
+        calls.mapWithParallelism(rpcBatchSize * parallelism) { web3j.sendEthCall(it, blockParameter) }
+
+    private fun String.decodeMulticallResult(): List<String?>? =
+        try {
+            Multicall3.decodeAggregate3Result(abiDecoderService.decode(Multicall3.RETURN_TYPES, this))
+        } catch (ex: AbiDecodingException) {
+            logger.warn("Unable to decode multicall result", ex)
+            null
         }
 
-        return accounts
-    }
+    private fun <T, R> List<T>.mapWithParallelism(parallelism: Int, call: (T) -> CompletableFuture<R>): List<R> =
+        chunked(parallelism).flatMap { window -> window.map(call).map { it.join() } }
+
+    private fun Log.transferParticipantTopics(): List<String> = topics.drop(1).take(2)
 
     @Suppress("TooGenericExceptionCaught")
     private fun IPayoutManager.fetchAllPayouts(): List<PayoutStruct>? =
@@ -559,11 +725,11 @@ class Web3jBlockchainService(
         logs.map { EventLog(data = it.data, topics = it.topics) }
 
     private fun List<EventLog>.extractEvents(events: List<DeserializableEvent>): List<EventInfo> {
-        val eventsBySignature = events.associateBy { Keccak256Hash(it.selector) }
+        val deserializableEvents = events as? DeserializableEvents ?: DeserializableEvents(events)
 
         return this.map { log ->
             val eventType = log.topics.firstOrNull()
-                ?.let { eventsBySignature[Keccak256Hash.raw(it)] }
+                ?.let { deserializableEvents.getBySelectorHash(Keccak256Hash.raw(it)) }
                 ?: events.closestMatchingEvent(log)
 
             if (eventType != null) {
@@ -581,19 +747,19 @@ class Web3jBlockchainService(
 
     private fun EventLog.decodeAsRegularEvent(eventType: DeserializableEvent): EventInfo {
         val decodedRegularInputs = decodeRegularEventInputs(this, eventType)
-        val nonEventTopics = this.topics.filterNot { Keccak256Hash.raw(it) == Keccak256Hash(eventType.selector) }
+        val nonEventTopics = this.topics.filterNot { Keccak256Hash.raw(it) == eventType.selectorHash }
         val decodedIndexedInputs = decodeIndexedEventInputs(nonEventTopics, eventType)
-        val allInputsByName = (decodedRegularInputs + decodedIndexedInputs).associateBy { it.name }
+        val allInputs = decodedRegularInputs + decodedIndexedInputs
 
         return EventInfo(
             signature = eventType.signature,
-            arguments = eventType.inputsOrder.map { allInputsByName[it]!! }
+            arguments = eventType.argumentPositions.map { allInputs[it] }
         )
     }
 
     private fun decodeRegularEventInputs(log: EventLog, eventType: DeserializableEvent) =
         abiDecoderService.decode(
-            types = eventType.regularInputs.map { it.abiType },
+            types = eventType.regularInputTypes,
             encodedInput = log.data
         )
             .zip(eventType.regularInputs)
@@ -643,20 +809,32 @@ class Web3jBlockchainService(
             is ContractBinaryInfo -> this
         }
 
-    @Suppress("ReturnCount", "TooGenericExceptionCaught")
-    private fun <S, T : Response<*>?> Request<S, T>.sendSafely(): T? {
+    @Suppress("TooGenericExceptionCaught")
+    private fun <S, T : Response<*>?> Request<S, T>.sendSafely(): T? =
         try {
-            val value = this.send()
-            if (value?.hasError() == true) {
-                logger.warn { "Web3j call errors: ${value.error.message}" }
-                return null
-            }
-            return value
+            this.send().withoutErrors()
         } catch (ex: Exception) {
             logger.warn("Failed blockchain call", ex)
-            return null
+            null
+        }
+
+    private fun <S, T : Response<*>?> Request<S, T>.sendAsyncSafely(): CompletableFuture<T?> =
+        this.sendAsync().handle { value, ex ->
+            if (ex != null) {
+                logger.warn("Failed blockchain call", ex)
+                null
+            } else {
+                value.withoutErrors()
+            }
+        }
+
+    private fun <T : Response<*>?> T.withoutErrors(): T? =
+        if (this?.hasError() == true) {
+            logger.warn { "Web3j call errors: ${this.error.message}" }
+            null
+        } else {
+            this
         }
-    }
 
     @Suppress("TooGenericExceptionCaught")
     private fun <T> RemoteFunctionCall<T>.sendSafely(): T? =
@@ -667,5 +845,12 @@ class Web3jBlockchainService(
             null
         }
 
+    private fun <T> Future<T>.getUnwrapped(): T =
+        try {
+            get()
+        } catch (ex: ExecutionException) {
+            throw ex.cause ?: ex
+        }
+
     private fun <T, U> T.pairWith(that: U) = Pair(this, that)
 }
@@ -1,26 +1,41 @@
 package dev3.blockchainapiservice.blockchain.properties
 
+import dev3.blockchainapiservice.blockchain.BatchingHttpService
+import dev3.blockchainapiservice.blockchain.FailoverHttpService
 import dev3.blockchainapiservice.config.ApplicationProperties
 import dev3.blockchainapiservice.config.ChainProperties
+import dev3.blockchainapiservice.config.EthCallProperties
+import dev3.blockchainapiservice.config.LogScanProperties
 import dev3.blockchainapiservice.exception.UnsupportedChainIdException
 import dev3.blockchainapiservice.util.ChainId
+import io.micrometer.core.instrument.MeterRegistry
+import okhttp3.OkHttpClient
 import org.web3j.protocol.Web3j
 import org.web3j.protocol.http.HttpService
 import java.time.Duration
 import java.util.concurrent.ConcurrentHashMap
 
-class ChainPropertiesHandler(private val applicationProperties: ApplicationProperties) {
+class ChainPropertiesHandler(
+    private val applicationProperties: ApplicationProperties,
+    meterRegistry: MeterRegistry
+) : AutoCloseable {
 
     private val blockchainPropertiesMap = ConcurrentHashMap<ChainId, ChainPropertiesWithServices>()
+    private val customRpcWeb3jRegistry = CustomRpcWeb3jRegistry(applicationProperties.customRpc, meterRegistry)
 
     fun getBlockchainProperties(chainSpec: ChainSpec): ChainPropertiesWithServices {
         val chainProperties = applicationProperties.chain[chainSpec.chainId]
 
         return if (chainSpec.customRpcUrl != null) {
             ChainPropertiesWithServices(
-                web3j = Web3j.build(HttpService(chainSpec.customRpcUrl)),
+                web3j = customRpcWeb3jRegistry.getWeb3j(chainSpec.customRpcUrl) { rpcUrl, httpClient ->
+                    buildWeb3j(rpcUrl, chainProperties, httpClient)
+                },
+                rpcBatchSize = chainProperties.rpcBatchSize(),
                 latestBlockCacheDuration = chainProperties?.latestBlockCacheDuration ?: Duration.ZERO,
-                minBlockConfirmationsForCaching = chainProperties?.minBlockConfirmationsForCaching
+                minBlockConfirmationsForCaching = chainProperties?.minBlockConfirmationsForCaching,
+                logScan = chainProperties?.logScan ?: LogScanProperties(),
+                ethCall = chainProperties?.ethCall ?: EthCallProperties()
             )
         } else if (chainProperties != null) {
             blockchainPropertiesMap.computeIfAbsent(chainSpec.chainId) {
@@ -31,6 +46,12 @@ class ChainPropertiesHandler(private val applicationProperties: ApplicationPrope
         }
     }
 
+    override fun close() {
+        customRpcWeb3jRegistry.close()
+        // closes the underlying services, including hedged request executors of failover services
+        blockchainPropertiesMap.values.forEach { it.web3j.shutdown() }
+    }
+
     internal fun getChainRpcUrl(chainProperties: ChainProperties): String =
         if (chainProperties.infuraUrl == null || applicationProperties.infuraId.isBlank()) {
             chainProperties.rpcUrl
@@ -38,12 +59,54 @@ class ChainPropertiesHandler(private val applicationProperties: ApplicationPrope
             "${chainProperties.infuraUrl}${applicationProperties.infuraId}"
         }
 
+    internal fun getChainRpcUrls(chainProperties: ChainProperties): List<String> =
+        (listOf(getChainRpcUrl(chainProperties)) + chainProperties.fallbackRpcUrls).distinct()
+
     private fun generateBlockchainProperties(chainProperties: ChainProperties): ChainPropertiesWithServices {
-        val rpcUrl = getChainRpcUrl(chainProperties)
+        val rpcUrls = getChainRpcUrls(chainProperties)
+        val web3j = if (rpcUrls.size == 1) {
+            buildWeb3j(rpcUrls.first(), chainProperties)
+        } else {
+            val endpoints = rpcUrls.mapIndexed { index, rpcUrl ->
+                // RPC URLs may contain API keys, so endpoints are named by their index
+                FailoverHttpService.Endpoint(
+                    name = "${chainProperties.name}[$index]",
+                    service = buildHttpService(rpcUrl, chainProperties, HttpService.getOkHttpClientBuilder().build())
+                )
+            }
+            Web3j.build(FailoverHttpService(endpoints, chainProperties.rpcFailover))
+        }
+
         return ChainPropertiesWithServices(
-            web3j = Web3j.build(HttpService(rpcUrl)),
+            web3j = web3j,
+            rpcBatchSize = chainProperties.rpcBatchSize(),
             latestBlockCacheDuration = chainProperties.latestBlockCacheDuration,
-            minBlockConfirmationsForCaching = chainProperties.minBlockConfirmationsForCaching
+            minBlockConfirmationsForCaching = chainProperties.minBlockConfirmationsForCaching,
+            logScan = chainProperties.logScan,
+            ethCall = chainProperties.ethCall
         )
     }
+
+    private fun buildWeb3j(
+        rpcUrl: String,
+        chainProperties: ChainProperties?,
+        httpClient: OkHttpClient = HttpService.getOkHttpClientBuilder().build()
+    ): Web3j = Web3j.build(buildHttpService(rpcUrl, chainProperties, httpClient))
+
+    private fun buildHttpService(
+        rpcUrl: String,
+        chainProperties: ChainProperties?,
+        httpClient: OkHttpClient
+    ): HttpService {
+        val batchSize = chainProperties.rpcBatchSize()
+
+        return if (chainProperties == null || batchSize <= 1) {
+            HttpService(rpcUrl, httpClient)
+        } else {
+            BatchingHttpService(rpcUrl, httpClient, chainProperties.rpcBatchWindow, batchSize)
+        }
+    }
+
+    private fun ChainProperties?.rpcBatchSize(): Int =
+        if (this == null || rpcBatchWindow.isZero) 1 else rpcMaxBatchSize.coerceAtLeast(1)
 }
@@ -1,5 +1,7 @@
 package dev3.blockchainapiservice.blockchain.properties
 
+import dev3.blockchainapiservice.config.EthCallProperties
+import dev3.blockchainapiservice.config.LogScanProperties
 import org.web3j.protocol.Web3j
 import java.math.BigInteger
 import java.time.Duration
@@ -7,7 +9,10 @@ import java.time.Duration
 data class ChainPropertiesWithServices(
     val web3j: Web3j,
     val latestBlockCacheDuration: Duration,
-    val minBlockConfirmationsForCaching: BigInteger?
+    val minBlockConfirmationsForCaching: BigInteger?,
+    val rpcBatchSize: Int = 1,
+    val logScan: LogScanProperties = LogScanProperties(),
+    val ethCall: EthCallProperties = EthCallProperties()
 ) {
     fun shouldCache(blockConfirmations: BigInteger): Boolean =
         minBlockConfirmationsForCaching != null && blockConfirmations >= minBlockConfirmationsForCaching
@@ -0,0 +1,71 @@
+package dev3.blockchainapiservice.blockchain.properties
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import dev3.blockchainapiservice.config.CustomRpcProperties
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import mu.KLogging
+import okhttp3.ConnectionPool
+import okhttp3.HttpUrl.Companion.toHttpUrlOrNull
+import okhttp3.OkHttpClient
+import org.web3j.protocol.Web3j
+import org.web3j.protocol.http.HttpService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Bounded registry of Web3j clients for project custom RPC URLs. Each URL gets one shared client with its own limited
+ * connection pool, so that connections and TLS sessions are reused between requests. Least recently used and idle
+ * clients are evicted and their HTTP resources are released. Custom RPC URLs often contain API keys, so they are not
+ * used in metrics and are logged without path and query.
+ */
+class CustomRpcWeb3jRegistry(
+    private val customRpcProperties: CustomRpcProperties,
+    meterRegistry: MeterRegistry
+) : AutoCloseable {
+
+    companion object : KLogging() {
+        private class CustomRpcClient(val web3j: Web3j, val httpClient: OkHttpClient)
+
+        private fun String.redacted(): String =
+            toHttpUrlOrNull()?.let { "${it.scheme}://${it.host}:${it.port}" } ?: "<invalid URL>"
+    }
+
+    private val clients: Cache<String, CustomRpcClient> = Caffeine.newBuilder()
+        .maximumSize(customRpcProperties.maxClients)
+        .expireAfterAccess(customRpcProperties.idleTimeout)
+        .executor(Runnable::run)
+        .removalListener<String, CustomRpcClient> { rpcUrl, client, cause ->
+            logger.debug { "Closing Web3j client for custom RPC URL: ${rpcUrl?.redacted()}, cause: $cause" }
+            // Web3j.shutdown() is not used since it would also shut down executor shared by all Web3j instances
+            client?.httpClient?.let {
+                it.dispatcher.executorService.shutdown()
+                it.connectionPool.evictAll()
+            }
+        }
+        .recordStats()
+        .build<String, CustomRpcClient>()
+        .also { CaffeineCacheMetrics.monitor(meterRegistry, it, "custom-rpc.web3j") }
+
+    fun getWeb3j(rpcUrl: String, buildWeb3j: (String, OkHttpClient) -> Web3j): Web3j =
+        clients.get(rpcUrl) {
+            logger.debug { "Creating Web3j client for custom RPC URL: ${it.redacted()}" }
+
+            val httpClient = HttpService.getOkHttpClientBuilder()
+                .connectionPool(
+                    ConnectionPool(
+                        customRpcProperties.maxIdleConnections,
+                        customRpcProperties.connectionKeepAlive.toMillis(),
+                        TimeUnit.MILLISECONDS
+                    )
+                )
+                .build()
+
+            CustomRpcClient(buildWeb3j(it, httpClient), httpClient)
+        }.web3j
+
+    override fun close() {
+        clients.invalidateAll()
+        clients.cleanUp()
+    }
+}
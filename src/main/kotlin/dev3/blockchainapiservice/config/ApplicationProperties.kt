@@ -3,15 +3,19 @@
 package dev3.blockchainapiservice.config
 
 import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.ContractAddress
 import dev3.blockchainapiservice.util.WalletAddress
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan
 import org.springframework.boot.context.properties.ConstructorBinding
 import org.springframework.context.annotation.Configuration
+import org.springframework.util.unit.DataSize
 import java.math.BigInteger
 import java.nio.file.Path
 import java.time.Duration
 import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.milliseconds
 import kotlin.time.Duration.Companion.minutes
 import kotlin.time.Duration.Companion.seconds
 import kotlin.time.toJavaDuration
@@ -22,6 +26,9 @@ import kotlin.time.toJavaDuration
 class ApplicationProperties {
     var chain: Map<ChainId, ChainProperties> = emptyMap()
     var infuraId: String = ""
+    var transactionInfoFetchParallelism: Int = 8
+    var customRpc: CustomRpcProperties = CustomRpcProperties()
+    var chainHeadTracker: ChainHeadTrackerProperties = ChainHeadTrackerProperties()
 }
 
 @ConstructorBinding
@@ -47,14 +54,75 @@ data class ChainProperties(
     val minBlockConfirmationsForCaching: BigInteger?,
     val chainExplorerApiUrl: String?,
     val chainExplorerApiKey: String?,
-    val latestBlockCacheDuration: Duration = 5.seconds.toJavaDuration()
+    val latestBlockCacheDuration: Duration = 5.seconds.toJavaDuration(),
+    val rpcBatchWindow: Duration = Duration.ZERO,
+    val rpcMaxBatchSize: Int = 50,
+    val logScan: LogScanProperties = LogScanProperties(),
+    val ethCall: EthCallProperties = EthCallProperties(),
+    val fallbackRpcUrls: List<String> = emptyList(),
+    val rpcFailover: RpcFailoverProperties = RpcFailoverProperties()
+)
+
+@ConstructorBinding
+data class RpcFailoverProperties(
+    val hedgeDelay: Duration = 500.milliseconds.toJavaDuration(),
+    val failureThreshold: Int = 3,
+    val cooldown: Duration = 30.seconds.toJavaDuration(),
+    val maxHedgedRequests: Int = 8
+)
+
+@ConstructorBinding
+data class CustomRpcProperties(
+    val maxClients: Long = 100L,
+    val idleTimeout: Duration = 30.minutes.toJavaDuration(),
+    val maxIdleConnections: Int = 5,
+    val connectionKeepAlive: Duration = 5.minutes.toJavaDuration()
+)
+
+@ConstructorBinding
+data class ChainHeadTrackerProperties(
+    val parallelism: Int = 4,
+    val idleTimeout: Duration = 10.minutes.toJavaDuration()
+)
+
+@ConstructorBinding
+data class LogScanProperties(
+    val initialBlockRange: Long = 2_000L,
+    val maxBlockRange: Long = 100_000L,
+    val sparseLogCount: Int = 1_000
+)
+
+@ConstructorBinding
+data class EthCallProperties(
+    val multicall3Address: ContractAddress? = null,
+    val multicallBatchSize: Int = 500,
+    val parallelism: Int = 4
 )
 
 @ConstructorBinding
 @ConfigurationProperties(prefix = "blockchain-api-service.create-payout-queue")
 data class PayoutQueueProperties(
     val polling: Long = 5_000L,
-    val initialDelay: Long = 15_000L
+    val initialDelay: Long = 15_000L,
+    val workers: Int = 4,
+    val maxWorkersPerChain: Int = 2,
+    val claimDuration: Duration = 5.minutes.toJavaDuration(),
+    val claimRenewalInterval: Duration = 1.minutes.toJavaDuration()
+)
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "blockchain-api-service.merkle-proof-backfill")
+data class MerkleProofBackfillProperties(
+    val polling: Long = 60_000L,
+    val initialDelay: Long = 30_000L,
+    val treesPerRun: Int = 10
+)
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "blockchain-api-service.merkle-tree-cache")
+data class MerkleTreeCacheProperties(
+    val maxLeafCount: Long = 500_000L,
+    val maxTreeIds: Long = 10_000L
 )
 
 @ConstructorBinding
@@ -87,7 +155,30 @@ data class ContractManifestServiceProperties(
 data class ApiRateProperties(
     val usagePeriodDuration: Duration = 30.days.toJavaDuration(),
     val freeTierWriteRequests: Long = 200L,
-    val freeTierReadRequests: Long = 500_000L
+    val freeTierReadRequests: Long = 500_000L,
+    val usageFlushInterval: Duration = 5.seconds.toJavaDuration(),
+    val callLogBufferSize: Int = 65_536,
+    val callLogFlushInterval: Duration = 1.seconds.toJavaDuration(),
+    val callLogFlushBatchSize: Int = 1_000
+)
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "blockchain-api-service.api-key-cache")
+data class ApiKeyCacheProperties(
+    val expiration: Duration = 30.seconds.toJavaDuration(),
+    val maxSize: Long = 10_000L
+)
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "blockchain-api-service.user-id-resolver-cache")
+data class UserIdResolverCacheProperties(
+    val maxSize: Long = 100_000L
+)
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "blockchain-api-service.deployable-contracts-response-cache")
+data class DeployableContractsResponseCacheProperties(
+    val maxSize: DataSize = DataSize.ofMegabytes(64L)
 )
 
 @ConstructorBinding
@@ -110,3 +201,16 @@ data class BlacklistApiProperties(
     val url: String = "https://app.hoptrail.io/api/eth/check/",
     val timeout: Duration = 1.seconds.toJavaDuration()
 )
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "blockchain-api-service.web3j-cache")
+data class Web3jCacheProperties(
+    val maxAccountBalanceEntries: Long = 100_000L,
+    val maxTransactionInfoBytes: Long = 64L * 1024L * 1024L,
+    val maxContractDeploymentTransactionBytes: Long = 64L * 1024L * 1024L,
+    val writeBehindFlushInterval: Duration = 500.milliseconds.toJavaDuration(),
+    val writeBehindBatchSize: Int = 500,
+    val writeBehindMaxPendingEntries: Int = 50_000,
+    val maxBlockHeaderEntries: Long = 500_000L,
+    val persistBlockHeaders: Boolean = true
+)
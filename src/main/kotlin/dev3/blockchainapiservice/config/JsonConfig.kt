@@ -18,6 +18,7 @@ import dev3.blockchainapiservice.features.payout.util.MerkleTree
 import dev3.blockchainapiservice.features.payout.util.json.MerkleHashJsonSerializer
 import dev3.blockchainapiservice.features.payout.util.json.MerkleTreeJsonSerializer
 import dev3.blockchainapiservice.generated.jooq.id.GeneratedIdsJacksonModule
+import dev3.blockchainapiservice.util.json.AbiBytesSerializer
 import dev3.blockchainapiservice.util.json.FunctionArgumentJsonDeserializer
 import dev3.blockchainapiservice.util.json.OutputParameterJsonDeserializer
 import dev3.blockchainapiservice.util.json.TupleSerializer
@@ -52,6 +53,7 @@ class JsonConfig {
                 addSerializer(BigDecimal::class.java, ToStringSerializer())
                 addSerializer(BigInteger::class.java, ToStringSerializer())
                 addSerializer(Tuple::class.java, TupleSerializer())
+                addSerializer(ByteArray::class.java, AbiBytesSerializer())
             }
         )
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
@@ -6,8 +6,7 @@ import dev3.blockchainapiservice.config.binding.UserIdentifierResolver
 import dev3.blockchainapiservice.config.interceptors.ApiKeyWriteCallInterceptor
 import dev3.blockchainapiservice.config.interceptors.CorrelationIdInterceptor
 import dev3.blockchainapiservice.config.interceptors.ProjectReadCallInterceptor
-import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
-import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import dev3.blockchainapiservice.features.api.access.repository.UserIdentifierRepository
 import dev3.blockchainapiservice.features.api.usage.repository.ApiRateLimitRepository
 import dev3.blockchainapiservice.features.api.usage.repository.UserIdResolverRepository
@@ -28,10 +27,9 @@ class WebConfig(
     private val uuidProvider: UuidProvider,
     private val utcDateTimeProvider: UtcDateTimeProvider,
     private val userIdentifierRepository: UserIdentifierRepository,
-    private val apiKeyRepository: ApiKeyRepository,
+    private val apiKeyProjectCache: ApiKeyProjectCache,
     private val apiRateLimitRepository: ApiRateLimitRepository,
     private val userIdResolverRepository: UserIdResolverRepository,
-    private val projectRepository: ProjectRepository,
     private val objectMapper: ObjectMapper
 ) : WebMvcConfigurer {
 
@@ -66,14 +64,14 @@ class WebConfig(
 
     override fun addArgumentResolvers(resolvers: MutableList<HandlerMethodArgumentResolver>) {
         resolvers.add(UserIdentifierResolver(uuidProvider, userIdentifierRepository))
-        resolvers.add(ProjectApiKeyResolver(apiKeyRepository, projectRepository))
+        resolvers.add(ProjectApiKeyResolver(apiKeyProjectCache))
     }
 
     override fun addInterceptors(registry: InterceptorRegistry) {
         registry.addInterceptor(CorrelationIdInterceptor(uuidProvider))
         registry.addInterceptor(
             ApiKeyWriteCallInterceptor(
-                apiKeyRepository = apiKeyRepository,
+                apiKeyProjectCache = apiKeyProjectCache,
                 apiRateLimitRepository = apiRateLimitRepository,
                 userIdResolverRepository = userIdResolverRepository,
                 utcDateTimeProvider = utcDateTimeProvider,
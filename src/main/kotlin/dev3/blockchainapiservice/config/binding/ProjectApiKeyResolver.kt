@@ -1,11 +1,9 @@
 package dev3.blockchainapiservice.config.binding
 
-import dev3.blockchainapiservice.config.CustomHeaders
 import dev3.blockchainapiservice.config.binding.annotation.ApiKeyBinding
 import dev3.blockchainapiservice.exception.NonExistentApiKeyException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
-import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
-import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import org.springframework.core.MethodParameter
 import org.springframework.web.bind.support.WebDataBinderFactory
 import org.springframework.web.context.request.NativeWebRequest
@@ -14,8 +12,7 @@ import org.springframework.web.method.support.ModelAndViewContainer
 import javax.servlet.http.HttpServletRequest
 
 class ProjectApiKeyResolver(
-    private val apiKeyRepository: ApiKeyRepository,
-    private val projectRepository: ProjectRepository
+    private val apiKeyProjectCache: ApiKeyProjectCache
 ) : HandlerMethodArgumentResolver {
 
     override fun supportsParameter(parameter: MethodParameter): Boolean {
@@ -30,9 +27,7 @@ class ProjectApiKeyResolver(
         binderFactory: WebDataBinderFactory?
     ): Project {
         val httpServletRequest = nativeWebRequest.getNativeRequest(HttpServletRequest::class.java)
-        val apiKey = httpServletRequest?.getHeader(CustomHeaders.API_KEY_HEADER)
-            ?.let { apiKeyRepository.getByValue(it) }
+        return httpServletRequest?.let { apiKeyProjectCache.getProject(it) }
             ?: throw NonExistentApiKeyException()
-        return projectRepository.getById(apiKey.projectId)!! // non-null enforced by foreign key constraint in DB
     }
 }
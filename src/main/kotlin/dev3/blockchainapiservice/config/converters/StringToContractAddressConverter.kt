@@ -0,0 +1,12 @@
+package dev3.blockchainapiservice.config.converters
+
+import dev3.blockchainapiservice.util.ContractAddress
+import org.springframework.boot.context.properties.ConfigurationPropertiesBinding
+import org.springframework.core.convert.converter.Converter
+import org.springframework.stereotype.Component
+
+@Component
+@ConfigurationPropertiesBinding
+class StringToContractAddressConverter : Converter<String, ContractAddress> {
+    override fun convert(source: String): ContractAddress = ContractAddress(source)
+}
@@ -1,12 +1,11 @@
 package dev3.blockchainapiservice.config.interceptors
 
 import com.fasterxml.jackson.databind.ObjectMapper
-import dev3.blockchainapiservice.config.CustomHeaders
 import dev3.blockchainapiservice.config.interceptors.annotation.ApiWriteLimitedMapping
 import dev3.blockchainapiservice.config.interceptors.annotation.IdType
 import dev3.blockchainapiservice.exception.ErrorCode
 import dev3.blockchainapiservice.exception.ErrorResponse
-import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import dev3.blockchainapiservice.features.api.usage.repository.ApiRateLimitRepository
 import dev3.blockchainapiservice.features.api.usage.repository.UserIdResolverRepository
 import dev3.blockchainapiservice.generated.jooq.id.UserId
@@ -19,7 +18,7 @@ import javax.servlet.http.HttpServletRequest
 import javax.servlet.http.HttpServletResponse
 
 class ApiKeyWriteCallInterceptor(
-    private val apiKeyRepository: ApiKeyRepository,
+    private val apiKeyProjectCache: ApiKeyProjectCache,
     private val apiRateLimitRepository: ApiRateLimitRepository,
     private val userIdResolverRepository: UserIdResolverRepository,
     private val utcDateTimeProvider: UtcDateTimeProvider,
@@ -90,9 +89,7 @@ class ApiKeyWriteCallInterceptor(
 
     private fun ApiWriteLimitedMapping.resolveUserId(request: HttpServletRequest): UserId? =
         if (idType == IdType.PROJECT_ID) {
-            request.getHeader(CustomHeaders.API_KEY_HEADER)
-                ?.let { apiKeyRepository.getByValue(it)?.projectId }
-                ?.let { userIdResolverRepository.getByProjectId(it) }
+            apiKeyProjectCache.getProject(request)?.ownerId
         } else {
             UserIdResolver.resolve(
                 userIdResolverRepository = userIdResolverRepository,
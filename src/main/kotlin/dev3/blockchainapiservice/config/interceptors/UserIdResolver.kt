@@ -5,12 +5,14 @@ import dev3.blockchainapiservice.features.api.usage.repository.UserIdResolverRep
 import dev3.blockchainapiservice.generated.jooq.id.UserId
 import mu.KLogging
 import org.springframework.web.servlet.HandlerMapping
+import java.util.Optional
 import java.util.UUID
 import javax.servlet.http.HttpServletRequest
 
 object UserIdResolver : KLogging() {
 
     private val PATH_VARIABLES = HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE
+    private val RESOLVED_USER_ID_ATTRIBUTE = "${UserIdResolver::class.java.name}.USER_ID"
 
     @Suppress("UNCHECKED_CAST")
     fun resolve(
@@ -23,8 +25,13 @@ object UserIdResolver : KLogging() {
         val idVariable = (request.getAttribute(PATH_VARIABLES) as Map<String, String>)[idType.idVariableName]
             ?: throw IllegalStateException("$interceptorName is improperly configured for endpoint: $path")
 
-        return idVariable.parseId()
-            ?.let { userIdResolverRepository.getUserId(idType, it) }
+        // user ID is resolved in both preHandle and afterCompletion, so it is memoized for the rest of the request
+        val attributeName = "$RESOLVED_USER_ID_ATTRIBUTE.$idType.$idVariable"
+        val userId = request.getAttribute(attributeName) as Optional<UserId>?
+            ?: Optional.ofNullable(idVariable.parseId()?.let { userIdResolverRepository.getUserId(idType, it) })
+                .also { request.setAttribute(attributeName, it) }
+
+        return userId.orElse(null)
     }
 
     private fun String.parseId(): UUID? =
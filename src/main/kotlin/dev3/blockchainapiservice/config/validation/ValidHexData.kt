@@ -0,0 +1,18 @@
+package dev3.blockchainapiservice.config.validation
+
+import javax.validation.Constraint
+import javax.validation.Payload
+import javax.validation.ReportAsSingleViolation
+import javax.validation.constraints.Pattern
+import kotlin.reflect.KClass
+
+@Pattern(regexp = "^(0x)?([A-Fa-f0-9]{2})*$")
+@ReportAsSingleViolation
+@Target(AnnotationTarget.FUNCTION, AnnotationTarget.FIELD)
+@Retention(AnnotationRetention.RUNTIME)
+@Constraint(validatedBy = [])
+annotation class ValidHexData(
+    val message: String = "value must be a hex string with an even number of digits",
+    val groups: Array<KClass<*>> = [],
+    val payload: Array<KClass<out Payload>> = []
+)
@@ -0,0 +1,56 @@
+package dev3.blockchainapiservice.features.api.access.repository
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import dev3.blockchainapiservice.config.ApiKeyCacheProperties
+import dev3.blockchainapiservice.config.CustomHeaders
+import dev3.blockchainapiservice.features.api.access.model.result.Project
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import org.springframework.stereotype.Component
+import java.util.Optional
+import javax.servlet.http.HttpServletRequest
+
+/**
+ * Short-lived cache of API key values and projects which they belong to, shared between interceptors and argument
+ * resolvers. Project of the request API key is resolved at most once per request and stored as a request attribute.
+ * Unknown API keys are cached as well, so their entries must be invalidated via [invalidateApiKey] when API keys are
+ * created.
+ */
+@Component
+class ApiKeyProjectCache(
+    private val apiKeyRepository: ApiKeyRepository,
+    private val projectRepository: ProjectRepository,
+    apiKeyCacheProperties: ApiKeyCacheProperties,
+    meterRegistry: MeterRegistry
+) {
+
+    companion object {
+        private val REQUEST_PROJECT_ATTRIBUTE = "${ApiKeyProjectCache::class.java.name}.PROJECT"
+    }
+
+    private val cache: Cache<String, Optional<Project>> = Caffeine.newBuilder()
+        .expireAfterWrite(apiKeyCacheProperties.expiration)
+        .maximumSize(apiKeyCacheProperties.maxSize)
+        .recordStats()
+        .build<String, Optional<Project>>()
+        .also { CaffeineCacheMetrics.monitor(meterRegistry, it, "api-key.project") }
+
+    fun getProject(request: HttpServletRequest): Project? {
+        @Suppress("UNCHECKED_CAST")
+        val project = request.getAttribute(REQUEST_PROJECT_ATTRIBUTE) as Optional<Project>?
+            ?: Optional.ofNullable(request.getHeader(CustomHeaders.API_KEY_HEADER))
+                .flatMap { getCachedProject(it) }
+                .also { request.setAttribute(REQUEST_PROJECT_ATTRIBUTE, it) }
+
+        return project.orElse(null)
+    }
+
+    fun invalidateApiKey(apiKey: String) = cache.invalidate(apiKey)
+
+    private fun getCachedProject(apiKey: String): Optional<Project> =
+        cache.get(apiKey) {
+            Optional.ofNullable(apiKeyRepository.getByValue(it))
+                .map { key -> projectRepository.getById(key.projectId)!! } // non-null enforced by foreign key in DB
+        }
+}
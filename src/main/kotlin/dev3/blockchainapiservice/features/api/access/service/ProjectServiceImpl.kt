@@ -5,6 +5,7 @@ import dev3.blockchainapiservice.features.api.access.model.params.CreateProjectP
 import dev3.blockchainapiservice.features.api.access.model.result.ApiKey
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.model.result.UserIdentifier
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
 import dev3.blockchainapiservice.generated.jooq.id.ApiKeyId
@@ -24,7 +25,8 @@ class ProjectServiceImpl(
     private val utcDateTimeProvider: UtcDateTimeProvider,
     private val randomProvider: RandomProvider,
     private val projectRepository: ProjectRepository,
-    private val apiKeyRepository: ApiKeyRepository
+    private val apiKeyRepository: ApiKeyRepository,
+    private val apiKeyProjectCache: ApiKeyProjectCache
 ) : ProjectService {
 
     companion object : KLogging() {
@@ -98,6 +100,6 @@ class ProjectServiceImpl(
                 apiKey = apiKey,
                 createdAt = utcDateTimeProvider.getUtcDateTime()
             )
-        )
+        ).also { apiKeyProjectCache.invalidateApiKey(it.apiKey) }
     }
 }
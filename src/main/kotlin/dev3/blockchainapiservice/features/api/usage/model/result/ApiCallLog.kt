@@ -0,0 +1,24 @@
+package dev3.blockchainapiservice.features.api.usage.model.result
+
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import dev3.blockchainapiservice.util.UtcDateTime
+import org.springframework.web.bind.annotation.RequestMethod
+
+sealed interface ApiCallLog {
+    val userId: UserId
+    val endpoint: String
+    val createdAt: UtcDateTime
+}
+
+data class ApiWriteCallLog(
+    override val userId: UserId,
+    val method: RequestMethod,
+    override val endpoint: String,
+    override val createdAt: UtcDateTime
+) : ApiCallLog
+
+data class ApiReadCallLog(
+    override val userId: UserId,
+    override val endpoint: String,
+    override val createdAt: UtcDateTime
+) : ApiCallLog
@@ -0,0 +1,82 @@
+package dev3.blockchainapiservice.features.api.usage.repository
+
+import dev3.blockchainapiservice.config.ApiRateProperties
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiCallLog
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import dev3.blockchainapiservice.util.BoundedRingBuffer
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import mu.KLogging
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.stereotype.Component
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collects API call logs into a bounded ring buffer and periodically writes them into the database in batches, outside
+ * of the request thread. When the buffer is full, new call logs are dropped instead of blocking the request and the
+ * number of dropped call logs is reported via `api.call.log.dropped` counter.
+ */
+@Component
+class ApiCallLogQueue(
+    private val jooqApiRateLimitRepository: JooqApiRateLimitRepository,
+    private val apiRateProperties: ApiRateProperties,
+    meterRegistry: MeterRegistry,
+    scheduledExecutorServiceProvider: ScheduledExecutorServiceProvider
+) : DisposableBean {
+
+    companion object : KLogging() {
+        const val QUEUE_NAME = "ApiCallLogQueue"
+    }
+
+    private val buffer = BoundedRingBuffer<ApiCallLog>(apiRateProperties.callLogBufferSize)
+    private val droppedCallLogs = Counter.builder("api.call.log.dropped")
+        .description("Number of API call logs dropped because the call log buffer was full")
+        .register(meterRegistry)
+    private val executorService = scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor(QUEUE_NAME)
+
+    init {
+        Gauge.builder("api.call.log.buffered", buffer) { it.size.toDouble() }
+            .description("Number of API call logs waiting to be written into the database")
+            .register(meterRegistry)
+
+        val flushInterval = apiRateProperties.callLogFlushInterval.toMillis()
+
+        executorService.scheduleAtFixedRate(
+            command = { flush() },
+            initialDelay = flushInterval,
+            period = flushInterval,
+            unit = TimeUnit.MILLISECONDS
+        )
+    }
+
+    override fun destroy() {
+        logger.info { "Shutting down API call log queue executor service..." }
+        executorService.shutdown()
+        flush()
+    }
+
+    fun offer(callLog: ApiCallLog) {
+        if (buffer.offer(callLog).not()) {
+            droppedCallLogs.increment()
+            logger.debug { "API call log buffer is full, dropping call log: $callLog" }
+        }
+    }
+
+    @Synchronized
+    @Suppress("TooGenericExceptionCaught")
+    fun flush() {
+        val batchSize = apiRateProperties.callLogFlushBatchSize
+        // limits a single flush to one full buffer, so that it ends even when call logs keep arriving
+        val batches = generateSequence { buffer.poll(batchSize).takeIf { it.isNotEmpty() } }
+            .take(buffer.capacity / batchSize + 1)
+
+        batches.forEach {
+            try {
+                jooqApiRateLimitRepository.addCallLogs(it)
+            } catch (ex: Exception) {
+                logger.warn(ex) { "Failed to write ${it.size} API call logs" }
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package dev3.blockchainapiservice.features.api.usage.repository
+
+import dev3.blockchainapiservice.config.ApiRateProperties
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiReadCallLog
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiUsageLimit
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiUsagePeriod
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiWriteCallLog
+import dev3.blockchainapiservice.features.api.usage.model.result.RequestUsage
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import dev3.blockchainapiservice.service.UtcDateTimeProvider
+import dev3.blockchainapiservice.util.UtcDateTime
+import mu.KLogging
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.context.annotation.Primary
+import org.springframework.stereotype.Repository
+import org.springframework.web.bind.annotation.RequestMethod
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.LongAdder
+import java.util.concurrent.locks.StampedLock
+import kotlin.math.max
+
+/**
+ * Keeps current API usage period of each active user in memory and counts API calls using per-user [LongAdder]s, so
+ * that rate limit checks and call accounting do not need database access. Counted calls are periodically flushed into
+ * the database as aggregated usage deltas, after which current usage periods are reloaded so that calls counted by
+ * other application instances are also taken into account. Call logs are written by [ApiCallLogQueue].
+ */
+@Primary
+@Repository
+class InMemoryApiRateLimitRepository(
+    private val jooqApiRateLimitRepository: JooqApiRateLimitRepository,
+    private val apiCallLogQueue: ApiCallLogQueue,
+    apiRateProperties: ApiRateProperties,
+    private val utcDateTimeProvider: UtcDateTimeProvider,
+    scheduledExecutorServiceProvider: ScheduledExecutorServiceProvider
+) : ApiRateLimitRepository, DisposableBean {
+
+    companion object : KLogging() {
+        const val FLUSH_EXECUTOR_NAME = "ApiRateLimitFlush"
+    }
+
+    /**
+     * Calls are counted under a shared read lock, so an entry is retired only after all calls which were counted on it
+     * have completed, and calls which see a retired entry must be counted on a fresh one instead.
+     */
+    private class UserApiUsage(@Volatile var period: ApiUsagePeriod) {
+        val pendingWriteRequests = LongAdder()
+        val pendingReadRequests = LongAdder()
+        private val retireLock = StampedLock()
+        private var retired = false
+
+        fun tryAddCall(pendingRequests: (UserApiUsage) -> LongAdder): Boolean {
+            val stamp = retireLock.readLock()
+
+            return try {
+                if (retired.not()) pendingRequests(this).increment()
+                retired.not()
+            } finally {
+                retireLock.unlockRead(stamp)
+            }
+        }
+
+        fun retire() {
+            val stamp = retireLock.writeLock()
+            retired = true
+            retireLock.unlockWrite(stamp)
+        }
+    }
+
+    private val usages = ConcurrentHashMap<UserId, UserApiUsage>()
+    private val executorService = scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor(
+        FLUSH_EXECUTOR_NAME
+    )
+
+    init {
+        val flushInterval = apiRateProperties.usageFlushInterval.toMillis()
+
+        executorService.scheduleAtFixedRate(
+            command = { flush() },
+            initialDelay = flushInterval,
+            period = flushInterval,
+            unit = TimeUnit.MILLISECONDS
+        )
+    }
+
+    override fun destroy() {
+        logger.info { "Shutting down API rate limit flush executor service..." }
+        executorService.shutdown()
+        flush()
+    }
+
+    override fun createNewFutureUsageLimits(userId: UserId, currentTime: UtcDateTime, limits: List<ApiUsageLimit>) {
+        usages.remove(userId)?.let { retireAndFlushUsage(userId, it, currentTime) }
+        jooqApiRateLimitRepository.createNewFutureUsageLimits(userId, currentTime, limits)
+    }
+
+    override fun getCurrentApiUsagePeriod(userId: UserId, currentTime: UtcDateTime): ApiUsagePeriod {
+        fun RequestUsage.withPending(pending: Long): RequestUsage =
+            RequestUsage(used = used + pending, remaining = max(remaining - pending, 0L))
+
+        val usage = getUsage(userId, currentTime)
+        val period = usage.period
+
+        return period.copy(
+            writeRequestUsage = period.writeRequestUsage.withPending(usage.pendingWriteRequests.sum()),
+            readRequestUsage = period.readRequestUsage.withPending(usage.pendingReadRequests.sum())
+        )
+    }
+
+    override fun remainingWriteLimit(userId: UserId, currentTime: UtcDateTime): Long =
+        getCurrentApiUsagePeriod(userId, currentTime).writeRequestUsage.remaining
+
+    override fun remainingReadLimit(userId: UserId, currentTime: UtcDateTime): Long =
+        getCurrentApiUsagePeriod(userId, currentTime).readRequestUsage.remaining
+
+    override fun addWriteCall(userId: UserId, currentTime: UtcDateTime, method: RequestMethod, endpoint: String) {
+        addCall(userId, currentTime) { it.pendingWriteRequests }
+        apiCallLogQueue.offer(ApiWriteCallLog(userId, method, endpoint, currentTime))
+    }
+
+    override fun addReadCall(userId: UserId, currentTime: UtcDateTime, endpoint: String) {
+        addCall(userId, currentTime) { it.pendingReadRequests }
+        apiCallLogQueue.offer(ApiReadCallLog(userId, endpoint, currentTime))
+    }
+
+    @Synchronized
+    @Suppress("TooGenericExceptionCaught")
+    fun flush() {
+        val currentTime = utcDateTimeProvider.getUtcDateTime()
+
+        usages.forEach { (userId, usage) ->
+            try {
+                if (flushUsage(userId, usage, currentTime)) {
+                    usage.period = jooqApiRateLimitRepository.getCurrentApiUsagePeriod(userId, currentTime)
+                } else if (usages.remove(userId, usage)) {
+                    // calls counted while the idle entry was being removed are still flushed
+                    retireAndFlushUsage(userId, usage, currentTime)
+                }
+            } catch (ex: Exception) {
+                logger.warn(ex) { "Failed to flush API usage for userId: $userId" }
+            }
+        }
+    }
+
+    private fun getUsage(userId: UserId, currentTime: UtcDateTime): UserApiUsage {
+        val usage = usages.computeIfAbsent(userId) {
+            UserApiUsage(jooqApiRateLimitRepository.getCurrentApiUsagePeriod(userId, currentTime))
+        }
+
+        return if (usage.period.endDate.value.isBefore(currentTime.value)) {
+            if (usages.remove(userId, usage)) {
+                retireAndFlushUsage(userId, usage, currentTime)
+            }
+
+            getUsage(userId, currentTime)
+        } else usage
+    }
+
+    private fun addCall(userId: UserId, currentTime: UtcDateTime, pendingRequests: (UserApiUsage) -> LongAdder) {
+        // retired entry is already removed, so the call is counted on a fresh entry
+        if (getUsage(userId, currentTime).tryAddCall(pendingRequests).not()) {
+            addCall(userId, currentTime, pendingRequests)
+        }
+    }
+
+    /**
+     * Retires an entry which was removed from the in-memory usages and writes all calls which were counted on it into
+     * the database. No calls can be counted on the entry once it has been retired.
+     */
+    private fun retireAndFlushUsage(userId: UserId, usage: UserApiUsage, currentTime: UtcDateTime) {
+        usage.retire()
+        flushUsage(userId, usage, currentTime)
+    }
+
+    /**
+     * Writes calls counted since the last flush into the database and returns `true` if there were any. Calls are
+     * always added to the cached usage period, even if it has already ended.
+     */
+    @Suppress("TooGenericExceptionCaught")
+    private fun flushUsage(userId: UserId, usage: UserApiUsage, currentTime: UtcDateTime): Boolean {
+        val writeRequests = usage.pendingWriteRequests.sumThenReset()
+        val readRequests = usage.pendingReadRequests.sumThenReset()
+        val hasRequests = writeRequests > 0L || readRequests > 0L
+        val periodEndDate = usage.period.endDate
+        val usageTime = if (periodEndDate.value.isBefore(currentTime.value)) periodEndDate else currentTime
+
+        if (hasRequests) {
+            try {
+                jooqApiRateLimitRepository.addUsage(userId, usageTime, writeRequests, readRequests)
+            } catch (ex: RuntimeException) {
+                usage.pendingWriteRequests.add(writeRequests)
+                usage.pendingReadRequests.add(readRequests)
+                throw ex
+            }
+        }
+
+        return hasRequests
+    }
+}
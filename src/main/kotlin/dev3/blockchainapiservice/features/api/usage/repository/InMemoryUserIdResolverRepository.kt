@@ -0,0 +1,40 @@
+package dev3.blockchainapiservice.features.api.usage.repository
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import dev3.blockchainapiservice.config.UserIdResolverCacheProperties
+import dev3.blockchainapiservice.config.interceptors.annotation.IdType
+import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import org.springframework.context.annotation.Primary
+import org.springframework.stereotype.Repository
+import java.util.UUID
+
+/**
+ * Bounded in-process cache of entity owners in front of [JooqUserIdResolverRepository]. Project of an entity never
+ * changes, so resolved owners are only evicted when the configured maximum size is reached. Entities which do not
+ * exist are not cached, since they may be created later.
+ */
+@Primary
+@Repository
+class InMemoryUserIdResolverRepository(
+    private val jooqUserIdResolverRepository: JooqUserIdResolverRepository,
+    userIdResolverCacheProperties: UserIdResolverCacheProperties,
+    meterRegistry: MeterRegistry
+) : UserIdResolverRepository {
+
+    private data class EntityKey(val idType: IdType, val id: UUID)
+
+    private val cache: Cache<EntityKey, UserId> = Caffeine.newBuilder()
+        .maximumSize(userIdResolverCacheProperties.maxSize)
+        .recordStats()
+        .build<EntityKey, UserId>()
+        .also { CaffeineCacheMetrics.monitor(meterRegistry, it, "api.user-id-resolver") }
+
+    override fun getByProjectId(projectId: ProjectId): UserId? = getUserId(IdType.PROJECT_ID, projectId.value)
+
+    override fun getUserId(idType: IdType, id: UUID): UserId? =
+        cache.get(EntityKey(idType, id)) { jooqUserIdResolverRepository.getUserId(it.idType, it.id) }
+}
@@ -1,12 +1,17 @@
 package dev3.blockchainapiservice.features.api.usage.repository
 
 import dev3.blockchainapiservice.config.ApiRateProperties
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiCallLog
 import dev3.blockchainapiservice.features.api.usage.model.result.ApiUsageLimit
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiReadCallLog
 import dev3.blockchainapiservice.features.api.usage.model.result.ApiUsagePeriod
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiWriteCallLog
 import dev3.blockchainapiservice.features.api.usage.model.result.RequestUsage
 import dev3.blockchainapiservice.generated.jooq.id.ApiUsagePeriodId
 import dev3.blockchainapiservice.generated.jooq.id.UserId
+import dev3.blockchainapiservice.generated.jooq.tables.ApiReadCallTable
 import dev3.blockchainapiservice.generated.jooq.tables.ApiUsagePeriodTable
+import dev3.blockchainapiservice.generated.jooq.tables.ApiWriteCallTable
 import dev3.blockchainapiservice.generated.jooq.tables.records.ApiReadCallRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.ApiUsagePeriodRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.ApiWriteCallRecord
@@ -128,6 +133,61 @@ class JooqApiRateLimitRepository(
         getOrCreateApiUsagePeriod(userId, currentTime).incrementField(ApiUsagePeriodTable.USED_READ_REQUESTS)
     }
 
+    fun addUsage(userId: UserId, currentTime: UtcDateTime, writeRequests: Long, readRequests: Long) {
+        logger.debug {
+            "Adding API usage, userId: $userId, currentTime: $currentTime, writeRequests: $writeRequests," +
+                " readRequests: $readRequests"
+        }
+
+        val periodId = getOrCreateApiUsagePeriod(userId, currentTime).id
+
+        dslContext.update(ApiUsagePeriodTable)
+            .set(ApiUsagePeriodTable.USED_WRITE_REQUESTS, ApiUsagePeriodTable.USED_WRITE_REQUESTS + writeRequests)
+            .set(ApiUsagePeriodTable.USED_READ_REQUESTS, ApiUsagePeriodTable.USED_READ_REQUESTS + readRequests)
+            .where(ApiUsagePeriodTable.ID.eq(periodId))
+            .execute()
+    }
+
+    fun addCallLogs(callLogs: List<ApiCallLog>) {
+        logger.debug { "Adding ${callLogs.size} API call logs" }
+
+        val writeCalls = callLogs.filterIsInstance<ApiWriteCallLog>()
+        val readCalls = callLogs.filterIsInstance<ApiReadCallLog>()
+
+        if (writeCalls.isNotEmpty()) {
+            val insert = dslContext.insertQuery(ApiWriteCallTable)
+
+            writeCalls.forEach {
+                insert.addRecord(
+                    ApiWriteCallRecord(
+                        userId = it.userId,
+                        requestMethod = DbRequestMethod.valueOf(it.method.name),
+                        requestPath = it.endpoint,
+                        createdAt = it.createdAt
+                    )
+                )
+            }
+
+            insert.execute()
+        }
+
+        if (readCalls.isNotEmpty()) {
+            val insert = dslContext.insertQuery(ApiReadCallTable)
+
+            readCalls.forEach {
+                insert.addRecord(
+                    ApiReadCallRecord(
+                        userId = it.userId,
+                        requestPath = it.endpoint,
+                        createdAt = it.createdAt
+                    )
+                )
+            }
+
+            insert.execute()
+        }
+    }
+
     private fun getOrCreateApiUsagePeriod(userId: UserId, currentTime: UtcDateTime): ApiUsagePeriodRecord =
         dslContext.selectFrom(ApiUsagePeriodTable)
             .where(
@@ -40,55 +40,52 @@ class JooqUserIdResolverRepository(private val dslContext: DSLContext) : UserIdR
     // we want compiler type-safety of exhaustive matching of enum elements, so there is no way to reduce complexity
     @Suppress("ComplexMethod")
     override fun getUserId(idType: IdType, id: UUID): UserId? {
-        logger.debug { "Resolving project ID, idType: $idType, id: $id" }
+        logger.debug { "Resolving user ID, idType: $idType, id: $id" }
 
-        val projectId = when (idType) {
+        return when (idType) {
             IdType.PROJECT_ID ->
-                ProjectTable.run { ID.select(ProjectId(id), ID) }
+                dslContext.select(ProjectTable.OWNER_ID)
+                    .from(ProjectTable)
+                    .where(ProjectTable.ID.eq(ProjectId(id)))
+                    .fetchOne(ProjectTable.OWNER_ID)
 
             IdType.ASSET_BALANCE_REQUEST_ID ->
-                AssetBalanceRequestTable.run { ID.select(AssetBalanceRequestId(id), PROJECT_ID) }
+                AssetBalanceRequestTable.run { ID.selectOwner(AssetBalanceRequestId(id), PROJECT_ID) }
 
             IdType.ASSET_MULTI_SEND_REQUEST_ID ->
-                AssetMultiSendRequestTable.run { ID.select(AssetMultiSendRequestId(id), PROJECT_ID) }
+                AssetMultiSendRequestTable.run { ID.selectOwner(AssetMultiSendRequestId(id), PROJECT_ID) }
 
             IdType.ASSET_SEND_REQUEST_ID ->
-                AssetSendRequestTable.run { ID.select(AssetSendRequestId(id), PROJECT_ID) }
+                AssetSendRequestTable.run { ID.selectOwner(AssetSendRequestId(id), PROJECT_ID) }
 
             IdType.AUTHORIZATION_REQUEST_ID ->
-                AuthorizationRequestTable.run { ID.select(AuthorizationRequestId(id), PROJECT_ID) }
+                AuthorizationRequestTable.run { ID.selectOwner(AuthorizationRequestId(id), PROJECT_ID) }
 
             IdType.CONTRACT_DEPLOYMENT_REQUEST_ID ->
-                ContractDeploymentRequestTable.run { ID.select(ContractDeploymentRequestId(id), PROJECT_ID) }
+                ContractDeploymentRequestTable.run { ID.selectOwner(ContractDeploymentRequestId(id), PROJECT_ID) }
 
             IdType.FUNCTION_CALL_REQUEST_ID ->
-                ContractFunctionCallRequestTable.run { ID.select(ContractFunctionCallRequestId(id), PROJECT_ID) }
+                ContractFunctionCallRequestTable.run { ID.selectOwner(ContractFunctionCallRequestId(id), PROJECT_ID) }
 
             IdType.ARBITRARY_CALL_REQUEST_ID ->
-                ContractArbitraryCallRequestTable.run { ID.select(ContractArbitraryCallRequestId(id), PROJECT_ID) }
+                ContractArbitraryCallRequestTable.run { ID.selectOwner(ContractArbitraryCallRequestId(id), PROJECT_ID) }
 
             IdType.ERC20_LOCK_REQUEST_ID ->
-                Erc20LockRequestTable.run { ID.select(Erc20LockRequestId(id), PROJECT_ID) }
+                Erc20LockRequestTable.run { ID.selectOwner(Erc20LockRequestId(id), PROJECT_ID) }
 
             IdType.ASSET_SNAPSHOT_ID ->
-                AssetSnapshotTable.run { ID.select(AssetSnapshotId(id), PROJECT_ID) }
-        }
-
-        return projectId?.let {
-            logger.debug { "Project user ID, projectId: $it" }
-            dslContext.select(ProjectTable.OWNER_ID)
-                .from(ProjectTable)
-                .where(ProjectTable.ID.eq(it))
-                .fetchOne(ProjectTable.OWNER_ID)
+                AssetSnapshotTable.run { ID.selectOwner(AssetSnapshotId(id), PROJECT_ID) }
         }
     }
 
-    private fun <R : Record, I : DatabaseId> TableField<R, I>.select(
+    private fun <R : Record, I : DatabaseId> TableField<R, I>.selectOwner(
         id: I,
-        projectIdField: TableField<*, ProjectId>
-    ): ProjectId? =
-        dslContext.select(projectIdField)
+        projectIdField: TableField<R, ProjectId>
+    ): UserId? =
+        dslContext.select(ProjectTable.OWNER_ID)
             .from(table)
+            .join(ProjectTable)
+            .on(projectIdField.eq(ProjectTable.ID))
             .where(this.eq(id))
-            .fetchOne(projectIdField)
+            .fetchOne(ProjectTable.OWNER_ID)
 }
@@ -1,5 +1,6 @@
 package dev3.blockchainapiservice.features.asset.lock.service
 
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.exception.CannotAttachTxInfoException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
@@ -69,8 +70,19 @@ class Erc20LockRequestServiceImpl(
 
     override fun getErc20LockRequestsByProjectId(projectId: ProjectId): List<WithTransactionData<Erc20LockRequest>> {
         logger.debug { "Fetching ERC20 lock requests for projectId: $projectId" }
-        return projectRepository.getById(projectId)?.let {
-            erc20LockRequestRepository.getAllByProjectId(projectId).map { req -> req.appendTransactionData(it) }
+        return projectRepository.getById(projectId)?.let { project ->
+            val requests = erc20LockRequestRepository.getAllByProjectId(projectId)
+            val transactionInfos = requests.groupBy { it.chainId }.mapValues { (chainId, chainRequests) ->
+                ethCommonService.fetchTransactionInfos(
+                    chainSpec = ChainSpec(chainId, project.customRpcUrl),
+                    txHashes = chainRequests.mapNotNull { it.txHash }.toSet(),
+                    events = emptyList()
+                )
+            }
+
+            requests.map { req ->
+                req.appendTransactionData(req.txHash?.let { transactionInfos[req.chainId]?.get(it) })
+            }
         } ?: emptyList()
     }
 
@@ -101,13 +113,19 @@ class Erc20LockRequestServiceImpl(
             )
         )
 
-    private fun Erc20LockRequest.appendTransactionData(project: Project): WithTransactionData<Erc20LockRequest> {
-        val transactionInfo = ethCommonService.fetchTransactionInfo(
-            txHash = txHash,
-            chainId = chainId,
-            customRpcUrl = project.customRpcUrl,
-            events = emptyList()
+    private fun Erc20LockRequest.appendTransactionData(project: Project): WithTransactionData<Erc20LockRequest> =
+        appendTransactionData(
+            ethCommonService.fetchTransactionInfo(
+                txHash = txHash,
+                chainId = chainId,
+                customRpcUrl = project.customRpcUrl,
+                events = emptyList()
+            )
         )
+
+    private fun Erc20LockRequest.appendTransactionData(
+        transactionInfo: BlockchainTransactionInfo?
+    ): WithTransactionData<Erc20LockRequest> {
         val data = encodeFunctionData(
             tokenAddress = tokenAddress,
             tokenAmount = tokenAmount,
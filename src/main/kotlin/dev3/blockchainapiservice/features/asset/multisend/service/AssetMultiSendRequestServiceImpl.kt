@@ -1,5 +1,6 @@
 package dev3.blockchainapiservice.features.asset.multisend.service
 
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.exception.CannotAttachTxInfoException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
@@ -11,9 +12,11 @@ import dev3.blockchainapiservice.features.functions.encoding.model.FunctionArgum
 import dev3.blockchainapiservice.features.functions.encoding.service.FunctionEncoderService
 import dev3.blockchainapiservice.generated.jooq.id.AssetMultiSendRequestId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.model.DeserializableEvent
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.service.EthCommonService
 import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.ChainId
 import dev3.blockchainapiservice.util.ContractAddress
 import dev3.blockchainapiservice.util.FunctionData
 import dev3.blockchainapiservice.util.PredefinedEvents
@@ -76,8 +79,21 @@ class AssetMultiSendRequestServiceImpl(
         projectId: ProjectId
     ): List<WithMultiTransactionData<AssetMultiSendRequest>> {
         logger.debug { "Fetching asset multi-send requests for projectId: $projectId" }
-        return projectRepository.getById(projectId)?.let {
-            assetMultiSendRequestRepository.getAllByProjectId(projectId).map { req -> req.appendTransactionData(it) }
+        return projectRepository.getById(projectId)?.let { project ->
+            val requests = assetMultiSendRequestRepository.getAllByProjectId(projectId)
+            val approveTransactionInfos = requests.filter { it.tokenAddress != null }
+                .fetchTransactionInfos(project, PredefinedEvents.ERC20_APPROVAL) { it.approveTxHash }
+            val approveTxs = requests.associate { req ->
+                req.id to req.fetchApproveTransaction { approveTransactionInfos.lookup(req.chainId, req.approveTxHash) }
+            }
+            val disperseTransactionInfos = requests.filter { approveTxs[it.id]?.first.allowsDisperse() }
+                .fetchTransactionInfos(project, PredefinedEvents.ERC20_TRANSFER) { it.disperseTxHash }
+
+            requests.map { req ->
+                req.appendTransactionData(approveTxs[req.id]) {
+                    disperseTransactionInfos.lookup(req.chainId, req.disperseTxHash)
+                }
+            }
         } ?: emptyList()
     }
 
@@ -156,17 +172,34 @@ class AssetMultiSendRequestServiceImpl(
     private fun AssetMultiSendRequest.appendTransactionData(
         project: Project
     ): WithMultiTransactionData<AssetMultiSendRequest> {
-        val totalAssetAmount = Balance(assetAmounts.sumOf { it.rawValue })
-        val approveTx = fetchApproveTransaction(project, totalAssetAmount)
-        val approveStatus = approveTx?.first
+        val approveTx = fetchApproveTransaction {
+            ethCommonService.fetchTransactionInfo(
+                txHash = approveTxHash,
+                chainId = chainId,
+                customRpcUrl = project.customRpcUrl,
+                events = listOf(PredefinedEvents.ERC20_APPROVAL)
+            )
+        }
 
-        return if (approveStatus == null || approveStatus == Status.SUCCESS) {
-            val disperseTransactionInfo = ethCommonService.fetchTransactionInfo(
+        return appendTransactionData(approveTx) {
+            ethCommonService.fetchTransactionInfo(
                 txHash = disperseTxHash,
                 chainId = chainId,
                 customRpcUrl = project.customRpcUrl,
                 events = listOf(PredefinedEvents.ERC20_TRANSFER)
             )
+        }
+    }
+
+    private fun AssetMultiSendRequest.appendTransactionData(
+        approveTx: Triple<Status, BlockchainTransactionInfo?, FunctionData>?,
+        fetchDisperseTransactionInfo: () -> BlockchainTransactionInfo?
+    ): WithMultiTransactionData<AssetMultiSendRequest> {
+        val totalAssetAmount = Balance(assetAmounts.sumOf { it.rawValue })
+        val approveStatus = approveTx?.first
+
+        return if (approveStatus.allowsDisperse()) {
+            val disperseTransactionInfo = fetchDisperseTransactionInfo()
             val disperseData =
                 tokenAddress?.let { encodeDisperseTokenFunctionData(it, assetRecipientAddresses, assetAmounts) }
                     ?: encodeDisperseEtherFunctionData(assetRecipientAddresses, assetAmounts)
@@ -185,8 +218,8 @@ class AssetMultiSendRequestServiceImpl(
         } else {
             withMultiTransactionData(
                 approveStatus = approveStatus,
-                approveData = approveTx.third,
-                approveTransactionInfo = approveTx.second,
+                approveData = approveTx?.third,
+                approveTransactionInfo = approveTx?.second,
                 disperseStatus = null,
                 disperseData = null,
                 disperseValue = null,
@@ -196,22 +229,37 @@ class AssetMultiSendRequestServiceImpl(
     }
 
     private fun AssetMultiSendRequest.fetchApproveTransaction(
-        project: Project,
-        totalAssetAmount: Balance
+        fetchApproveTransactionInfo: () -> BlockchainTransactionInfo?
     ): Triple<Status, BlockchainTransactionInfo?, FunctionData>? =
         if (tokenAddress != null) {
-            val approveTransactionInfo = ethCommonService.fetchTransactionInfo(
-                txHash = approveTxHash,
-                chainId = chainId,
-                customRpcUrl = project.customRpcUrl,
-                events = listOf(PredefinedEvents.ERC20_APPROVAL)
-            )
+            val totalAssetAmount = Balance(assetAmounts.sumOf { it.rawValue })
+            val approveTransactionInfo = fetchApproveTransactionInfo()
             val approveData = encodeApproveFunctionData(disperseContractAddress, totalAssetAmount)
             val approveStatus = determineApproveStatus(approveTransactionInfo, approveData, tokenAddress)
 
             Triple(approveStatus, approveTransactionInfo, approveData)
         } else null
 
+    private fun Status?.allowsDisperse(): Boolean = this == null || this == Status.SUCCESS
+
+    private fun List<AssetMultiSendRequest>.fetchTransactionInfos(
+        project: Project,
+        event: DeserializableEvent,
+        txHash: (AssetMultiSendRequest) -> TransactionHash?
+    ): Map<ChainId, Map<TransactionHash, BlockchainTransactionInfo>> =
+        groupBy { it.chainId }.mapValues { (chainId, chainRequests) ->
+            ethCommonService.fetchTransactionInfos(
+                chainSpec = ChainSpec(chainId, project.customRpcUrl),
+                txHashes = chainRequests.mapNotNull(txHash).toSet(),
+                events = listOf(event)
+            )
+        }
+
+    private fun Map<ChainId, Map<TransactionHash, BlockchainTransactionInfo>>.lookup(
+        chainId: ChainId,
+        txHash: TransactionHash?
+    ): BlockchainTransactionInfo? = txHash?.let { this[chainId]?.get(it) }
+
     private fun AssetMultiSendRequest.determineApproveStatus(
         transactionInfo: BlockchainTransactionInfo?,
         expectedData: FunctionData,
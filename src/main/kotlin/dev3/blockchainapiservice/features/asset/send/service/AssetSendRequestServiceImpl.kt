@@ -1,5 +1,6 @@
 package dev3.blockchainapiservice.features.asset.send.service
 
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.exception.CannotAttachTxInfoException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
@@ -65,8 +66,19 @@ class AssetSendRequestServiceImpl(
 
     override fun getAssetSendRequestsByProjectId(projectId: ProjectId): List<WithTransactionData<AssetSendRequest>> {
         logger.debug { "Fetching asset send requests for projectId: $projectId" }
-        return projectRepository.getById(projectId)?.let {
-            assetSendRequestRepository.getAllByProjectId(projectId).map { req -> req.appendTransactionData(it) }
+        return projectRepository.getById(projectId)?.let { project ->
+            val requests = assetSendRequestRepository.getAllByProjectId(projectId)
+            val transactionInfos = requests.groupBy { it.chainId }.mapValues { (chainId, chainRequests) ->
+                ethCommonService.fetchTransactionInfos(
+                    chainSpec = ChainSpec(chainId, project.customRpcUrl),
+                    txHashes = chainRequests.mapNotNull { it.txHash }.toSet(),
+                    events = listOf(PredefinedEvents.ERC20_TRANSFER)
+                )
+            }
+
+            requests.map { req ->
+                req.appendTransactionData(req.txHash?.let { transactionInfos[req.chainId]?.get(it) })
+            }
         } ?: emptyList()
     }
 
@@ -107,13 +119,19 @@ class AssetSendRequestServiceImpl(
             )
         )
 
-    private fun AssetSendRequest.appendTransactionData(project: Project): WithTransactionData<AssetSendRequest> {
-        val transactionInfo = ethCommonService.fetchTransactionInfo(
-            txHash = txHash,
-            chainId = chainId,
-            customRpcUrl = project.customRpcUrl,
-            events = listOf(PredefinedEvents.ERC20_TRANSFER)
+    private fun AssetSendRequest.appendTransactionData(project: Project): WithTransactionData<AssetSendRequest> =
+        appendTransactionData(
+            ethCommonService.fetchTransactionInfo(
+                txHash = txHash,
+                chainId = chainId,
+                customRpcUrl = project.customRpcUrl,
+                events = listOf(PredefinedEvents.ERC20_TRANSFER)
+            )
         )
+
+    private fun AssetSendRequest.appendTransactionData(
+        transactionInfo: BlockchainTransactionInfo?
+    ): WithTransactionData<AssetSendRequest> {
         val data = tokenAddress?.let { encodeFunctionData(assetRecipientAddress, assetAmount) }
         val status = determineStatus(transactionInfo, data)
 
@@ -4,4 +4,5 @@ import dev3.blockchainapiservice.features.contract.abi.model.AbiType
 
 interface AbiDecoderService {
     fun decode(types: List<AbiType>, encodedInput: String): List<Any>
+    fun decode(types: List<AbiType>, encodedInput: ByteArray, offset: Int = 0): List<Any>
 }
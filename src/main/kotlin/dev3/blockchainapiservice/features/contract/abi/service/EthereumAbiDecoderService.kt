@@ -15,90 +15,141 @@ import dev3.blockchainapiservice.features.contract.abi.model.TupleType
 import dev3.blockchainapiservice.features.contract.abi.model.UintType
 import dev3.blockchainapiservice.util.WalletAddress
 import org.springframework.stereotype.Service
+import org.web3j.abi.datatypes.Address
 import java.math.BigInteger
-import kotlin.math.ceil
 
+/**
+ * Decodes ABI encoded values directly from the encoded bytes. Values are read in place using byte offsets, so the input
+ * is never sliced or copied; hex string input is converted into bytes only once. Decoded `bytes` values are returned
+ * as [ByteArray] copies of the encoded value.
+ */
 @Service
 class EthereumAbiDecoderService : AbiDecoderService {
 
     companion object {
-        private const val BYTE_LENGTH = 2
-        private const val BYTES_PER_VALUE = 32
-        private const val VALUE_LENGTH = BYTES_PER_VALUE * BYTE_LENGTH
+        private const val HEX_PREFIX = "0x"
         private const val HEX_RADIX = 16
-        private val MAX_UINT_256 = BigInteger("f".repeat(VALUE_LENGTH), HEX_RADIX)
+        private const val NIBBLE_BITS = 4
+        private const val BYTE_BITS = 8
+        private const val BYTE_MASK = 0xFF
+        private const val HIGH_NIBBLE_MASK = 0xF0
+        private const val BYTES_PER_VALUE = 32
     }
 
     @Suppress("TooGenericExceptionCaught")
-    override fun decode(types: List<AbiType>, encodedInput: String): List<Any> {
+    override fun decode(types: List<AbiType>, encodedInput: String): List<Any> =
         try {
-            return unsafeDecode(types, encodedInput)
+            decodeValues(types, encodedInput.hexToBytes(), 0)
+        } catch (e: RuntimeException) {
+            throw AbiDecodingException(types, e)
+        }
+
+    @Suppress("TooGenericExceptionCaught")
+    override fun decode(types: List<AbiType>, encodedInput: ByteArray, offset: Int): List<Any> =
+        try {
+            decodeValues(types, encodedInput, offset)
         } catch (e: RuntimeException) {
             throw AbiDecodingException(types, e)
         }
-    }
 
-    private fun unsafeDecode(types: List<AbiType>, encodedInput: String): List<Any> {
-        val withoutPrefix = encodedInput.removePrefix("0x")
-        var index = 0
+    /**
+     * Decodes values of [types] which are encoded starting at [start]. Offsets of dynamic values are relative to
+     * [start].
+     */
+    private fun decodeValues(types: List<AbiType>, input: ByteArray, start: Int): List<Any> {
+        var position = start
 
         return types.map { type ->
-            val (value, indexIncrement) = if (type.isDynamic()) {
-                val offset = withoutPrefix.takeValue(index).parseLength() * BYTE_LENGTH
-                parseType(type, withoutPrefix.substring(offset)).first.withIndexIncrement(type)
+            val value = if (type.isDynamic()) {
+                decodeValue(type, input, start + input.readLength(position))
             } else {
-                parseType(type, withoutPrefix.substring(index * VALUE_LENGTH))
+                decodeValue(type, input, position)
             }
 
-            index += indexIncrement
+            position += type.valueSize() * BYTES_PER_VALUE
             value
         }
     }
 
-    @Suppress("IMPLICIT_CAST_TO_ANY")
-    private fun parseType(type: AbiType, value: String): Pair<Any, Int> =
+    private fun decodeValue(type: AbiType, input: ByteArray, position: Int): Any =
         when (type) {
-            UintType -> value.takeValue().parseHexBigInteger()
-            IntType -> value.takeValue().let { it.parseHexBigInteger().handleTwosComplement(it) }
-            AddressType -> WalletAddress(value.takeValue()).rawValue
-            BoolType -> (BigInteger(value.takeValue(), HEX_RADIX) == BigInteger.ONE)
-            is StaticBytesType -> value.takeValue().parseHexBytes(type.size)
-            is StaticArrayType<*> -> decode(List(type.size) { type.elem }, value)
+            UintType -> input.readUnsigned(position)
+            IntType -> input.readSigned(position)
+            AddressType -> WalletAddress(Address(input.readUnsigned(position))).rawValue
+            BoolType -> input.readUnsigned(position) == BigInteger.ONE
+            is StaticBytesType -> input.readBytes(position, type.size)
+            is StaticArrayType<*> -> decodeValues(List(type.size) { type.elem }, input, position)
 
             is DynamicArrayType<*> -> {
-                val length = value.takeValue().parseLength()
-                decode(List(length) { type.elem }, value.substring(VALUE_LENGTH))
+                val length = input.readLength(position)
+                decodeValues(List(length) { type.elem }, input, position + BYTES_PER_VALUE)
             }
 
-            DynamicBytesType ->
-                value.takeValue().parseLength().let { length ->
-                    value.takeValue(index = 1, n = length.toValueLength()).parseHexBytes(length)
-                }
+            DynamicBytesType -> input.readBytes(position + BYTES_PER_VALUE, input.readLength(position))
 
             StringType -> {
-                value.takeValue().parseLength().let { length ->
-                    val stringBytes = value.takeValue(index = 1, n = length.toValueLength()).parseHexBytes(length)
-                    String(stringBytes.toByteArray())
-                }
+                val length = input.readLength(position)
+                String(input, input.requireBytes(position + BYTES_PER_VALUE, length), length, Charsets.UTF_8)
             }
 
-            is TupleType -> Tuple(decode(type.elems, value))
-        }.withIndexIncrement(type)
+            is TupleType -> Tuple(decodeValues(type.elems, input, position))
+        }
+
+    /**
+     * Checks that all 32-byte words which hold [length] bytes starting at [position] are present in the input and
+     * returns [position].
+     */
+    private fun ByteArray.requireBytes(position: Int, length: Int): Int {
+        val paddedLength = (length.toLong() + BYTES_PER_VALUE - 1) / BYTES_PER_VALUE * BYTES_PER_VALUE
+
+        if (position < 0 || length < 0 || position + paddedLength > size) {
+            throw IndexOutOfBoundsException(
+                "Cannot read $length bytes at offset $position, encoded input has $size bytes"
+            )
+        }
+
+        return position
+    }
+
+    private fun ByteArray.readUnsigned(position: Int): BigInteger =
+        BigInteger(1, this, requireBytes(position, BYTES_PER_VALUE), BYTES_PER_VALUE)
+
+    private fun ByteArray.readSigned(position: Int): BigInteger =
+        if (this[requireBytes(position, BYTES_PER_VALUE)].toInt() and HIGH_NIBBLE_MASK == HIGH_NIBBLE_MASK) {
+            BigInteger(this, position, BYTES_PER_VALUE) // two's complement
+        } else {
+            readUnsigned(position)
+        }
+
+    private fun ByteArray.readLength(position: Int): Int {
+        val lengthStart = requireBytes(position, BYTES_PER_VALUE) + BYTES_PER_VALUE - Int.SIZE_BYTES
+        val hasHighBits = (position until lengthStart).any { this[it].toInt() != 0 }
+        val length = (lengthStart until lengthStart + Int.SIZE_BYTES).fold(0) { length, index ->
+            (length shl BYTE_BITS) or (this[index].toInt() and BYTE_MASK)
+        }
+
+        if (hasHighBits || length < 0) {
+            throw ArithmeticException("Encoded length at offset $position is out of int range")
+        }
 
-    private fun Any.withIndexIncrement(type: AbiType): Pair<Any, Int> = Pair(this, type.valueSize())
+        return length
+    }
 
-    private fun String.takeValue(index: Int = 0, n: Int = 1) =
-        substring(index * VALUE_LENGTH, (index + n) * VALUE_LENGTH)
+    private fun ByteArray.readBytes(position: Int, length: Int): ByteArray =
+        copyOfRange(requireBytes(position, length), position + length)
 
-    private fun String.parseLength() = parseHexBigInteger().intValueExact()
+    private fun String.hexToBytes(): ByteArray {
+        val digitsStart = if (startsWith(HEX_PREFIX)) HEX_PREFIX.length else 0
 
-    private fun Int.toValueLength() = ceil(this.toDouble() / BYTES_PER_VALUE).toInt()
+        require((length - digitsStart) % 2 == 0) { "Encoded input must have an even number of hex digits" }
 
-    private fun BigInteger.handleTwosComplement(value: String) =
-        if (value.startsWith("f")) (MAX_UINT_256 - this + BigInteger.ONE).negate() else this
+        return ByteArray((length - digitsStart) / 2) {
+            val high = Character.digit(this[digitsStart + it * 2], HEX_RADIX)
+            val low = Character.digit(this[digitsStart + it * 2 + 1], HEX_RADIX)
 
-    private fun String.parseHexBigInteger() = BigInteger(this, HEX_RADIX)
+            require(high >= 0 && low >= 0) { "Invalid hex character in encoded input at byte index: $it" }
 
-    private fun String.parseHexBytes(size: Int) =
-        take(size * BYTE_LENGTH).chunked(BYTE_LENGTH).map { it.toUByte(HEX_RADIX).toByte() }.toList()
+            ((high shl NIBBLE_BITS) or low).toByte()
+        }
+    }
 }
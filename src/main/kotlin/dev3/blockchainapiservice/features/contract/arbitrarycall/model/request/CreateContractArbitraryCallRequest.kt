@@ -5,6 +5,7 @@ import dev3.blockchainapiservice.config.validation.MaxFunctionDataSize
 import dev3.blockchainapiservice.config.validation.MaxJsonNodeChars
 import dev3.blockchainapiservice.config.validation.MaxStringSize
 import dev3.blockchainapiservice.config.validation.ValidEthAddress
+import dev3.blockchainapiservice.config.validation.ValidHexData
 import dev3.blockchainapiservice.config.validation.ValidUint256
 import dev3.blockchainapiservice.features.contract.deployment.model.params.DeployedContractIdentifierRequestBody
 import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentRequestId
@@ -21,6 +22,7 @@ data class CreateContractArbitraryCallRequest(
     override val contractAddress: String?,
     @field:NotNull
     @field:MaxFunctionDataSize
+    @field:ValidHexData
     val functionData: String,
     @field:NotNull
     @field:ValidUint256
@@ -1,6 +1,7 @@
 package dev3.blockchainapiservice.features.contract.arbitrarycall.service
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.exception.CannotAttachTxInfoException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
@@ -17,7 +18,9 @@ import dev3.blockchainapiservice.features.contract.deployment.repository.Importe
 import dev3.blockchainapiservice.features.contract.deployment.service.DeployedContractIdentifierResolverService
 import dev3.blockchainapiservice.features.functions.decoding.service.FunctionDecoderService
 import dev3.blockchainapiservice.generated.jooq.id.ContractArbitraryCallRequestId
+import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentRequestId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.model.DeserializableEvent
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.service.EthCommonService
 import dev3.blockchainapiservice.util.Status
@@ -91,9 +94,22 @@ class ContractArbitraryCallRequestServiceImpl(
         filters: ContractArbitraryCallRequestFilters
     ): List<WithTransactionData<ContractArbitraryCallRequest>> {
         logger.debug { "Fetching contract arbitrary call requests for projectId: $projectId, filters: $filters" }
-        return projectRepository.getById(projectId)?.let {
-            contractArbitraryCallRequestRepository.getAllByProjectId(projectId, filters)
-                .map { req -> req.appendTransactionData(it) }
+        return projectRepository.getById(projectId)?.let { project ->
+            val requests = contractArbitraryCallRequestRepository.getAllByProjectId(projectId, filters)
+            val transactionInfos = requests.groupBy { Pair(it.chainId, it.deployedContractId) }
+                .mapValues { (key, groupRequests) ->
+                    ethCommonService.fetchTransactionInfos(
+                        chainSpec = ChainSpec(key.first, project.customRpcUrl),
+                        txHashes = groupRequests.mapNotNull { it.txHash }.toSet(),
+                        events = getDeserializableEvents(key.second, projectId)
+                    )
+                }
+
+            requests.map { req ->
+                req.appendTransactionData(
+                    req.txHash?.let { transactionInfos[Pair(req.chainId, req.deployedContractId)]?.get(it) }
+                )
+            }
         } ?: emptyList()
     }
 
@@ -112,22 +128,35 @@ class ContractArbitraryCallRequestServiceImpl(
     private fun StoreContractArbitraryCallRequestParams.addCautionIfNeeded() =
         if (blacklistCheckService.exists(contractAddress)) copy(redirectUrl = "$redirectUrl/caution") else this
 
-    private fun ContractArbitraryCallRequest.appendTransactionData(
-        project: Project
-    ): WithTransactionData<ContractArbitraryCallRequest> {
-        val decorator = this.deployedContractId
+    private fun getDeserializableEvents(
+        deployedContractId: ContractDeploymentRequestId?,
+        projectId: ProjectId
+    ): List<DeserializableEvent> {
+        val decorator = deployedContractId
             ?.let { contractDeploymentRequestRepository.getById(it)?.contractId }
             ?.let {
                 contractDecoratorRepository.getById(it)
                     ?: importedContractDecoratorRepository.getByContractIdAndProjectId(it, projectId)
             }
 
-        val transactionInfo = ethCommonService.fetchTransactionInfo(
-            txHash = txHash,
-            chainId = chainId,
-            customRpcUrl = project.customRpcUrl,
-            events = decorator?.getDeserializableEvents(objectMapper).orEmpty()
+        return decorator?.getDeserializableEvents(objectMapper).orEmpty()
+    }
+
+    private fun ContractArbitraryCallRequest.appendTransactionData(
+        project: Project
+    ): WithTransactionData<ContractArbitraryCallRequest> =
+        appendTransactionData(
+            ethCommonService.fetchTransactionInfo(
+                txHash = txHash,
+                chainId = chainId,
+                customRpcUrl = project.customRpcUrl,
+                events = getDeserializableEvents(deployedContractId, projectId)
+            )
         )
+
+    private fun ContractArbitraryCallRequest.appendTransactionData(
+        transactionInfo: BlockchainTransactionInfo?
+    ): WithTransactionData<ContractArbitraryCallRequest> {
         val status = determineStatus(transactionInfo)
 
         return withTransactionData(
@@ -12,16 +12,19 @@ import dev3.blockchainapiservice.features.contract.deployment.model.response.Inf
 import dev3.blockchainapiservice.features.contract.deployment.model.response.ManifestJsonsResponse
 import dev3.blockchainapiservice.features.contract.deployment.repository.ContractDecoratorRepository
 import dev3.blockchainapiservice.features.contract.deployment.repository.ImportedContractDecoratorRepository
+import dev3.blockchainapiservice.features.contract.deployment.service.DeployableContractsResponseCache
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.model.filters.parseOrListWithNestedAndLists
 import dev3.blockchainapiservice.util.ContractId
 import dev3.blockchainapiservice.util.ContractTag
 import dev3.blockchainapiservice.util.InterfaceId
+import org.springframework.http.HttpHeaders
 import org.springframework.http.MediaType
 import org.springframework.http.ResponseEntity
 import org.springframework.validation.annotation.Validated
 import org.springframework.web.bind.annotation.GetMapping
 import org.springframework.web.bind.annotation.PathVariable
+import org.springframework.web.bind.annotation.RequestHeader
 import org.springframework.web.bind.annotation.RequestParam
 import org.springframework.web.bind.annotation.RestController
 import javax.validation.Valid
@@ -30,67 +33,80 @@ import javax.validation.Valid
 @RestController
 class ContractDecoratorController(
     private val contractDecoratorRepository: ContractDecoratorRepository,
-    private val importedContractDecoratorRepository: ImportedContractDecoratorRepository
+    private val importedContractDecoratorRepository: ImportedContractDecoratorRepository,
+    private val deployableContractsResponseCache: DeployableContractsResponseCache
 ) {
 
     @GetMapping("/v1/deployable-contracts")
     fun getContractDecorators(
         @Valid @RequestParam("tags", required = false) contractTags: List<@MaxStringSize String>?,
         @Valid @RequestParam("implements", required = false) contractImplements: List<@MaxStringSize String>?,
-        @RequestParam("projectId", required = false) projectId: ProjectId?
-    ): ResponseEntity<ContractDecoratorsResponse> {
+        @RequestParam("projectId", required = false) projectId: ProjectId?,
+        @RequestHeader(HttpHeaders.ACCEPT_ENCODING, required = false) acceptEncoding: String?
+    ): ResponseEntity<ByteArray> {
         val filters = ContractDecoratorFilters(
             contractTags = contractTags.parseOrListWithNestedAndLists { ContractTag(it) },
             contractImplements = contractImplements.parseOrListWithNestedAndLists { InterfaceId(it) }
         )
-        val contractDecorators = contractDecoratorRepository.getAll(filters) +
-            projectId.getIfPresent { importedContractDecoratorRepository.getAll(it, filters) }
-        return ResponseEntity.ok(ContractDecoratorsResponse(contractDecorators.map { ContractDecoratorResponse(it) }))
+        return getSerializedResponse("deployable-contracts", filters, projectId, acceptEncoding) {
+            val contractDecorators = contractDecoratorRepository.getAll(filters) +
+                projectId.getIfPresent { importedContractDecoratorRepository.getAll(it, filters) }
+            ContractDecoratorsResponse(contractDecorators.map { ContractDecoratorResponse(it) })
+        }
     }
 
     @GetMapping("/v1/deployable-contracts/manifest.json")
     fun getContractManifestJsonFiles(
         @Valid @RequestParam("tags", required = false) contractTags: List<@MaxStringSize String>?,
         @Valid @RequestParam("implements", required = false) contractImplements: List<@MaxStringSize String>?,
-        @RequestParam("projectId", required = false) projectId: ProjectId?
-    ): ResponseEntity<ManifestJsonsResponse> {
+        @RequestParam("projectId", required = false) projectId: ProjectId?,
+        @RequestHeader(HttpHeaders.ACCEPT_ENCODING, required = false) acceptEncoding: String?
+    ): ResponseEntity<ByteArray> {
         val filters = ContractDecoratorFilters(
             contractTags = contractTags.parseOrListWithNestedAndLists { ContractTag(it) },
             contractImplements = contractImplements.parseOrListWithNestedAndLists { InterfaceId(it) }
         )
-        val contractManifests = contractDecoratorRepository.getAllManifestJsonFiles(filters) +
-            projectId.getIfPresent { importedContractDecoratorRepository.getAllManifestJsonFiles(it, filters) }
-        return ResponseEntity.ok(ManifestJsonsResponse(contractManifests))
+        return getSerializedResponse("manifest.json", filters, projectId, acceptEncoding) {
+            val contractManifests = contractDecoratorRepository.getAllManifestJsonFiles(filters) +
+                projectId.getIfPresent { importedContractDecoratorRepository.getAllManifestJsonFiles(it, filters) }
+            ManifestJsonsResponse(contractManifests)
+        }
     }
 
     @GetMapping("/v1/deployable-contracts/artifact.json")
     fun getContractArtifactJsonFiles(
         @Valid @RequestParam("tags", required = false) contractTags: List<@MaxStringSize String>?,
         @Valid @RequestParam("implements", required = false) contractImplements: List<@MaxStringSize String>?,
-        @RequestParam("projectId", required = false) projectId: ProjectId?
-    ): ResponseEntity<ArtifactJsonsResponse> {
+        @RequestParam("projectId", required = false) projectId: ProjectId?,
+        @RequestHeader(HttpHeaders.ACCEPT_ENCODING, required = false) acceptEncoding: String?
+    ): ResponseEntity<ByteArray> {
         val filters = ContractDecoratorFilters(
             contractTags = contractTags.parseOrListWithNestedAndLists { ContractTag(it) },
             contractImplements = contractImplements.parseOrListWithNestedAndLists { InterfaceId(it) }
         )
-        val contractArtifacts = contractDecoratorRepository.getAllArtifactJsonFiles(filters) +
-            projectId.getIfPresent { importedContractDecoratorRepository.getAllArtifactJsonFiles(it, filters) }
-        return ResponseEntity.ok(ArtifactJsonsResponse(contractArtifacts))
+        return getSerializedResponse("artifact.json", filters, projectId, acceptEncoding) {
+            val contractArtifacts = contractDecoratorRepository.getAllArtifactJsonFiles(filters) +
+                projectId.getIfPresent { importedContractDecoratorRepository.getAllArtifactJsonFiles(it, filters) }
+            ArtifactJsonsResponse(contractArtifacts)
+        }
     }
 
     @GetMapping("/v1/deployable-contracts/info.md")
     fun getContractInfoMarkdownFiles(
         @Valid @RequestParam("tags", required = false) contractTags: List<@MaxStringSize String>?,
         @Valid @RequestParam("implements", required = false) contractImplements: List<@MaxStringSize String>?,
-        @RequestParam("projectId", required = false) projectId: ProjectId?
-    ): ResponseEntity<InfoMarkdownsResponse> {
+        @RequestParam("projectId", required = false) projectId: ProjectId?,
+        @RequestHeader(HttpHeaders.ACCEPT_ENCODING, required = false) acceptEncoding: String?
+    ): ResponseEntity<ByteArray> {
         val filters = ContractDecoratorFilters(
             contractTags = contractTags.parseOrListWithNestedAndLists { ContractTag(it) },
             contractImplements = contractImplements.parseOrListWithNestedAndLists { InterfaceId(it) }
         )
-        val contractInfoMarkdowns = contractDecoratorRepository.getAllInfoMarkdownFiles(filters) +
-            projectId.getIfPresent { importedContractDecoratorRepository.getAllInfoMarkdownFiles(it, filters) }
-        return ResponseEntity.ok(InfoMarkdownsResponse(contractInfoMarkdowns))
+        return getSerializedResponse("info.md", filters, projectId, acceptEncoding) {
+            val contractInfoMarkdowns = contractDecoratorRepository.getAllInfoMarkdownFiles(filters) +
+                projectId.getIfPresent { importedContractDecoratorRepository.getAllInfoMarkdownFiles(it, filters) }
+            InfoMarkdownsResponse(contractInfoMarkdowns)
+        }
     }
 
     @GetMapping("/v1/deployable-contracts/{id}")
@@ -147,6 +163,24 @@ class ContractDecoratorController(
         return ResponseEntity.ok(infoMarkdown)
     }
 
+    /**
+     * Responses which include imported contract decorators of a project are not cached, since those are stored in the
+     * database and can change independently of [ContractDecoratorRepository.version].
+     */
+    private fun getSerializedResponse(
+        endpoint: String,
+        filters: ContractDecoratorFilters,
+        projectId: ProjectId?,
+        acceptEncoding: String?,
+        render: () -> Any
+    ): ResponseEntity<ByteArray> =
+        if (projectId == null) {
+            deployableContractsResponseCache.get(endpoint, filters, contractDecoratorRepository.version, render)
+                .toResponseEntity(acceptEncoding)
+        } else {
+            deployableContractsResponseCache.toUncachedResponseEntity(render())
+        }
+
     private fun <T> ProjectId?.getIfPresent(fn: (ProjectId) -> List<T>): List<T> =
         if (this != null) fn(this) else emptyList()
 }
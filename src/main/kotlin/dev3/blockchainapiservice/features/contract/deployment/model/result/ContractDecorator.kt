@@ -17,6 +17,7 @@ import dev3.blockchainapiservice.features.contract.deployment.model.json.TypeDec
 import dev3.blockchainapiservice.features.contract.readcall.model.params.OutputParameter
 import dev3.blockchainapiservice.model.DeserializableEvent
 import dev3.blockchainapiservice.model.DeserializableEventInput
+import dev3.blockchainapiservice.model.DeserializableEvents
 import dev3.blockchainapiservice.util.ContractBinaryData
 import dev3.blockchainapiservice.util.ContractId
 import dev3.blockchainapiservice.util.ContractTag
@@ -218,17 +219,25 @@ data class ContractDecorator(
             if (imported) interfaceItems + manifestItems else manifestItems + interfaceItems
     }
 
-    fun getDeserializableEvents(objectMapper: ObjectMapper): List<DeserializableEvent> =
-        events.map { event ->
-            val (indexedInputs, regularInputs) = event.inputs.partition { it.indexed }
+    @Volatile
+    private var deserializableEvents: DeserializableEvents? = null
 
-            DeserializableEvent(
-                signature = event.signature,
-                inputsOrder = event.inputs.map { it.solidityName },
-                indexedInputs = indexedInputs.map { it.toDeserializableEventInput(objectMapper) },
-                regularInputs = regularInputs.map { it.toDeserializableEventInput(objectMapper) }
-            )
-        }
+    /**
+     * Event decoding data is built on the first call and then reused for as long as this decorator is loaded.
+     */
+    fun getDeserializableEvents(objectMapper: ObjectMapper): DeserializableEvents =
+        deserializableEvents ?: DeserializableEvents(
+            events.map { event ->
+                val (indexedInputs, regularInputs) = event.inputs.partition { it.indexed }
+
+                DeserializableEvent(
+                    signature = event.signature,
+                    inputsOrder = event.inputs.map { it.solidityName },
+                    indexedInputs = indexedInputs.map { it.toDeserializableEventInput(objectMapper) },
+                    regularInputs = regularInputs.map { it.toDeserializableEventInput(objectMapper) }
+                )
+            }
+        ).also { deserializableEvents = it }
 
     private fun EventParameter.toDeserializableEventInput(objectMapper: ObjectMapper): DeserializableEventInput {
         val abiType = objectMapper.readValue(solidityType.toOutputTypeJson(parameters), OutputParameter::class.java)
@@ -8,6 +8,11 @@ import dev3.blockchainapiservice.util.ContractId
 
 @Suppress("TooManyFunctions")
 interface ContractDecoratorRepository {
+    /**
+     * Changes whenever any stored contract decorator or its files are stored or deleted.
+     */
+    val version: Long
+
     fun store(contractDecorator: ContractDecorator): ContractDecorator
     fun store(id: ContractId, manifestJson: ManifestJson): ManifestJson
     fun store(id: ContractId, artifactJson: ArtifactJson): ArtifactJson
@@ -4,12 +4,14 @@ import dev3.blockchainapiservice.features.contract.deployment.model.filters.Cont
 import dev3.blockchainapiservice.features.contract.deployment.model.json.ArtifactJson
 import dev3.blockchainapiservice.features.contract.deployment.model.json.ManifestJson
 import dev3.blockchainapiservice.features.contract.deployment.model.result.ContractDecorator
-import dev3.blockchainapiservice.model.filters.AndList
-import dev3.blockchainapiservice.model.filters.OrList
 import dev3.blockchainapiservice.util.ContractId
+import dev3.blockchainapiservice.util.ContractTag
+import dev3.blockchainapiservice.util.InterfaceId
+import dev3.blockchainapiservice.util.InvertedIndex
 import mu.KLogging
 import org.springframework.stereotype.Repository
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
 
 @Repository
 @Suppress("TooManyFunctions")
@@ -21,28 +23,40 @@ class InMemoryContractDecoratorRepository : ContractDecoratorRepository {
     private val manifestJsonStorage = ConcurrentHashMap<ContractId, ManifestJson>()
     private val artifactJsonStorage = ConcurrentHashMap<ContractId, ArtifactJson>()
     private val infoMarkdownStorage = ConcurrentHashMap<ContractId, String>()
+    private val tagIndex = InvertedIndex<ContractId, ContractTag>()
+    private val implementsIndex = InvertedIndex<ContractId, InterfaceId>()
+    private val versionCounter = AtomicLong()
+
+    override val version: Long
+        get() = versionCounter.get()
 
     override fun store(contractDecorator: ContractDecorator): ContractDecorator {
         logger.info { "Storing contract decorator with ID: ${contractDecorator.id}" }
         storage[contractDecorator.id] = contractDecorator
+        tagIndex.put(contractDecorator.id, contractDecorator.tags)
+        implementsIndex.put(contractDecorator.id, contractDecorator.implements)
+        versionCounter.incrementAndGet()
         return contractDecorator
     }
 
     override fun store(id: ContractId, manifestJson: ManifestJson): ManifestJson {
         logger.info { "Storing contract manifest.json with ID: $id" }
         manifestJsonStorage[id] = manifestJson
+        versionCounter.incrementAndGet()
         return manifestJson
     }
 
     override fun store(id: ContractId, artifactJson: ArtifactJson): ArtifactJson {
         logger.info { "Storing contract artifact.json with ID: $id" }
         artifactJsonStorage[id] = artifactJson
+        versionCounter.incrementAndGet()
         return artifactJson
     }
 
     override fun store(id: ContractId, infoMd: String): String {
         logger.info { "Storing contract info.md with ID: $id" }
         infoMarkdownStorage[id] = infoMd
+        versionCounter.incrementAndGet()
         return infoMd
     }
 
@@ -51,7 +65,10 @@ class InMemoryContractDecoratorRepository : ContractDecoratorRepository {
         manifestJsonStorage.remove(id)
         artifactJsonStorage.remove(id)
         infoMarkdownStorage.remove(id)
-        return storage.remove(id) != null
+        tagIndex.remove(id)
+        implementsIndex.remove(id)
+        // version is bumped only after all removals, so responses cached for the new version never see stale data
+        return (storage.remove(id) != null).also { versionCounter.incrementAndGet() }
     }
 
     override fun getById(id: ContractId): ContractDecorator? {
@@ -76,10 +93,12 @@ class InMemoryContractDecoratorRepository : ContractDecoratorRepository {
 
     override fun getAll(filters: ContractDecoratorFilters): List<ContractDecorator> {
         logger.debug { "Get all contract decorators, filters: $filters" }
-        return storage.values
-            .filterBy(filters.contractTags) { it.tags }
-            .filterBy(filters.contractImplements) { it.implements }
-            .toList()
+        val matchingIds = listOfNotNull(
+            tagIndex.matching(filters.contractTags),
+            implementsIndex.matching(filters.contractImplements)
+        ).reduceOrNull { result, ids -> result intersect ids }
+
+        return matchingIds?.mapNotNull { storage[it] } ?: storage.values.toList()
     }
 
     override fun getAllManifestJsonFiles(filters: ContractDecoratorFilters): List<ManifestJson> {
@@ -96,20 +115,4 @@ class InMemoryContractDecoratorRepository : ContractDecoratorRepository {
         logger.debug { "Get all contract info.md files, filters: $filters" }
         return getAll(filters).mapNotNull { infoMarkdownStorage[it.id] }
     }
-
-    private fun <T> Collection<ContractDecorator>.filterBy(
-        orList: OrList<AndList<T>>,
-        values: (ContractDecorator) -> List<T>
-    ): Collection<ContractDecorator> {
-        val conditions = orList.list.map { it.list }
-
-        return if (conditions.isEmpty()) {
-            this
-        } else {
-            filter { decorator ->
-                val decoratorValues = values(decorator)
-                conditions.map { condition -> decoratorValues.containsAll(condition) }.contains(true)
-            }
-        }
-    }
 }
@@ -1,6 +1,7 @@
 package dev3.blockchainapiservice.features.contract.deployment.service
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.exception.CannotAttachTxInfoException
 import dev3.blockchainapiservice.exception.ResourceNotFoundException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
@@ -17,9 +18,11 @@ import dev3.blockchainapiservice.features.contract.deployment.repository.Importe
 import dev3.blockchainapiservice.features.functions.encoding.service.FunctionEncoderService
 import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentRequestId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.model.DeserializableEvent
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.service.EthCommonService
 import dev3.blockchainapiservice.util.Constants
+import dev3.blockchainapiservice.util.ContractId
 import dev3.blockchainapiservice.util.ContractAddress
 import dev3.blockchainapiservice.util.FunctionData
 import dev3.blockchainapiservice.util.Status
@@ -106,9 +109,22 @@ class ContractDeploymentRequestServiceImpl(
     ): List<WithTransactionData<ContractDeploymentRequest>> {
         logger.debug { "Fetching contract deployment requests for projectId: $projectId, filters: $filters" }
 
-        val requests = projectRepository.getById(projectId)?.let {
-            contractDeploymentRequestRepository.getAllByProjectId(projectId, filters)
-                .map { req -> req.appendTransactionData(it) }
+        val requests = projectRepository.getById(projectId)?.let { project ->
+            val deploymentRequests = contractDeploymentRequestRepository.getAllByProjectId(projectId, filters)
+            val transactionInfos = deploymentRequests.groupBy { Pair(it.chainId, it.contractId) }
+                .mapValues { (key, groupRequests) ->
+                    ethCommonService.fetchTransactionInfos(
+                        chainSpec = ChainSpec(key.first, project.customRpcUrl),
+                        txHashes = groupRequests.mapNotNull { it.txHash }.toSet(),
+                        events = getDeserializableEvents(key.second, projectId)
+                    )
+                }
+
+            deploymentRequests.map { req ->
+                req.appendTransactionData(
+                    req.txHash?.let { transactionInfos[Pair(req.chainId, req.contractId)]?.get(it) }
+                )
+            }
         } ?: emptyList()
 
         return if (filters.deployedOnly) {
@@ -145,21 +161,31 @@ class ContractDeploymentRequestServiceImpl(
         }
     }
 
-    private fun ContractDeploymentRequest.appendTransactionData(
-        project: Project
-    ): WithTransactionData<ContractDeploymentRequest> {
+    private fun getDeserializableEvents(contractId: ContractId, projectId: ProjectId): List<DeserializableEvent> {
         val decorator = contractDecoratorRepository.getById(contractId)
             ?: importedContractDecoratorRepository.getByContractIdAndProjectId(contractId, projectId)
             ?: throw ResourceNotFoundException(
                 "Contract decorator not found for contract ID: $contractId, project ID: $projectId"
             )
-        val transactionInfo = ethCommonService.fetchTransactionInfo(
-            txHash = txHash,
-            chainId = chainId,
-            customRpcUrl = project.customRpcUrl,
-            events = decorator.getDeserializableEvents(objectMapper)
+
+        return decorator.getDeserializableEvents(objectMapper)
+    }
+
+    private fun ContractDeploymentRequest.appendTransactionData(
+        project: Project
+    ): WithTransactionData<ContractDeploymentRequest> =
+        appendTransactionData(
+            ethCommonService.fetchTransactionInfo(
+                txHash = txHash,
+                chainId = chainId,
+                customRpcUrl = project.customRpcUrl,
+                events = getDeserializableEvents(contractId, projectId)
+            )
         )
 
+    private fun ContractDeploymentRequest.appendTransactionData(
+        transactionInfo: BlockchainTransactionInfo?
+    ): WithTransactionData<ContractDeploymentRequest> {
         val request = setContractAddressIfNecessary(transactionInfo?.deployedContractAddress)
         val status = request.determineStatus(transactionInfo)
 
@@ -0,0 +1,123 @@
+package dev3.blockchainapiservice.features.contract.deployment.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import dev3.blockchainapiservice.config.DeployableContractsResponseCacheProperties
+import dev3.blockchainapiservice.features.contract.deployment.model.filters.ContractDecoratorFilters
+import dev3.blockchainapiservice.features.contract.deployment.repository.ContractDecoratorRepository
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.stereotype.Component
+import org.web3j.utils.Numeric
+import java.io.ByteArrayOutputStream
+import java.security.MessageDigest
+import java.util.zip.GZIPOutputStream
+
+/**
+ * Keeps responses of deployable contract list endpoints serialized into plain and gzip-compressed JSON, together with
+ * their strong ETags. Contract decorators only change when the file watcher updates [ContractDecoratorRepository], so
+ * cached responses are bound to [ContractDecoratorRepository.version] and are rendered again only after it changes.
+ */
+@Component
+class DeployableContractsResponseCache(
+    private val objectMapper: ObjectMapper,
+    deployableContractsResponseCacheProperties: DeployableContractsResponseCacheProperties,
+    meterRegistry: MeterRegistry
+) {
+
+    companion object {
+        private const val GZIP_ENCODING = "gzip"
+        private const val X_GZIP_ENCODING = "x-gzip"
+        private const val ANY_ENCODING = "*"
+        private const val QUALITY_PARAMETER = "q="
+
+        /**
+         * Parses `Accept-Encoding` header value and returns `true` if gzip has non-zero quality, either explicitly or
+         * via the `*` wildcard. Entries with malformed quality value are treated as not acceptable.
+         */
+        internal fun acceptsGzip(acceptEncoding: String?): Boolean {
+            val qualities = acceptEncoding.orEmpty().split(',').mapNotNull { entry ->
+                val parts = entry.split(';').map { it.trim() }
+                val coding = parts.first().lowercase().takeIf { it.isNotEmpty() }
+                val quality = parts.drop(1)
+                    .firstOrNull { it.startsWith(QUALITY_PARAMETER, ignoreCase = true) }
+                    ?.let { it.substring(QUALITY_PARAMETER.length).trim().toDoubleOrNull() ?: 0.0 }
+                    ?: 1.0
+
+                coding?.let { Pair(it, quality) }
+            }.toMap()
+            val gzipQuality = qualities[GZIP_ENCODING] ?: qualities[X_GZIP_ENCODING] ?: qualities[ANY_ENCODING] ?: 0.0
+
+            return gzipQuality > 0.0
+        }
+    }
+
+    private data class CacheKey(val endpoint: String, val filters: ContractDecoratorFilters, val version: Long)
+
+    class SerializedResponse(private val hash: String, val body: ByteArray, val gzippedBody: ByteArray) {
+
+        /**
+         * Returns gzip-compressed body if [acceptEncoding] allows it. Both representations have different ETags, and
+         * `If-None-Match` requests are answered with `304 Not Modified` by Spring when the ETag matches.
+         */
+        fun toResponseEntity(acceptEncoding: String?): ResponseEntity<ByteArray> {
+            val builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+
+            return if (acceptsGzip(acceptEncoding)) {
+                builder.eTag("$hash-$GZIP_ENCODING")
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING)
+                    .body(gzippedBody)
+            } else {
+                builder.eTag(hash).body(body)
+            }
+        }
+    }
+
+    private val cache: Cache<CacheKey, SerializedResponse> = Caffeine.newBuilder()
+        .maximumWeight(deployableContractsResponseCacheProperties.maxSize.toBytes())
+        .weigher<CacheKey, SerializedResponse> { _, response -> response.body.size + response.gzippedBody.size }
+        .recordStats()
+        .build<CacheKey, SerializedResponse>()
+        .also { CaffeineCacheMetrics.monitor(meterRegistry, it, "deployable-contracts.response") }
+
+    @Volatile
+    private var cachedVersion: Long? = null
+
+    fun get(
+        endpoint: String,
+        filters: ContractDecoratorFilters,
+        version: Long,
+        render: () -> Any
+    ): SerializedResponse {
+        if (cachedVersion != version) {
+            // responses of previous versions can no longer be requested
+            cache.invalidateAll()
+            cachedVersion = version
+        }
+
+        return cache.get(CacheKey(endpoint, filters, version)) { serialize(render()) }
+    }
+
+    /**
+     * Serializes a response which is not cached into plain JSON only. Compressing it and computing its ETag would cost
+     * more than it saves for a response which is rendered again on each request.
+     */
+    fun toUncachedResponseEntity(value: Any): ResponseEntity<ByteArray> =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(objectMapper.writeValueAsBytes(value))
+
+    private fun serialize(value: Any): SerializedResponse {
+        val body = objectMapper.writeValueAsBytes(value)
+        val gzippedBody = ByteArrayOutputStream().also { GZIPOutputStream(it).use { gzip -> gzip.write(body) } }
+        val hash = MessageDigest.getInstance("SHA-256").digest(body)
+
+        return SerializedResponse(Numeric.toHexStringNoPrefix(hash), body, gzippedBody.toByteArray())
+    }
+}
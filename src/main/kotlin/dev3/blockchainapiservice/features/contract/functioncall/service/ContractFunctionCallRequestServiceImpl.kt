@@ -1,6 +1,7 @@
 package dev3.blockchainapiservice.features.contract.functioncall.service
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.exception.CannotAttachTxInfoException
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
@@ -17,8 +18,10 @@ import dev3.blockchainapiservice.features.contract.functioncall.model.result.Con
 import dev3.blockchainapiservice.features.contract.functioncall.repository.ContractFunctionCallRequestRepository
 import dev3.blockchainapiservice.features.functions.encoding.model.FunctionArgument
 import dev3.blockchainapiservice.features.functions.encoding.service.FunctionEncoderService
+import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentRequestId
 import dev3.blockchainapiservice.generated.jooq.id.ContractFunctionCallRequestId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.model.DeserializableEvent
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.service.EthCommonService
 import dev3.blockchainapiservice.util.FunctionData
@@ -93,9 +96,22 @@ class ContractFunctionCallRequestServiceImpl(
         filters: ContractFunctionCallRequestFilters
     ): List<WithTransactionAndFunctionData<ContractFunctionCallRequest>> {
         logger.debug { "Fetching contract function call requests for projectId: $projectId, filters: $filters" }
-        return projectRepository.getById(projectId)?.let {
-            contractFunctionCallRequestRepository.getAllByProjectId(projectId, filters)
-                .map { req -> req.appendTransactionData(it) }
+        return projectRepository.getById(projectId)?.let { project ->
+            val requests = contractFunctionCallRequestRepository.getAllByProjectId(projectId, filters)
+            val transactionInfos = requests.groupBy { Pair(it.chainId, it.deployedContractId) }
+                .mapValues { (key, groupRequests) ->
+                    ethCommonService.fetchTransactionInfos(
+                        chainSpec = ChainSpec(key.first, project.customRpcUrl),
+                        txHashes = groupRequests.mapNotNull { it.txHash }.toSet(),
+                        events = getDeserializableEvents(key.second, projectId)
+                    )
+                }
+
+            requests.map { req ->
+                req.appendTransactionData(
+                    req.txHash?.let { transactionInfos[Pair(req.chainId, req.deployedContractId)]?.get(it) }
+                )
+            }
         } ?: emptyList()
     }
 
@@ -114,22 +130,35 @@ class ContractFunctionCallRequestServiceImpl(
     private fun StoreContractFunctionCallRequestParams.addCautionIfNeeded() =
         if (blacklistCheckService.exists(contractAddress)) copy(redirectUrl = "$redirectUrl/caution") else this
 
-    private fun ContractFunctionCallRequest.appendTransactionData(
-        project: Project
-    ): WithTransactionAndFunctionData<ContractFunctionCallRequest> {
-        val decorator = this.deployedContractId
+    private fun getDeserializableEvents(
+        deployedContractId: ContractDeploymentRequestId?,
+        projectId: ProjectId
+    ): List<DeserializableEvent> {
+        val decorator = deployedContractId
             ?.let { contractDeploymentRequestRepository.getById(it)?.contractId }
             ?.let {
                 contractDecoratorRepository.getById(it)
                     ?: importedContractDecoratorRepository.getByContractIdAndProjectId(it, projectId)
             }
 
-        val transactionInfo = ethCommonService.fetchTransactionInfo(
-            txHash = txHash,
-            chainId = chainId,
-            customRpcUrl = project.customRpcUrl,
-            events = decorator?.getDeserializableEvents(objectMapper).orEmpty()
+        return decorator?.getDeserializableEvents(objectMapper).orEmpty()
+    }
+
+    private fun ContractFunctionCallRequest.appendTransactionData(
+        project: Project
+    ): WithTransactionAndFunctionData<ContractFunctionCallRequest> =
+        appendTransactionData(
+            ethCommonService.fetchTransactionInfo(
+                txHash = txHash,
+                chainId = chainId,
+                customRpcUrl = project.customRpcUrl,
+                events = getDeserializableEvents(deployedContractId, projectId)
+            )
         )
+
+    private fun ContractFunctionCallRequest.appendTransactionData(
+        transactionInfo: BlockchainTransactionInfo?
+    ): WithTransactionAndFunctionData<ContractFunctionCallRequest> {
         val data = functionEncoderService.encode(
             functionName = functionName,
             arguments = objectMapper.treeToValue(functionParams, Array<FunctionArgument>::class.java).toList()
@@ -1,13 +1,12 @@
 package dev3.blockchainapiservice.features.contract.interfaces.repository
 
+import dev3.blockchainapiservice.features.contract.deployment.model.json.EventDecorator
 import dev3.blockchainapiservice.features.contract.deployment.model.json.InterfaceManifestJson
 import dev3.blockchainapiservice.features.contract.deployment.model.json.InterfaceManifestJsonWithId
-import dev3.blockchainapiservice.features.contract.deployment.model.json.OverridableDecorator
 import dev3.blockchainapiservice.features.contract.interfaces.model.filters.ContractInterfaceFilters
-import dev3.blockchainapiservice.model.filters.AndList
-import dev3.blockchainapiservice.model.filters.OrList
 import dev3.blockchainapiservice.util.ContractTag
 import dev3.blockchainapiservice.util.InterfaceId
+import dev3.blockchainapiservice.util.InvertedIndex
 import mu.KLogging
 import org.springframework.stereotype.Repository
 import java.util.concurrent.ConcurrentHashMap
@@ -19,10 +18,16 @@ class InMemoryContractInterfacesRepository : ContractInterfacesRepository {
 
     private val storage = ConcurrentHashMap<InterfaceId, InterfaceManifestJson>()
     private val infoMarkdownStorage = ConcurrentHashMap<InterfaceId, String>()
+    private val tagIndex = InvertedIndex<InterfaceId, ContractTag>()
+    private val functionSignatureIndex = InvertedIndex<InterfaceId, String>()
+    private val eventSignatureIndex = InvertedIndex<InterfaceId, String>()
 
     override fun store(id: InterfaceId, interfaceManifestJson: InterfaceManifestJson): InterfaceManifestJson {
         logger.info { "Storing contract interface with ID: $id" }
         storage[id] = interfaceManifestJson
+        tagIndex.put(id, interfaceManifestJson.tags.map { ContractTag(it) })
+        functionSignatureIndex.put(id, interfaceManifestJson.functionDecorators.map { it.signature })
+        eventSignatureIndex.put(id, interfaceManifestJson.eventDecorators.map { it.signature })
         return interfaceManifestJson
     }
 
@@ -35,6 +40,9 @@ class InMemoryContractInterfacesRepository : ContractInterfacesRepository {
     override fun delete(id: InterfaceId): Boolean {
         logger.info { "Deleting contract interface with ID: $id" }
         infoMarkdownStorage.remove(id)
+        tagIndex.remove(id)
+        functionSignatureIndex.remove(id)
+        eventSignatureIndex.remove(id)
         return storage.remove(id) != null
     }
 
@@ -50,18 +58,9 @@ class InMemoryContractInterfacesRepository : ContractInterfacesRepository {
 
     override fun getAll(filters: ContractInterfaceFilters): List<InterfaceManifestJsonWithId> {
         logger.debug { "Get all contract interfaces, filters: $filters" }
-        return storage.entries
-            .filterBy(filters.interfaceTags) { it.tags.map { t -> ContractTag(t) } }
-            .map {
-                InterfaceManifestJsonWithId(
-                    id = it.key,
-                    name = it.value.name,
-                    description = it.value.description,
-                    tags = it.value.tags,
-                    matchingEventDecorators = it.value.eventDecorators,
-                    matchingFunctionDecorators = it.value.functionDecorators
-                )
-            }
+        val matchingIds = tagIndex.matching(filters.interfaceTags) ?: storage.keys
+
+        return matchingIds.mapNotNull { id -> storage[id]?.let { it.withId(id, it.eventDecorators) } }
     }
 
     override fun getAllInfoMarkdownFiles(filters: ContractInterfaceFilters): List<String> {
@@ -74,47 +73,24 @@ class InMemoryContractInterfacesRepository : ContractInterfacesRepository {
         abiEventSignatures: Set<String>
     ): List<InterfaceManifestJsonWithId> {
         logger.debug { "Get all partially matching contract interfaces" }
-        return storage.entries.mapNotNull {
-            val id = it.key
-            val interfaceDecorator = it.value
-            val matchingFunctions = findMatches(interfaceDecorator.functionDecorators, abiFunctionSignatures)
-            // events do not need to match interface definition
-            val matchingEvents = findMatches(interfaceDecorator.eventDecorators, abiEventSignatures) ?: emptyList()
+        // events do not need to match interface definition
+        val matchingEventIds = eventSignatureIndex.containedIn(abiEventSignatures)
 
-            matchingFunctions?.let {
-                InterfaceManifestJsonWithId(
-                    id = id,
-                    name = interfaceDecorator.name,
-                    description = interfaceDecorator.description,
-                    tags = interfaceDecorator.tags,
-                    matchingEventDecorators = matchingEvents,
-                    matchingFunctionDecorators = matchingFunctions
-                )
-            }
+        return functionSignatureIndex.containedIn(abiFunctionSignatures).mapNotNull { id ->
+            storage[id]?.let { it.withId(id, if (id in matchingEventIds) it.eventDecorators else emptyList()) }
         }
     }
 
-    private fun <T : OverridableDecorator> findMatches(
-        interfaceDecorators: List<T>,
-        abiSignatures: Set<String>
-    ): List<T>? {
-        val interfaceDecoratorSignatures = interfaceDecorators.map { it.signature }.toSet()
-        return interfaceDecorators.takeIf { abiSignatures.containsAll(interfaceDecoratorSignatures) }
-    }
-
-    private fun <T> Collection<Map.Entry<InterfaceId, InterfaceManifestJson>>.filterBy(
-        orList: OrList<AndList<T>>,
-        values: (InterfaceManifestJson) -> List<T>
-    ): Collection<Map.Entry<InterfaceId, InterfaceManifestJson>> {
-        val conditions = orList.list.map { it.list }
-
-        return if (conditions.isEmpty()) {
-            this
-        } else {
-            filter { entry ->
-                val interfaceDecorator = values(entry.value)
-                conditions.map { condition -> interfaceDecorator.containsAll(condition) }.contains(true)
-            }
-        }
-    }
+    private fun InterfaceManifestJson.withId(
+        id: InterfaceId,
+        matchingEventDecorators: List<EventDecorator>
+    ): InterfaceManifestJsonWithId =
+        InterfaceManifestJsonWithId(
+            id = id,
+            name = name,
+            description = description,
+            tags = tags,
+            matchingEventDecorators = matchingEventDecorators,
+            matchingFunctionDecorators = functionDecorators
+        )
 }
@@ -48,11 +48,11 @@ class ClaimablePayoutsController(
             FetchMerkleTreeParams(it.payout.assetSnapshotMerkleRoot, chainIdValue, it.payout.asset)
         }
         val merkleTrees = merkleTreeParams.mapNotNull { merkleTreeRepository.fetchTree(it)?.tree }
-            .associateBy { it.root.hash }
+            .associateBy { it.rootHash }
 
         val investorPayouts = payouts.mapNotNull { payoutData ->
             val tree = merkleTrees[payoutData.payout.assetSnapshotMerkleRoot]
-            val accountBalance = tree?.leafNodesByAddress?.get(payoutData.investor)?.value?.data
+            val accountBalance = tree?.leafByAddress(payoutData.investor)
             val path = accountBalance?.let { tree.pathTo(it) }
 
             if (path != null) { // return only claimable (and already claimed) payouts for this investor
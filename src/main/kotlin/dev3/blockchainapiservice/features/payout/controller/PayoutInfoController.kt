@@ -39,7 +39,6 @@ class PayoutInfoController(private val merkleTreeRepository: MerkleTreeRepositor
         return ResponseEntity.ok(FetchMerkleTreeResponse(tree))
     }
 
-    @Suppress("ThrowsCount")
     @GetMapping("/v1/payout-info/{chainId}/{assetContractAddress}/tree/{rootHash}/path/{walletAddress}")
     fun getPayoutPath(
         @PathVariable chainId: Long,
@@ -54,27 +53,16 @@ class PayoutInfoController(private val merkleTreeRepository: MerkleTreeRepositor
             walletAddress = WalletAddress(walletAddress)
         )
 
-        val payoutExists = merkleTreeRepository.containsAddress(params)
-
-        if (payoutExists.not()) {
-            throw ResourceNotFoundException(
+        val leafPath = merkleTreeRepository.fetchPath(params)
+            ?: throw ResourceNotFoundException(
                 "Payout does not exist for specified parameters or account is not included in payout"
             )
-        }
-
-        val tree = merkleTreeRepository.fetchTree(params.toFetchMerkleTreeParams)?.tree
-            ?: throw ResourceNotFoundException("Payout does not exist for specified parameters")
-
-        val (path, accountBalance) = tree.leafNodesByAddress[params.walletAddress]?.let {
-            tree.pathTo(it.value.data)?.let { path -> Pair(path, it.value.data) }
-        }
-            ?: throw ResourceNotFoundException("Account is not included in payout")
 
         return ResponseEntity.ok(
             FetchMerkleTreePathResponse(
-                walletAddress = accountBalance.address.rawValue,
-                walletBalance = accountBalance.balance.rawValue,
-                path = path
+                walletAddress = leafPath.leaf.address.rawValue,
+                walletBalance = leafPath.leaf.balance.rawValue,
+                path = leafPath.path
             )
         )
     }
@@ -0,0 +1,12 @@
+package dev3.blockchainapiservice.features.payout.model.params
+
+import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.UtcDateTime
+
+data class ClaimPendingAssetSnapshotParams(
+    val claimedAt: UtcDateTime,
+    val claimExpiredBefore: UtcDateTime,
+    val excludedProjectIds: Set<ProjectId>,
+    val excludedChainIds: Set<ChainId>
+)
@@ -0,0 +1,9 @@
+package dev3.blockchainapiservice.features.payout.model.result
+
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.WalletAddress
+
+data class HolderScanProgress(
+    val scannedUntilBlock: BlockNumber,
+    val holders: Set<WalletAddress>
+)
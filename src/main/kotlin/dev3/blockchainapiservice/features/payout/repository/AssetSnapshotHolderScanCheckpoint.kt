@@ -0,0 +1,17 @@
+package dev3.blockchainapiservice.features.payout.repository
+
+import dev3.blockchainapiservice.features.payout.model.result.HolderScanProgress
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
+import dev3.blockchainapiservice.generated.jooq.id.AssetSnapshotId
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.WalletAddress
+
+class AssetSnapshotHolderScanCheckpoint(
+    private val assetSnapshotId: AssetSnapshotId,
+    private val assetSnapshotRepository: AssetSnapshotRepository
+) : HolderScanCheckpoint {
+    override fun load(): HolderScanProgress? = assetSnapshotRepository.getHolderScanProgress(assetSnapshotId)
+
+    override fun save(scannedUntilBlock: BlockNumber, newHolders: Set<WalletAddress>) =
+        assetSnapshotRepository.saveHolderScanProgress(assetSnapshotId, scannedUntilBlock, newHolders)
+}
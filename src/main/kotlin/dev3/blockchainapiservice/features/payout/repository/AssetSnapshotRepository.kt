@@ -1,15 +1,21 @@
 package dev3.blockchainapiservice.features.payout.repository
 
+import dev3.blockchainapiservice.features.payout.model.params.ClaimPendingAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.CreateAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.result.AssetSnapshot
+import dev3.blockchainapiservice.features.payout.model.result.HolderScanProgress
 import dev3.blockchainapiservice.features.payout.model.result.PendingAssetSnapshot
 import dev3.blockchainapiservice.features.payout.util.AssetSnapshotFailureCause
 import dev3.blockchainapiservice.features.payout.util.AssetSnapshotStatus
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
 import dev3.blockchainapiservice.features.payout.util.IpfsHash
 import dev3.blockchainapiservice.generated.jooq.id.AssetSnapshotId
 import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.UtcDateTime
+import dev3.blockchainapiservice.util.WalletAddress
 
 interface AssetSnapshotRepository {
     fun getById(assetSnapshotId: AssetSnapshotId): AssetSnapshot?
@@ -19,8 +25,10 @@ interface AssetSnapshotRepository {
         statuses: Set<AssetSnapshotStatus>
     ): List<AssetSnapshot>
 
-    fun createAssetSnapshot(params: CreateAssetSnapshotParams): AssetSnapshotId
-    fun getPending(): PendingAssetSnapshot?
+    fun createAssetSnapshot(params: CreateAssetSnapshotParams, createdAt: UtcDateTime): AssetSnapshotId
+    fun claimPending(params: ClaimPendingAssetSnapshotParams): PendingAssetSnapshot?
+    fun renewClaims(assetSnapshotIds: Set<AssetSnapshotId>, claimedAt: UtcDateTime)
+    fun countPending(): Int
 
     fun completeAssetSnapshot(
         assetSnapshotId: AssetSnapshotId,
@@ -30,4 +38,14 @@ interface AssetSnapshotRepository {
     ): AssetSnapshot?
 
     fun failAssetSnapshot(assetSnapshotId: AssetSnapshotId, cause: AssetSnapshotFailureCause): AssetSnapshot?
+
+    fun getHolderScanCheckpoint(assetSnapshotId: AssetSnapshotId): HolderScanCheckpoint
+
+    fun getHolderScanProgress(assetSnapshotId: AssetSnapshotId): HolderScanProgress?
+
+    fun saveHolderScanProgress(
+        assetSnapshotId: AssetSnapshotId,
+        scannedUntilBlock: BlockNumber,
+        newHolders: Set<WalletAddress>
+    )
 }
@@ -0,0 +1,92 @@
+package dev3.blockchainapiservice.features.payout.repository
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import dev3.blockchainapiservice.config.MerkleTreeCacheProperties
+import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreeParams
+import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreePathParams
+import dev3.blockchainapiservice.features.payout.model.result.MerkleTreeWithId
+import dev3.blockchainapiservice.features.payout.util.MerkleTree
+import dev3.blockchainapiservice.features.payout.util.MerkleTree.Companion.LeafPath
+import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.ContractAddress
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import mu.KLogging
+import org.springframework.context.annotation.Primary
+import org.springframework.stereotype.Repository
+
+/**
+ * Bounded in-process cache of Merkle trees in front of [JooqMerkleTreeRepository]. Stored Merkle trees never change,
+ * so cached trees are only evicted when the configured total leaf count is reached. Each cached tree also keeps its
+ * address index, so looking up account balances and paths for cached trees needs neither database access nor any
+ * hashing.
+ */
+@Primary
+@Repository
+class InMemoryMerkleTreeRepository(
+    private val jooqMerkleTreeRepository: JooqMerkleTreeRepository,
+    merkleTreeCacheProperties: MerkleTreeCacheProperties,
+    meterRegistry: MeterRegistry
+) : MerkleTreeRepository {
+
+    companion object : KLogging()
+
+    private val treeCache: Cache<FetchMerkleTreeParams, MerkleTreeWithId> = Caffeine.newBuilder()
+        .maximumWeight(merkleTreeCacheProperties.maxLeafCount)
+        .weigher<FetchMerkleTreeParams, MerkleTreeWithId> { _, value -> value.tree.leaves.size }
+        .recordStats()
+        .build<FetchMerkleTreeParams, MerkleTreeWithId>()
+        .also { CaffeineCacheMetrics.monitor(meterRegistry, it, "payout.merkle-tree") }
+
+    private val treeParamsById: Cache<MerkleTreeRootId, FetchMerkleTreeParams> = Caffeine.newBuilder()
+        .maximumSize(merkleTreeCacheProperties.maxTreeIds)
+        .build()
+
+    override fun getById(treeId: MerkleTreeRootId): MerkleTree? =
+        treeParamsById.getIfPresent(treeId)?.let { treeCache.getIfPresent(it)?.tree }
+            ?: jooqMerkleTreeRepository.getById(treeId)
+
+    override fun storeTree(
+        tree: MerkleTree,
+        chainId: ChainId,
+        assetContractAddress: ContractAddress,
+        blockNumber: BlockNumber
+    ): MerkleTreeRootId {
+        val treeId = jooqMerkleTreeRepository.storeTree(tree, chainId, assetContractAddress, blockNumber)
+        val params = FetchMerkleTreeParams(tree.rootHash, chainId, assetContractAddress)
+
+        treeCache.put(params, MerkleTreeWithId(treeId, tree))
+        treeParamsById.put(treeId, params)
+
+        return treeId
+    }
+
+    override fun fetchTree(params: FetchMerkleTreeParams): MerkleTreeWithId? =
+        treeCache.get(params) { // concurrent requests for the same tree will wait for a single database load
+            jooqMerkleTreeRepository.fetchTree(it)?.also { tree ->
+                logger.debug { "Caching Merkle tree, params: $params" }
+                treeParamsById.put(tree.treeId, params)
+            }
+        }
+
+    override fun containsAddress(params: FetchMerkleTreePathParams): Boolean =
+        treeCache.getIfPresent(params.toFetchMerkleTreeParams)
+            ?.let { it.tree.leafByAddress(params.walletAddress) != null }
+            ?: jooqMerkleTreeRepository.containsAddress(params)
+
+    override fun fetchPath(params: FetchMerkleTreePathParams): LeafPath? {
+        val cachedTree = treeCache.getIfPresent(params.toFetchMerkleTreeParams)?.tree
+            ?: return jooqMerkleTreeRepository.fetchPath(params)
+
+        return cachedTree.leafPathByAddress(params.walletAddress)
+    }
+
+    override fun getTreeIdsWithoutProofs(limit: Int): List<MerkleTreeRootId> =
+        jooqMerkleTreeRepository.getTreeIdsWithoutProofs(limit)
+
+    override fun storeMissingProofs(treeId: MerkleTreeRootId) =
+        jooqMerkleTreeRepository.storeMissingProofs(treeId)
+}
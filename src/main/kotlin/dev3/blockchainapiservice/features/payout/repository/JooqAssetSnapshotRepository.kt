@@ -1,20 +1,28 @@
 package dev3.blockchainapiservice.features.payout.repository
 
+import dev3.blockchainapiservice.features.payout.model.params.ClaimPendingAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.CreateAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.result.AssetSnapshot
+import dev3.blockchainapiservice.features.payout.model.result.HolderScanProgress
 import dev3.blockchainapiservice.features.payout.model.result.OtherAssetSnapshotData
 import dev3.blockchainapiservice.features.payout.model.result.PendingAssetSnapshot
 import dev3.blockchainapiservice.features.payout.model.result.SuccessfulAssetSnapshotData
 import dev3.blockchainapiservice.features.payout.util.AssetSnapshotFailureCause
 import dev3.blockchainapiservice.features.payout.util.AssetSnapshotStatus
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
 import dev3.blockchainapiservice.features.payout.util.IpfsHash
 import dev3.blockchainapiservice.generated.jooq.id.AssetSnapshotId
 import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.generated.jooq.tables.AssetSnapshotHolderScanCheckpointTable
+import dev3.blockchainapiservice.generated.jooq.tables.AssetSnapshotHolderTable
 import dev3.blockchainapiservice.generated.jooq.tables.AssetSnapshotTable
+import dev3.blockchainapiservice.generated.jooq.tables.records.AssetSnapshotHolderScanCheckpointRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.AssetSnapshotRecord
 import dev3.blockchainapiservice.service.UuidProvider
 import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.UtcDateTime
 import dev3.blockchainapiservice.util.WalletAddress
 import mu.KLogging
 import org.jooq.DSLContext
@@ -25,7 +33,9 @@ import org.springframework.stereotype.Repository
 class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private val uuidProvider: UuidProvider) :
     AssetSnapshotRepository {
 
-    companion object : KLogging()
+    companion object : KLogging() {
+        private const val HOLDER_INSERT_CHUNK_SIZE = 1_000
+    }
 
     override fun getById(assetSnapshotId: AssetSnapshotId): AssetSnapshot? {
         logger.debug { "Fetching asset snapshot, assetSnapshotId: $assetSnapshotId" }
@@ -51,8 +61,8 @@ class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private va
             .fetch { it.toModel() }
     }
 
-    override fun createAssetSnapshot(params: CreateAssetSnapshotParams): AssetSnapshotId {
-        logger.info { "Storing pending asset snapshot, params: $params" }
+    override fun createAssetSnapshot(params: CreateAssetSnapshotParams, createdAt: UtcDateTime): AssetSnapshotId {
+        logger.info { "Storing pending asset snapshot, params: $params, createdAt: $createdAt" }
 
         val assetSnapshotId = uuidProvider.getUuid(AssetSnapshotId)
 
@@ -69,19 +79,42 @@ class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private va
                 resultTree = null,
                 treeIpfsHash = null,
                 totalAssetAmount = null,
-                failureCause = null
+                failureCause = null,
+                claimedAt = null,
+                createdAt = createdAt
             )
         )
 
         return assetSnapshotId
     }
 
-    override fun getPending(): PendingAssetSnapshot? {
-        return dslContext.selectFrom(AssetSnapshotTable)
-            .where(AssetSnapshotTable.STATUS.eq(AssetSnapshotStatus.PENDING))
+    override fun claimPending(params: ClaimPendingAssetSnapshotParams): PendingAssetSnapshot? {
+        logger.debug { "Claiming pending asset snapshot, params: $params" }
+
+        val conditions = listOfNotNull(
+            AssetSnapshotTable.STATUS.eq(AssetSnapshotStatus.PENDING),
+            AssetSnapshotTable.CLAIMED_AT.isNull.or(AssetSnapshotTable.CLAIMED_AT.lt(params.claimExpiredBefore)),
+            params.excludedProjectIds.takeIf { it.isNotEmpty() }?.let { AssetSnapshotTable.PROJECT_ID.notIn(it) },
+            params.excludedChainIds.takeIf { it.isNotEmpty() }?.let { AssetSnapshotTable.CHAIN_ID.notIn(it) }
+        )
+
+        // row lock is only held for the duration of this statement; claimed_at keeps other workers away afterwards
+        val pendingAssetSnapshotId = DSL.select(AssetSnapshotTable.ID)
+            .from(AssetSnapshotTable)
+            .where(DSL.and(conditions))
+            .orderBy(
+                AssetSnapshotTable.CLAIMED_AT.asc().nullsFirst(),
+                AssetSnapshotTable.CREATED_AT.asc(),
+                AssetSnapshotTable.ID.asc()
+            )
             .limit(1)
             .forUpdate()
             .skipLocked()
+
+        return dslContext.update(AssetSnapshotTable)
+            .set(AssetSnapshotTable.CLAIMED_AT, params.claimedAt)
+            .where(AssetSnapshotTable.ID.eq(pendingAssetSnapshotId))
+            .returning()
             .fetchOne()?.let {
                 PendingAssetSnapshot(
                     id = it.id,
@@ -95,6 +128,22 @@ class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private va
             }
     }
 
+    override fun renewClaims(assetSnapshotIds: Set<AssetSnapshotId>, claimedAt: UtcDateTime) {
+        logger.debug { "Renewing asset snapshot claims, assetSnapshotIds: $assetSnapshotIds, claimedAt: $claimedAt" }
+        dslContext.update(AssetSnapshotTable)
+            .set(AssetSnapshotTable.CLAIMED_AT, claimedAt)
+            .where(
+                DSL.and(
+                    AssetSnapshotTable.ID.`in`(assetSnapshotIds),
+                    AssetSnapshotTable.STATUS.eq(AssetSnapshotStatus.PENDING)
+                )
+            )
+            .execute()
+    }
+
+    override fun countPending(): Int =
+        dslContext.fetchCount(AssetSnapshotTable, AssetSnapshotTable.STATUS.eq(AssetSnapshotStatus.PENDING))
+
     override fun completeAssetSnapshot(
         assetSnapshotId: AssetSnapshotId,
         merkleTreeRootId: MerkleTreeRootId,
@@ -106,6 +155,7 @@ class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private va
                 " merkleTreeRootId: $merkleTreeRootId, merkleTreeIpfsHash: $merkleTreeIpfsHash," +
                 " totalAssetAmount: $totalAssetAmount"
         }
+        deleteHolderScanProgress(assetSnapshotId)
         return dslContext.update(AssetSnapshotTable)
             .set(AssetSnapshotTable.STATUS, AssetSnapshotStatus.SUCCESS)
             .set(AssetSnapshotTable.RESULT_TREE, merkleTreeRootId)
@@ -119,6 +169,7 @@ class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private va
 
     override fun failAssetSnapshot(assetSnapshotId: AssetSnapshotId, cause: AssetSnapshotFailureCause): AssetSnapshot? {
         logger.info { "Marking asset snapshot as failed, assetSnapshotId: $assetSnapshotId" }
+        deleteHolderScanProgress(assetSnapshotId)
         return dslContext.update(AssetSnapshotTable)
             .set(AssetSnapshotTable.STATUS, AssetSnapshotStatus.FAILED)
             .set(AssetSnapshotTable.FAILURE_CAUSE, cause)
@@ -128,6 +179,69 @@ class JooqAssetSnapshotRepository(private val dslContext: DSLContext, private va
             ?.toModel()
     }
 
+    override fun getHolderScanCheckpoint(assetSnapshotId: AssetSnapshotId): HolderScanCheckpoint =
+        AssetSnapshotHolderScanCheckpoint(assetSnapshotId, this)
+
+    override fun getHolderScanProgress(assetSnapshotId: AssetSnapshotId): HolderScanProgress? {
+        logger.debug { "Fetching holder scan progress, assetSnapshotId: $assetSnapshotId" }
+
+        val scannedUntilBlock = dslContext.select(AssetSnapshotHolderScanCheckpointTable.BLOCK_NUMBER)
+            .from(AssetSnapshotHolderScanCheckpointTable)
+            .where(AssetSnapshotHolderScanCheckpointTable.ASSET_SNAPSHOT_ID.eq(assetSnapshotId))
+            .fetchOne(AssetSnapshotHolderScanCheckpointTable.BLOCK_NUMBER)
+
+        return scannedUntilBlock?.let {
+            HolderScanProgress(
+                scannedUntilBlock = it,
+                holders = dslContext.select(AssetSnapshotHolderTable.HOLDER_ADDRESS)
+                    .from(AssetSnapshotHolderTable)
+                    .where(AssetSnapshotHolderTable.ASSET_SNAPSHOT_ID.eq(assetSnapshotId))
+                    .fetchSet(AssetSnapshotHolderTable.HOLDER_ADDRESS)
+            )
+        }
+    }
+
+    override fun saveHolderScanProgress(
+        assetSnapshotId: AssetSnapshotId,
+        scannedUntilBlock: BlockNumber,
+        newHolders: Set<WalletAddress>
+    ) {
+        logger.debug {
+            "Saving holder scan progress, assetSnapshotId: $assetSnapshotId, scannedUntilBlock: $scannedUntilBlock," +
+                " newHolders: ${newHolders.size}"
+        }
+
+        // holders are stored before the checkpoint is moved, so a crash in between only causes a re-scan; they are
+        // inserted in chunks since a single statement for all of them could exceed the bind value limit of Postgres
+        newHolders.chunked(HOLDER_INSERT_CHUNK_SIZE).forEach { holders ->
+            val insert = dslContext.insertInto(
+                AssetSnapshotHolderTable,
+                AssetSnapshotHolderTable.ASSET_SNAPSHOT_ID,
+                AssetSnapshotHolderTable.HOLDER_ADDRESS
+            )
+
+            holders.fold(insert) { query, holder -> query.values(assetSnapshotId, holder) }
+                .onConflictDoNothing()
+                .execute()
+        }
+
+        dslContext.insertInto(AssetSnapshotHolderScanCheckpointTable)
+            .set(AssetSnapshotHolderScanCheckpointRecord(assetSnapshotId, scannedUntilBlock))
+            .onConflict(AssetSnapshotHolderScanCheckpointTable.ASSET_SNAPSHOT_ID)
+            .doUpdate()
+            .set(AssetSnapshotHolderScanCheckpointTable.BLOCK_NUMBER, scannedUntilBlock)
+            .execute()
+    }
+
+    private fun deleteHolderScanProgress(assetSnapshotId: AssetSnapshotId) {
+        dslContext.deleteFrom(AssetSnapshotHolderScanCheckpointTable)
+            .where(AssetSnapshotHolderScanCheckpointTable.ASSET_SNAPSHOT_ID.eq(assetSnapshotId))
+            .execute()
+        dslContext.deleteFrom(AssetSnapshotHolderTable)
+            .where(AssetSnapshotHolderTable.ASSET_SNAPSHOT_ID.eq(assetSnapshotId))
+            .execute()
+    }
+
     private fun AssetSnapshotRecord.toModel(): AssetSnapshot {
         val assetSnapshotData = if (status == AssetSnapshotStatus.SUCCESS) {
             SuccessfulAssetSnapshotData(
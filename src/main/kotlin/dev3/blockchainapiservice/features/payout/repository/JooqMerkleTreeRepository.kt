@@ -3,7 +3,10 @@ package dev3.blockchainapiservice.features.payout.repository
 import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreeParams
 import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreePathParams
 import dev3.blockchainapiservice.features.payout.model.result.MerkleTreeWithId
+import dev3.blockchainapiservice.features.payout.util.MerkleHash
 import dev3.blockchainapiservice.features.payout.util.MerkleTree
+import dev3.blockchainapiservice.features.payout.util.MerkleTree.Companion.LeafPath
+import dev3.blockchainapiservice.features.payout.util.MerkleTree.Companion.PathSegment
 import dev3.blockchainapiservice.features.payout.util.PayoutAccountBalance
 import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeLeafId
 import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
@@ -24,7 +27,9 @@ import org.springframework.stereotype.Repository
 class JooqMerkleTreeRepository(private val dslContext: DSLContext, private val uuidProvider: UuidProvider) :
     MerkleTreeRepository {
 
-    companion object : KLogging()
+    companion object : KLogging() {
+        private const val LEAF_INSERT_CHUNK_SIZE = 1_000
+    }
 
     override fun getById(treeId: MerkleTreeRootId): MerkleTree? {
         logger.debug { "Fetching Merkle tree, treeId: $treeId" }
@@ -42,7 +47,7 @@ class JooqMerkleTreeRepository(private val dslContext: DSLContext, private val u
         blockNumber: BlockNumber
     ): MerkleTreeRootId {
         logger.info {
-            "Storing Merkle tree with root hash: ${tree.root.hash} for chainId: $chainId," +
+            "Storing Merkle tree with root hash: ${tree.rootHash} for chainId: $chainId," +
                 " assetContractAddress: $assetContractAddress, blockNumber: $blockNumber"
         }
 
@@ -54,25 +59,31 @@ class JooqMerkleTreeRepository(private val dslContext: DSLContext, private val u
                 chainId = chainId,
                 assetContractAddress = assetContractAddress,
                 blockNumber = blockNumber,
-                merkleHash = tree.root.hash,
-                hashFn = tree.hashFn
+                merkleHash = tree.rootHash,
+                hashFn = tree.hashFn,
+                proofBackfillFailed = false
             )
         )
 
-        val insert = dslContext.insertQuery(MerkleTreeLeafNodeTable)
-
-        tree.leafNodesByHash.values.forEach {
-            insert.addRecord(
-                MerkleTreeLeafNodeRecord(
-                    id = uuidProvider.getUuid(MerkleTreeLeafId),
-                    merkleRoot = rootId,
-                    walletAddress = it.value.data.address,
-                    assetAmount = it.value.data.balance
+        // leaves are inserted in chunks since a single statement for all of them could exceed the bind value limit
+        tree.leafPaths.chunked(LEAF_INSERT_CHUNK_SIZE).forEach { leafPaths ->
+            val insert = dslContext.insertQuery(MerkleTreeLeafNodeTable)
+
+            leafPaths.forEach {
+                insert.addRecord(
+                    MerkleTreeLeafNodeRecord(
+                        id = uuidProvider.getUuid(MerkleTreeLeafId),
+                        merkleRoot = rootId,
+                        walletAddress = it.leaf.address,
+                        assetAmount = it.leaf.balance,
+                        leafIndex = it.leafIndex,
+                        merkleProof = it.merkleProof
+                    )
                 )
-            )
-        }
+            }
 
-        insert.execute()
+            insert.execute()
+        }
 
         return rootId
     }
@@ -92,7 +103,7 @@ class JooqMerkleTreeRepository(private val dslContext: DSLContext, private val u
 
         val tree = rebuildTree(root)
 
-        return if (tree.root.hash == params.rootHash) {
+        return if (tree.rootHash == params.rootHash) {
             logger.debug { "Successfully fetched and reconstructed Merkle tree, params: $params" }
             MerkleTreeWithId(root.id, tree)
         } else {
@@ -125,10 +136,102 @@ class JooqMerkleTreeRepository(private val dslContext: DSLContext, private val u
         )
     }
 
+    override fun fetchPath(params: FetchMerkleTreePathParams): LeafPath? {
+        logger.debug { "Fetching Merkle tree path, params: $params" }
+
+        val leafRecord = dslContext.selectFrom(MerkleTreeLeafNodeTable)
+            .where(
+                DSL.and(
+                    MerkleTreeLeafNodeTable.MERKLE_ROOT.eq(
+                        DSL.select(MerkleTreeRootTable.ID)
+                            .from(MerkleTreeRootTable)
+                            .where(
+                                DSL.and(
+                                    MerkleTreeRootTable.CHAIN_ID.eq(params.chainId),
+                                    MerkleTreeRootTable.ASSET_CONTRACT_ADDRESS.eq(params.assetContractAddress),
+                                    MerkleTreeRootTable.MERKLE_HASH.eq(params.rootHash)
+                                )
+                            )
+                    ),
+                    MerkleTreeLeafNodeTable.WALLET_ADDRESS.eq(params.walletAddress)
+                )
+            )
+            .fetchOne() ?: return null
+
+        val leafIndex = leafRecord.leafIndex
+        val merkleProof = leafRecord.merkleProof
+
+        return if (leafIndex != null && merkleProof != null) {
+            LeafPath(
+                leaf = PayoutAccountBalance(leafRecord.walletAddress, leafRecord.assetAmount),
+                path = merkleProof.mapIndexed { layerIndex, siblingHash ->
+                    PathSegment(MerkleHash(siblingHash), (leafIndex shr layerIndex) and 1 == 1)
+                }
+            )
+        } else {
+            logger.debug { "Merkle proof is not stored yet, rebuilding Merkle tree, params: $params" }
+            getById(leafRecord.merkleRoot)?.leafPathByAddress(params.walletAddress)
+        }
+    }
+
+    override fun getTreeIdsWithoutProofs(limit: Int): List<MerkleTreeRootId> {
+        logger.debug { "Fetching Merkle tree IDs without stored proofs, limit: $limit" }
+        return dslContext.selectDistinct(MerkleTreeLeafNodeTable.MERKLE_ROOT)
+            .from(MerkleTreeLeafNodeTable)
+            .join(MerkleTreeRootTable)
+            .on(MerkleTreeRootTable.ID.eq(MerkleTreeLeafNodeTable.MERKLE_ROOT))
+            .where(
+                DSL.and(
+                    MerkleTreeLeafNodeTable.MERKLE_PROOF.isNull,
+                    MerkleTreeRootTable.PROOF_BACKFILL_FAILED.isFalse
+                )
+            )
+            .limit(limit)
+            .fetch { it.value1() }
+    }
+
+    override fun storeMissingProofs(treeId: MerkleTreeRootId) {
+        val root = dslContext.selectFrom(MerkleTreeRootTable)
+            .where(MerkleTreeRootTable.ID.eq(treeId))
+            .fetchOne() ?: return
+
+        val tree = rebuildTree(root)
+
+        if (tree.rootHash != root.merkleHash) {
+            logger.error { "Failed to reconstruct Merkle tree, proofs will not be stored for treeId: $treeId" }
+
+            // tree is excluded from further backfill runs, since its stored leaves will never produce its root hash
+            dslContext.update(MerkleTreeRootTable)
+                .set(MerkleTreeRootTable.PROOF_BACKFILL_FAILED, true)
+                .where(MerkleTreeRootTable.ID.eq(treeId))
+                .execute()
+            return
+        }
+
+        logger.info { "Storing Merkle proofs for treeId: $treeId" }
+
+        dslContext.batch(
+            tree.leafPaths.map {
+                dslContext.update(MerkleTreeLeafNodeTable)
+                    .set(MerkleTreeLeafNodeTable.LEAF_INDEX, it.leafIndex)
+                    .set(MerkleTreeLeafNodeTable.MERKLE_PROOF, it.merkleProof)
+                    .where(
+                        DSL.and(
+                            MerkleTreeLeafNodeTable.MERKLE_ROOT.eq(treeId),
+                            MerkleTreeLeafNodeTable.WALLET_ADDRESS.eq(it.leaf.address)
+                        )
+                    )
+            }.toList()
+        ).execute()
+    }
+
     private fun rebuildTree(root: MerkleTreeRootRecord): MerkleTree {
         val leafNodes = dslContext.selectFrom(MerkleTreeLeafNodeTable)
             .where(MerkleTreeLeafNodeTable.MERKLE_ROOT.eq(root.id))
             .fetch { PayoutAccountBalance(it.walletAddress, it.assetAmount) }
         return MerkleTree(leafNodes, root.hashFn)
     }
+
+    private val LeafPath.merkleProof: Array<String>
+        get() = path.map { it.siblingHash.value }.toTypedArray()
 }
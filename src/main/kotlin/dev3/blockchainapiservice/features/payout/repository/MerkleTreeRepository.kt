@@ -4,6 +4,7 @@ import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreePar
 import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreePathParams
 import dev3.blockchainapiservice.features.payout.model.result.MerkleTreeWithId
 import dev3.blockchainapiservice.features.payout.util.MerkleTree
+import dev3.blockchainapiservice.features.payout.util.MerkleTree.Companion.LeafPath
 import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
 import dev3.blockchainapiservice.util.BlockNumber
 import dev3.blockchainapiservice.util.ChainId
@@ -20,4 +21,7 @@ interface MerkleTreeRepository {
 
     fun fetchTree(params: FetchMerkleTreeParams): MerkleTreeWithId?
     fun containsAddress(params: FetchMerkleTreePathParams): Boolean
+    fun fetchPath(params: FetchMerkleTreePathParams): LeafPath?
+    fun getTreeIdsWithoutProofs(limit: Int): List<MerkleTreeRootId>
+    fun storeMissingProofs(treeId: MerkleTreeRootId)
 }
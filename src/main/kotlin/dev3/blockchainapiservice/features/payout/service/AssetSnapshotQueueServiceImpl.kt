@@ -5,6 +5,7 @@ import dev3.blockchainapiservice.blockchain.BlockchainService
 import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.config.PayoutQueueProperties
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
+import dev3.blockchainapiservice.features.payout.model.params.ClaimPendingAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.CreateAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreeParams
 import dev3.blockchainapiservice.features.payout.model.result.AssetSnapshot
@@ -23,13 +24,18 @@ import dev3.blockchainapiservice.generated.jooq.id.AssetSnapshotId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.model.result.FullContractDeploymentTransactionInfo
 import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import dev3.blockchainapiservice.service.UtcDateTimeProvider
 import dev3.blockchainapiservice.util.Balance
 import dev3.blockchainapiservice.util.BlockNumber
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
 import mu.KLogging
 import org.springframework.beans.factory.DisposableBean
 import org.springframework.stereotype.Service
 import java.math.BigInteger
 import java.util.concurrent.TimeUnit
+import kotlin.time.toKotlinDuration
 
 @Service
 class AssetSnapshotQueueServiceImpl(
@@ -39,7 +45,9 @@ class AssetSnapshotQueueServiceImpl(
     private val ipfsService: IpfsService,
     private val blockchainService: BlockchainService,
     private val objectMapper: ObjectMapper,
-    payoutQueueProperties: PayoutQueueProperties,
+    private val utcDateTimeProvider: UtcDateTimeProvider,
+    private val payoutQueueProperties: PayoutQueueProperties,
+    private val meterRegistry: MeterRegistry,
     scheduledExecutorServiceProvider: ScheduledExecutorServiceProvider
 ) : AssetSnapshotQueueService, DisposableBean {
 
@@ -47,25 +55,50 @@ class AssetSnapshotQueueServiceImpl(
         const val QUEUE_NAME = "AssetSnapshotQueue"
     }
 
-    private val executorService = scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor(QUEUE_NAME)
+    private val inProgressAssetSnapshots = HashMap<AssetSnapshotId, PendingAssetSnapshot>()
+    private val claimRenewalExecutorService =
+        scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor("$QUEUE_NAME-claim-renewal")
+    private val executorServices = (1..payoutQueueProperties.workers.coerceAtLeast(1)).map {
+        scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor("$QUEUE_NAME-$it")
+    }
 
     init {
-        executorService.scheduleAtFixedRate(
-            command = { processAssetSnapshots() },
-            initialDelay = payoutQueueProperties.initialDelay,
-            period = payoutQueueProperties.polling,
+        Gauge.builder("asset.snapshot.queue.depth", assetSnapshotRepository) { it.countPending().toDouble() }
+            .description("Number of pending asset snapshots")
+            .register(meterRegistry)
+        Gauge.builder("asset.snapshot.queue.in.progress", inProgressAssetSnapshots) {
+            synchronized(it) { it.size }.toDouble()
+        }
+            .description("Number of asset snapshots which are currently being processed")
+            .register(meterRegistry)
+
+        // claims are short leases, so they are renewed while the claimed asset snapshots are being processed
+        claimRenewalExecutorService.scheduleAtFixedRate(
+            command = { renewClaims() },
+            initialDelay = payoutQueueProperties.claimRenewalInterval.toMillis(),
+            period = payoutQueueProperties.claimRenewalInterval.toMillis(),
             unit = TimeUnit.MILLISECONDS
         )
+
+        executorServices.forEach {
+            it.scheduleAtFixedRate(
+                command = { processAssetSnapshots() },
+                initialDelay = payoutQueueProperties.initialDelay,
+                period = payoutQueueProperties.polling,
+                unit = TimeUnit.MILLISECONDS
+            )
+        }
     }
 
     override fun destroy() {
-        logger.info { "Shutting down asset snapshot queue executor service..." }
-        executorService.shutdown()
+        logger.info { "Shutting down asset snapshot queue executor services..." }
+        executorServices.forEach { it.shutdown() }
+        claimRenewalExecutorService.shutdown()
     }
 
     override fun submitAssetSnapshot(params: CreateAssetSnapshotParams): AssetSnapshotId {
         logger.info { "Asset snapshot request with params: $params" }
-        return assetSnapshotRepository.createAssetSnapshot(params)
+        return assetSnapshotRepository.createAssetSnapshot(params, utcDateTimeProvider.getUtcDateTime())
     }
 
     override fun getAssetSnapshotById(assetSnapshotId: AssetSnapshotId): FullAssetSnapshot? {
@@ -104,35 +137,94 @@ class AssetSnapshotQueueServiceImpl(
             tree?.let {
                 FullAssetSnapshotData(
                     totalAssetAmount = totalAssetAmount,
-                    merkleRootHash = it.root.hash,
+                    merkleRootHash = it.rootHash,
                     merkleTreeIpfsHash = merkleTreeIpfsHash,
-                    merkleTreeDepth = it.root.depth,
+                    merkleTreeDepth = it.depth,
                     hashFn = it.hashFn
                 )
             }
         } else null
     }
 
-    @Suppress("TooGenericExceptionCaught")
     private fun processAssetSnapshots() {
-        assetSnapshotRepository.getPending()?.let { assetSnapshot ->
+        // each worker keeps draining the queue until there is nothing left for it to claim
+        generateSequence { claimPendingAssetSnapshot() }.forEach { assetSnapshot ->
+            val sample = Timer.start(meterRegistry)
+
             try {
-                handlePendingAssetSnapshot(assetSnapshot)
-            } catch (ex: Throwable) {
-                logger.error {
-                    "Failed to handle pending asset snapshot, assetSnapshotId: ${assetSnapshot.id}: ${ex.message}"
-                }
+                val outcome = processAssetSnapshot(assetSnapshot)
 
-                val cause = when (ex.cause?.message?.contains("Log response size exceeded")) {
-                    true -> AssetSnapshotFailureCause.LOG_RESPONSE_LIMIT
-                    else -> AssetSnapshotFailureCause.OTHER
+                sample.stop(
+                    Timer.builder("asset.snapshot.processing")
+                        .description("Time needed to process a single asset snapshot")
+                        .tags("chainId", assetSnapshot.chainId.value.toString(), "outcome", outcome)
+                        .register(meterRegistry)
+                )
+            } finally {
+                synchronized(inProgressAssetSnapshots) {
+                    inProgressAssetSnapshots.remove(assetSnapshot.id)
                 }
+            }
+        }
+    }
+
+    /**
+     * Claims next pending asset snapshot, skipping chains which are already handled by `maxWorkersPerChain` workers.
+     * Projects which already have an asset snapshot in progress are skipped as long as there is other pending work.
+     */
+    private fun claimPendingAssetSnapshot(): PendingAssetSnapshot? = synchronized(inProgressAssetSnapshots) {
+        val busyProjectIds = inProgressAssetSnapshots.values.mapTo(HashSet()) { it.projectId }
+        val busyChainIds = inProgressAssetSnapshots.values.groupingBy { it.chainId }.eachCount()
+            .filterValues { it >= payoutQueueProperties.maxWorkersPerChain }
+            .keys
+        val claimedAt = utcDateTimeProvider.getUtcDateTime()
+        val params = ClaimPendingAssetSnapshotParams(
+            claimedAt = claimedAt,
+            claimExpiredBefore = claimedAt - payoutQueueProperties.claimDuration.toKotlinDuration(),
+            excludedProjectIds = busyProjectIds,
+            excludedChainIds = busyChainIds
+        )
 
-                assetSnapshotRepository.failAssetSnapshot(assetSnapshot.id, cause)
+        val assetSnapshot = assetSnapshotRepository.claimPending(params)
+            ?: busyProjectIds.takeIf { it.isNotEmpty() }?.let {
+                assetSnapshotRepository.claimPending(params.copy(excludedProjectIds = emptySet()))
+            }
+
+        assetSnapshot?.also { inProgressAssetSnapshots[it.id] = it }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun renewClaims() {
+        val assetSnapshotIds = synchronized(inProgressAssetSnapshots) { inProgressAssetSnapshots.keys.toSet() }
+
+        if (assetSnapshotIds.isNotEmpty()) {
+            try {
+                assetSnapshotRepository.renewClaims(assetSnapshotIds, utcDateTimeProvider.getUtcDateTime())
+            } catch (ex: Exception) {
+                logger.warn { "Failed to renew claims of asset snapshots: $assetSnapshotIds: ${ex.message}" }
             }
         }
     }
 
+    @Suppress("TooGenericExceptionCaught")
+    private fun processAssetSnapshot(assetSnapshot: PendingAssetSnapshot): String =
+        try {
+            handlePendingAssetSnapshot(assetSnapshot)
+            "success"
+        } catch (ex: Throwable) {
+            logger.error {
+                "Failed to handle pending asset snapshot, assetSnapshotId: ${assetSnapshot.id}: ${ex.message}"
+            }
+
+            val cause = when (ex.cause?.message?.contains("Log response size exceeded")) {
+                true -> AssetSnapshotFailureCause.LOG_RESPONSE_LIMIT
+                else -> AssetSnapshotFailureCause.OTHER
+            }
+
+            assetSnapshotRepository.failAssetSnapshot(assetSnapshot.id, cause)
+            "failure"
+        }
+
     private fun handlePendingAssetSnapshot(assetSnapshot: PendingAssetSnapshot) {
         val project = projectRepository.getById(assetSnapshot.projectId)!!
         val chainSpec = ChainSpec(
@@ -154,7 +246,8 @@ class AssetSnapshotQueueServiceImpl(
             erc20ContractAddress = assetSnapshot.assetContractAddress,
             ignoredErc20Addresses = assetSnapshot.ignoredHolderAddresses,
             startBlock = contractDeploymentBlock,
-            endBlock = assetSnapshot.blockNumber
+            endBlock = assetSnapshot.blockNumber,
+            holderScanCheckpoint = assetSnapshotRepository.getHolderScanCheckpoint(assetSnapshot.id)
         )
 
         val totalAssetAmount = Balance(balances.sumOf { it.balance.rawValue })
@@ -163,7 +256,7 @@ class AssetSnapshotQueueServiceImpl(
 
         val tree = MerkleTree(balances, HashFunction.KECCAK_256)
         val alreadyInsertedTree = merkleTreeRepository.fetchTree(
-            FetchMerkleTreeParams(tree.root.hash, assetSnapshot.chainId, assetSnapshot.assetContractAddress)
+            FetchMerkleTreeParams(tree.rootHash, assetSnapshot.chainId, assetSnapshot.assetContractAddress)
         )
 
         val rootId = if (alreadyInsertedTree != null) {
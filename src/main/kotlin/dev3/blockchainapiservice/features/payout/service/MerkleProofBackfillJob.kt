@@ -0,0 +1,52 @@
+package dev3.blockchainapiservice.features.payout.service
+
+import dev3.blockchainapiservice.config.MerkleProofBackfillProperties
+import dev3.blockchainapiservice.features.payout.repository.MerkleTreeRepository
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import mu.KLogging
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.stereotype.Component
+import java.util.concurrent.TimeUnit
+
+/**
+ * Stores leaf indices and Merkle proofs for Merkle trees which were stored before proofs were persisted, so that
+ * payout paths of those trees can also be served without rebuilding the whole tree.
+ */
+@Component
+class MerkleProofBackfillJob(
+    private val merkleTreeRepository: MerkleTreeRepository,
+    private val merkleProofBackfillProperties: MerkleProofBackfillProperties,
+    scheduledExecutorServiceProvider: ScheduledExecutorServiceProvider
+) : DisposableBean {
+
+    companion object : KLogging() {
+        const val JOB_NAME = "MerkleProofBackfillJob"
+    }
+
+    private val executorService = scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor(JOB_NAME)
+
+    init {
+        executorService.scheduleAtFixedRate(
+            command = { backfillProofs() },
+            initialDelay = merkleProofBackfillProperties.initialDelay,
+            period = merkleProofBackfillProperties.polling,
+            unit = TimeUnit.MILLISECONDS
+        )
+    }
+
+    override fun destroy() {
+        logger.info { "Shutting down Merkle proof backfill job executor service..." }
+        executorService.shutdown()
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun backfillProofs() {
+        merkleTreeRepository.getTreeIdsWithoutProofs(merkleProofBackfillProperties.treesPerRun).forEach {
+            try {
+                merkleTreeRepository.storeMissingProofs(it)
+            } catch (ex: Exception) {
+                logger.warn(ex) { "Failed to store Merkle proofs for treeId: $it" }
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev3.blockchainapiservice.features.payout.util
+
+import dev3.blockchainapiservice.features.payout.model.result.HolderScanProgress
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.WalletAddress
+
+interface HolderScanCheckpoint {
+    fun load(): HolderScanProgress?
+    fun save(scannedUntilBlock: BlockNumber, newHolders: Set<WalletAddress>)
+
+    object None : HolderScanCheckpoint {
+        override fun load(): HolderScanProgress? = null
+        override fun save(scannedUntilBlock: BlockNumber, newHolders: Set<WalletAddress>) = Unit
+    }
+}
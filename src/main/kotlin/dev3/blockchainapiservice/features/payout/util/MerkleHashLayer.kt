@@ -0,0 +1,169 @@
+package dev3.blockchainapiservice.features.payout.util
+
+import java.util.Arrays
+
+/**
+ * Hashes of a single Merkle tree layer packed into one byte array. Each hash is stored as a header byte followed by its
+ * hex digits packed two per byte. The header records whether the hash had `0x` prefix and odd number of hex digits, so
+ * that the original [MerkleHash] value can be restored exactly.
+ */
+class MerkleHashLayer private constructor(private val bytes: ByteArray, private val offsets: IntArray) {
+
+    companion object {
+        private const val HEX_PREFIX = "0x"
+        private const val HEX_RADIX = 16
+        private const val NIBBLE_BITS = 4
+        private const val NIBBLE_MASK = 0x0F
+        private const val BYTE_MASK = 0xFF
+        private const val PREFIXED_FLAG = 1
+        private const val ODD_LENGTH_FLAG = 2
+        private const val DEFAULT_HASH_BYTES = 33
+
+        fun of(vararg hashes: MerkleHash): MerkleHashLayer =
+            hashes.fold(Builder(hashes.size)) { builder, hash -> builder.add(hash) }.build()
+    }
+
+    val size: Int
+        get() = offsets.size - 1
+
+    operator fun get(index: Int): MerkleHash {
+        val start = offsets[index]
+        val end = offsets[index + 1]
+        val header = bytes[start].toInt()
+        val value = StringBuilder(HEX_PREFIX.length + (end - start - 1) * 2)
+
+        if (header and PREFIXED_FLAG != 0) {
+            value.append(HEX_PREFIX)
+        }
+
+        for (i in (start + 1) until end) {
+            val byte = bytes[i].toInt() and BYTE_MASK
+
+            if (i > start + 1 || header and ODD_LENGTH_FLAG == 0) {
+                value.append(Character.forDigit(byte shr NIBBLE_BITS, HEX_RADIX))
+            }
+
+            value.append(Character.forDigit(byte and NIBBLE_MASK, HEX_RADIX))
+        }
+
+        return MerkleHash(value.toString())
+    }
+
+    /**
+     * Compares numeric values of hash at [index] and hash at [otherIndex] of [other] layer, which is consistent with
+     * [MerkleHash.compareTo].
+     */
+    fun compare(index: Int, other: MerkleHashLayer = this, otherIndex: Int): Int {
+        val start = firstNonZeroByte(index)
+        val length = offsets[index + 1] - start
+        val otherStart = other.firstNonZeroByte(otherIndex)
+        val otherLength = other.offsets[otherIndex + 1] - otherStart
+
+        return if (length != otherLength) {
+            length.compareTo(otherLength)
+        } else {
+            Arrays.compareUnsigned(bytes, start, start + length, other.bytes, otherStart, otherStart + length)
+        }
+    }
+
+    /**
+     * Returns index of the given [hash] in this layer, or `-1` if the layer does not contain it. Hashes in the layer
+     * must be sorted by their numeric value.
+     */
+    fun indexOfSorted(hash: MerkleHash): Int {
+        val searchedHash = of(hash)
+        var low = 0
+        var high = size - 1
+
+        while (low <= high) {
+            val middle = (low + high) ushr 1
+            val result = compare(middle, searchedHash, 0)
+
+            when {
+                result < 0 -> low = middle + 1
+                result > 0 -> high = middle - 1
+                else -> return middle
+            }
+        }
+
+        return -1
+    }
+
+    /**
+     * Returns packed digits of the hash at [index] if the hash is a `0x`-prefixed hex string with even number of
+     * digits, otherwise returns `null`.
+     */
+    fun plainBytes(index: Int): ByteArray? =
+        if (bytes[offsets[index]].toInt() == PREFIXED_FLAG) {
+            bytes.copyOfRange(offsets[index] + 1, offsets[index + 1])
+        } else null
+
+    private fun firstNonZeroByte(index: Int): Int {
+        val end = offsets[index + 1]
+        var position = offsets[index] + 1
+
+        while (position < end && bytes[position].toInt() == 0) {
+            position++
+        }
+
+        return position
+    }
+
+    class Builder(expectedSize: Int, expectedHashBytes: Int = DEFAULT_HASH_BYTES) {
+        private var bytes = ByteArray(expectedSize.coerceAtLeast(1) * expectedHashBytes)
+        private var offsets = IntArray(expectedSize + 1)
+        private var size = 0
+
+        fun add(hash: MerkleHash): Builder {
+            val prefixed = hash.value.startsWith(HEX_PREFIX)
+            val digits = if (prefixed) hash.value.substring(HEX_PREFIX.length) else hash.value
+            val oddLength = digits.length % 2 != 0
+            val header = (if (prefixed) PREFIXED_FLAG else 0) or (if (oddLength) ODD_LENGTH_FLAG else 0)
+            val paddedDigits = if (oddLength) "0$digits" else digits
+
+            return append(header.toByte(), paddedDigits.length / 2) { bytes, offset ->
+                for (i in paddedDigits.indices step 2) {
+                    val high = Character.digit(paddedDigits[i], HEX_RADIX)
+                    val low = Character.digit(paddedDigits[i + 1], HEX_RADIX)
+
+                    require(high >= 0 && low >= 0) { "Invalid Merkle hash: ${hash.value}" }
+
+                    bytes[offset + i / 2] = ((high shl NIBBLE_BITS) or low).toByte()
+                }
+            }
+        }
+
+        fun add(layer: MerkleHashLayer, index: Int): Builder {
+            val start = layer.offsets[index]
+            val length = layer.offsets[index + 1] - start - 1
+
+            return append(layer.bytes[start], length) { bytes, offset ->
+                layer.bytes.copyInto(bytes, offset, start + 1, start + 1 + length)
+            }
+        }
+
+        fun addPlainBytes(value: ByteArray): Builder =
+            append(PREFIXED_FLAG.toByte(), value.size) { bytes, offset -> value.copyInto(bytes, offset) }
+
+        fun build(): MerkleHashLayer = MerkleHashLayer(bytes.copyOf(offsets[size]), offsets.copyOf(size + 1))
+
+        private fun append(header: Byte, length: Int, writeDigits: (ByteArray, Int) -> Unit): Builder {
+            val start = offsets[size]
+            val end = start + 1 + length
+
+            if (end > bytes.size) {
+                bytes = bytes.copyOf(maxOf(end, bytes.size * 2))
+            }
+
+            if (size + 2 > offsets.size) {
+                offsets = offsets.copyOf(offsets.size * 2)
+            }
+
+            bytes[start] = header
+            writeDigits(bytes, start + 1)
+            offsets[++size] = end
+
+            return this
+        }
+    }
+}
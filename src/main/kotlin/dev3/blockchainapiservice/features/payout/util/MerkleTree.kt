@@ -1,13 +1,18 @@
 package dev3.blockchainapiservice.features.payout.util
 
-import dev3.blockchainapiservice.features.payout.util.recursion.FlatMap
-import dev3.blockchainapiservice.features.payout.util.recursion.Return
-import dev3.blockchainapiservice.features.payout.util.recursion.Suspend
-import dev3.blockchainapiservice.features.payout.util.recursion.Trampoline
+import dev3.blockchainapiservice.util.AddressSet
 import dev3.blockchainapiservice.util.WalletAddress
-import java.util.LinkedList
-import java.util.SortedMap
-
+import org.web3j.crypto.Hash
+
+/**
+ * Merkle tree stored as flat hash layers. Layer `0` contains leaf hashes sorted by their value and each following
+ * layer contains hashes of consecutive pairs from the previous layer, where the last node of an odd-sized layer is
+ * paired with [NilNode]. Nodes of each pair are ordered by their hash, so leaf indices and paths are derived by
+ * comparing sibling hashes instead of storing links between nodes.
+ *
+ * Linked node representation of the tree ([root], [leafNodesByHash] and [leafNodesByAddress]) is only created when
+ * it is first accessed.
+ */
 class MerkleTree(nodes: List<PayoutAccountBalance>, val hashFn: HashFunction) {
 
     companion object {
@@ -40,53 +45,86 @@ class MerkleTree(nodes: List<PayoutAccountBalance>, val hashFn: HashFunction) {
         ) : PathNode
 
         data class PathSegment(val siblingHash: MerkleHash, val isLeft: Boolean)
+        data class LeafPath(val leaf: PayoutAccountBalance, val path: List<PathSegment>) {
+            /**
+             * Index of the leaf, where bits of the index, starting from the most significant one, describe the path
+             * from root node to the leaf (`0` for left and `1` for right child).
+             */
+            val leafIndex: Int
+                get() = path.foldIndexed(0) { layerIndex, result, segment ->
+                    if (segment.isLeft) result or (1 shl layerIndex) else result
+                }
+        }
+
+        private val NIL_HASH_LAYER = MerkleHashLayer.of(NilNode.hash)
+    }
+
+    private val sortedLeaves: Array<PayoutAccountBalance>
+    private val layers: List<MerkleHashLayer>
+    private val sortedLeafAddresses: AddressSet by lazy {
+        sortedLeaves.fold(AddressSet(sortedLeaves.size)) { addresses, leaf -> addresses.apply { add(leaf.address) } }
     }
 
-    val leafNodesByHash: Map<MerkleHash, IndexedValue<LeafNode>>
-    val leafNodesByAddress: Map<WalletAddress, IndexedValue<LeafNode>>
-    val root: RootNode
+    val rootHash: MerkleHash
+    val depth: Int
+    val leaves: List<PayoutAccountBalance>
+        get() = sortedLeaves.asList()
+
+    val leafPaths: Sequence<LeafPath>
+        get() = sortedLeaves.indices.asSequence().map { LeafPath(sortedLeaves[it], pathFrom(it)) }
+
+    val root: RootNode by lazy { buildNodes() }
+    val leafNodesByHash: Map<MerkleHash, IndexedValue<LeafNode>> by lazy {
+        sortedLeaves.indices.associate {
+            val hash = layers[0][it]
+            hash to IndexedValue(LeafPath(sortedLeaves[it], pathFrom(it)).leafIndex, LeafNode(sortedLeaves[it], hash))
+        }
+    }
+    val leafNodesByAddress: Map<WalletAddress, IndexedValue<LeafNode>> by lazy {
+        leafNodesByHash.values.associateBy { it.value.data.address }
+    }
 
     init {
         require(nodes.isNotEmpty()) { "Cannot build Merkle tree from empty list" }
 
-        val byAddress: Map<WalletAddress, LeafNode> = nodes.map { LeafNode(it, it.hash) }
-            .groupBy { it.data.address }
-            .mapValues {
-                require(it.value.size == 1) { "Address collision while constructing leaf nodes: ${it.key}" }
-                it.value.first()
+        val addresses = AddressSet(nodes.size)
+
+        nodes.forEach {
+            require(addresses.add(it.address)) { "Address collision while constructing leaf nodes: ${it.address}" }
+        }
+
+        val unsortedLeafHashes = nodes.fold(MerkleHashLayer.Builder(nodes.size)) { builder, node ->
+            builder.add(node.hash)
+        }.build()
+        val sortedPositions = nodes.indices.sortedWith { a, b -> unsortedLeafHashes.compare(a, otherIndex = b) }
+
+        sortedPositions.zipWithNext().forEach { (a, b) ->
+            require(unsortedLeafHashes.compare(a, otherIndex = b) != 0) {
+                "Hash collision while constructing leaf nodes: ${unsortedLeafHashes[a]}"
             }
-        val bySortedHash: SortedMap<MerkleHash, LeafNode> = byAddress.values
-            .groupBy { it.hash }
-            .mapValues {
-                require(it.value.size == 1) { "Hash collision while constructing leaf nodes: ${it.key}" }
-                it.value.first()
-            }.toSortedMap()
+        }
 
-        root = buildTree(bySortedHash.values.toList())
+        sortedLeaves = sortedPositions.map { nodes[it] }.toTypedArray()
 
-        val indexedLeafNodes = indexLeafNodes()
+        val leafHashes = sortedPositions.fold(MerkleHashLayer.Builder(nodes.size)) { builder, position ->
+            builder.add(unsortedLeafHashes, position)
+        }.build()
 
-        leafNodesByHash = indexedLeafNodes.associateBy { it.value.hash }
-        leafNodesByAddress = indexedLeafNodes.associateBy { it.value.data.address }
+        layers = listOf(leafHashes) + generateSequence(buildParentLayer(leafHashes)) { layer ->
+            layer.takeIf { it.size > 1 }?.let { buildParentLayer(it) }
+        }
+        rootHash = layers.last()[0]
+        depth = layers.size - 1
     }
 
-    fun pathTo(element: PayoutAccountBalance): List<PathSegment>? {
-        val index = leafNodesByHash[element.hash]?.index ?: return null
-        val moves = index.toString(2).padStart(root.depth, '0')
+    fun leafByAddress(address: WalletAddress): PayoutAccountBalance? =
+        sortedLeafAddresses.indexOf(address).takeIf { it >= 0 }?.let { sortedLeaves[it] }
 
-        tailrec fun findPath(currentNode: Node, d: Int, path: LinkedList<PathSegment>): List<PathSegment> {
-            return if (currentNode is PathNode) {
-                val isLeft = moves[d] == '0'
-                val nextNode = if (isLeft) currentNode.left else currentNode.right
-                val siblingNode = if (isLeft.not()) currentNode.left else currentNode.right
-                findPath(nextNode, d + 1, path.withFirst(PathSegment(siblingNode.hash, isLeft.not())))
-            } else {
-                path
-            }
-        }
+    fun leafPathByAddress(address: WalletAddress): LeafPath? =
+        sortedLeafAddresses.indexOf(address).takeIf { it >= 0 }?.let { LeafPath(sortedLeaves[it], pathFrom(it)) }
 
-        return findPath(root, 0, LinkedList())
-    }
+    fun pathTo(element: PayoutAccountBalance): List<PathSegment>? =
+        layers[0].indexOfSorted(element.hash).takeIf { it >= 0 }?.let { pathFrom(it) }
 
     override fun equals(other: Any?): Boolean {
         if (this === other) {
@@ -97,74 +135,74 @@ class MerkleTree(nodes: List<PayoutAccountBalance>, val hashFn: HashFunction) {
             return false
         }
 
-        return other.root == root
+        return other.rootHash == rootHash && other.sortedLeaves.contentEquals(sortedLeaves)
     }
 
     override fun hashCode(): Int {
-        return root.hashCode()
+        return rootHash.hashCode()
     }
 
-    private fun buildTree(leafNodes: List<LeafNode>): RootNode {
-        tailrec fun buildLayer(nodes: Collection<Node>, depth: Int): RootNode {
-            val pairs = nodes.pairwise()
+    private fun pathFrom(position: Int): List<PathSegment> {
+        var index = position
 
-            return if (pairs.size == 1) {
-                val pair = pairs[0]
-                RootNode(pair.left, pair.right, pair.hash, depth)
-            } else {
-                val parentLayer = pairs.map { MiddleNode(it.left, it.right, it.hash) }
-                buildLayer(parentLayer, depth + 1)
-            }
+        return layers.dropLast(1).map { layer ->
+            val segment = PathSegment(layer.hashAt(index xor 1), layer.isLeftChild(index).not())
+            index = index shr 1
+            segment
         }
-
-        return buildLayer(leafNodes, 1)
     }
 
-    private fun indexLeafNodes(): List<IndexedValue<LeafNode>> {
-
-        fun indexPath(currentNode: Node, currentIndex: String): Trampoline<List<IndexedValue<LeafNode>>> {
-            return when (currentNode) {
-                is PathNode -> {
-                    val left = Suspend { indexPath(currentNode.left, currentIndex + "0") }
-                    val right = Suspend { indexPath(currentNode.right, currentIndex + "1") }
+    private fun buildParentLayer(children: MerkleHashLayer): MerkleHashLayer {
+        val builder = MerkleHashLayer.Builder((children.size + 1) / 2)
 
-                    FlatMap(left) { leftList ->
-                        FlatMap(right) { rightList ->
-                            Return(leftList + rightList)
-                        }
-                    }
-                }
-
-                is LeafNode -> {
-                    Return(listOf(IndexedValue(currentIndex.toInt(2), currentNode)))
-                }
+        for (first in 0 until children.size step 2) {
+            val (left, right) = if (children.isLeftChild(first)) Pair(first, first + 1) else Pair(first + 1, first)
+            val leftBytes = left.takeIf { it < children.size }?.let { children.plainBytes(it) }
+            val rightBytes = right.takeIf { it < children.size }?.let { children.plainBytes(it) }
 
-                else -> {
-                    Return(emptyList())
-                }
+            // keccak256 of concatenated hex strings is the same as keccak256 of concatenated bytes
+            if (hashFn == HashFunction.KECCAK_256 && leftBytes != null && rightBytes != null) {
+                builder.addPlainBytes(Hash.sha3(leftBytes + rightBytes))
+            } else {
+                builder.add(hashFn((children.hashAt(left) + children.hashAt(right)).value))
             }
         }
 
-        return Trampoline.run(indexPath(root, "0"))
+        return builder.build()
     }
 
-    private val PayoutAccountBalance.hash: MerkleHash
-        get() = hashFn(abiEncode())
+    private fun buildNodes(): RootNode {
+        fun MerkleHashLayer.orderedPair(nodes: List<Node>, first: Int): Pair<Node, Node> {
+            val firstNode = nodes[first]
+            val secondNode = nodes.getOrElse(first + 1) { NilNode }
+            return if (isLeftChild(first)) Pair(firstNode, secondNode) else Pair(secondNode, firstNode)
+        }
 
-    private val Pair<Node, Node>.left: Node
-        get() = if (first.hash <= second.hash) first else second
+        val leafNodes: List<Node> = sortedLeaves.mapIndexed { index, leaf -> LeafNode(leaf, layers[0][index]) }
+        val topNodes = (1 until depth).fold(leafNodes) { children, layerIndex ->
+            children.indices.step(2).map { first ->
+                val (left, right) = layers[layerIndex - 1].orderedPair(children, first)
+                MiddleNode(left, right, layers[layerIndex][first / 2])
+            }
+        }
+        val (left, right) = layers[depth - 1].orderedPair(topNodes, 0)
 
-    private val Pair<Node, Node>.right: Node
-        get() = if (first.hash <= second.hash) second else first
+        return RootNode(left, right, rootHash, depth)
+    }
 
-    private val Pair<Node, Node>.hash: MerkleHash
-        get() = hashFn((left.hash + right.hash).value)
+    private fun MerkleHashLayer.hashAt(index: Int): MerkleHash = if (index < size) this[index] else NilNode.hash
 
-    private fun Collection<Node>.pairwise(): List<Pair<Node, Node>> =
-        this.chunked(2).map { Pair(it.first(), it.getOrNull(1) ?: NilNode) }
+    private fun MerkleHashLayer.isLeftChild(index: Int): Boolean {
+        val first = index and 1.inv()
+        val isFirstLeft = if (first + 1 < size) {
+            compare(first, otherIndex = first + 1) <= 0
+        } else {
+            compare(first, NIL_HASH_LAYER, 0) <= 0
+        }
 
-    private fun LinkedList<PathSegment>.withFirst(first: PathSegment): LinkedList<PathSegment> {
-        addFirst(first)
-        return this
+        return (index == first) == isFirstLeft
     }
+
+    private val PayoutAccountBalance.hash: MerkleHash
+        get() = hashFn(abiEncode())
 }
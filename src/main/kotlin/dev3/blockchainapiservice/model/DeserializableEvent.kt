@@ -1,6 +1,7 @@
 package dev3.blockchainapiservice.model
 
 import dev3.blockchainapiservice.features.contract.abi.model.AbiType
+import dev3.blockchainapiservice.util.Keccak256Hash
 
 data class DeserializableEvent(
     val signature: String,
@@ -9,6 +10,33 @@ data class DeserializableEvent(
     val regularInputs: List<DeserializableEventInput>
 ) {
     val selector = signature.replace("tuple", "")
+    val selectorHash = Keccak256Hash(selector)
+    val regularInputTypes: List<AbiType> = regularInputs.map { it.abiType }
+
+    /**
+     * Positions of arguments from [inputsOrder] in the list of decoded regular inputs followed by decoded indexed
+     * inputs. When multiple inputs have the same name, the last one is used.
+     */
+    val argumentPositions: List<Int> = (regularInputs + indexedInputs).map { it.name }.let { names ->
+        inputsOrder.map { names.lastIndexOf(it) }
+    }
 }
 
 data class DeserializableEventInput(val name: String, val abiType: AbiType)
+
+/**
+ * List of [DeserializableEvent]s indexed by Keccak-256 hashes of their selectors, so that event logs can be matched
+ * with their events by a single lookup. Equal to any list which contains the same events.
+ */
+class DeserializableEvents(private val events: List<DeserializableEvent>) : List<DeserializableEvent> by events {
+
+    private val eventsBySelectorHash = events.associateBy { it.selectorHash }
+
+    fun getBySelectorHash(selectorHash: Keccak256Hash): DeserializableEvent? = eventsBySelectorHash[selectorHash]
+
+    override fun equals(other: Any?): Boolean = events == other
+
+    override fun hashCode(): Int = events.hashCode()
+
+    override fun toString(): String = events.toString()
+}
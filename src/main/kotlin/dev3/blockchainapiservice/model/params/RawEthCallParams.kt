@@ -0,0 +1,9 @@
+package dev3.blockchainapiservice.model.params
+
+import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.FunctionData
+
+data class RawEthCallParams(
+    val contractAddress: ContractAddress,
+    val functionData: FunctionData
+)
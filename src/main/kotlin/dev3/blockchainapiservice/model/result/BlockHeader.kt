@@ -0,0 +1,25 @@
+package dev3.blockchainapiservice.model.result
+
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.UtcDateTime
+import org.web3j.protocol.core.methods.response.EthBlock
+
+data class BlockHeader(
+    val blockNumber: BlockNumber,
+    val hash: String,
+    val timestamp: UtcDateTime
+) {
+    companion object {
+        fun from(block: EthBlock.Block?): BlockHeader? {
+            val blockNumber = block?.number?.let { BlockNumber(it) }
+            val hash = block?.hash
+            val timestamp = block?.timestamp?.let { UtcDateTime.ofEpochSeconds(it.longValueExact()) }
+
+            return if (blockNumber != null && hash != null && timestamp != null) {
+                BlockHeader(blockNumber, hash, timestamp)
+            } else {
+                null
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package dev3.blockchainapiservice.repository
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.config.Web3jCacheProperties
+import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentTransactionCacheId
+import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
+import dev3.blockchainapiservice.generated.jooq.id.FetchErc20AccountBalanceCacheId
+import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
+import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.result.BlockHeader
+import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
+import dev3.blockchainapiservice.model.result.ContractBinaryInfo
+import dev3.blockchainapiservice.model.result.ContractDeploymentTransactionInfo
+import dev3.blockchainapiservice.model.result.FullContractDeploymentTransactionInfo
+import dev3.blockchainapiservice.util.AccountBalance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.TransactionHash
+import dev3.blockchainapiservice.util.UtcDateTime
+import dev3.blockchainapiservice.util.WalletAddress
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import mu.KLogging
+import org.springframework.context.annotation.Primary
+import org.springframework.stereotype.Repository
+import org.web3j.utils.Numeric
+import java.math.BigInteger
+
+private typealias DeploymentTransaction = Pair<ContractDeploymentTransactionInfo, List<EventLog>>
+
+/**
+ * Bounded in-process cache tier in front of the database cache. Only data which can no longer change (i.e. data
+ * which has enough block confirmations to be stored into the database cache) ends up here, so entries never need
+ * to be invalidated - they are only evicted when the configured size limits are reached. Database writes are
+ * deferred to [Web3jCacheWriteBehindQueue], while this cache already serves the written data in the meantime.
+ */
+@Primary
+@Repository
+@Suppress("TooManyFunctions")
+class InMemoryWeb3jBlockchainServiceCacheRepository(
+    private val jooqWeb3jBlockchainServiceCacheRepository: JooqWeb3jBlockchainServiceCacheRepository,
+    private val web3jCacheWriteBehindQueue: Web3jCacheWriteBehindQueue,
+    private val web3jCacheProperties: Web3jCacheProperties,
+    meterRegistry: MeterRegistry
+) : Web3jBlockchainServiceCacheRepository {
+
+    companion object : KLogging() {
+        private const val ENTRY_OVERHEAD_BYTES = 256
+        private const val TOPIC_BYTES = 66
+
+        private data class AccountBalanceKey(
+            val chainSpec: ChainSpec,
+            val walletAddress: WalletAddress,
+            val blockNumber: BlockNumber
+        )
+
+        private data class Erc20AccountBalanceKey(
+            val chainSpec: ChainSpec,
+            val contractAddress: ContractAddress,
+            val walletAddress: WalletAddress,
+            val blockNumber: BlockNumber
+        )
+
+        private data class TransactionInfoKey(
+            val chainSpec: ChainSpec,
+            val txHash: TransactionHash
+        )
+
+        private data class ContractDeploymentTransactionKey(
+            val chainSpec: ChainSpec,
+            val contractAddress: ContractAddress
+        )
+
+        private data class CachedTransactionInfo(
+            val txInfo: BlockchainTransactionInfo,
+            val blockNumber: BlockNumber,
+            val eventLogs: List<EventLog>
+        ) {
+            fun toResult(currentBlockNumber: BlockNumber): Pair<BlockchainTransactionInfo, List<EventLog>> {
+                val blockConfirmations = (currentBlockNumber.value - blockNumber.value).max(BigInteger.ZERO)
+                return Pair(txInfo.copy(blockConfirmations = blockConfirmations), eventLogs)
+            }
+        }
+
+        private data class BlockHeaderKey(
+            val chainSpec: ChainSpec,
+            val blockNumber: BlockNumber
+        )
+
+        // block headers are stored as raw bytes, since many of them are kept for frequently requested blocks
+        private class CompactBlockHeader(private val hash: ByteArray, private val epochSeconds: Long) {
+            constructor(blockHeader: BlockHeader) : this(
+                hash = Numeric.hexStringToByteArray(blockHeader.hash),
+                epochSeconds = blockHeader.timestamp.value.toEpochSecond()
+            )
+
+            fun toBlockHeader(blockNumber: BlockNumber) =
+                BlockHeader(blockNumber, Numeric.toHexString(hash), UtcDateTime.ofEpochSeconds(epochSeconds))
+        }
+
+        private fun List<EventLog>.weight(): Int = sumOf { it.data.length + it.topics.size * TOPIC_BYTES }
+    }
+
+    private val accountBalanceCache: Cache<AccountBalanceKey, AccountBalance> = Caffeine.newBuilder()
+        .maximumSize(web3jCacheProperties.maxAccountBalanceEntries)
+        .recordStats()
+        .build<AccountBalanceKey, AccountBalance>()
+        .monitored(meterRegistry, "web3j.account-balance")
+
+    private val erc20AccountBalanceCache: Cache<Erc20AccountBalanceKey, AccountBalance> = Caffeine.newBuilder()
+        .maximumSize(web3jCacheProperties.maxAccountBalanceEntries)
+        .recordStats()
+        .build<Erc20AccountBalanceKey, AccountBalance>()
+        .monitored(meterRegistry, "web3j.erc20-account-balance")
+
+    private val transactionInfoCache: Cache<TransactionInfoKey, CachedTransactionInfo> = Caffeine.newBuilder()
+        .maximumWeight(web3jCacheProperties.maxTransactionInfoBytes)
+        .weigher<TransactionInfoKey, CachedTransactionInfo> { _, value ->
+            ENTRY_OVERHEAD_BYTES + value.txInfo.data.value.length + value.eventLogs.weight()
+        }
+        .recordStats()
+        .build<TransactionInfoKey, CachedTransactionInfo>()
+        .monitored(meterRegistry, "web3j.transaction-info")
+
+    private val contractDeploymentTransactionCache: Cache<ContractDeploymentTransactionKey, DeploymentTransaction> =
+        Caffeine.newBuilder()
+            .maximumWeight(web3jCacheProperties.maxContractDeploymentTransactionBytes)
+            .weigher<ContractDeploymentTransactionKey, DeploymentTransaction> { _, value ->
+                ENTRY_OVERHEAD_BYTES + value.first.binary.value.length + value.second.weight()
+            }
+            .recordStats()
+            .build<ContractDeploymentTransactionKey, DeploymentTransaction>()
+            .monitored(meterRegistry, "web3j.contract-deployment-transaction")
+
+    private val blockHeaderCache: Cache<BlockHeaderKey, CompactBlockHeader> = Caffeine.newBuilder()
+        .maximumSize(web3jCacheProperties.maxBlockHeaderEntries)
+        .recordStats()
+        .build<BlockHeaderKey, CompactBlockHeader>()
+        .monitored(meterRegistry, "web3j.block-header")
+
+    override fun cacheFetchAccountBalance(
+        id: FetchAccountBalanceCacheId,
+        chainSpec: ChainSpec,
+        accountBalance: AccountBalance
+    ) {
+        web3jCacheWriteBehindQueue.enqueue(FetchAccountBalanceCacheEntry(id, chainSpec, accountBalance))
+        accountBalanceCache.put(
+            AccountBalanceKey(chainSpec, accountBalance.wallet, accountBalance.blockNumber),
+            accountBalance
+        )
+    }
+
+    override fun cacheFetchErc20AccountBalance(
+        id: FetchErc20AccountBalanceCacheId,
+        chainSpec: ChainSpec,
+        contractAddress: ContractAddress,
+        accountBalance: AccountBalance
+    ) {
+        web3jCacheWriteBehindQueue.enqueue(
+            FetchErc20AccountBalanceCacheEntry(id, chainSpec, contractAddress, accountBalance)
+        )
+        erc20AccountBalanceCache.put(
+            Erc20AccountBalanceKey(chainSpec, contractAddress, accountBalance.wallet, accountBalance.blockNumber),
+            accountBalance
+        )
+    }
+
+    override fun cacheFetchTransactionInfo(
+        id: FetchTransactionInfoCacheId,
+        chainSpec: ChainSpec,
+        txHash: TransactionHash,
+        blockNumber: BlockNumber,
+        txInfo: BlockchainTransactionInfo,
+        eventLogs: List<EventLog>
+    ) {
+        web3jCacheWriteBehindQueue.enqueue(
+            FetchTransactionInfoCacheEntry(id, chainSpec, txHash, blockNumber, txInfo, eventLogs)
+        )
+        transactionInfoCache.put(
+            TransactionInfoKey(chainSpec, txHash),
+            CachedTransactionInfo(txInfo.copy(events = emptyList()), blockNumber, eventLogs)
+        )
+    }
+
+    override fun cacheContractDeploymentTransaction(
+        id: ContractDeploymentTransactionCacheId,
+        chainSpec: ChainSpec,
+        contractAddress: ContractAddress,
+        contractDeploymentTransactionInfo: ContractDeploymentTransactionInfo,
+        eventLogs: List<EventLog>
+    ) {
+        web3jCacheWriteBehindQueue.enqueue(
+            ContractDeploymentTransactionCacheEntry(
+                id = id,
+                chainSpec = chainSpec,
+                contractAddress = contractAddress,
+                contractDeploymentTransactionInfo = contractDeploymentTransactionInfo,
+                eventLogs = eventLogs
+            )
+        )
+        contractDeploymentTransactionCache.put(
+            ContractDeploymentTransactionKey(chainSpec, contractAddress),
+            Pair(contractDeploymentTransactionInfo.withoutEvents(), eventLogs)
+        )
+    }
+
+    override fun cacheBlockHeader(chainSpec: ChainSpec, blockHeader: BlockHeader) {
+        if (web3jCacheProperties.persistBlockHeaders) {
+            web3jCacheWriteBehindQueue.enqueue(BlockHeaderCacheEntry(chainSpec, blockHeader))
+        }
+
+        blockHeaderCache.put(BlockHeaderKey(chainSpec, blockHeader.blockNumber), CompactBlockHeader(blockHeader))
+    }
+
+    override fun getCachedFetchAccountBalance(
+        chainSpec: ChainSpec,
+        walletAddress: WalletAddress,
+        blockNumber: BlockNumber
+    ): AccountBalance? {
+        val key = AccountBalanceKey(chainSpec, walletAddress, blockNumber)
+
+        return accountBalanceCache.getIfPresent(key)
+            ?: jooqWeb3jBlockchainServiceCacheRepository.getCachedFetchAccountBalance(
+                chainSpec = chainSpec,
+                walletAddress = walletAddress,
+                blockNumber = blockNumber
+            )?.also { accountBalanceCache.put(key, it) }
+    }
+
+    override fun getCachedFetchErc20AccountBalance(
+        chainSpec: ChainSpec,
+        contractAddress: ContractAddress,
+        walletAddress: WalletAddress,
+        blockNumber: BlockNumber
+    ): AccountBalance? {
+        val key = Erc20AccountBalanceKey(chainSpec, contractAddress, walletAddress, blockNumber)
+
+        return erc20AccountBalanceCache.getIfPresent(key)
+            ?: jooqWeb3jBlockchainServiceCacheRepository.getCachedFetchErc20AccountBalance(
+                chainSpec = chainSpec,
+                contractAddress = contractAddress,
+                walletAddress = walletAddress,
+                blockNumber = blockNumber
+            )?.also { erc20AccountBalanceCache.put(key, it) }
+    }
+
+    override fun getCachedFetchTransactionInfo(
+        chainSpec: ChainSpec,
+        txHash: TransactionHash,
+        currentBlockNumber: BlockNumber
+    ): Pair<BlockchainTransactionInfo, List<EventLog>>? {
+        val key = TransactionInfoKey(chainSpec, txHash)
+
+        return transactionInfoCache.getIfPresent(key)?.toResult(currentBlockNumber)
+            ?: jooqWeb3jBlockchainServiceCacheRepository.getCachedFetchTransactionInfo(
+                chainSpec = chainSpec,
+                txHash = txHash,
+                currentBlockNumber = currentBlockNumber
+            )?.also { cacheLoadedTransactionInfo(key, it, currentBlockNumber) }
+    }
+
+    override fun getCachedFetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        currentBlockNumber: BlockNumber
+    ): Map<TransactionHash, Pair<BlockchainTransactionInfo, List<EventLog>>> {
+        val inMemoryTxInfos = transactionInfoCache.getAllPresent(txHashes.map { TransactionInfoKey(chainSpec, it) })
+            .entries
+            .associate { it.key.txHash to it.value.toResult(currentBlockNumber) }
+        val missingTxHashes = txHashes - inMemoryTxInfos.keys
+
+        val loadedTxInfos = if (missingTxHashes.isEmpty()) {
+            emptyMap()
+        } else {
+            jooqWeb3jBlockchainServiceCacheRepository.getCachedFetchTransactionInfos(
+                chainSpec = chainSpec,
+                txHashes = missingTxHashes,
+                currentBlockNumber = currentBlockNumber
+            ).onEach { cacheLoadedTransactionInfo(TransactionInfoKey(chainSpec, it.key), it.value, currentBlockNumber) }
+        }
+
+        return inMemoryTxInfos + loadedTxInfos
+    }
+
+    override fun getCachedContractDeploymentTransaction(
+        chainSpec: ChainSpec,
+        contractAddress: ContractAddress
+    ): DeploymentTransaction? {
+        val key = ContractDeploymentTransactionKey(chainSpec, contractAddress)
+
+        return contractDeploymentTransactionCache.getIfPresent(key)
+            ?: jooqWeb3jBlockchainServiceCacheRepository.getCachedContractDeploymentTransaction(
+                chainSpec = chainSpec,
+                contractAddress = contractAddress
+            )?.also { contractDeploymentTransactionCache.put(key, it) }
+    }
+
+    override fun getCachedBlockHeader(chainSpec: ChainSpec, blockNumber: BlockNumber): BlockHeader? {
+        val key = BlockHeaderKey(chainSpec, blockNumber)
+
+        return blockHeaderCache.getIfPresent(key)?.toBlockHeader(blockNumber)
+            ?: jooqWeb3jBlockchainServiceCacheRepository.takeIf { web3jCacheProperties.persistBlockHeaders }
+                ?.getCachedBlockHeader(chainSpec, blockNumber)
+                ?.also { blockHeaderCache.put(key, CompactBlockHeader(it)) }
+    }
+
+    private fun cacheLoadedTransactionInfo(
+        key: TransactionInfoKey,
+        value: Pair<BlockchainTransactionInfo, List<EventLog>>,
+        currentBlockNumber: BlockNumber
+    ) {
+        val blockConfirmations = value.first.blockConfirmations
+
+        // block confirmations are clamped to zero, so block number can only be recovered when they are positive
+        if (blockConfirmations > BigInteger.ZERO) {
+            val blockNumber = BlockNumber(currentBlockNumber.value - blockConfirmations)
+            transactionInfoCache.put(key, CachedTransactionInfo(value.first, blockNumber, value.second))
+        }
+    }
+
+    private fun ContractDeploymentTransactionInfo.withoutEvents(): ContractDeploymentTransactionInfo =
+        when (this) {
+            is FullContractDeploymentTransactionInfo -> copy(events = emptyList())
+            is ContractBinaryInfo -> this
+        }
+
+    private fun <K : Any, V : Any> Cache<K, V>.monitored(meterRegistry: MeterRegistry, name: String): Cache<K, V> =
+        CaffeineCacheMetrics.monitor(meterRegistry, this, name)
+}
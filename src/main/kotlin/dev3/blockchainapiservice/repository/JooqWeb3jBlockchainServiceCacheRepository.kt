@@ -5,16 +5,19 @@ import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentTransaction
 import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchErc20AccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
+import dev3.blockchainapiservice.generated.jooq.tables.BlockHeaderCacheTable
 import dev3.blockchainapiservice.generated.jooq.tables.ContractDeploymentTransactionCacheTable
 import dev3.blockchainapiservice.generated.jooq.tables.FetchAccountBalanceCacheTable
 import dev3.blockchainapiservice.generated.jooq.tables.FetchErc20AccountBalanceCacheTable
 import dev3.blockchainapiservice.generated.jooq.tables.FetchTransactionInfoCacheTable
+import dev3.blockchainapiservice.generated.jooq.tables.records.BlockHeaderCacheRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.ContractDeploymentTransactionCacheRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.FetchAccountBalanceCacheRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.FetchErc20AccountBalanceCacheRecord
 import dev3.blockchainapiservice.generated.jooq.tables.records.FetchTransactionInfoCacheRecord
 import dev3.blockchainapiservice.generated.jooq.udt.records.EventLogRecord
 import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.result.BlockHeader
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.model.result.ContractBinaryInfo
 import dev3.blockchainapiservice.model.result.ContractDeploymentTransactionInfo
@@ -27,12 +30,14 @@ import dev3.blockchainapiservice.util.TransactionHash
 import dev3.blockchainapiservice.util.WalletAddress
 import mu.KLogging
 import org.jooq.DSLContext
+import org.jooq.Record
+import org.jooq.Table
 import org.jooq.impl.DSL
-import org.springframework.dao.DuplicateKeyException
 import org.springframework.stereotype.Repository
 import java.math.BigInteger
 
 @Repository
+@Suppress("TooManyFunctions")
 class JooqWeb3jBlockchainServiceCacheRepository(private val dslContext: DSLContext) :
     Web3jBlockchainServiceCacheRepository {
 
@@ -42,62 +47,14 @@ class JooqWeb3jBlockchainServiceCacheRepository(private val dslContext: DSLConte
         id: FetchAccountBalanceCacheId,
         chainSpec: ChainSpec,
         accountBalance: AccountBalance
-    ) {
-        logger.info {
-            "Caching fetchAccountBalance call, id: $id, chainSpec: $chainSpec, accountBalance: $accountBalance"
-        }
-
-        try {
-            dslContext.executeInsert(
-                FetchAccountBalanceCacheRecord(
-                    id = id,
-                    chainId = chainSpec.chainId,
-                    customRpcUrl = chainSpec.customRpcUrl ?: "",
-                    walletAddress = accountBalance.wallet,
-                    blockNumber = accountBalance.blockNumber,
-                    timestamp = accountBalance.timestamp,
-                    assetAmount = accountBalance.amount
-                )
-            )
-        } catch (_: DuplicateKeyException) {
-            logger.info {
-                "Already cached fetchAccountBalance call, id: $id, chainSpec: $chainSpec," +
-                    " accountBalance: $accountBalance"
-            }
-        }
-    }
+    ) = cacheAll(listOf(FetchAccountBalanceCacheEntry(id, chainSpec, accountBalance)))
 
     override fun cacheFetchErc20AccountBalance(
         id: FetchErc20AccountBalanceCacheId,
         chainSpec: ChainSpec,
         contractAddress: ContractAddress,
         accountBalance: AccountBalance
-    ) {
-        logger.info {
-            "Caching fetchErc20AccountBalance call, id: $id, chainSpec: $chainSpec," +
-                " contractAddress: $contractAddress, accountBalance: $accountBalance"
-        }
-
-        try {
-            dslContext.executeInsert(
-                FetchErc20AccountBalanceCacheRecord(
-                    id = id,
-                    chainId = chainSpec.chainId,
-                    customRpcUrl = chainSpec.customRpcUrl ?: "",
-                    contractAddress = contractAddress,
-                    walletAddress = accountBalance.wallet,
-                    blockNumber = accountBalance.blockNumber,
-                    timestamp = accountBalance.timestamp,
-                    assetAmount = accountBalance.amount
-                )
-            )
-        } catch (_: DuplicateKeyException) {
-            logger.info {
-                "Already cached fetchErc20AccountBalance call, id: $id, chainSpec: $chainSpec," +
-                    " contractAddress: $contractAddress, accountBalance: $accountBalance"
-            }
-        }
-    }
+    ) = cacheAll(listOf(FetchErc20AccountBalanceCacheEntry(id, chainSpec, contractAddress, accountBalance)))
 
     override fun cacheFetchTransactionInfo(
         id: FetchTransactionInfoCacheId,
@@ -106,42 +63,7 @@ class JooqWeb3jBlockchainServiceCacheRepository(private val dslContext: DSLConte
         blockNumber: BlockNumber,
         txInfo: BlockchainTransactionInfo,
         eventLogs: List<EventLog>
-    ) {
-        logger.info {
-            "Caching fetchTransactionInfo call, id: $id, chainSpec: $chainSpec, txHash: $txHash," +
-                " blockNumber: $blockNumber"
-        }
-
-        try {
-            dslContext.executeInsert(
-                FetchTransactionInfoCacheRecord(
-                    id = id,
-                    chainId = chainSpec.chainId,
-                    customRpcUrl = chainSpec.customRpcUrl ?: "",
-                    txHash = txHash,
-                    fromAddress = txInfo.from,
-                    toAddress = txInfo.to.toWalletAddress(),
-                    deployedContractAddress = txInfo.deployedContractAddress,
-                    txData = txInfo.data,
-                    valueAmount = txInfo.value,
-                    blockNumber = blockNumber,
-                    timestamp = txInfo.timestamp,
-                    success = txInfo.success,
-                    eventLogs = eventLogs.map {
-                        EventLogRecord(
-                            logData = it.data,
-                            logTopics = it.topics.toTypedArray()
-                        )
-                    }.toTypedArray()
-                )
-            )
-        } catch (_: DuplicateKeyException) {
-            logger.info {
-                "Already cached fetchTransactionInfo call, id: $id, chainSpec: $chainSpec, txHash: $txHash," +
-                    " blockNumber: $blockNumber"
-            }
-        }
-    }
+    ) = cacheAll(listOf(FetchTransactionInfoCacheEntry(id, chainSpec, txHash, blockNumber, txInfo, eventLogs)))
 
     override fun cacheContractDeploymentTransaction(
         id: ContractDeploymentTransactionCacheId,
@@ -149,43 +71,44 @@ class JooqWeb3jBlockchainServiceCacheRepository(private val dslContext: DSLConte
         contractAddress: ContractAddress,
         contractDeploymentTransactionInfo: ContractDeploymentTransactionInfo,
         eventLogs: List<EventLog>
-    ) {
-        logger.info {
-            "Caching findContractDeploymentTransaction call, id: $id, chainSpec: $chainSpec," +
-                " contractAddress: $contractAddress, contractDeploymentTransactionInfo:" +
-                " $contractDeploymentTransactionInfo, eventLogs: $eventLogs"
-        }
+    ) = cacheAll(
+        listOf(
+            ContractDeploymentTransactionCacheEntry(
+                id = id,
+                chainSpec = chainSpec,
+                contractAddress = contractAddress,
+                contractDeploymentTransactionInfo = contractDeploymentTransactionInfo,
+                eventLogs = eventLogs
+            )
+        )
+    )
 
-        val fullTransactionInfo = contractDeploymentTransactionInfo as? FullContractDeploymentTransactionInfo
+    override fun cacheBlockHeader(chainSpec: ChainSpec, blockHeader: BlockHeader) =
+        cacheAll(listOf(BlockHeaderCacheEntry(chainSpec, blockHeader)))
 
-        try {
-            dslContext.executeInsert(
-                ContractDeploymentTransactionCacheRecord(
-                    id = id,
-                    chainId = chainSpec.chainId,
-                    customRpcUrl = chainSpec.customRpcUrl ?: "",
-                    contractAddress = contractAddress,
-                    txHash = fullTransactionInfo?.hash,
-                    fromAddress = fullTransactionInfo?.from,
-                    txData = fullTransactionInfo?.data,
-                    valueAmount = fullTransactionInfo?.value,
-                    contractBinary = contractDeploymentTransactionInfo.binary.binary,
-                    blockNumber = fullTransactionInfo?.blockNumber,
-                    eventLogs = eventLogs.map {
-                        EventLogRecord(
-                            logData = it.data,
-                            logTopics = it.topics.toTypedArray()
-                        )
-                    }.toTypedArray()
-                )
-            )
-        } catch (_: DuplicateKeyException) {
-            logger.info {
-                "Already cached findContractDeploymentTransaction call, id: $id, chainSpec: $chainSpec," +
-                    " contractAddress: $contractAddress, contractDeploymentTransactionInfo:" +
-                    " $contractDeploymentTransactionInfo, eventLogs: $eventLogs"
-            }
-        }
+    fun cacheAll(entries: Collection<Web3jCacheEntry>) {
+        logger.debug { "Caching ${entries.size} blockchain call results" }
+
+        dslContext.insertAllIgnoringDuplicates(
+            FetchAccountBalanceCacheTable,
+            entries.filterIsInstance<FetchAccountBalanceCacheEntry>().map { it.toRecord() }
+        )
+        dslContext.insertAllIgnoringDuplicates(
+            FetchErc20AccountBalanceCacheTable,
+            entries.filterIsInstance<FetchErc20AccountBalanceCacheEntry>().map { it.toRecord() }
+        )
+        dslContext.insertAllIgnoringDuplicates(
+            FetchTransactionInfoCacheTable,
+            entries.filterIsInstance<FetchTransactionInfoCacheEntry>().map { it.toRecord() }
+        )
+        dslContext.insertAllIgnoringDuplicates(
+            ContractDeploymentTransactionCacheTable,
+            entries.filterIsInstance<ContractDeploymentTransactionCacheEntry>().map { it.toRecord() }
+        )
+        dslContext.insertAllIgnoringDuplicates(
+            BlockHeaderCacheTable,
+            entries.filterIsInstance<BlockHeaderCacheEntry>().map { it.toRecord() }
+        )
     }
 
     override fun getCachedFetchAccountBalance(
@@ -269,28 +192,29 @@ class JooqWeb3jBlockchainServiceCacheRepository(private val dslContext: DSLConte
                 )
             )
             .fetchOne()
-            ?.let {
-                Pair(
-                    BlockchainTransactionInfo(
-                        hash = it.txHash,
-                        from = it.fromAddress,
-                        to = it.toAddress,
-                        deployedContractAddress = it.deployedContractAddress,
-                        data = it.txData,
-                        value = it.valueAmount,
-                        blockConfirmations = (currentBlockNumber.value - it.blockNumber.value).max(BigInteger.ZERO),
-                        timestamp = it.timestamp,
-                        success = it.success,
-                        events = emptyList()
-                    ),
-                    it.eventLogs.map { l ->
-                        EventLog(
-                            data = l.logData ?: "",
-                            topics = l.logTopics?.filterNotNull()?.toList().orEmpty()
-                        )
-                    }
+            ?.toModel(currentBlockNumber)
+    }
+
+    override fun getCachedFetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        currentBlockNumber: BlockNumber
+    ): Map<TransactionHash, Pair<BlockchainTransactionInfo, List<EventLog>>> {
+        logger.debug {
+            "Get cached fetchTransactionInfo calls, chainSpec: $chainSpec, txHashes: $txHashes," +
+                " currentBlockNumber: $currentBlockNumber"
+        }
+
+        return dslContext.selectFrom(FetchTransactionInfoCacheTable)
+            .where(
+                DSL.and(
+                    FetchTransactionInfoCacheTable.CHAIN_ID.eq(chainSpec.chainId),
+                    FetchTransactionInfoCacheTable.CUSTOM_RPC_URL.eq(chainSpec.customRpcUrl ?: ""),
+                    FetchTransactionInfoCacheTable.TX_HASH.`in`(txHashes)
                 )
-            }
+            )
+            .fetch()
+            .associate { it.txHash to it.toModel(currentBlockNumber) }
     }
 
     override fun getCachedContractDeploymentTransaction(
@@ -324,6 +248,135 @@ class JooqWeb3jBlockchainServiceCacheRepository(private val dslContext: DSLConte
             }
     }
 
+    override fun getCachedBlockHeader(chainSpec: ChainSpec, blockNumber: BlockNumber): BlockHeader? {
+        logger.debug { "Get cached block header, chainSpec: $chainSpec, blockNumber: $blockNumber" }
+
+        return dslContext.selectFrom(BlockHeaderCacheTable)
+            .where(
+                DSL.and(
+                    BlockHeaderCacheTable.CHAIN_ID.eq(chainSpec.chainId),
+                    BlockHeaderCacheTable.CUSTOM_RPC_URL.eq(chainSpec.customRpcUrl ?: ""),
+                    BlockHeaderCacheTable.BLOCK_NUMBER.eq(blockNumber)
+                )
+            )
+            .fetchOne()
+            ?.let {
+                BlockHeader(
+                    blockNumber = it.blockNumber,
+                    hash = it.blockHash,
+                    timestamp = it.timestamp
+                )
+            }
+    }
+
+    private fun <R : Record> DSLContext.insertAllIgnoringDuplicates(table: Table<R>, records: List<R>) {
+        if (records.isNotEmpty()) {
+            records.drop(1)
+                .fold(insertInto(table).set(records.first())) { insert, record -> insert.newRecord().set(record) }
+                .onConflictDoNothing()
+                .execute()
+        }
+    }
+
+    private fun BlockHeaderCacheEntry.toRecord() =
+        BlockHeaderCacheRecord(
+            chainId = chainSpec.chainId,
+            customRpcUrl = chainSpec.customRpcUrl ?: "",
+            blockNumber = blockHeader.blockNumber,
+            blockHash = blockHeader.hash,
+            timestamp = blockHeader.timestamp
+        )
+
+    private fun FetchAccountBalanceCacheEntry.toRecord() =
+        FetchAccountBalanceCacheRecord(
+            id = id,
+            chainId = chainSpec.chainId,
+            customRpcUrl = chainSpec.customRpcUrl ?: "",
+            walletAddress = accountBalance.wallet,
+            blockNumber = accountBalance.blockNumber,
+            timestamp = accountBalance.timestamp,
+            assetAmount = accountBalance.amount
+        )
+
+    private fun FetchErc20AccountBalanceCacheEntry.toRecord() =
+        FetchErc20AccountBalanceCacheRecord(
+            id = id,
+            chainId = chainSpec.chainId,
+            customRpcUrl = chainSpec.customRpcUrl ?: "",
+            contractAddress = contractAddress,
+            walletAddress = accountBalance.wallet,
+            blockNumber = accountBalance.blockNumber,
+            timestamp = accountBalance.timestamp,
+            assetAmount = accountBalance.amount
+        )
+
+    private fun FetchTransactionInfoCacheEntry.toRecord() =
+        FetchTransactionInfoCacheRecord(
+            id = id,
+            chainId = chainSpec.chainId,
+            customRpcUrl = chainSpec.customRpcUrl ?: "",
+            txHash = txHash,
+            fromAddress = txInfo.from,
+            toAddress = txInfo.to.toWalletAddress(),
+            deployedContractAddress = txInfo.deployedContractAddress,
+            txData = txInfo.data,
+            valueAmount = txInfo.value,
+            blockNumber = blockNumber,
+            timestamp = txInfo.timestamp,
+            success = txInfo.success,
+            eventLogs = eventLogs.toRecords()
+        )
+
+    private fun ContractDeploymentTransactionCacheEntry.toRecord(): ContractDeploymentTransactionCacheRecord {
+        val fullTransactionInfo = contractDeploymentTransactionInfo as? FullContractDeploymentTransactionInfo
+
+        return ContractDeploymentTransactionCacheRecord(
+            id = id,
+            chainId = chainSpec.chainId,
+            customRpcUrl = chainSpec.customRpcUrl ?: "",
+            contractAddress = contractAddress,
+            txHash = fullTransactionInfo?.hash,
+            fromAddress = fullTransactionInfo?.from,
+            txData = fullTransactionInfo?.data,
+            valueAmount = fullTransactionInfo?.value,
+            contractBinary = contractDeploymentTransactionInfo.binary.binary,
+            blockNumber = fullTransactionInfo?.blockNumber,
+            eventLogs = eventLogs.toRecords()
+        )
+    }
+
+    private fun List<EventLog>.toRecords(): Array<EventLogRecord> =
+        map {
+            EventLogRecord(
+                logData = it.data,
+                logTopics = it.topics.toTypedArray()
+            )
+        }.toTypedArray()
+
+    private fun FetchTransactionInfoCacheRecord.toModel(
+        currentBlockNumber: BlockNumber
+    ): Pair<BlockchainTransactionInfo, List<EventLog>> =
+        Pair(
+            BlockchainTransactionInfo(
+                hash = txHash,
+                from = fromAddress,
+                to = toAddress,
+                deployedContractAddress = deployedContractAddress,
+                data = txData,
+                value = valueAmount,
+                blockConfirmations = (currentBlockNumber.value - blockNumber.value).max(BigInteger.ZERO),
+                timestamp = timestamp,
+                success = success,
+                events = emptyList()
+            ),
+            eventLogs.map { l ->
+                EventLog(
+                    data = l.logData ?: "",
+                    topics = l.logTopics?.filterNotNull()?.toList().orEmpty()
+                )
+            }
+        )
+
     @Suppress("ComplexCondition") // needed to get non-null check
     private fun ContractDeploymentTransactionCacheRecord.toModel(): ContractDeploymentTransactionInfo {
         val hash = txHash
@@ -6,6 +6,7 @@ import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchErc20AccountBalanceCacheId
 import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
 import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.result.BlockHeader
 import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
 import dev3.blockchainapiservice.model.result.ContractDeploymentTransactionInfo
 import dev3.blockchainapiservice.util.AccountBalance
@@ -41,6 +42,8 @@ interface Web3jBlockchainServiceCacheRepository {
         eventLogs: List<EventLog>
     )
 
+    fun cacheBlockHeader(chainSpec: ChainSpec, blockHeader: BlockHeader)
+
     fun getCachedFetchAccountBalance(
         chainSpec: ChainSpec,
         walletAddress: WalletAddress,
@@ -60,8 +63,16 @@ interface Web3jBlockchainServiceCacheRepository {
         currentBlockNumber: BlockNumber
     ): Pair<BlockchainTransactionInfo, List<EventLog>>?
 
+    fun getCachedFetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        currentBlockNumber: BlockNumber
+    ): Map<TransactionHash, Pair<BlockchainTransactionInfo, List<EventLog>>>
+
     fun getCachedContractDeploymentTransaction(
         chainSpec: ChainSpec,
         contractAddress: ContractAddress,
     ): Pair<ContractDeploymentTransactionInfo, List<EventLog>>?
+
+    fun getCachedBlockHeader(chainSpec: ChainSpec, blockNumber: BlockNumber): BlockHeader?
 }
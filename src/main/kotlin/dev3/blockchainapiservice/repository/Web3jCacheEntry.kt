@@ -0,0 +1,69 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.generated.jooq.id.ContractDeploymentTransactionCacheId
+import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
+import dev3.blockchainapiservice.generated.jooq.id.FetchErc20AccountBalanceCacheId
+import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
+import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.result.BlockHeader
+import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
+import dev3.blockchainapiservice.model.result.ContractDeploymentTransactionInfo
+import dev3.blockchainapiservice.util.AccountBalance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.TransactionHash
+
+sealed interface Web3jCacheEntry {
+    val key: Any // unique database key of the entry, used to coalesce duplicate writes
+}
+
+data class FetchAccountBalanceCacheEntry(
+    val id: FetchAccountBalanceCacheId,
+    val chainSpec: ChainSpec,
+    val accountBalance: AccountBalance
+) : Web3jCacheEntry {
+    override val key
+        get() = listOf(chainSpec, accountBalance.wallet, accountBalance.blockNumber)
+}
+
+data class FetchErc20AccountBalanceCacheEntry(
+    val id: FetchErc20AccountBalanceCacheId,
+    val chainSpec: ChainSpec,
+    val contractAddress: ContractAddress,
+    val accountBalance: AccountBalance
+) : Web3jCacheEntry {
+    override val key
+        get() = listOf(chainSpec, contractAddress, accountBalance.wallet, accountBalance.blockNumber)
+}
+
+data class FetchTransactionInfoCacheEntry(
+    val id: FetchTransactionInfoCacheId,
+    val chainSpec: ChainSpec,
+    val txHash: TransactionHash,
+    val blockNumber: BlockNumber,
+    val txInfo: BlockchainTransactionInfo,
+    val eventLogs: List<EventLog>
+) : Web3jCacheEntry {
+    override val key
+        get() = listOf(chainSpec, txHash)
+}
+
+data class ContractDeploymentTransactionCacheEntry(
+    val id: ContractDeploymentTransactionCacheId,
+    val chainSpec: ChainSpec,
+    val contractAddress: ContractAddress,
+    val contractDeploymentTransactionInfo: ContractDeploymentTransactionInfo,
+    val eventLogs: List<EventLog>
+) : Web3jCacheEntry {
+    override val key
+        get() = listOf(chainSpec, contractAddress)
+}
+
+data class BlockHeaderCacheEntry(
+    val chainSpec: ChainSpec,
+    val blockHeader: BlockHeader
+) : Web3jCacheEntry {
+    override val key
+        get() = listOf(chainSpec, blockHeader.blockNumber)
+}
@@ -0,0 +1,89 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.config.Web3jCacheProperties
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import mu.KLogging
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.stereotype.Component
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collects blockchain cache writes and periodically flushes them into the database in multi-row batches, outside of
+ * the request thread. Writes for the same database key are coalesced while waiting in the queue. When the queue is
+ * full, new entries are dropped instead of growing the queue, and entries of batches which could not be written are
+ * dropped as well; both are reported via `web3j.cache.write.behind.dropped` counter. Dropped entries are only missing
+ * from the database cache and are fetched from the blockchain again when needed.
+ */
+@Component
+class Web3jCacheWriteBehindQueue(
+    private val jooqWeb3jBlockchainServiceCacheRepository: JooqWeb3jBlockchainServiceCacheRepository,
+    private val web3jCacheProperties: Web3jCacheProperties,
+    meterRegistry: MeterRegistry,
+    scheduledExecutorServiceProvider: ScheduledExecutorServiceProvider
+) : DisposableBean {
+
+    companion object : KLogging() {
+        const val QUEUE_NAME = "Web3jCacheWriteBehindQueue"
+    }
+
+    private val pendingEntries = ConcurrentHashMap<Pair<Class<*>, Any>, Web3jCacheEntry>()
+    private val queueFullDrops = droppedEntriesCounter("queue_full", meterRegistry)
+    private val writeFailedDrops = droppedEntriesCounter("write_failed", meterRegistry)
+    private val executorService = scheduledExecutorServiceProvider.newSingleThreadScheduledExecutor(QUEUE_NAME)
+
+    init {
+        Gauge.builder("web3j.cache.write.behind.pending", pendingEntries) { it.size.toDouble() }
+            .description("Number of blockchain cache entries waiting to be written into the database")
+            .register(meterRegistry)
+
+        val flushInterval = web3jCacheProperties.writeBehindFlushInterval.toMillis()
+
+        executorService.scheduleAtFixedRate(
+            command = { flush() },
+            initialDelay = flushInterval,
+            period = flushInterval,
+            unit = TimeUnit.MILLISECONDS
+        )
+    }
+
+    override fun destroy() {
+        logger.info { "Shutting down blockchain cache write-behind queue executor service..." }
+        executorService.shutdown()
+        flush()
+    }
+
+    fun enqueue(entry: Web3jCacheEntry) {
+        // size check is not atomic with the insert, so the queue can exceed its capacity by the number of writers
+        if (pendingEntries.size >= web3jCacheProperties.writeBehindMaxPendingEntries) {
+            queueFullDrops.increment()
+            logger.debug { "Blockchain cache write-behind queue is full, dropping entry: $entry" }
+        } else {
+            pendingEntries.putIfAbsent(Pair(entry.javaClass, entry.key), entry)
+        }
+    }
+
+    @Synchronized
+    @Suppress("TooGenericExceptionCaught")
+    fun flush() {
+        val entries = pendingEntries.keys.mapNotNull { pendingEntries.remove(it) }
+
+        entries.chunked(web3jCacheProperties.writeBehindBatchSize).forEach {
+            try {
+                jooqWeb3jBlockchainServiceCacheRepository.cacheAll(it)
+            } catch (ex: Exception) {
+                writeFailedDrops.increment(it.size.toDouble())
+                logger.warn(ex) { "Failed to write ${it.size} blockchain cache entries" }
+            }
+        }
+    }
+
+    private fun droppedEntriesCounter(reason: String, meterRegistry: MeterRegistry): Counter =
+        Counter.builder("web3j.cache.write.behind.dropped")
+            .tag("reason", reason)
+            .description("Number of blockchain cache entries which were dropped instead of being written into database")
+            .register(meterRegistry)
+}
@@ -1,5 +1,6 @@
 package dev3.blockchainapiservice.service
 
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.model.DeserializableEvent
 import dev3.blockchainapiservice.model.params.ParamsFactory
@@ -16,4 +17,10 @@ interface EthCommonService {
         customRpcUrl: String?,
         events: List<DeserializableEvent>
     ): BlockchainTransactionInfo?
+
+    fun fetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        events: List<DeserializableEvent>
+    ): Map<TransactionHash, BlockchainTransactionInfo>
 }
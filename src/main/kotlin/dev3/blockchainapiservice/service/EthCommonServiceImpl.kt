@@ -49,4 +49,19 @@ class EthCommonServiceImpl(
             events = events
         )
     }
+
+    override fun fetchTransactionInfos(
+        chainSpec: ChainSpec,
+        txHashes: Set<TransactionHash>,
+        events: List<DeserializableEvent>
+    ): Map<TransactionHash, BlockchainTransactionInfo> =
+        if (txHashes.isEmpty()) {
+            emptyMap()
+        } else {
+            blockchainService.fetchTransactionInfos(
+                chainSpec = chainSpec,
+                txHashes = txHashes,
+                events = events
+            )
+        }
 }
@@ -0,0 +1,133 @@
+package dev3.blockchainapiservice.util
+
+/**
+ * Insertion-ordered set of wallet addresses which stores each address as 20 bytes packed into primitive arrays and
+ * looks them up via an open-addressing hash table of indices. [WalletAddress] objects are only created when elements
+ * are read, and addresses can be added directly from hex strings (e.g. log topics) without creating them at all.
+ */
+class AddressSet(expectedSize: Int = DEFAULT_EXPECTED_SIZE) : AbstractSet<WalletAddress>() {
+
+    companion object {
+        private const val DEFAULT_EXPECTED_SIZE = 16
+        private const val ADDRESS_HEX_LENGTH = 40
+        private const val LONG_HEX_LENGTH = 16
+        private const val INT_HEX_LENGTH = 8
+        private const val HEX_RADIX = 16
+        private const val NIBBLE_BITS = 4
+        private const val HALF_LONG_BITS = 32
+        private const val HASH_MULTIPLIER = -0x61c8864680b583ebL
+
+        fun of(addresses: Collection<WalletAddress>): AddressSet =
+            AddressSet(addresses.size).apply { addresses.forEach { add(it) } }
+    }
+
+    private var highs = LongArray(Integer.highestOneBit(expectedSize.coerceAtLeast(2) - 1) shl 1)
+    private var middles = LongArray(highs.size)
+    private var lows = IntArray(highs.size)
+
+    // contains element index + 1, 0 marks an empty slot; the table is kept at most half full
+    private var table = IntArray(highs.size * 2)
+
+    override var size: Int = 0
+        private set
+
+    fun add(address: WalletAddress): Boolean = addHex(address.rawValue)
+
+    /**
+     * Adds address represented by the last 40 hex digits of [value], so both `0x`-prefixed addresses and 32-byte log
+     * topics can be added without parsing them first.
+     */
+    fun addHex(value: String): Boolean {
+        val start = value.length - ADDRESS_HEX_LENGTH
+        val high = parseHex(value, start, LONG_HEX_LENGTH)
+        val middle = parseHex(value, start + LONG_HEX_LENGTH, LONG_HEX_LENGTH)
+        val low = parseHex(value, start + 2 * LONG_HEX_LENGTH, INT_HEX_LENGTH).toInt()
+        var slot = findSlot(high, middle, low)
+
+        if (table[slot] != 0) {
+            return false
+        }
+
+        if (size == highs.size) {
+            grow()
+            slot = findSlot(high, middle, low)
+        }
+
+        highs[size] = high
+        middles[size] = middle
+        lows[size] = low
+        size++
+        table[slot] = size
+
+        return true
+    }
+
+    fun indexOf(address: WalletAddress): Int = indexOfHex(address.rawValue)
+
+    /**
+     * Returns insertion index of address represented by the last 40 hex digits of [value], or `-1` if the set does not
+     * contain it.
+     */
+    fun indexOfHex(value: String): Int {
+        val start = value.length - ADDRESS_HEX_LENGTH
+        val high = parseHex(value, start, LONG_HEX_LENGTH)
+        val middle = parseHex(value, start + LONG_HEX_LENGTH, LONG_HEX_LENGTH)
+        val low = parseHex(value, start + 2 * LONG_HEX_LENGTH, INT_HEX_LENGTH).toInt()
+
+        return table[findSlot(high, middle, low)] - 1
+    }
+
+    override fun contains(element: WalletAddress): Boolean = indexOf(element) >= 0
+
+    override fun iterator(): Iterator<WalletAddress> = (0 until size).asSequence().map { get(it) }.iterator()
+
+    operator fun get(index: Int): WalletAddress {
+        require(index in 0 until size) { "Index out of bounds: $index" }
+
+        return WalletAddress(
+            "0x" + java.lang.Long.toHexString(highs[index]).padStart(LONG_HEX_LENGTH, '0') +
+                java.lang.Long.toHexString(middles[index]).padStart(LONG_HEX_LENGTH, '0') +
+                Integer.toHexString(lows[index]).padStart(INT_HEX_LENGTH, '0')
+        )
+    }
+
+    private fun findSlot(high: Long, middle: Long, low: Int): Int {
+        val mask = table.size - 1
+        var slot = (((high xor middle xor low.toLong()) * HASH_MULTIPLIER) ushr HALF_LONG_BITS).toInt() and mask
+        var index = table[slot] - 1
+
+        while (index >= 0 && (highs[index] != high || middles[index] != middle || lows[index] != low)) {
+            slot = (slot + 1) and mask
+            index = table[slot] - 1
+        }
+
+        return slot
+    }
+
+    private fun grow() {
+        val capacity = highs.size * 2
+
+        highs = highs.copyOf(capacity)
+        middles = middles.copyOf(capacity)
+        lows = lows.copyOf(capacity)
+        table = IntArray(capacity * 2)
+
+        for (index in 0 until size) {
+            table[findSlot(highs[index], middles[index], lows[index])] = index + 1
+        }
+    }
+
+    private fun parseHex(value: String, start: Int, length: Int): Long {
+        require(start >= 0) { "Invalid address: $value" }
+
+        var result = 0L
+
+        for (i in start until start + length) {
+            val digit = Character.digit(value[i], HEX_RADIX)
+            require(digit >= 0) { "Invalid address: $value" }
+            result = (result shl NIBBLE_BITS) or digit.toLong()
+        }
+
+        return result
+    }
+}
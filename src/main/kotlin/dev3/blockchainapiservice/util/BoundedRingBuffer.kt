@@ -0,0 +1,59 @@
+package dev3.blockchainapiservice.util
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Fixed-capacity, lock-free ring buffer for many producers and a single consumer. Producers never block: [offer]
+ * returns `false` when the buffer is full. Elements must only be removed from one thread at a time.
+ */
+class BoundedRingBuffer<T : Any>(val capacity: Int) {
+
+    init {
+        require(capacity > 0) { "Ring buffer capacity must be positive" }
+    }
+
+    private val slots = AtomicReferenceArray<T?>(capacity)
+    private val tail = AtomicLong()
+
+    @Volatile
+    private var head = 0L
+
+    val size: Int
+        get() = (tail.get() - head).coerceIn(0L, capacity.toLong()).toInt()
+
+    fun offer(element: T): Boolean {
+        var position = tail.get()
+
+        while (position - head < capacity) {
+            if (tail.compareAndSet(position, position + 1)) {
+                slots.set((position % capacity).toInt(), element)
+                return true
+            }
+
+            position = tail.get()
+        }
+
+        return false
+    }
+
+    /**
+     * Removes up to [maxElements] elements in insertion order. Stops early at the first slot which was claimed by a
+     * producer but not yet written; that element will be returned by the next call.
+     */
+    fun poll(maxElements: Int): List<T> {
+        val elements = ArrayList<T>(minOf(maxElements, size))
+        var index = (head % capacity).toInt()
+        var element = slots.get(index)
+
+        while (elements.size < maxElements && element != null) {
+            elements.add(element)
+            slots.set(index, null)
+            head++
+            index = (head % capacity).toInt()
+            element = slots.get(index)
+        }
+
+        return elements
+    }
+}
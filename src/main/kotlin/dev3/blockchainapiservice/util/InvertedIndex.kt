@@ -0,0 +1,66 @@
+package dev3.blockchainapiservice.util
+
+import dev3.blockchainapiservice.model.filters.AndList
+import dev3.blockchainapiservice.model.filters.OrList
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Maps values (e.g. tags or signatures) to keys of entries which contain them, so that filters can be evaluated using
+ * set intersections instead of checking every entry. Updates are synchronized, while lookups can run concurrently
+ * with them.
+ */
+class InvertedIndex<K : Any, V : Any> {
+
+    private val keysByValue = ConcurrentHashMap<V, MutableSet<K>>()
+    private val valuesByKey = ConcurrentHashMap<K, Set<V>>()
+    private val keysWithoutValues = ConcurrentHashMap.newKeySet<K>()
+
+    @Synchronized
+    fun put(key: K, values: Collection<V>) {
+        remove(key)
+
+        val valueSet = values.toSet()
+
+        valuesByKey[key] = valueSet
+        valueSet.forEach { keysByValue.computeIfAbsent(it) { ConcurrentHashMap.newKeySet() }.add(key) }
+
+        if (valueSet.isEmpty()) {
+            keysWithoutValues.add(key)
+        }
+    }
+
+    @Synchronized
+    fun remove(key: K) {
+        keysWithoutValues.remove(key)
+        valuesByKey.remove(key)?.forEach { value ->
+            keysByValue.computeIfPresent(value) { _, keys -> keys.apply { remove(key) }.takeIf { it.isNotEmpty() } }
+        }
+    }
+
+    /**
+     * Returns keys of entries which contain all values of at least one of the [AndList]s, or `null` if [orList] is
+     * empty, which means that all entries match.
+     */
+    fun matching(orList: OrList<AndList<V>>): Set<K>? =
+        if (orList.list.isEmpty()) null else orList.list.flatMapTo(HashSet()) { matchingAll(it.list) }
+
+    /**
+     * Returns keys of entries whose values are all contained in [values].
+     */
+    fun containedIn(values: Set<V>): Set<K> {
+        val matchCounts = HashMap<K, Int>()
+
+        values.forEach { value -> keysByValue[value]?.forEach { matchCounts.merge(it, 1, Int::plus) } }
+
+        return matchCounts.filterTo(HashMap()) { (key, count) -> valuesByKey[key]?.size == count }.keys +
+            keysWithoutValues
+    }
+
+    private fun matchingAll(values: List<V>): Set<K> =
+        if (values.isEmpty()) {
+            valuesByKey.keys
+        } else {
+            val keySets = values.map { keysByValue[it].orEmpty() }.sortedBy { it.size }
+            keySets.drop(1).fold(HashSet(keySets.first())) { result, keys -> result.apply { retainAll(keys) } }
+        }
+}
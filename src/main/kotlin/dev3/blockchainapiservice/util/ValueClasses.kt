@@ -5,6 +5,7 @@ import org.web3j.abi.datatypes.Uint
 import org.web3j.crypto.Hash
 import org.web3j.protocol.core.DefaultBlockParameter
 import org.web3j.protocol.core.DefaultBlockParameterName
+import org.web3j.utils.Numeric
 import java.math.BigInteger
 import java.time.Instant
 import java.time.OffsetDateTime
@@ -115,10 +116,10 @@ value class FunctionData private constructor(val value: String) {
         operator fun invoke(value: String) = FunctionData("0x" + value.removePrefix("0x").lowercase())
     }
 
-    constructor(binary: ByteArray) : this(String(binary))
+    constructor(binary: ByteArray) : this(Numeric.toHexString(binary))
 
-    val binary: ByteArray // TODO compact conversion
-        get() = value.toByteArray()
+    val binary: ByteArray
+        get() = hexToBinary(value)
 
     val withoutPrefix
         get(): String = value.removePrefix("0x")
@@ -160,10 +161,10 @@ value class ContractBinaryData private constructor(val value: String) {
         operator fun invoke(value: String) = ContractBinaryData(value.removePrefix("0x").lowercase())
     }
 
-    constructor(binary: ByteArray) : this(String(binary))
+    constructor(binary: ByteArray) : this(Numeric.toHexStringNoPrefix(binary))
 
-    val binary: ByteArray // TODO compact conversion
-        get() = value.toByteArray()
+    val binary: ByteArray
+        get() = hexToBinary(value)
 
     val withPrefix: String
         get() = "0x$value"
@@ -204,3 +205,11 @@ value class Keccak256Hash private constructor(val value: String) {
         fun raw(value: String) = Keccak256Hash(value.lowercase().removePrefix("0x"))
     }
 }
+
+private val EVEN_LENGTH_HEX_REGEX = "^(0x)?([0-9a-fA-F]{2})*$".toRegex()
+
+private fun hexToBinary(value: String): ByteArray {
+    // odd-length or non-hex values cannot be converted into bytes without changing the value
+    require(EVEN_LENGTH_HEX_REGEX.matches(value)) { "Value is not an even-length hex string: $value" }
+    return Numeric.hexStringToByteArray(value)
+}
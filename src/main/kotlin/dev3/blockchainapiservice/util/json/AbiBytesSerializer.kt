@@ -0,0 +1,17 @@
+package dev3.blockchainapiservice.util.json
+
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.databind.JsonSerializer
+import com.fasterxml.jackson.databind.SerializerProvider
+
+/**
+ * Serializes decoded ABI `bytes` values as arrays of signed byte numbers, which is the format accepted by
+ * [FunctionArgumentJsonDeserializer].
+ */
+class AbiBytesSerializer : JsonSerializer<ByteArray>() {
+    override fun serialize(value: ByteArray, gen: JsonGenerator, serializers: SerializerProvider) {
+        gen.writeStartArray(value, value.size)
+        value.forEach { gen.writeNumber(it.toInt()) }
+        gen.writeEndArray()
+    }
+}
@@ -0,0 +1,10 @@
+CREATE TABLE blockchain_api_service.asset_snapshot_holder_scan_checkpoint (
+    asset_snapshot_id ASSET_SNAPSHOT_ID PRIMARY KEY REFERENCES blockchain_api_service.asset_snapshot(id),
+    block_number      NUMERIC(78)       NOT NULL
+);
+
+CREATE TABLE blockchain_api_service.asset_snapshot_holder (
+    asset_snapshot_id ASSET_SNAPSHOT_ID NOT NULL REFERENCES blockchain_api_service.asset_snapshot(id),
+    holder_address    VARCHAR           NOT NULL,
+    PRIMARY KEY (asset_snapshot_id, holder_address)
+);
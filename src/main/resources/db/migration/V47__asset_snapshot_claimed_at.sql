@@ -0,0 +1 @@
+ALTER TABLE blockchain_api_service.asset_snapshot ADD COLUMN claimed_at TIMESTAMPTZ NULL;
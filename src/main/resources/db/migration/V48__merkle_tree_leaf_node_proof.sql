@@ -0,0 +1,7 @@
+ALTER TABLE blockchain_api_service.merkle_tree_leaf_node
+    ADD COLUMN leaf_index   INTEGER   NULL,
+    ADD COLUMN merkle_proof VARCHAR[] NULL;
+
+CREATE INDEX merkle_tree_leaf_node_missing_proof_idx
+    ON blockchain_api_service.merkle_tree_leaf_node(merkle_root)
+    WHERE merkle_proof IS NULL;
@@ -0,0 +1,8 @@
+CREATE TABLE blockchain_api_service.block_header_cache (
+    chain_id       BIGINT                   NOT NULL,
+    custom_rpc_url VARCHAR                  NOT NULL,
+    block_number   NUMERIC(78)              NOT NULL,
+    block_hash     VARCHAR                  NOT NULL,
+    timestamp      TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (chain_id, custom_rpc_url, block_number)
+);
@@ -0,0 +1,2 @@
+ALTER TABLE blockchain_api_service.asset_snapshot ADD COLUMN created_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+ALTER TABLE blockchain_api_service.asset_snapshot ALTER COLUMN created_at DROP DEFAULT;
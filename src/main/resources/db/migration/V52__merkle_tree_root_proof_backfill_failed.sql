@@ -0,0 +1,2 @@
+ALTER TABLE blockchain_api_service.merkle_tree_root
+    ADD COLUMN proof_backfill_failed BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,138 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.LogScanProperties
+import dev3.blockchainapiservice.exception.BlockchainEventReadException
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ContractAddress
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.mock
+import org.web3j.protocol.Web3j
+import org.web3j.protocol.core.Request
+import org.web3j.protocol.core.Response
+import org.web3j.protocol.core.methods.request.EthFilter
+import org.web3j.protocol.core.methods.response.EthLog
+import org.web3j.protocol.core.methods.response.Log
+import org.web3j.utils.Numeric
+import java.math.BigInteger
+
+class AdaptiveLogScannerTest : TestBase() {
+
+    companion object {
+        private val CONTRACT_ADDRESS = ContractAddress("a")
+        private const val TOPIC = "topic"
+    }
+
+    @Test
+    fun mustShrinkBlockRangeWhenRequestFailsAndGrowItWhenLogsAreSparse() {
+        val log = EthLog.LogObject().apply { topics = listOf(TOPIC) }
+        val request = mock<Request<*, EthLog>>()
+
+        suppose("first request will fail and all others will succeed") {
+            call(request.send())
+                .willReturn(errorResponse(), logsResponse(log), logsResponse(), logsResponse(), logsResponse())
+        }
+
+        val web3j = mock<Web3j>()
+
+        suppose("request will be returned for each filter") {
+            call(web3j.ethGetLogs(any()))
+                .willReturn(request)
+        }
+
+        val scanner = AdaptiveLogScanner(
+            web3j = web3j,
+            logScanProperties = LogScanProperties(initialBlockRange = 4L, maxBlockRange = 8L, sparseLogCount = 1)
+        )
+        val chunks = mutableListOf<Pair<BlockNumber, List<Log>>>()
+
+        suppose("logs are scanned") {
+            scanner.scan(
+                contractAddress = CONTRACT_ADDRESS,
+                topic = TOPIC,
+                fromBlock = BlockNumber(BigInteger.ZERO),
+                toBlock = BlockNumber(BigInteger.valueOf(13L))
+            ) { chunkEndBlock, logs -> chunks += Pair(chunkEndBlock, logs) }
+        }
+
+        verify("correct block ranges are requested") {
+            val filterCaptor = argumentCaptor<EthFilter>()
+
+            expectInteractions(web3j) {
+                5.times.ethGetLogs(filterCaptor.capture())
+            }
+
+            expectThat(filterCaptor.allValues.map { it.requestedBlockRange() })
+                .isEqualTo(
+                    listOf(
+                        blockRange(0L, 3L),
+                        blockRange(0L, 1L),
+                        blockRange(2L, 3L),
+                        blockRange(4L, 7L),
+                        blockRange(8L, 13L)
+                    )
+                )
+        }
+
+        verify("all chunks are processed") {
+            expectThat(chunks)
+                .isEqualTo(
+                    listOf(
+                        Pair(BlockNumber(BigInteger.ONE), listOf(log)),
+                        Pair(BlockNumber(BigInteger.valueOf(3L)), emptyList()),
+                        Pair(BlockNumber(BigInteger.valueOf(7L)), emptyList()),
+                        Pair(BlockNumber(BigInteger.valueOf(13L)), emptyList())
+                    )
+                )
+        }
+    }
+
+    @Test
+    fun mustThrowBlockchainEventReadExceptionWhenSingleBlockRequestFails() {
+        val request = mock<Request<*, EthLog>>()
+
+        suppose("all requests will fail") {
+            call(request.send())
+                .willReturn(errorResponse())
+        }
+
+        val web3j = mock<Web3j>()
+
+        suppose("request will be returned for each filter") {
+            call(web3j.ethGetLogs(any()))
+                .willReturn(request)
+        }
+
+        val scanner = AdaptiveLogScanner(
+            web3j = web3j,
+            logScanProperties = LogScanProperties(initialBlockRange = 4L)
+        )
+
+        verify("BlockchainEventReadException is thrown") {
+            val exception = expectThrows<BlockchainEventReadException> {
+                scanner.scan(
+                    contractAddress = CONTRACT_ADDRESS,
+                    topic = TOPIC,
+                    fromBlock = BlockNumber(BigInteger.ZERO),
+                    toBlock = BlockNumber(BigInteger.TEN)
+                ) { _, _ -> }
+            }
+
+            expectThat(exception.cause?.message)
+                .isEqualTo("Log response size exceeded")
+        }
+    }
+
+    private fun logsResponse(vararg logs: EthLog.LogObject): EthLog =
+        EthLog().apply { result = logs.toList() }
+
+    private fun errorResponse(): EthLog =
+        EthLog().apply { error = Response.Error(-32005, "Log response size exceeded") }
+
+    private fun blockRange(from: Long, to: Long) = Pair(BigInteger.valueOf(from), BigInteger.valueOf(to))
+
+    private fun EthFilter.requestedBlockRange() =
+        Pair(Numeric.decodeQuantity(fromBlock.value), Numeric.decodeQuantity(toBlock.value))
+}
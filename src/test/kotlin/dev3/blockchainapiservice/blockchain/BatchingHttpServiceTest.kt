@@ -0,0 +1,217 @@
+package dev3.blockchainapiservice.blockchain
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.post
+import com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.wiremock.WireMock
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.springframework.http.MediaType
+import org.web3j.protocol.core.Request
+import org.web3j.protocol.core.methods.response.EthBlockNumber
+import java.io.IOException
+import java.math.BigInteger
+import java.util.concurrent.CompletionException
+import java.util.concurrent.TimeUnit
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.toJavaDuration
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatchingHttpServiceTest : TestBase() {
+
+    companion object {
+        private const val RPC_URL = "http://localhost:8090/"
+    }
+
+    private val objectMapper = ObjectMapper()
+
+    @BeforeAll
+    fun beforeAll() {
+        WireMock.start()
+    }
+
+    @AfterAll
+    fun afterAll() {
+        WireMock.stop()
+    }
+
+    @BeforeEach
+    fun beforeEach() {
+        WireMock.reset()
+    }
+
+    @Test
+    fun mustSendConcurrentRequestsAsSingleBatchRequest() {
+        suppose("RPC will return batch response in different order than requests") {
+            stubRpcResponse(
+                """
+                [
+                    {"jsonrpc": "2.0", "id": 2, "result": "0x2"},
+                    {"jsonrpc": "2.0", "id": 1, "result": "0x1"}
+                ]
+                """.trimIndent()
+            )
+        }
+
+        val service = BatchingHttpService(
+            url = RPC_URL,
+            batchWindow = 500.milliseconds.toJavaDuration(),
+            maxBatchSize = 10
+        )
+
+        verify("responses are correctly matched to requests") {
+            val firstResponse = service.blockNumberRequest(id = 1L).sendAsync()
+            val secondResponse = service.blockNumberRequest(id = 2L).sendAsync()
+
+            expectThat(firstResponse.join().blockNumber)
+                .isEqualTo(BigInteger.ONE)
+            expectThat(secondResponse.join().blockNumber)
+                .isEqualTo(BigInteger.TWO)
+        }
+
+        verify("single batch request was sent") {
+            val requests = WireMock.server.findAll(postRequestedFor(urlPathEqualTo("/")))
+
+            expectThat(requests.size)
+                .isOne()
+
+            val body = objectMapper.readTree(requests[0].bodyAsString)
+
+            expectThat(body.isArray)
+                .isTrue()
+            expectThat(body.map { it["id"].asLong() })
+                .isEqualTo(listOf(1L, 2L))
+        }
+    }
+
+    @Test
+    fun mustSendBatchRequestBeforeWindowEndsWhenBatchIsFull() {
+        suppose("RPC will return batch response") {
+            stubRpcResponse(
+                """
+                [
+                    {"jsonrpc": "2.0", "id": 1, "result": "0x1"},
+                    {"jsonrpc": "2.0", "id": 2, "result": "0x2"}
+                ]
+                """.trimIndent()
+            )
+        }
+
+        val service = BatchingHttpService(
+            url = RPC_URL,
+            batchWindow = 60.seconds.toJavaDuration(),
+            maxBatchSize = 2
+        )
+
+        verify("batch is sent as soon as it is full") {
+            val firstResponse = service.blockNumberRequest(id = 1L).sendAsync()
+            val secondResponse = service.blockNumberRequest(id = 2L).sendAsync()
+
+            expectThat(firstResponse.get(5L, TimeUnit.SECONDS).blockNumber)
+                .isEqualTo(BigInteger.ONE)
+            expectThat(secondResponse.get(5L, TimeUnit.SECONDS).blockNumber)
+                .isEqualTo(BigInteger.TWO)
+        }
+    }
+
+    @Test
+    fun mustSendSingleRequestWithoutBatching() {
+        suppose("RPC will return single response") {
+            stubRpcResponse("""{"jsonrpc": "2.0", "id": 1, "result": "0x1"}""")
+        }
+
+        val service = BatchingHttpService(
+            url = RPC_URL,
+            batchWindow = 10.milliseconds.toJavaDuration(),
+            maxBatchSize = 10
+        )
+
+        verify("single request is correctly sent") {
+            expectThat(service.blockNumberRequest(id = 1L).send().blockNumber)
+                .isEqualTo(BigInteger.ONE)
+
+            val requests = WireMock.server.findAll(postRequestedFor(urlPathEqualTo("/")))
+
+            expectThat(requests.size)
+                .isOne()
+            expectThat(objectMapper.readTree(requests[0].bodyAsString).isObject)
+                .isTrue()
+        }
+    }
+
+    @Test
+    fun mustFailAllRequestsWhenBatchResponseIsNotAnArray() {
+        suppose("RPC will return error object instead of batch response") {
+            stubRpcResponse("""{"jsonrpc": "2.0", "id": null, "error": {"code": -32600, "message": "error"}}""")
+        }
+
+        val service = BatchingHttpService(
+            url = RPC_URL,
+            batchWindow = 500.milliseconds.toJavaDuration(),
+            maxBatchSize = 10
+        )
+
+        verify("all requests in the batch fail") {
+            val firstResponse = service.blockNumberRequest(id = 1L).sendAsync()
+            val secondResponse = service.blockNumberRequest(id = 2L).sendAsync()
+
+            val firstException = expectThrows<CompletionException> { firstResponse.join() }
+            val secondException = expectThrows<CompletionException> { secondResponse.join() }
+
+            expectThat(firstException.cause)
+                .isInstanceOf(IOException::class.java)
+            expectThat(secondException.cause)
+                .isInstanceOf(IOException::class.java)
+        }
+    }
+
+    @Test
+    fun mustFailOnlyRequestsWithMissingResponse() {
+        suppose("RPC will return partial batch response") {
+            stubRpcResponse("""[{"jsonrpc": "2.0", "id": 1, "result": "0x1"}]""")
+        }
+
+        val service = BatchingHttpService(
+            url = RPC_URL,
+            batchWindow = 500.milliseconds.toJavaDuration(),
+            maxBatchSize = 10
+        )
+
+        verify("only request without response fails") {
+            val firstResponse = service.blockNumberRequest(id = 1L).sendAsync()
+            val secondResponse = service.blockNumberRequest(id = 2L).sendAsync()
+
+            expectThat(firstResponse.join().blockNumber)
+                .isEqualTo(BigInteger.ONE)
+
+            val exception = expectThrows<CompletionException> { secondResponse.join() }
+
+            expectThat(exception.cause)
+                .isInstanceOf(IOException::class.java)
+        }
+    }
+
+    private fun stubRpcResponse(body: String) {
+        WireMock.server.stubFor(
+            post(urlPathEqualTo("/"))
+                .willReturn(
+                    aResponse()
+                        .withBody(body)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(200)
+                )
+        )
+    }
+
+    private fun BatchingHttpService.blockNumberRequest(id: Long): Request<String, EthBlockNumber> =
+        Request("eth_blockNumber", emptyList<String>(), this, EthBlockNumber::class.java).apply {
+            this.id = id
+        }
+}
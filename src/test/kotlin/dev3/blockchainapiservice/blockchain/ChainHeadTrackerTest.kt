@@ -0,0 +1,141 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.config.ChainHeadTrackerProperties
+import dev3.blockchainapiservice.exception.TemporaryBlockchainReadException
+import dev3.blockchainapiservice.model.result.BlockHeader
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.UtcDateTime
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.web3j.protocol.Web3j
+import org.web3j.protocol.core.Request
+import org.web3j.protocol.core.Response
+import org.web3j.protocol.core.methods.response.EthBlock
+import java.math.BigInteger
+import java.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.toJavaDuration
+
+class ChainHeadTrackerTest : TestBase() {
+
+    companion object {
+        private val CHAIN_SPEC = ChainSpec(ChainId(1L), null)
+        private val TIMESTAMP = BigInteger.valueOf(1_000L)
+    }
+
+    @Test
+    fun mustFetchChainHeadInlineOnlyForFirstRequest() {
+        val web3j = mockWeb3j(blockResponse(1L), blockResponse(2L))
+
+        ChainHeadTracker(ChainHeadTrackerProperties()).use { tracker ->
+            verify("chain head is fetched once") {
+                val pollInterval = 1.minutes.toJavaDuration()
+
+                expectThat(tracker.getHead(CHAIN_SPEC, web3j, pollInterval))
+                    .isEqualTo(chainHead(1L))
+                expectThat(tracker.getHead(CHAIN_SPEC, web3j, pollInterval))
+                    .isEqualTo(chainHead(1L))
+
+                expectInteractions(web3j) {
+                    once.ethGetBlockByNumber(any(), any())
+                }
+            }
+        }
+    }
+
+    @Test
+    fun mustUpdateChainHeadInBackground() {
+        val web3j = mockWeb3j(blockResponse(1L), blockResponse(3L), blockResponse(2L))
+
+        ChainHeadTracker(ChainHeadTrackerProperties()).use { tracker ->
+            val pollInterval = 20.milliseconds.toJavaDuration()
+
+            suppose("chain head is requested") {
+                tracker.getHead(CHAIN_SPEC, web3j, pollInterval)
+            }
+
+            verify("chain head is updated in background and never goes backwards") {
+                val deadline = System.nanoTime() + Duration.ofSeconds(5L).toNanos()
+
+                while (tracker.getHead(CHAIN_SPEC, web3j, pollInterval) == chainHead(1L) &&
+                    System.nanoTime() < deadline
+                ) {
+                    Thread.sleep(10L)
+                }
+
+                expectThat(tracker.getHead(CHAIN_SPEC, web3j, pollInterval))
+                    .isEqualTo(chainHead(3L))
+
+                Thread.sleep(200L)
+
+                expectThat(tracker.getHead(CHAIN_SPEC, web3j, pollInterval))
+                    .isEqualTo(chainHead(3L))
+            }
+        }
+    }
+
+    @Test
+    fun mustFetchChainHeadForEachRequestWhenPollIntervalIsZero() {
+        val web3j = mockWeb3j(blockResponse(1L), blockResponse(2L))
+
+        ChainHeadTracker(ChainHeadTrackerProperties()).use { tracker ->
+            verify("chain head is fetched for each request") {
+                expectThat(tracker.getHead(CHAIN_SPEC, web3j, Duration.ZERO))
+                    .isEqualTo(chainHead(1L))
+                expectThat(tracker.getHead(CHAIN_SPEC, web3j, Duration.ZERO))
+                    .isEqualTo(chainHead(2L))
+            }
+        }
+    }
+
+    @Test
+    fun mustThrowTemporaryBlockchainReadExceptionWhenChainHeadCannotBeFetched() {
+        val web3j = mockWeb3j(EthBlock().apply { error = Response.Error(-1, "error") })
+
+        ChainHeadTracker(ChainHeadTrackerProperties()).use { tracker ->
+            verify("TemporaryBlockchainReadException is thrown") {
+                expectThrows<TemporaryBlockchainReadException> {
+                    tracker.getHead(CHAIN_SPEC, web3j, 1.minutes.toJavaDuration())
+                }
+            }
+        }
+    }
+
+    private fun mockWeb3j(response: EthBlock, vararg responses: EthBlock): Web3j {
+        val request = mock<Request<*, EthBlock>>()
+
+        suppose("request will return block responses") {
+            call(request.send())
+                .willReturn(response, *responses)
+        }
+
+        val web3j = mock<Web3j>()
+
+        suppose("request will be returned for latest block") {
+            call(web3j.ethGetBlockByNumber(any(), any()))
+                .willReturn(request)
+        }
+
+        return web3j
+    }
+
+    private fun blockResponse(blockNumber: Long) = EthBlock().apply {
+        result = EthBlock.Block().apply {
+            setNumber("0x" + blockNumber.toString(16))
+            hash = "0x$blockNumber"
+            setTimestamp("0x" + TIMESTAMP.toString(16))
+        }
+    }
+
+    private fun chainHead(blockNumber: Long) =
+        BlockHeader(
+            blockNumber = BlockNumber(BigInteger.valueOf(blockNumber)),
+            hash = "0x$blockNumber",
+            timestamp = UtcDateTime.ofEpochSeconds(TIMESTAMP.longValueExact())
+        )
+}
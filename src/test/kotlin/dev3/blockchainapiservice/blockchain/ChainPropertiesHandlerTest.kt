@@ -8,6 +8,7 @@ import dev3.blockchainapiservice.config.ChainProperties
 import dev3.blockchainapiservice.exception.ErrorCode
 import dev3.blockchainapiservice.exception.UnsupportedChainIdException
 import dev3.blockchainapiservice.util.ChainId
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.junit.jupiter.api.Test
 
 class ChainPropertiesHandlerTest : TestBase() {
@@ -34,7 +35,8 @@ class ChainPropertiesHandlerTest : TestBase() {
                 ApplicationProperties().apply {
                     infuraId = ""
                     chain = CHAINS
-                }
+                },
+                SimpleMeterRegistry()
             )
         }
 
@@ -47,7 +49,7 @@ class ChainPropertiesHandlerTest : TestBase() {
     @Test
     fun mustCorrectlyCreateChainPropertiesWithServicesWhenCustomRpcUrlIsSpecified() {
         val chainPropertiesHandler = suppose("chain properties handler is created from application properties") {
-            ChainPropertiesHandler(ApplicationProperties().apply { infuraId = "" })
+            ChainPropertiesHandler(ApplicationProperties().apply { infuraId = "" }, SimpleMeterRegistry())
         }
 
         verify("chain properties with services are correctly created") {
@@ -68,7 +70,8 @@ class ChainPropertiesHandlerTest : TestBase() {
                 ApplicationProperties().apply {
                     infuraId = ""
                     chain = CHAINS
-                }
+                },
+                SimpleMeterRegistry()
             )
         }
 
@@ -86,7 +89,7 @@ class ChainPropertiesHandlerTest : TestBase() {
     @Test
     fun mustThrowExceptionForInvalidChainId() {
         val chainPropertiesHandler = suppose("chain properties handler is created from application properties") {
-            ChainPropertiesHandler(ApplicationProperties())
+            ChainPropertiesHandler(ApplicationProperties(), SimpleMeterRegistry())
         }
 
         verify("InternalException is thrown") {
@@ -106,7 +109,7 @@ class ChainPropertiesHandlerTest : TestBase() {
             }
 
         val chainPropertiesHandler = suppose("chain properties handler is created from application properties") {
-            ChainPropertiesHandler(applicationProperties)
+            ChainPropertiesHandler(applicationProperties, SimpleMeterRegistry())
         }
 
         verify("correct RPC URL is returned") {
@@ -125,7 +128,7 @@ class ChainPropertiesHandlerTest : TestBase() {
             }
 
         val chainPropertiesHandler = suppose("chain properties handler is created from application properties") {
-            ChainPropertiesHandler(applicationProperties)
+            ChainPropertiesHandler(applicationProperties, SimpleMeterRegistry())
         }
 
         verify("correct RPC URL is returned") {
@@ -145,7 +148,7 @@ class ChainPropertiesHandlerTest : TestBase() {
             }
 
         val chainPropertiesHandler = suppose("chain properties handler is created from application properties") {
-            ChainPropertiesHandler(applicationProperties)
+            ChainPropertiesHandler(applicationProperties, SimpleMeterRegistry())
         }
 
         verify("correct Infura RPC URL is returned") {
@@ -155,5 +158,32 @@ class ChainPropertiesHandlerTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustReturnPrimaryRpcFollowedByDistinctFallbackRpcs() {
+        val infuraId = "some-id"
+        val applicationProperties = ApplicationProperties()
+            .apply {
+                this.infuraId = infuraId
+                chain = CHAINS.mapValues {
+                    it.value.copy(fallbackRpcUrls = listOf("fallback-rpc-url", "/infura/$infuraId", "rpc-url"))
+                }
+            }
+
+        val chainPropertiesHandler = suppose("chain properties handler is created from application properties") {
+            ChainPropertiesHandler(applicationProperties, SimpleMeterRegistry())
+        }
+
+        verify("correct RPC URLs are returned") {
+            val chainProperties = applicationProperties.chain[CHAIN_ID]!!
+            val rpcUrls = chainPropertiesHandler.getChainRpcUrls(chainProperties)
+            expectThat(rpcUrls).isEqualTo(listOf("/infura/$infuraId", "fallback-rpc-url", "rpc-url"))
+        }
+
+        verify("chain properties with services are correctly created") {
+            val chainProperties = chainPropertiesHandler.getBlockchainProperties(CHAIN_ID.toSpec())
+            expectThat(chainProperties.web3j).isNotNull()
+        }
+    }
+
     private fun ChainId.toSpec() = ChainSpec(this, null)
 }
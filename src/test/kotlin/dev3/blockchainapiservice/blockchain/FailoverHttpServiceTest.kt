@@ -0,0 +1,292 @@
+package dev3.blockchainapiservice.blockchain
+
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.equalTo
+import com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath
+import com.github.tomakehurst.wiremock.client.WireMock.post
+import com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.RpcFailoverProperties
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.springframework.http.MediaType
+import org.web3j.protocol.Web3j
+import org.web3j.protocol.core.DefaultBlockParameterName
+import org.web3j.protocol.http.HttpService
+import java.io.IOException
+import java.math.BigInteger
+import java.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.toJavaDuration
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FailoverHttpServiceTest : TestBase() {
+
+    private val nodes = List(2) { WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort()) }
+
+    @BeforeAll
+    fun beforeAll() {
+        nodes.forEach { it.start() }
+    }
+
+    @AfterAll
+    fun afterAll() {
+        nodes.forEach { it.stop() }
+    }
+
+    @BeforeEach
+    fun beforeEach() {
+        nodes.forEach { it.resetAll() }
+    }
+
+    @Test
+    fun mustFailOverToNextEndpointWhenFirstEndpointFails() {
+        suppose("first node will fail and second node will return block number") {
+            nodes[0].stubRpcError()
+            nodes[1].stubRpcResponse("0x10")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = Duration.ZERO, failureThreshold = 1))
+
+        verify("block number is returned by second node") {
+            expectThat(web3j.ethBlockNumber().send().blockNumber)
+                .isEqualTo(BigInteger.valueOf(16L))
+        }
+
+        verify("failed node is skipped during cooldown") {
+            expectThat(web3j.ethBlockNumber().send().blockNumber)
+                .isEqualTo(BigInteger.valueOf(16L))
+            expectThat(nodes[0].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isOne()
+            expectThat(nodes[1].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isEqualTo(2)
+        }
+    }
+
+    @Test
+    fun mustUseHedgedResponseWhenSlowFirstAttemptFails() {
+        suppose("first node will fail after injected latency and second node will respond slowly") {
+            nodes[0].stubRpcError(delayMillis = 1_000)
+            nodes[1].stubRpcResponse("0x2", delayMillis = 800)
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = 100.milliseconds.toJavaDuration()))
+
+        verify("hedged response of second node is returned without sequential retry") {
+            val startedAt = System.nanoTime()
+            val balance = web3j.ethGetBalance("0x0", DefaultBlockParameterName.LATEST).send().balance
+            val elapsed = Duration.ofNanos(System.nanoTime() - startedAt)
+
+            expectThat(balance)
+                .isEqualTo(BigInteger.TWO)
+            expectThat(elapsed < Duration.ofMillis(1_500L))
+                .isTrue()
+            expectThat(nodes[1].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isOne()
+        }
+    }
+
+    @Test
+    fun mustReturnFasterHedgedResponseWhenSlowFirstAttemptSucceeds() {
+        suppose("first node will respond after injected latency and second node will respond quickly") {
+            nodes[0].stubRpcResponse("0x1", delayMillis = 2_000)
+            nodes[1].stubRpcResponse("0x2")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = 100.milliseconds.toJavaDuration()))
+
+        verify("hedged response of second node is returned without waiting for first node") {
+            val startedAt = System.nanoTime()
+            val balance = web3j.ethGetBalance("0x0", DefaultBlockParameterName.LATEST).send().balance
+            val elapsed = Duration.ofNanos(System.nanoTime() - startedAt)
+
+            expectThat(balance)
+                .isEqualTo(BigInteger.TWO)
+            expectThat(elapsed < Duration.ofMillis(1_500L))
+                .isTrue()
+            expectThat(nodes[1].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isOne()
+        }
+    }
+
+    @Test
+    fun mustNotSendHedgedRequestWhenFirstAttemptCompletesInTime() {
+        suppose("both nodes will return balance") {
+            nodes[0].stubRpcResponse("0x1")
+            nodes[1].stubRpcResponse("0x2")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = 1.minutes.toJavaDuration()))
+
+        verify("response of first node is returned and second node is not called") {
+            expectThat(web3j.ethGetBalance("0x0", DefaultBlockParameterName.LATEST).send().balance)
+                .isEqualTo(BigInteger.ONE)
+            expectThat(nodes[1].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isZero()
+        }
+    }
+
+    @Test
+    fun mustFailOverToNextEndpointOnRetryableRpcError() {
+        suppose("first node will return rate limit error and second node will return block number") {
+            nodes[0].stubRpcErrorResponse(code = -32005, message = "limit exceeded")
+            nodes[1].stubRpcResponse("0x10")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = Duration.ZERO))
+
+        verify("block number is returned by second node") {
+            expectThat(web3j.ethBlockNumber().send().blockNumber)
+                .isEqualTo(BigInteger.valueOf(16L))
+        }
+    }
+
+    @Test
+    fun mustNotFailOverOnNonRetryableRpcError() {
+        suppose("first node will return execution reverted error") {
+            nodes[0].stubRpcErrorResponse(code = 3, message = "execution reverted")
+            nodes[1].stubRpcResponse("0x1")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = Duration.ZERO))
+
+        verify("error response of first node is returned") {
+            val response = web3j.ethGetBalance("0x0", DefaultBlockParameterName.LATEST).send()
+
+            expectThat(response.error?.message)
+                .isEqualTo("execution reverted")
+            expectThat(nodes[1].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isZero()
+        }
+    }
+
+    @Test
+    fun mustRetryEmptyTransactionReceiptOfLaggingEndpoint() {
+        suppose("first node will return chain head") {
+            nodes[0].stubRpcResponse("0x10")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = Duration.ZERO, failureThreshold = 1))
+
+        suppose("chain head is fetched from first node") {
+            web3j.ethBlockNumber().send()
+        }
+
+        suppose("first node fails once and second node which is not known to be at chain head takes over") {
+            nodes[0].resetAll()
+            nodes[0].stubRpcError(method = "eth_chainId")
+            nodes[0].stubRpcJsonResult(
+                result = """{"transactionHash": "0xabc", "blockNumber": "0x10", "status": "0x1", "logs": []}""",
+                method = "eth_getTransactionReceipt"
+            )
+            nodes[1].stubRpcResponse("0x1", method = "eth_chainId")
+            nodes[1].stubRpcJsonResult(result = "null", method = "eth_getTransactionReceipt")
+
+            web3j.ethChainId().send()
+        }
+
+        verify("empty receipt of second node is not trusted and receipt of first node is returned") {
+            val receipt = web3j.ethGetTransactionReceipt("0xabc").send().transactionReceipt
+
+            expectThat(receipt.map { it.transactionHash }.orElse(null))
+                .isEqualTo("0xabc")
+            expectThat(nodes[1].findAll(postRequestedFor(urlPathEqualTo("/"))).size)
+                .isEqualTo(2)
+        }
+    }
+
+    @Test
+    fun mustNotReturnChainHeadOfLaggingEndpoint() {
+        suppose("first node is ahead of second node") {
+            nodes[0].stubRpcResponse("0x10")
+            nodes[1].stubRpcResponse("0xf")
+        }
+
+        val web3j = Web3j.build(failoverService(hedgeDelay = Duration.ZERO, failureThreshold = 3))
+
+        verify("block number of first node is returned") {
+            expectThat(web3j.ethBlockNumber().send().blockNumber)
+                .isEqualTo(BigInteger.valueOf(16L))
+        }
+
+        suppose("first node will fail") {
+            nodes[0].resetAll()
+            nodes[0].stubRpcError()
+        }
+
+        verify("block number of lagging node is not returned") {
+            expectThrows<IOException> {
+                web3j.ethBlockNumber().send()
+            }
+        }
+
+        suppose("second node catches up") {
+            nodes[1].resetAll()
+            nodes[1].stubRpcResponse("0x11")
+        }
+
+        verify("block number of second node is returned") {
+            expectThat(web3j.ethBlockNumber().send().blockNumber)
+                .isEqualTo(BigInteger.valueOf(17L))
+        }
+    }
+
+    private fun failoverService(hedgeDelay: Duration, failureThreshold: Int = 3) =
+        FailoverHttpService(
+            endpoints = nodes.mapIndexed { index, node ->
+                FailoverHttpService.Endpoint("node-$index", HttpService("http://localhost:${node.port()}/"))
+            },
+            properties = RpcFailoverProperties(
+                hedgeDelay = hedgeDelay,
+                failureThreshold = failureThreshold,
+                cooldown = 1.minutes.toJavaDuration()
+            )
+        )
+
+    private fun WireMockServer.stubRpcResponse(result: String, delayMillis: Int = 0, method: String? = null) =
+        stubRpcJsonResult("\"$result\"", delayMillis, method)
+
+    private fun WireMockServer.stubRpcJsonResult(result: String, delayMillis: Int = 0, method: String? = null) =
+        stubRpc(
+            response = aResponse()
+                .withBody("""{"jsonrpc": "2.0", "id": 1, "result": $result}""")
+                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .withFixedDelay(delayMillis)
+                .withStatus(200),
+            method = method
+        )
+
+    private fun WireMockServer.stubRpcErrorResponse(code: Int, message: String) =
+        stubRpc(
+            response = aResponse()
+                .withBody("""{"jsonrpc": "2.0", "id": 1, "error": {"code": $code, "message": "$message"}}""")
+                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .withStatus(200),
+            method = null
+        )
+
+    private fun WireMockServer.stubRpcError(delayMillis: Int = 0, method: String? = null) =
+        stubRpc(
+            response = aResponse()
+                .withFixedDelay(delayMillis)
+                .withStatus(500),
+            method = method
+        )
+
+    private fun WireMockServer.stubRpc(response: ResponseDefinitionBuilder, method: String?) {
+        val request = post(urlPathEqualTo("/"))
+
+        stubFor(
+            (method?.let { request.withRequestBody(matchingJsonPath("$.method", equalTo(it))) } ?: request)
+                .willReturn(response)
+        )
+    }
+}
@@ -0,0 +1,54 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.features.contract.abi.service.EthereumAbiDecoderService
+import dev3.blockchainapiservice.model.params.RawEthCallParams
+import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.FunctionData
+import org.junit.jupiter.api.Test
+
+class Multicall3Test : TestBase() {
+
+    @Test
+    fun mustCorrectlyEncodeAggregate3Call() {
+        verify("aggregate3 call is correctly encoded") {
+            val calls = listOf(
+                RawEthCallParams(ContractAddress("a"), FunctionData("1234")),
+                RawEthCallParams(ContractAddress("b"), FunctionData("ab".repeat(33)))
+            )
+
+            expectThat(Multicall3.encodeAggregate3(calls))
+                .isEqualTo(
+                    FunctionData(
+                        "82ad56cb" +
+                            word("20") + // offset of calls array
+                            word("2") + // number of calls
+                            word("40") + // offset of first call
+                            word("e0") + // offset of second call
+                            word("a") + word("1") + word("60") + word("2") + "1234".padEnd(64, '0') +
+                            word("b") + word("1") + word("60") + word("21") + "ab".repeat(33).padEnd(128, '0')
+                    )
+                )
+        }
+    }
+
+    @Test
+    fun mustCorrectlyDecodeAggregate3Result() {
+        val encodedResult = "0x" +
+            word("20") + // offset of results array
+            word("2") + // number of results
+            word("40") + // offset of first result
+            word("c0") + // offset of second result
+            word("1") + word("40") + word("1") + "01".padEnd(64, '0') +
+            word("0") + word("40") + word("0")
+
+        verify("aggregate3 result is correctly decoded") {
+            val decodedValues = EthereumAbiDecoderService().decode(Multicall3.RETURN_TYPES, encodedResult)
+
+            expectThat(Multicall3.decodeAggregate3Result(decodedValues))
+                .isEqualTo(listOf("0x01", null))
+        }
+    }
+
+    private fun word(value: String): String = value.padStart(64, '0')
+}
@@ -0,0 +1,105 @@
+package dev3.blockchainapiservice.blockchain
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.exception.TemporaryBlockchainReadException
+import dev3.blockchainapiservice.util.ChainId
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class SingleFlightTest : TestBase() {
+
+    companion object {
+        private val CHAIN_SPEC = ChainSpec(ChainId(1L), null)
+    }
+
+    @Test
+    fun mustShareResultOfIdenticalInFlightRead() {
+        val meterRegistry = SimpleMeterRegistry()
+        val singleFlight = SingleFlight(meterRegistry)
+        val executions = AtomicInteger(0)
+        val readStarted = CountDownLatch(1)
+        val readReleased = CountDownLatch(1)
+
+        val firstRead = suppose("some read is in flight") {
+            CompletableFuture.supplyAsync {
+                singleFlight.execute(CHAIN_SPEC, "eth_getBalance", listOf("0x1")) {
+                    executions.incrementAndGet()
+                    readStarted.countDown()
+                    readReleased.await(5L, TimeUnit.SECONDS)
+                    "result"
+                }
+            }.also { readStarted.await(5L, TimeUnit.SECONDS) }
+        }
+
+        val secondRead = suppose("identical read is requested while first read is in flight") {
+            CompletableFuture.supplyAsync {
+                singleFlight.execute(CHAIN_SPEC, "eth_getBalance", listOf("0x1")) {
+                    executions.incrementAndGet()
+                    "other result"
+                }
+            }.also {
+                val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L)
+
+                while (coalescedReads(meterRegistry) < 1.0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10L)
+                }
+
+                readReleased.countDown()
+            }
+        }
+
+        verify("read is executed once and its result is shared") {
+            expectThat(firstRead.get(5L, TimeUnit.SECONDS))
+                .isEqualTo("result")
+            expectThat(secondRead.get(5L, TimeUnit.SECONDS))
+                .isEqualTo("result")
+            expectThat(executions.get())
+                .isOne()
+            expectThat(coalescedReads(meterRegistry))
+                .isEqualTo(1.0)
+            expectThat(meterRegistry.get("web3j.single.flight.reads").tag("result", "executed").counter().count())
+                .isEqualTo(1.0)
+        }
+    }
+
+    @Test
+    fun mustExecuteReadAgainAfterPreviousReadHasCompleted() {
+        val singleFlight = SingleFlight(SimpleMeterRegistry())
+        val executions = AtomicInteger(0)
+
+        val read = {
+            singleFlight.execute(CHAIN_SPEC, "eth_getBalance", listOf("0x1")) { executions.incrementAndGet() }
+        }
+
+        verify("each sequential read is executed") {
+            expectThat(read())
+                .isOne()
+            expectThat(read())
+                .isEqualTo(2)
+        }
+    }
+
+    @Test
+    fun mustPropagateExceptionOfFailedRead() {
+        val singleFlight = SingleFlight(SimpleMeterRegistry())
+
+        verify("exception is propagated and read is executed again afterwards") {
+            expectThrows<TemporaryBlockchainReadException> {
+                singleFlight.execute(CHAIN_SPEC, "eth_getBalance", listOf("0x1")) {
+                    throw TemporaryBlockchainReadException()
+                }
+            }
+
+            expectThat(singleFlight.execute(CHAIN_SPEC, "eth_getBalance", listOf("0x1")) { "result" })
+                .isEqualTo("result")
+        }
+    }
+
+    private fun coalescedReads(meterRegistry: SimpleMeterRegistry): Double =
+        meterRegistry.get("web3j.single.flight.reads").tag("result", "coalesced").counter().count()
+}
@@ -0,0 +1,302 @@
+package dev3.blockchainapiservice.blockchain
+
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.equalTo
+import com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath
+import com.github.tomakehurst.wiremock.client.WireMock.post
+import com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.config.ApplicationProperties
+import dev3.blockchainapiservice.config.ChainProperties
+import dev3.blockchainapiservice.config.EthCallProperties
+import dev3.blockchainapiservice.features.contract.abi.service.EthereumAbiDecoderService
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
+import dev3.blockchainapiservice.features.payout.util.PayoutAccountBalance
+import dev3.blockchainapiservice.model.params.RawEthCallParams
+import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.BlockName
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.FunctionData
+import dev3.blockchainapiservice.util.WalletAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.springframework.http.MediaType
+import org.web3j.abi.EventEncoder
+import java.math.BigInteger
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class Web3jBlockchainServiceTest : TestBase() {
+
+    companion object {
+        private val CHAIN_SPEC = ChainSpec(ChainId(1337L), null)
+        private val MULTICALL_3_ADDRESS = ContractAddress("ca11")
+        private val CALLS = listOf(
+            RawEthCallParams(ContractAddress("a"), FunctionData("0x01")),
+            RawEthCallParams(ContractAddress("b"), FunctionData("0x02")),
+            RawEthCallParams(ContractAddress("c"), FunctionData("0x03"))
+        )
+    }
+
+    private val node = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+
+    @BeforeAll
+    fun beforeAll() {
+        node.start()
+    }
+
+    @AfterAll
+    fun afterAll() {
+        node.stop()
+    }
+
+    @BeforeEach
+    fun beforeEach() {
+        node.resetAll()
+    }
+
+    @Test
+    fun mustExecuteEthCallsInSingleMulticallAndReturnResultsInCallOrder() {
+        suppose("Multicall3 contract will return result of each call") {
+            node.stubEthCall(MULTICALL_3_ADDRESS, aggregate3Result(word("1"), word("2"), word("3")))
+        }
+
+        val service = blockchainService(MULTICALL_3_ADDRESS)
+
+        verify("results are returned in call order") {
+            expectThat(service.executeEthCalls(CHAIN_SPEC, CALLS, BlockName.LATEST))
+                .isEqualTo(listOf("0x${word("1")}", "0x${word("2")}", "0x${word("3")}"))
+        }
+
+        verify("calls are sent in a single multicall") {
+            expectThat(ethCallCount(MULTICALL_3_ADDRESS))
+                .isOne()
+            expectThat(ethCallCount())
+                .isOne()
+        }
+
+        service.destroy()
+    }
+
+    @Test
+    fun mustReturnNullForFailedCallInMulticall() {
+        suppose("Multicall3 contract will return result with single failed call") {
+            node.stubEthCall(MULTICALL_3_ADDRESS, aggregate3Result(word("1"), null, word("3")))
+        }
+
+        val service = blockchainService(MULTICALL_3_ADDRESS)
+
+        verify("null is returned for failed call only") {
+            expectThat(service.executeEthCalls(CHAIN_SPEC, CALLS, BlockName.LATEST))
+                .isEqualTo(listOf("0x${word("1")}", null, "0x${word("3")}"))
+            expectThat(ethCallCount())
+                .isOne()
+        }
+
+        service.destroy()
+    }
+
+    @Test
+    fun mustFallBackToSeparateEthCallsWhenMulticallFails() {
+        suppose("Multicall3 contract call will fail and separate calls will return some results") {
+            node.stubEthCallError(MULTICALL_3_ADDRESS)
+            CALLS.forEachIndexed { index, call -> node.stubEthCall(call.contractAddress, "0x${word("${index + 1}")}") }
+        }
+
+        val service = blockchainService(MULTICALL_3_ADDRESS)
+
+        verify("results of separate calls are returned in call order") {
+            expectThat(service.executeEthCalls(CHAIN_SPEC, CALLS, BlockName.LATEST))
+                .isEqualTo(listOf("0x${word("1")}", "0x${word("2")}", "0x${word("3")}"))
+        }
+
+        verify("each call is sent separately after failed multicall") {
+            expectThat(ethCallCount(MULTICALL_3_ADDRESS))
+                .isOne()
+            CALLS.forEach {
+                expectThat(ethCallCount(it.contractAddress))
+                    .isOne()
+            }
+        }
+
+        service.destroy()
+    }
+
+    @Test
+    fun mustExecuteSeparateEthCallsWhenMulticall3AddressIsNotConfigured() {
+        suppose("separate calls will return some results") {
+            CALLS.forEachIndexed { index, call -> node.stubEthCall(call.contractAddress, "0x${word("${index + 1}")}") }
+        }
+
+        val service = blockchainService(multicall3Address = null)
+
+        verify("results of separate calls are returned in call order") {
+            expectThat(service.executeEthCalls(CHAIN_SPEC, CALLS, BlockName.LATEST))
+                .isEqualTo(listOf("0x${word("1")}", "0x${word("2")}", "0x${word("3")}"))
+        }
+
+        verify("each call is sent separately") {
+            expectThat(ethCallCount())
+                .isEqualTo(CALLS.size)
+            expectThat(ethCallCount(MULTICALL_3_ADDRESS))
+                .isZero()
+        }
+
+        service.destroy()
+    }
+
+    @Test
+    fun mustFetchErc20AccountBalancesInMulticall() {
+        val erc20ContractAddress = ContractAddress("e")
+        val ignoredHolder = WalletAddress("1")
+        val holder = WalletAddress("2")
+
+        suppose("single transfer event will be returned") {
+            node.stubTransferLog(erc20ContractAddress, from = ignoredHolder, to = holder)
+        }
+
+        suppose("Multicall3 contract will return balance of non-ignored holder") {
+            node.stubEthCall(MULTICALL_3_ADDRESS, aggregate3Result(word("5")))
+        }
+
+        val service = blockchainService(MULTICALL_3_ADDRESS)
+
+        verify("balance of non-ignored holder is returned") {
+            val balances = service.fetchErc20AccountBalances(
+                chainSpec = CHAIN_SPEC,
+                erc20ContractAddress = erc20ContractAddress,
+                ignoredErc20Addresses = setOf(ignoredHolder),
+                startBlock = BlockNumber(BigInteger.ZERO),
+                endBlock = BlockNumber(BigInteger.TEN),
+                holderScanCheckpoint = HolderScanCheckpoint.None
+            )
+
+            expectThat(balances)
+                .isEqualTo(listOf(PayoutAccountBalance(holder, Balance(BigInteger.valueOf(5L)))))
+        }
+
+        verify("balances are fetched in a single multicall") {
+            expectThat(ethCallCount(MULTICALL_3_ADDRESS))
+                .isOne()
+            expectThat(ethCallCount())
+                .isOne()
+        }
+
+        service.destroy()
+    }
+
+    private fun blockchainService(multicall3Address: ContractAddress?) =
+        Web3jBlockchainService(
+            abiDecoderService = EthereumAbiDecoderService(),
+            uuidProvider = mock(),
+            web3jBlockchainServiceCacheRepository = mock(),
+            applicationProperties = ApplicationProperties().apply {
+                chain = mapOf(
+                    CHAIN_SPEC.chainId to ChainProperties(
+                        name = "test",
+                        rpcUrl = "http://localhost:${node.port()}/",
+                        infuraUrl = null,
+                        startBlockNumber = null,
+                        minBlockConfirmationsForCaching = null,
+                        chainExplorerApiUrl = null,
+                        chainExplorerApiKey = null,
+                        ethCall = EthCallProperties(multicall3Address = multicall3Address)
+                    )
+                )
+            },
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+    private fun ethCallCount(contractAddress: ContractAddress? = null): Int {
+        val request = postRequestedFor(urlPathEqualTo("/"))
+            .withRequestBody(matchingJsonPath("$.method", equalTo("eth_call")))
+
+        return node.findAll(
+            contractAddress?.let { request.withRequestBody(matchingJsonPath("$.params[0].to", equalTo(it.rawValue))) }
+                ?: request
+        ).size
+    }
+
+    private fun WireMockServer.stubEthCall(contractAddress: ContractAddress, result: String) =
+        stubEthCallResponse(contractAddress, """{"jsonrpc": "2.0", "id": 1, "result": "$result"}""")
+
+    private fun WireMockServer.stubEthCallError(contractAddress: ContractAddress) =
+        stubEthCallResponse(
+            contractAddress,
+            """{"jsonrpc": "2.0", "id": 1, "error": {"code": 3, "message": "execution reverted"}}"""
+        )
+
+    private fun WireMockServer.stubEthCallResponse(contractAddress: ContractAddress, body: String) {
+        stubFor(
+            post(urlPathEqualTo("/"))
+                .withRequestBody(matchingJsonPath("$.method", equalTo("eth_call")))
+                .withRequestBody(matchingJsonPath("$.params[0].to", equalTo(contractAddress.rawValue)))
+                .willReturn(
+                    aResponse()
+                        .withBody(body)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(200)
+                )
+        )
+    }
+
+    private fun WireMockServer.stubTransferLog(
+        contractAddress: ContractAddress,
+        from: WalletAddress,
+        to: WalletAddress
+    ) {
+        val log = """
+            {
+                "address": "${contractAddress.rawValue}",
+                "topics": [
+                    "${EventEncoder.encode(IERC20.TRANSFER_EVENT)}",
+                    "0x${word(from.rawValue.removePrefix("0x"))}",
+                    "0x${word(to.rawValue.removePrefix("0x"))}"
+                ],
+                "data": "0x${word("1")}",
+                "blockNumber": "0x1",
+                "transactionIndex": "0x0",
+                "logIndex": "0x0",
+                "removed": false
+            }
+        """.trimIndent()
+
+        stubFor(
+            post(urlPathEqualTo("/"))
+                .withRequestBody(matchingJsonPath("$.method", equalTo("eth_getLogs")))
+                .willReturn(
+                    aResponse()
+                        .withBody("""{"jsonrpc": "2.0", "id": 1, "result": [$log]}""")
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(200)
+                )
+        )
+    }
+
+    // encodes (bool success, bytes returnData)[] result of aggregate3, null return data marks failed call
+    private fun aggregate3Result(vararg returnData: String?): String {
+        val tuples = returnData.map { data ->
+            val bytes = data.orEmpty()
+
+            word(if (data != null) "1" else "0") + word("40") + word((bytes.length / 2).toString(16)) +
+                bytes.padEnd((bytes.length + 63) / 64 * 64, '0')
+        }
+        val offsets = tuples.runningFold(tuples.size * 32) { offset, tuple -> offset + tuple.length / 2 }.dropLast(1)
+
+        return "0x" + word("20") + word(tuples.size.toString(16)) +
+            offsets.joinToString(separator = "") { word(it.toString(16)) } +
+            tuples.joinToString(separator = "")
+    }
+
+    private fun word(value: String): String = value.padStart(64, '0')
+}
@@ -0,0 +1,51 @@
+package dev3.blockchainapiservice.blockchain.properties
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.CustomRpcProperties
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import okhttp3.OkHttpClient
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.web3j.protocol.Web3j
+
+class CustomRpcWeb3jRegistryTest : TestBase() {
+
+    @Test
+    fun mustReuseWeb3jClientForSameRpcUrl() {
+        val registry = CustomRpcWeb3jRegistry(CustomRpcProperties(), SimpleMeterRegistry())
+        val builtUrls = mutableListOf<String>()
+        val buildWeb3j: (String, OkHttpClient) -> Web3j = { url, _ -> builtUrls.add(url); mock() }
+
+        val web3j = suppose("Web3j client is requested for some RPC URL") {
+            registry.getWeb3j("http://localhost:1234/", buildWeb3j)
+        }
+
+        verify("same client is returned for same RPC URL") {
+            expectThat(registry.getWeb3j("http://localhost:1234/", buildWeb3j))
+                .isSameAs(web3j)
+            expectThat(registry.getWeb3j("http://localhost:5678/", buildWeb3j))
+                .isNotSameAs(web3j)
+            expectThat(builtUrls)
+                .isEqualTo(listOf("http://localhost:1234/", "http://localhost:5678/"))
+        }
+    }
+
+    @Test
+    fun mustCreateNewWeb3jClientAfterClose() {
+        val registry = CustomRpcWeb3jRegistry(CustomRpcProperties(), SimpleMeterRegistry())
+        val buildWeb3j: (String, OkHttpClient) -> Web3j = { _, _ -> mock() }
+
+        val web3j = suppose("Web3j client is requested for some RPC URL") {
+            registry.getWeb3j("http://localhost:1234/", buildWeb3j)
+        }
+
+        suppose("registry is closed") {
+            registry.close()
+        }
+
+        verify("new client is created for same RPC URL") {
+            expectThat(registry.getWeb3j("http://localhost:1234/", buildWeb3j))
+                .isNotSameAs(web3j)
+        }
+    }
+}
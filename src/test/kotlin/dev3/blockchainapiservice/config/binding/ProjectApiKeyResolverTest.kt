@@ -2,14 +2,11 @@ package dev3.blockchainapiservice.config.binding
 
 import dev3.blockchainapiservice.TestBase
 import dev3.blockchainapiservice.TestData
-import dev3.blockchainapiservice.config.CustomHeaders
 import dev3.blockchainapiservice.config.binding.annotation.ApiKeyBinding
 import dev3.blockchainapiservice.exception.NonExistentApiKeyException
 import dev3.blockchainapiservice.features.api.access.model.result.ApiKey
 import dev3.blockchainapiservice.features.api.access.model.result.Project
-import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
-import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
-import dev3.blockchainapiservice.generated.jooq.id.ApiKeyId
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.generated.jooq.id.UserId
 import dev3.blockchainapiservice.util.BaseUrl
@@ -37,7 +34,7 @@ class ProjectApiKeyResolverTest : TestBase() {
 
     @Test
     fun mustSupportAnnotatedProjectParameter() {
-        val resolver = ProjectApiKeyResolver(mock(), mock())
+        val resolver = ProjectApiKeyResolver(mock())
 
         verify("annotated Project parameter is supported") {
             val method = Companion::class.java.methods.find { it.name == "supportedMethod" }!!
@@ -50,7 +47,7 @@ class ProjectApiKeyResolverTest : TestBase() {
 
     @Test
     fun mustNotSupportUnannotatedProjectParameter() {
-        val resolver = ProjectApiKeyResolver(mock(), mock())
+        val resolver = ProjectApiKeyResolver(mock())
 
         verify("annotated Project parameter is supported") {
             val method = Companion::class.java.methods.find { it.name == "unsupportedMethod1" }!!
@@ -63,7 +60,7 @@ class ProjectApiKeyResolverTest : TestBase() {
 
     @Test
     fun mustNotSupportAnnotatedNonProjectParameter() {
-        val resolver = ProjectApiKeyResolver(mock(), mock())
+        val resolver = ProjectApiKeyResolver(mock())
 
         verify("annotated Project parameter is supported") {
             val method = Companion::class.java.methods.find { it.name == "unsupportedMethod2" }!!
@@ -76,14 +73,7 @@ class ProjectApiKeyResolverTest : TestBase() {
 
     @Test
     fun mustCorrectlyFetchExistingProjectByApiKey() {
-        val apiKeyValue = "api-key"
         val httpServletRequest = mock<HttpServletRequest>()
-
-        suppose("API key will be returned from header") {
-            call(httpServletRequest.getHeader(CustomHeaders.API_KEY_HEADER))
-                .willReturn(apiKeyValue)
-        }
-
         val nativeWebRequest = mock<NativeWebRequest>()
 
         suppose("HttpServletRequest will be returned") {
@@ -91,22 +81,9 @@ class ProjectApiKeyResolverTest : TestBase() {
                 .willReturn(httpServletRequest)
         }
 
-        val apiKeyRepository = mock<ApiKeyRepository>()
-        val apiKey = ApiKey(
-            id = ApiKeyId(UUID.randomUUID()),
-            projectId = ProjectId(UUID.randomUUID()),
-            apiKey = apiKeyValue,
-            createdAt = TestData.TIMESTAMP
-        )
-
-        suppose("API key is fetched from database") {
-            call(apiKeyRepository.getByValue(apiKeyValue))
-                .willReturn(apiKey)
-        }
-
-        val projectRepository = mock<ProjectRepository>()
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
         val project = Project(
-            id = apiKey.projectId,
+            id = ProjectId(UUID.randomUUID()),
             ownerId = UserId(UUID.randomUUID()),
             issuerContractAddress = ContractAddress("a"),
             baseRedirectUrl = BaseUrl("base-redirect-url"),
@@ -115,12 +92,12 @@ class ProjectApiKeyResolverTest : TestBase() {
             createdAt = TestData.TIMESTAMP
         )
 
-        suppose("project is fetched from database") {
-            call(projectRepository.getById(apiKey.projectId))
+        suppose("project is fetched from API key project cache") {
+            call(apiKeyProjectCache.getProject(httpServletRequest))
                 .willReturn(project)
         }
 
-        val resolver = ProjectApiKeyResolver(apiKeyRepository, projectRepository)
+        val resolver = ProjectApiKeyResolver(apiKeyProjectCache)
 
         verify("API key is correctly returned") {
             expectThat(resolver.resolveArgument(mock(), mock(), nativeWebRequest, mock()))
@@ -130,14 +107,7 @@ class ProjectApiKeyResolverTest : TestBase() {
 
     @Test
     fun mustThrowNonExistentApiKeyExceptionForNonExistentApiKey() {
-        val apiKeyValue = "api-key"
         val httpServletRequest = mock<HttpServletRequest>()
-
-        suppose("API key will be returned from header") {
-            call(httpServletRequest.getHeader(CustomHeaders.API_KEY_HEADER))
-                .willReturn(apiKeyValue)
-        }
-
         val nativeWebRequest = mock<NativeWebRequest>()
 
         suppose("HttpServletRequest will be returned") {
@@ -145,14 +115,14 @@ class ProjectApiKeyResolverTest : TestBase() {
                 .willReturn(httpServletRequest)
         }
 
-        val repository = mock<ApiKeyRepository>()
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
 
-        suppose("API key is null") {
-            call(repository.getByValue(apiKeyValue))
+        suppose("project is null") {
+            call(apiKeyProjectCache.getProject(httpServletRequest))
                 .willReturn(null)
         }
 
-        val resolver = ProjectApiKeyResolver(repository, mock())
+        val resolver = ProjectApiKeyResolver(apiKeyProjectCache)
 
         verify("NonExistentApiKeyException is thrown") {
             expectThrows<NonExistentApiKeyException> {
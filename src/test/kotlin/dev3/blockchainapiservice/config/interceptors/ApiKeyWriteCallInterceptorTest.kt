@@ -2,20 +2,21 @@ package dev3.blockchainapiservice.config.interceptors
 
 import dev3.blockchainapiservice.TestBase
 import dev3.blockchainapiservice.TestData
-import dev3.blockchainapiservice.config.CustomHeaders
 import dev3.blockchainapiservice.config.JsonConfig
 import dev3.blockchainapiservice.config.interceptors.annotation.ApiWriteLimitedMapping
 import dev3.blockchainapiservice.config.interceptors.annotation.IdType
 import dev3.blockchainapiservice.exception.ErrorCode
 import dev3.blockchainapiservice.exception.ErrorResponse
-import dev3.blockchainapiservice.features.api.access.model.result.ApiKey
-import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
+import dev3.blockchainapiservice.features.api.access.model.result.Project
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import dev3.blockchainapiservice.features.api.usage.repository.ApiRateLimitRepository
 import dev3.blockchainapiservice.features.api.usage.repository.UserIdResolverRepository
-import dev3.blockchainapiservice.generated.jooq.id.ApiKeyId
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.generated.jooq.id.UserId
 import dev3.blockchainapiservice.service.UtcDateTimeProvider
+import dev3.blockchainapiservice.util.BaseUrl
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.ContractAddress
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.mock
 import org.springframework.http.HttpStatus
@@ -48,14 +49,14 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
 
     @Test
     fun mustNotHandleNonAnnotatedMethod() {
-        val apiKeyRepository = mock<ApiKeyRepository>()
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
         val apiRateLimitRepository = mock<ApiRateLimitRepository>()
         val userIdResolverRepository = mock<UserIdResolverRepository>()
         val utcDateTimeProvider = mock<UtcDateTimeProvider>()
 
         val handler = HandlerMethod(Companion, Companion::class.java.methods.find { it.name == "nonAnnotated" }!!)
         val interceptor = ApiKeyWriteCallInterceptor(
-            apiKeyRepository = apiKeyRepository,
+            apiKeyProjectCache = apiKeyProjectCache,
             apiRateLimitRepository = apiRateLimitRepository,
             userIdResolverRepository = userIdResolverRepository,
             utcDateTimeProvider = utcDateTimeProvider,
@@ -70,7 +71,7 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
             interceptor.afterCompletion(request, response, handler, null)
 
             expectNoInteractions(
-                apiKeyRepository,
+                apiKeyProjectCache,
                 apiRateLimitRepository,
                 userIdResolverRepository,
                 utcDateTimeProvider,
@@ -82,36 +83,26 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
 
     @Test
     fun mustCorrectlyHandleAnnotatedMethodWhenThereIsSomeRemainingWriteLimitAndReturnStatusIsSuccessForApiKey() {
-        val apiKey = "api-key"
         val request = mock<HttpServletRequest>()
+        val userId = UserId(UUID.randomUUID())
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
 
-        suppose("request will return API key header") {
-            call(request.getHeader(CustomHeaders.API_KEY_HEADER))
-                .willReturn(apiKey)
-        }
-
-        val projectId = ProjectId(UUID.randomUUID())
-        val apiKeyRepository = mock<ApiKeyRepository>()
-
-        suppose("API key repository will return some API key") {
-            call(apiKeyRepository.getByValue(apiKey))
+        suppose("API key project cache will return some project") {
+            call(apiKeyProjectCache.getProject(request))
                 .willReturn(
-                    ApiKey(
-                        id = ApiKeyId(UUID.randomUUID()),
-                        projectId = projectId,
-                        apiKey = apiKey,
+                    Project(
+                        id = ProjectId(UUID.randomUUID()),
+                        ownerId = userId,
+                        issuerContractAddress = ContractAddress("a"),
+                        baseRedirectUrl = BaseUrl("base-redirect-url"),
+                        chainId = ChainId(1337L),
+                        customRpcUrl = "custom-rpc-url",
                         createdAt = TestData.TIMESTAMP
                     )
                 )
         }
 
         val userIdResolverRepository = mock<UserIdResolverRepository>()
-        val userId = UserId(UUID.randomUUID())
-
-        suppose("userId will be resolved in the repository") {
-            call(userIdResolverRepository.getByProjectId(projectId))
-                .willReturn(userId)
-        }
 
         val utcDateTimeProvider = mock<UtcDateTimeProvider>()
 
@@ -136,7 +127,7 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
 
         val handler = HandlerMethod(Companion, Companion::class.java.methods.find { it.name == "projectIdAnnotated" }!!)
         val interceptor = ApiKeyWriteCallInterceptor(
-            apiKeyRepository = apiKeyRepository,
+            apiKeyProjectCache = apiKeyProjectCache,
             apiRateLimitRepository = apiRateLimitRepository,
             userIdResolverRepository = userIdResolverRepository,
             utcDateTimeProvider = utcDateTimeProvider,
@@ -151,8 +142,8 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
 
             interceptor.afterCompletion(request, response, handler, null)
 
-            expectInteractions(apiKeyRepository) {
-                twice.getByValue(apiKey)
+            expectInteractions(apiKeyProjectCache) {
+                twice.getProject(request)
             }
 
             expectInteractions(apiRateLimitRepository) {
@@ -160,9 +151,7 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
                 once.addWriteCall(userId, TestData.TIMESTAMP, RequestMethod.POST, "/test-path")
             }
 
-            expectInteractions(userIdResolverRepository) {
-                twice.getByProjectId(projectId)
-            }
+            expectNoInteractions(userIdResolverRepository)
         }
     }
 
@@ -206,11 +195,11 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
                 .willReturn(HttpStatus.OK.value())
         }
 
-        val apiKeyRepository = mock<ApiKeyRepository>()
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
 
         val handler = HandlerMethod(Companion, Companion::class.java.methods.find { it.name == "otherIdAnnotated" }!!)
         val interceptor = ApiKeyWriteCallInterceptor(
-            apiKeyRepository = apiKeyRepository,
+            apiKeyProjectCache = apiKeyProjectCache,
             apiRateLimitRepository = apiRateLimitRepository,
             userIdResolverRepository = userIdResolverRepository,
             utcDateTimeProvider = utcDateTimeProvider,
@@ -225,7 +214,7 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
 
             interceptor.afterCompletion(request, response, handler, null)
 
-            expectNoInteractions(apiKeyRepository)
+            expectNoInteractions(apiKeyProjectCache)
 
             expectInteractions(apiRateLimitRepository) {
                 once.remainingWriteLimit(userId, TestData.TIMESTAMP)
@@ -285,11 +274,11 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
                 .willReturn(writer)
         }
 
-        val apiKeyRepository = mock<ApiKeyRepository>()
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
 
         val handler = HandlerMethod(Companion, Companion::class.java.methods.find { it.name == "otherIdAnnotated" }!!)
         val interceptor = ApiKeyWriteCallInterceptor(
-            apiKeyRepository = apiKeyRepository,
+            apiKeyProjectCache = apiKeyProjectCache,
             apiRateLimitRepository = apiRateLimitRepository,
             userIdResolverRepository = userIdResolverRepository,
             utcDateTimeProvider = utcDateTimeProvider,
@@ -304,7 +293,7 @@ class ApiKeyWriteCallInterceptorTest : TestBase() {
 
             interceptor.afterCompletion(request, response, handler, null)
 
-            expectNoInteractions(apiKeyRepository)
+            expectNoInteractions(apiKeyProjectCache)
 
             expectInteractions(apiRateLimitRepository) {
                 once.remainingWriteLimit(userId, TestData.TIMESTAMP)
@@ -1,8 +1,11 @@
 package dev3.blockchainapiservice.controller
 
+import com.fasterxml.jackson.databind.JsonNode
 import dev3.blockchainapiservice.JsonSchemaDocumentation
 import dev3.blockchainapiservice.TestBase
 import dev3.blockchainapiservice.blockchain.ExampleContract
+import dev3.blockchainapiservice.config.DeployableContractsResponseCacheProperties
+import dev3.blockchainapiservice.config.JsonConfig
 import dev3.blockchainapiservice.exception.ResourceNotFoundException
 import dev3.blockchainapiservice.features.contract.deployment.controller.ContractDecoratorController
 import dev3.blockchainapiservice.features.contract.deployment.model.filters.ContractDecoratorFilters
@@ -19,6 +22,7 @@ import dev3.blockchainapiservice.features.contract.deployment.model.result.Contr
 import dev3.blockchainapiservice.features.contract.deployment.model.result.ContractParameter
 import dev3.blockchainapiservice.features.contract.deployment.repository.ContractDecoratorRepository
 import dev3.blockchainapiservice.features.contract.deployment.repository.ImportedContractDecoratorRepository
+import dev3.blockchainapiservice.features.contract.deployment.service.DeployableContractsResponseCache
 import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.model.filters.AndList
 import dev3.blockchainapiservice.model.filters.OrList
@@ -26,13 +30,20 @@ import dev3.blockchainapiservice.util.ContractBinaryData
 import dev3.blockchainapiservice.util.ContractId
 import dev3.blockchainapiservice.util.ContractTag
 import dev3.blockchainapiservice.util.InterfaceId
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.mock
+import org.springframework.http.HttpHeaders
 import org.springframework.http.ResponseEntity
 import java.util.UUID
+import java.util.zip.GZIPInputStream
 
 class ContractDecoratorControllerTest : TestBase() {
 
+    companion object {
+        private val OBJECT_MAPPER = JsonConfig().objectMapper()
+    }
+
     @Test
     fun mustCorrectlyFetchContractDecoratorsWithFilters() {
         val repository = mock<ContractDecoratorRepository>()
@@ -97,20 +108,21 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractDecorators(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = null
+                projectId = null,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(ContractDecoratorsResponse::class.java)
 
-            expectThat(response)
+            expectThat(OBJECT_MAPPER.readTree(response.body))
                 .isEqualTo(
-                    ResponseEntity.ok(
+                    OBJECT_MAPPER.valueToTree<JsonNode>(
                         ContractDecoratorsResponse(
                             listOf(
                                 ContractDecoratorResponse(
@@ -196,20 +208,21 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(emptyRepository(filters), repository)
+        val controller = ContractDecoratorController(emptyRepository(filters), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractDecorators(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = projectId
+                projectId = projectId,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(ContractDecoratorsResponse::class.java)
 
-            expectThat(response)
+            expectThat(OBJECT_MAPPER.readTree(response.body))
                 .isEqualTo(
-                    ResponseEntity.ok(
+                    OBJECT_MAPPER.valueToTree<JsonNode>(
                         ContractDecoratorsResponse(
                             listOf(
                                 ContractDecoratorResponse(
@@ -253,19 +266,20 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractManifestJsonFiles(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = null
+                projectId = null,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(ManifestJsonsResponse::class.java)
 
-            expectThat(response)
-                .isEqualTo(ResponseEntity.ok(ManifestJsonsResponse(listOf(result))))
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(ManifestJsonsResponse(listOf(result))))
         }
     }
 
@@ -293,19 +307,20 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(emptyRepository(filters), repository)
+        val controller = ContractDecoratorController(emptyRepository(filters), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractManifestJsonFiles(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = projectId
+                projectId = projectId,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(ManifestJsonsResponse::class.java)
 
-            expectThat(response)
-                .isEqualTo(ResponseEntity.ok(ManifestJsonsResponse(listOf(result))))
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(ManifestJsonsResponse(listOf(result))))
         }
     }
 
@@ -332,19 +347,20 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractArtifactJsonFiles(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = null
+                projectId = null,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(ArtifactJsonsResponse::class.java)
 
-            expectThat(response)
-                .isEqualTo(ResponseEntity.ok(ArtifactJsonsResponse(listOf(result))))
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(ArtifactJsonsResponse(listOf(result))))
         }
     }
 
@@ -372,19 +388,20 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(emptyRepository(filters), repository)
+        val controller = ContractDecoratorController(emptyRepository(filters), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractArtifactJsonFiles(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = projectId
+                projectId = projectId,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(ArtifactJsonsResponse::class.java)
 
-            expectThat(response)
-                .isEqualTo(ResponseEntity.ok(ArtifactJsonsResponse(listOf(result))))
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(ArtifactJsonsResponse(listOf(result))))
         }
     }
 
@@ -403,19 +420,20 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractInfoMarkdownFiles(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = null
+                projectId = null,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(InfoMarkdownsResponse::class.java)
 
-            expectThat(response)
-                .isEqualTo(ResponseEntity.ok(InfoMarkdownsResponse(listOf(result))))
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(InfoMarkdownsResponse(listOf(result))))
         }
     }
 
@@ -435,19 +453,20 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(listOf(result))
         }
 
-        val controller = ContractDecoratorController(emptyRepository(filters), repository)
+        val controller = ContractDecoratorController(emptyRepository(filters), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractInfoMarkdownFiles(
                 contractTags = listOf("tag-1 AND tag-2"),
                 contractImplements = listOf("trait-1 AND trait-2"),
-                projectId = projectId
+                projectId = projectId,
+                acceptEncoding = null
             )
 
-            JsonSchemaDocumentation.createSchema(response.body!!.javaClass)
+            JsonSchemaDocumentation.createSchema(InfoMarkdownsResponse::class.java)
 
-            expectThat(response)
-                .isEqualTo(ResponseEntity.ok(InfoMarkdownsResponse(listOf(result))))
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(InfoMarkdownsResponse(listOf(result))))
         }
     }
 
@@ -511,7 +530,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractDecorator(id.value, null)
@@ -598,7 +617,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(mock(), repository)
+        val controller = ContractDecoratorController(mock(), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractDecorator(id.value, projectId)
@@ -634,7 +653,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(null)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("ResourceNotFoundException is thrown") {
             expectThrows<ResourceNotFoundException> {
@@ -662,7 +681,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractManifestJson(id.value, null)
@@ -696,7 +715,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(mock(), repository)
+        val controller = ContractDecoratorController(mock(), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractManifestJson(id.value, projectId)
@@ -720,7 +739,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(null)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("ResourceNotFoundException is thrown") {
             expectThrows<ResourceNotFoundException> {
@@ -748,7 +767,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractArtifactJson(id.value, null)
@@ -782,7 +801,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(mock(), repository)
+        val controller = ContractDecoratorController(mock(), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractArtifactJson(id.value, projectId)
@@ -806,7 +825,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(null)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("ResourceNotFoundException is thrown") {
             expectThrows<ResourceNotFoundException> {
@@ -826,7 +845,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractInfoMarkdown(id.value, null)
@@ -850,7 +869,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(result)
         }
 
-        val controller = ContractDecoratorController(mock(), repository)
+        val controller = ContractDecoratorController(mock(), repository, responseCache())
 
         verify("controller returns correct response") {
             val response = controller.getContractInfoMarkdown(id.value, projectId)
@@ -872,7 +891,7 @@ class ContractDecoratorControllerTest : TestBase() {
                 .willReturn(null)
         }
 
-        val controller = ContractDecoratorController(repository, mock())
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
 
         verify("ResourceNotFoundException is thrown") {
             expectThrows<ResourceNotFoundException> {
@@ -881,6 +900,148 @@ class ContractDecoratorControllerTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustReturnCachedGzipResponseWithETagUntilRepositoryVersionChanges() {
+        val repository = mock<ContractDecoratorRepository>()
+        val result = "info-md"
+        val filters = ContractDecoratorFilters(OrList(), OrList())
+
+        suppose("some contract info.md files will be fetched") {
+            call(repository.getAllInfoMarkdownFiles(filters))
+                .willReturn(listOf(result))
+            call(repository.version)
+                .willReturn(1L, 1L, 2L)
+        }
+
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
+
+        verify("gzip-compressed response with ETag is returned and cached") {
+            val responses = (1..2).map {
+                controller.getContractInfoMarkdownFiles(
+                    contractTags = null,
+                    contractImplements = null,
+                    projectId = null,
+                    acceptEncoding = "gzip, deflate"
+                )
+            }
+
+            expectThat(responses[0].headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+                .isEqualTo("gzip")
+            expectThat(responses[0].headers.eTag)
+                .isNotNull()
+            expectThat(responses[1].headers.eTag)
+                .isEqualTo(responses[0].headers.eTag)
+            expectThat(OBJECT_MAPPER.readTree(GZIPInputStream(responses[1].body!!.inputStream())))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(InfoMarkdownsResponse(listOf(result))))
+
+            expectInteractions(repository) {
+                twice.version
+                once.getAllInfoMarkdownFiles(filters)
+            }
+        }
+
+        verify("response is rendered again after repository version changes") {
+            val response = controller.getContractInfoMarkdownFiles(
+                contractTags = null,
+                contractImplements = null,
+                projectId = null,
+                acceptEncoding = null
+            )
+
+            expectThat(response.headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+                .isNull()
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(InfoMarkdownsResponse(listOf(result))))
+
+            expectInteractions(repository) {
+                3.times.version
+                twice.getAllInfoMarkdownFiles(filters)
+            }
+        }
+    }
+
+    @Test
+    fun mustReturnPlainResponseWithoutETagForProjectSpecificRequest() {
+        val repository = mock<ImportedContractDecoratorRepository>()
+        val result = "info-md"
+        val filters = ContractDecoratorFilters(OrList(), OrList())
+        val projectId = ProjectId(UUID.randomUUID())
+
+        suppose("some imported contract info.md files will be fetched") {
+            call(repository.getAllInfoMarkdownFiles(projectId, filters))
+                .willReturn(listOf(result))
+        }
+
+        val controller = ContractDecoratorController(emptyRepository(filters), repository, responseCache())
+
+        verify("plain response without ETag is returned") {
+            val response = controller.getContractInfoMarkdownFiles(
+                contractTags = null,
+                contractImplements = null,
+                projectId = projectId,
+                acceptEncoding = "gzip"
+            )
+
+            expectThat(response.headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+                .isNull()
+            expectThat(response.headers.eTag)
+                .isNull()
+            expectThat(OBJECT_MAPPER.readTree(response.body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree<JsonNode>(InfoMarkdownsResponse(listOf(result))))
+        }
+    }
+
+    @Test
+    fun mustRespectQualityValuesOfAcceptEncodingHeader() {
+        val repository = mock<ContractDecoratorRepository>()
+        val result = "info-md"
+        val filters = ContractDecoratorFilters(OrList(), OrList())
+
+        suppose("some contract info.md files will be fetched") {
+            call(repository.getAllInfoMarkdownFiles(filters))
+                .willReturn(listOf(result))
+            call(repository.version)
+                .willReturn(1L)
+        }
+
+        val controller = ContractDecoratorController(repository, mock(), responseCache())
+
+        val contentEncoding = { acceptEncoding: String ->
+            controller.getContractInfoMarkdownFiles(
+                contractTags = null,
+                contractImplements = null,
+                projectId = null,
+                acceptEncoding = acceptEncoding
+            ).headers.getFirst(HttpHeaders.CONTENT_ENCODING)
+        }
+
+        verify("gzip is not used when it is not acceptable") {
+            expectThat(contentEncoding("gzip;q=0, identity"))
+                .isNull()
+            expectThat(contentEncoding("deflate, gzip; q=0.000"))
+                .isNull()
+            expectThat(contentEncoding("*;q=0"))
+                .isNull()
+            expectThat(contentEncoding("br, *;q=1, gzip;q=0"))
+                .isNull()
+        }
+
+        verify("gzip is used when it is acceptable") {
+            expectThat(contentEncoding("gzip;q=0.5, identity"))
+                .isEqualTo("gzip")
+            expectThat(contentEncoding("br;q=1.0, *;q=0.1"))
+                .isEqualTo("gzip")
+            expectThat(contentEncoding("GZIP"))
+                .isEqualTo("gzip")
+        }
+    }
+
+    private fun responseCache() = DeployableContractsResponseCache(
+        objectMapper = OBJECT_MAPPER,
+        deployableContractsResponseCacheProperties = DeployableContractsResponseCacheProperties(),
+        meterRegistry = SimpleMeterRegistry()
+    )
+
     private fun emptyRepository(filters: ContractDecoratorFilters): ContractDecoratorRepository {
         val repository = mock<ContractDecoratorRepository>()
 
@@ -189,7 +189,7 @@ class CreateContractArbitraryCallRequestTest : TestBase() {
                 deployedContractId = null,
                 deployedContractAlias = null,
                 contractAddress = null,
-                functionData = "a".repeat(ValidationConstants.REQUEST_BODY_MAX_FUNCTION_DATA_LENGTH + 1),
+                functionData = "a".repeat(ValidationConstants.REQUEST_BODY_MAX_FUNCTION_DATA_LENGTH + 2),
                 ethAmount = BigInteger.ZERO,
                 redirectUrl = null,
                 arbitraryData = null,
@@ -231,6 +231,80 @@ class CreateContractArbitraryCallRequestTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustNotAllowInvalidHexStringForFunctionData() {
+        val requestWithNonHexString = suppose("request with non-hex string is created") {
+            CreateContractArbitraryCallRequest(
+                deployedContractId = null,
+                deployedContractAlias = null,
+                contractAddress = null,
+                functionData = "test",
+                ethAmount = BigInteger.ZERO,
+                redirectUrl = null,
+                arbitraryData = null,
+                screenConfig = null,
+                callerAddress = null
+            )
+        }
+
+        verify("request with non-hex string is marked as invalid") {
+            val violations = validator.validate(requestWithNonHexString).toList()
+
+            expectThat(violations.size)
+                .isOne()
+            expectThat(violations[0].message)
+                .isEqualTo("value must be a hex string with an even number of digits")
+            expectThat(violations[0].propertyPath.toString())
+                .isEqualTo("functionData")
+        }
+
+        val requestWithOddLengthHexString = suppose("request with odd-length hex string is created") {
+            CreateContractArbitraryCallRequest(
+                deployedContractId = null,
+                deployedContractAlias = null,
+                contractAddress = null,
+                functionData = "0x123",
+                ethAmount = BigInteger.ZERO,
+                redirectUrl = null,
+                arbitraryData = null,
+                screenConfig = null,
+                callerAddress = null
+            )
+        }
+
+        verify("request with odd-length hex string is marked as invalid") {
+            val violations = validator.validate(requestWithOddLengthHexString).toList()
+
+            expectThat(violations.size)
+                .isOne()
+            expectThat(violations[0].message)
+                .isEqualTo("value must be a hex string with an even number of digits")
+            expectThat(violations[0].propertyPath.toString())
+                .isEqualTo("functionData")
+        }
+
+        val requestWithValidHexString = suppose("request with valid hex string is created") {
+            CreateContractArbitraryCallRequest(
+                deployedContractId = null,
+                deployedContractAlias = null,
+                contractAddress = null,
+                functionData = "0x1234ABcd",
+                ethAmount = BigInteger.ZERO,
+                redirectUrl = null,
+                arbitraryData = null,
+                screenConfig = null,
+                callerAddress = null
+            )
+        }
+
+        verify("request with valid hex string is marked as valid") {
+            val violations = validator.validate(requestWithValidHexString).toList()
+
+            expectThat(violations)
+                .isEmpty()
+        }
+    }
+
     @Test
     fun mustNotAllowNegativeOrTooBigValueForEthAmount() {
         val requestWithNegativeUint256 = suppose("request with negative uint256 is created") {
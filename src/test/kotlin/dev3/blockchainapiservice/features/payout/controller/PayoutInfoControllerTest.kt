@@ -19,7 +19,6 @@ import dev3.blockchainapiservice.util.ChainId
 import dev3.blockchainapiservice.util.ContractAddress
 import dev3.blockchainapiservice.util.WalletAddress
 import org.junit.jupiter.api.Test
-import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.springframework.http.ResponseEntity
 import java.math.BigInteger
@@ -98,20 +97,15 @@ class PayoutInfoControllerTest : TestBase() {
             assetContractAddress = ContractAddress("abc"),
             walletAddress = accountBalance.address
         )
-
-        suppose("request address is contained in some Merkle tree") {
-            call(repository.containsAddress(params))
-                .willReturn(true)
-        }
-
         val tree = MerkleTree(
-            nodes = listOf(accountBalance),
+            nodes = listOf(accountBalance, PayoutAccountBalance(WalletAddress("abc"), Balance(BigInteger.TWO))),
             hashFn = HashFunction.IDENTITY
         )
+        val leafPath = tree.leafPathByAddress(accountBalance.address)!!
 
-        suppose("some Merkle tree is returned") {
-            call(repository.fetchTree(params.toFetchMerkleTreeParams))
-                .willReturn(tree.withRandomId())
+        suppose("some Merkle tree path is returned") {
+            call(repository.fetchPath(params))
+                .willReturn(leafPath)
         }
 
         val controller = PayoutInfoController(repository)
@@ -150,9 +144,9 @@ class PayoutInfoControllerTest : TestBase() {
             walletAddress = accountBalance.address
         )
 
-        suppose("request address is not contained in some Merkle tree") {
-            call(repository.containsAddress(params))
-                .willReturn(false)
+        suppose("Merkle tree path is not found") {
+            call(repository.fetchPath(params))
+                .willReturn(null)
         }
 
         val controller = PayoutInfoController(repository)
@@ -179,14 +173,15 @@ class PayoutInfoControllerTest : TestBase() {
             assetContractAddress = ContractAddress("abc"),
             walletAddress = accountBalance.address
         )
+        val tree = MerkleTree(
+            nodes = listOf(accountBalance),
+            hashFn = HashFunction.IDENTITY
+        )
 
-        suppose("request address is contained in some Merkle tree") {
-            call(repository.containsAddress(params))
-                .willReturn(true)
-        }
-
-        suppose("null is returned when fetching Merkle tree") {
-            call(repository.fetchTree(params.toFetchMerkleTreeParams))
+        suppose("Merkle tree path is returned only for existing payout") {
+            call(repository.fetchPath(params))
+                .willReturn(tree.leafPathByAddress(accountBalance.address))
+            call(repository.fetchPath(params.copy(rootHash = MerkleHash("other"))))
                 .willReturn(null)
         }
 
@@ -197,7 +192,7 @@ class PayoutInfoControllerTest : TestBase() {
                 controller.getPayoutPath(
                     chainId = params.chainId.value,
                     assetContractAddress = params.assetContractAddress.rawValue,
-                    rootHash = params.rootHash.value,
+                    rootHash = "other",
                     walletAddress = accountBalance.address.rawValue
                 )
             }
@@ -214,20 +209,16 @@ class PayoutInfoControllerTest : TestBase() {
             assetContractAddress = ContractAddress("abc"),
             walletAddress = accountBalance.address
         )
-
-        suppose("some address is contained in some Merkle tree") {
-            call(repository.containsAddress(any()))
-                .willReturn(true)
-        }
-
         val tree = MerkleTree(
             nodes = listOf(accountBalance),
             hashFn = HashFunction.IDENTITY
         )
 
-        suppose("some Merkle tree is returned") {
-            call(repository.fetchTree(params.toFetchMerkleTreeParams))
-                .willReturn(tree.withRandomId())
+        suppose("Merkle tree path is returned only for address contained in the Merkle tree") {
+            call(repository.fetchPath(params))
+                .willReturn(tree.leafPathByAddress(accountBalance.address))
+            call(repository.fetchPath(params.copy(walletAddress = WalletAddress("fff"))))
+                .willReturn(null)
         }
 
         val controller = PayoutInfoController(repository)
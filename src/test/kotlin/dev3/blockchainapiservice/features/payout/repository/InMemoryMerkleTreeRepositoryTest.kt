@@ -0,0 +1,140 @@
+package dev3.blockchainapiservice.features.payout.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.MerkleTreeCacheProperties
+import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreeParams
+import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreePathParams
+import dev3.blockchainapiservice.features.payout.model.result.MerkleTreeWithId
+import dev3.blockchainapiservice.features.payout.util.HashFunction
+import dev3.blockchainapiservice.features.payout.util.MerkleTree
+import dev3.blockchainapiservice.features.payout.util.PayoutAccountBalance
+import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
+import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.ContractAddress
+import dev3.blockchainapiservice.util.WalletAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import java.math.BigInteger
+import java.util.UUID
+
+class InMemoryMerkleTreeRepositoryTest : TestBase() {
+
+    companion object {
+        private val TREE = MerkleTree(
+            listOf(
+                PayoutAccountBalance(WalletAddress("a"), Balance(BigInteger.ONE)),
+                PayoutAccountBalance(WalletAddress("b"), Balance(BigInteger.TWO))
+            ),
+            HashFunction.KECCAK_256
+        )
+        private val TREE_ID = MerkleTreeRootId(UUID.randomUUID())
+        private val PARAMS = FetchMerkleTreeParams(TREE.rootHash, ChainId(1337L), ContractAddress("c"))
+    }
+
+    @Test
+    fun mustServeMerkleTreeFromMemoryAfterFirstDatabaseLoad() {
+        val jooqRepository = mock<JooqMerkleTreeRepository>()
+
+        suppose("Merkle tree is stored in the database") {
+            call(jooqRepository.fetchTree(PARAMS))
+                .willReturn(MerkleTreeWithId(TREE_ID, TREE))
+        }
+
+        val repository = InMemoryMerkleTreeRepository(
+            jooqMerkleTreeRepository = jooqRepository,
+            merkleTreeCacheProperties = MerkleTreeCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("Merkle tree is loaded from the database only once") {
+            expectThat(repository.fetchTree(PARAMS))
+                .isEqualTo(MerkleTreeWithId(TREE_ID, TREE))
+            expectThat(repository.fetchTree(PARAMS))
+                .isEqualTo(MerkleTreeWithId(TREE_ID, TREE))
+            expectThat(repository.getById(TREE_ID))
+                .isEqualTo(TREE)
+
+            expectInteractions(jooqRepository) {
+                once.fetchTree(PARAMS)
+            }
+        }
+
+        verify("address lookups for cached tree do not hit the database") {
+            expectThat(repository.containsAddress(pathParams(WalletAddress("a"))))
+                .isTrue()
+            expectThat(repository.containsAddress(pathParams(WalletAddress("d"))))
+                .isFalse()
+            expectThat(repository.fetchPath(pathParams(WalletAddress("a"))))
+                .isEqualTo(TREE.leafPathByAddress(WalletAddress("a")))
+            expectThat(repository.fetchPath(pathParams(WalletAddress("d"))))
+                .isNull()
+
+            expectInteractions(jooqRepository) {
+                once.fetchTree(PARAMS)
+            }
+        }
+    }
+
+    @Test
+    fun mustNotCacheMissingMerkleTree() {
+        val jooqRepository = mock<JooqMerkleTreeRepository>()
+
+        suppose("Merkle tree is not in the database at first") {
+            call(jooqRepository.fetchTree(PARAMS))
+                .willReturn(null, MerkleTreeWithId(TREE_ID, TREE))
+        }
+
+        val repository = InMemoryMerkleTreeRepository(
+            jooqMerkleTreeRepository = jooqRepository,
+            merkleTreeCacheProperties = MerkleTreeCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("missing Merkle tree is not cached") {
+            expectThat(repository.fetchTree(PARAMS))
+                .isNull()
+            expectThat(repository.fetchTree(PARAMS))
+                .isEqualTo(MerkleTreeWithId(TREE_ID, TREE))
+            expectThat(repository.fetchTree(PARAMS))
+                .isEqualTo(MerkleTreeWithId(TREE_ID, TREE))
+
+            expectInteractions(jooqRepository) {
+                twice.fetchTree(PARAMS)
+            }
+        }
+    }
+
+    @Test
+    fun mustCacheStoredMerkleTree() {
+        val jooqRepository = mock<JooqMerkleTreeRepository>()
+        val blockNumber = BlockNumber(BigInteger.TEN)
+
+        suppose("Merkle tree will be stored in the database") {
+            call(jooqRepository.storeTree(TREE, PARAMS.chainId, PARAMS.assetContractAddress, blockNumber))
+                .willReturn(TREE_ID)
+        }
+
+        val repository = InMemoryMerkleTreeRepository(
+            jooqMerkleTreeRepository = jooqRepository,
+            merkleTreeCacheProperties = MerkleTreeCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("stored Merkle tree is served from memory") {
+            expectThat(repository.storeTree(TREE, PARAMS.chainId, PARAMS.assetContractAddress, blockNumber))
+                .isEqualTo(TREE_ID)
+            expectThat(repository.fetchTree(PARAMS))
+                .isEqualTo(MerkleTreeWithId(TREE_ID, TREE))
+
+            expectInteractions(jooqRepository) {
+                once.storeTree(TREE, PARAMS.chainId, PARAMS.assetContractAddress, blockNumber)
+            }
+        }
+    }
+
+    private fun pathParams(walletAddress: WalletAddress) =
+        FetchMerkleTreePathParams(PARAMS.rootHash, PARAMS.chainId, PARAMS.assetContractAddress, walletAddress)
+}
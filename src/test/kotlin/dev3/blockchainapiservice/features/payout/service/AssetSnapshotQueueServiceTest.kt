@@ -8,6 +8,7 @@ import dev3.blockchainapiservice.config.JsonConfig
 import dev3.blockchainapiservice.config.PayoutQueueProperties
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
+import dev3.blockchainapiservice.features.payout.model.params.ClaimPendingAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.CreateAssetSnapshotParams
 import dev3.blockchainapiservice.features.payout.model.params.FetchMerkleTreeParams
 import dev3.blockchainapiservice.features.payout.model.result.AssetSnapshot
@@ -22,6 +23,7 @@ import dev3.blockchainapiservice.features.payout.repository.MerkleTreeRepository
 import dev3.blockchainapiservice.features.payout.util.AssetSnapshotFailureCause
 import dev3.blockchainapiservice.features.payout.util.AssetSnapshotStatus
 import dev3.blockchainapiservice.features.payout.util.HashFunction
+import dev3.blockchainapiservice.features.payout.util.HolderScanCheckpoint
 import dev3.blockchainapiservice.features.payout.util.IpfsHash
 import dev3.blockchainapiservice.features.payout.util.MerkleTree
 import dev3.blockchainapiservice.features.payout.util.PayoutAccountBalance
@@ -31,6 +33,7 @@ import dev3.blockchainapiservice.generated.jooq.id.ProjectId
 import dev3.blockchainapiservice.generated.jooq.id.UserId
 import dev3.blockchainapiservice.model.result.FullContractDeploymentTransactionInfo
 import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import dev3.blockchainapiservice.service.UtcDateTimeProvider
 import dev3.blockchainapiservice.util.Balance
 import dev3.blockchainapiservice.util.BaseUrl
 import dev3.blockchainapiservice.util.BlockNumber
@@ -41,11 +44,13 @@ import dev3.blockchainapiservice.util.FunctionData
 import dev3.blockchainapiservice.util.TransactionHash
 import dev3.blockchainapiservice.util.WalletAddress
 import dev3.blockchainapiservice.util.ZeroAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import java.math.BigInteger
 import java.util.UUID
+import kotlin.time.toKotlinDuration
 
 class AssetSnapshotQueueServiceTest : TestBase() {
 
@@ -60,6 +65,12 @@ class AssetSnapshotQueueServiceTest : TestBase() {
             createdAt = TestData.TIMESTAMP
         )
         private val CHAIN_SPEC = ChainSpec(PROJECT.chainId, PROJECT.customRpcUrl)
+        private val CLAIM_PARAMS = ClaimPendingAssetSnapshotParams(
+            claimedAt = TestData.TIMESTAMP,
+            claimExpiredBefore = TestData.TIMESTAMP - PayoutQueueProperties().claimDuration.toKotlinDuration(),
+            excludedProjectIds = emptySet(),
+            excludedChainIds = emptySet()
+        )
     }
 
     private val objectMapper = JsonConfig().objectMapper()
@@ -101,12 +112,12 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         )
 
         suppose("asset snapshot is created in database") {
-            call(assetSnapshotRepository.createAssetSnapshot(params))
+            call(assetSnapshotRepository.createAssetSnapshot(params, TestData.TIMESTAMP))
                 .willReturn(assetSnapshotUuid)
         }
 
-        suppose("pending asset snapshot will be returned") {
-            call(assetSnapshotRepository.getPending())
+        suppose("pending asset snapshot will be claimed once") {
+            call(assetSnapshotRepository.claimPending(CLAIM_PARAMS))
                 .willReturn(
                     PendingAssetSnapshot(
                         id = assetSnapshotUuid,
@@ -116,7 +127,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                         assetContractAddress = assetContractAddress,
                         blockNumber = payoutBlock,
                         ignoredHolderAddresses = ignoredHolderAddresses
-                    )
+                    ),
+                    null
                 )
         }
 
@@ -126,6 +138,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         )
         val totalAssetAmount = Balance(BigInteger("3"))
 
+        val holderScanCheckpoint = mock<HolderScanCheckpoint>()
+
+        suppose("holder scan checkpoint of asset snapshot will be returned") {
+            call(assetSnapshotRepository.getHolderScanCheckpoint(assetSnapshotUuid))
+                .willReturn(holderScanCheckpoint)
+        }
+
         suppose("some asset balances are fetched") {
             call(
                 blockchainService.fetchErc20AccountBalances(
@@ -133,7 +152,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             ).willReturn(accountBalances)
         }
@@ -183,6 +203,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                 .willReturn(scheduler)
         }
 
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
         val projectRepository = mock<ProjectRepository>()
 
         suppose("project will be returned") {
@@ -198,6 +225,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
             blockchainService = blockchainService,
             payoutQueueProperties = properties,
             objectMapper = objectMapper,
+            utcDateTimeProvider = utcDateTimeProvider,
+            meterRegistry = SimpleMeterRegistry(),
             scheduledExecutorServiceProvider = executorServiceProvider
         )
 
@@ -261,10 +290,11 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         verify("correct service and repository calls are made") {
             expectInteractions(assetSnapshotRepository) {
                 // submitSnapshot()
-                once.createAssetSnapshot(params)
-                // processSnapshots()
-                once.getPending()
+                once.createAssetSnapshot(params, TestData.TIMESTAMP)
+                // processSnapshots() - second claim finds no more pending snapshots
+                twice.claimPending(CLAIM_PARAMS)
                 // handlePendingSnapshot()
+                once.getHolderScanCheckpoint(assetSnapshotUuid)
                 once.completeAssetSnapshot(assetSnapshotUuid, treeUuid, ipfsHash, totalAssetAmount)
                 // getSnapshotById()
                 once.getById(assetSnapshotUuid)
@@ -278,7 +308,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             }
 
@@ -334,12 +365,12 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         )
 
         suppose("asset snapshot is created in database") {
-            call(assetSnapshotRepository.createAssetSnapshot(params))
+            call(assetSnapshotRepository.createAssetSnapshot(params, TestData.TIMESTAMP))
                 .willReturn(assetSnapshotUuid)
         }
 
-        suppose("pending asset snapshot will be returned") {
-            call(assetSnapshotRepository.getPending())
+        suppose("pending asset snapshot will be claimed once") {
+            call(assetSnapshotRepository.claimPending(CLAIM_PARAMS))
                 .willReturn(
                     PendingAssetSnapshot(
                         id = assetSnapshotUuid,
@@ -349,10 +380,18 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                         assetContractAddress = assetContractAddress,
                         blockNumber = payoutBlock,
                         ignoredHolderAddresses = ignoredHolderAddresses
-                    )
+                    ),
+                    null
                 )
         }
 
+        val holderScanCheckpoint = mock<HolderScanCheckpoint>()
+
+        suppose("holder scan checkpoint of asset snapshot will be returned") {
+            call(assetSnapshotRepository.getHolderScanCheckpoint(assetSnapshotUuid))
+                .willReturn(holderScanCheckpoint)
+        }
+
         suppose("fetching asset balances throws exception") {
             call(
                 blockchainService.fetchErc20AccountBalances(
@@ -360,7 +399,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             ).willThrow(RuntimeException("test"))
         }
@@ -374,6 +414,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                 .willReturn(scheduler)
         }
 
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
         val projectRepository = mock<ProjectRepository>()
 
         suppose("project will be returned") {
@@ -392,6 +439,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
             blockchainService = blockchainService,
             payoutQueueProperties = properties,
             objectMapper = objectMapper,
+            utcDateTimeProvider = utcDateTimeProvider,
+            meterRegistry = SimpleMeterRegistry(),
             scheduledExecutorServiceProvider = executorServiceProvider
         )
 
@@ -445,10 +494,11 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         verify("correct service and repository calls are made") {
             expectInteractions(assetSnapshotRepository) {
                 // submitSnapshot()
-                once.createAssetSnapshot(params)
-                // processSnapshots()
-                once.getPending()
+                once.createAssetSnapshot(params, TestData.TIMESTAMP)
+                // processSnapshots() - second claim finds no more pending snapshots
+                twice.claimPending(CLAIM_PARAMS)
                 // handlePendingSnapshot()
+                once.getHolderScanCheckpoint(assetSnapshotUuid)
                 once.failAssetSnapshot(assetSnapshotUuid, AssetSnapshotFailureCause.OTHER)
                 // getSnapshotById()
                 once.getById(assetSnapshotUuid)
@@ -462,7 +512,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             }
 
@@ -471,6 +522,98 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustRenewClaimOfAssetSnapshotWhichIsBeingProcessed() {
+        val assetContractAddress = ContractAddress("a")
+        val assetSnapshotRepository = mock<AssetSnapshotRepository>()
+        val assetSnapshotUuid = AssetSnapshotId(UUID.randomUUID())
+        val ignoredHolderAddresses = setOf(WalletAddress("dead"))
+
+        suppose("pending asset snapshot will be claimed once") {
+            call(assetSnapshotRepository.claimPending(CLAIM_PARAMS))
+                .willReturn(
+                    PendingAssetSnapshot(
+                        id = assetSnapshotUuid,
+                        name = "asset-snapshot-name",
+                        projectId = PROJECT.id,
+                        chainId = PROJECT.chainId,
+                        assetContractAddress = assetContractAddress,
+                        blockNumber = BlockNumber(BigInteger.TEN),
+                        ignoredHolderAddresses = ignoredHolderAddresses
+                    ),
+                    null
+                )
+        }
+
+        val properties = PayoutQueueProperties()
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+        val claimRenewalScheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+            call(executorServiceProvider.newSingleThreadScheduledExecutor("AssetSnapshotQueue-claim-renewal"))
+                .willReturn(claimRenewalScheduler)
+        }
+
+        val blockchainService = mock<BlockchainService>()
+
+        suppose("claims are renewed while contract deployment transaction is being fetched") {
+            call(blockchainService.findContractDeploymentTransaction(CHAIN_SPEC, assetContractAddress, emptyList()))
+                .willAnswer {
+                    claimRenewalScheduler.execute()
+                    throw RuntimeException("test")
+                }
+        }
+
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
+        val projectRepository = mock<ProjectRepository>()
+
+        suppose("project will be returned") {
+            call(projectRepository.getById(PROJECT.id))
+                .willReturn(PROJECT)
+        }
+
+        AssetSnapshotQueueServiceImpl(
+            merkleTreeRepository = mock(),
+            assetSnapshotRepository = assetSnapshotRepository,
+            projectRepository = projectRepository,
+            ipfsService = mock(),
+            blockchainService = blockchainService,
+            payoutQueueProperties = properties,
+            objectMapper = objectMapper,
+            utcDateTimeProvider = utcDateTimeProvider,
+            meterRegistry = SimpleMeterRegistry(),
+            scheduledExecutorServiceProvider = executorServiceProvider
+        )
+
+        suppose("asset snapshot is processed") {
+            scheduler.execute()
+        }
+
+        suppose("claims are renewed after asset snapshot processing is done") {
+            claimRenewalScheduler.execute()
+        }
+
+        verify("claim is renewed only while asset snapshot is being processed") {
+            expectInteractions(assetSnapshotRepository) {
+                // processSnapshots() - second claim finds no more pending snapshots
+                twice.claimPending(CLAIM_PARAMS)
+                // renewClaims()
+                once.renewClaims(setOf(assetSnapshotUuid), TestData.TIMESTAMP)
+                // handlePendingSnapshot()
+                once.failAssetSnapshot(assetSnapshotUuid, AssetSnapshotFailureCause.OTHER)
+            }
+        }
+    }
+
     @Test
     fun mustFailAssetSnapshotWhenExceptionWithExceededLogSizeLimitIsThrownDuringProcessing() {
         val blockchainService = mock<BlockchainService>()
@@ -508,12 +651,12 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         )
 
         suppose("asset snapshot is created in database") {
-            call(assetSnapshotRepository.createAssetSnapshot(params))
+            call(assetSnapshotRepository.createAssetSnapshot(params, TestData.TIMESTAMP))
                 .willReturn(assetSnapshotUuid)
         }
 
-        suppose("pending asset snapshot will be returned") {
-            call(assetSnapshotRepository.getPending())
+        suppose("pending asset snapshot will be claimed once") {
+            call(assetSnapshotRepository.claimPending(CLAIM_PARAMS))
                 .willReturn(
                     PendingAssetSnapshot(
                         id = assetSnapshotUuid,
@@ -523,10 +666,18 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                         assetContractAddress = assetContractAddress,
                         blockNumber = payoutBlock,
                         ignoredHolderAddresses = ignoredHolderAddresses
-                    )
+                    ),
+                    null
                 )
         }
 
+        val holderScanCheckpoint = mock<HolderScanCheckpoint>()
+
+        suppose("holder scan checkpoint of asset snapshot will be returned") {
+            call(assetSnapshotRepository.getHolderScanCheckpoint(assetSnapshotUuid))
+                .willReturn(holderScanCheckpoint)
+        }
+
         suppose("fetching asset balances throws exception") {
             call(
                 blockchainService.fetchErc20AccountBalances(
@@ -534,7 +685,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             ).willThrow(RuntimeException(RuntimeException("Log response size exceeded")))
         }
@@ -548,6 +700,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                 .willReturn(scheduler)
         }
 
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
         val projectRepository = mock<ProjectRepository>()
 
         suppose("project will be returned") {
@@ -566,6 +725,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
             blockchainService = blockchainService,
             payoutQueueProperties = properties,
             objectMapper = objectMapper,
+            utcDateTimeProvider = utcDateTimeProvider,
+            meterRegistry = SimpleMeterRegistry(),
             scheduledExecutorServiceProvider = executorServiceProvider
         )
 
@@ -622,10 +783,11 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         verify("correct service and repository calls are made") {
             expectInteractions(assetSnapshotRepository) {
                 // submitSnapshot()
-                once.createAssetSnapshot(params)
-                // processSnapshots()
-                once.getPending()
+                once.createAssetSnapshot(params, TestData.TIMESTAMP)
+                // processSnapshots() - second claim finds no more pending snapshots
+                twice.claimPending(CLAIM_PARAMS)
                 // handlePendingSnapshot()
+                once.getHolderScanCheckpoint(assetSnapshotUuid)
                 once.failAssetSnapshot(assetSnapshotUuid, AssetSnapshotFailureCause.LOG_RESPONSE_LIMIT)
                 // getSnapshotById()
                 once.getById(assetSnapshotUuid)
@@ -639,7 +801,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             }
 
@@ -685,12 +848,12 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         )
 
         suppose("asset snapshot is created in database") {
-            call(assetSnapshotRepository.createAssetSnapshot(params))
+            call(assetSnapshotRepository.createAssetSnapshot(params, TestData.TIMESTAMP))
                 .willReturn(assetSnapshotUuid)
         }
 
-        suppose("pending asset snapshot will be returned") {
-            call(assetSnapshotRepository.getPending())
+        suppose("pending asset snapshot will be claimed once") {
+            call(assetSnapshotRepository.claimPending(CLAIM_PARAMS))
                 .willReturn(
                     PendingAssetSnapshot(
                         id = assetSnapshotUuid,
@@ -700,7 +863,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                         assetContractAddress = assetContractAddress,
                         blockNumber = payoutBlock,
                         ignoredHolderAddresses = ignoredHolderAddresses
-                    )
+                    ),
+                    null
                 )
         }
 
@@ -710,6 +874,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         )
         val totalAssetAmount = Balance(BigInteger("3"))
 
+        val holderScanCheckpoint = mock<HolderScanCheckpoint>()
+
+        suppose("holder scan checkpoint of asset snapshot will be returned") {
+            call(assetSnapshotRepository.getHolderScanCheckpoint(assetSnapshotUuid))
+                .willReturn(holderScanCheckpoint)
+        }
+
         suppose("some asset balances are fetched") {
             call(
                 blockchainService.fetchErc20AccountBalances(
@@ -717,7 +888,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             ).willReturn(accountBalances)
         }
@@ -766,6 +938,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                 .willReturn(scheduler)
         }
 
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
         val projectRepository = mock<ProjectRepository>()
 
         suppose("project will be returned") {
@@ -781,6 +960,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
             blockchainService = blockchainService,
             payoutQueueProperties = properties,
             objectMapper = objectMapper,
+            utcDateTimeProvider = utcDateTimeProvider,
+            meterRegistry = SimpleMeterRegistry(),
             scheduledExecutorServiceProvider = executorServiceProvider
         )
 
@@ -844,10 +1025,11 @@ class AssetSnapshotQueueServiceTest : TestBase() {
         verify("correct service and repository calls are made") {
             expectInteractions(assetSnapshotRepository) {
                 // submitSnapshot()
-                once.createAssetSnapshot(params)
-                // processSnapshots()
-                once.getPending()
+                once.createAssetSnapshot(params, TestData.TIMESTAMP)
+                // processSnapshots() - second claim finds no more pending snapshots
+                twice.claimPending(CLAIM_PARAMS)
                 // handlePendingSnapshot()
+                once.getHolderScanCheckpoint(assetSnapshotUuid)
                 once.completeAssetSnapshot(assetSnapshotUuid, treeUuid, ipfsHash, totalAssetAmount)
                 // getSnapshotById()
                 once.getById(assetSnapshotUuid)
@@ -861,7 +1043,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                     erc20ContractAddress = assetContractAddress,
                     ignoredErc20Addresses = ignoredHolderAddresses,
                     startBlock = startBlock,
-                    endBlock = payoutBlock
+                    endBlock = payoutBlock,
+                    holderScanCheckpoint = holderScanCheckpoint
                 )
             }
 
@@ -937,6 +1120,13 @@ class AssetSnapshotQueueServiceTest : TestBase() {
                 .willReturn(scheduler)
         }
 
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
         val projectRepository = mock<ProjectRepository>()
 
         suppose("project will be returned") {
@@ -952,6 +1142,8 @@ class AssetSnapshotQueueServiceTest : TestBase() {
             blockchainService = mock(),
             payoutQueueProperties = PayoutQueueProperties(),
             objectMapper = objectMapper,
+            utcDateTimeProvider = utcDateTimeProvider,
+            meterRegistry = SimpleMeterRegistry(),
             scheduledExecutorServiceProvider = executorServiceProvider
         )
 
@@ -0,0 +1,53 @@
+package dev3.blockchainapiservice.features.payout.service
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.MerkleProofBackfillProperties
+import dev3.blockchainapiservice.features.payout.repository.MerkleTreeRepository
+import dev3.blockchainapiservice.generated.jooq.id.MerkleTreeRootId
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import java.util.UUID
+
+class MerkleProofBackfillJobTest : TestBase() {
+
+    @Test
+    fun mustStoreMissingProofsForEachReturnedTree() {
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+        }
+
+        val repository = mock<MerkleTreeRepository>()
+        val properties = MerkleProofBackfillProperties(treesPerRun = 2)
+        val treeIds = listOf(MerkleTreeRootId(UUID.randomUUID()), MerkleTreeRootId(UUID.randomUUID()))
+
+        suppose("some Merkle trees without proofs will be returned") {
+            call(repository.getTreeIdsWithoutProofs(properties.treesPerRun))
+                .willReturn(treeIds)
+        }
+
+        suppose("storing proofs for first tree will fail") {
+            call(repository.storeMissingProofs(treeIds[0]))
+                .willThrow(RuntimeException("test"))
+        }
+
+        MerkleProofBackfillJob(repository, properties, executorServiceProvider)
+
+        suppose("backfill job is executed") {
+            scheduler.execute()
+        }
+
+        verify("proofs are stored for all returned trees") {
+            expectInteractions(repository) {
+                once.getTreeIdsWithoutProofs(properties.treesPerRun)
+                once.storeMissingProofs(treeIds[0])
+                once.storeMissingProofs(treeIds[1])
+            }
+        }
+    }
+}
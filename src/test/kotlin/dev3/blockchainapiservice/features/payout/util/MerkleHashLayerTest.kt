@@ -0,0 +1,69 @@
+package dev3.blockchainapiservice.features.payout.util
+
+import dev3.blockchainapiservice.TestBase
+import org.junit.jupiter.api.Test
+
+class MerkleHashLayerTest : TestBase() {
+
+    private val hashes = listOf(
+        MerkleHash("0x0000000000000000000000000000000000000000000000000000000000000000"),
+        MerkleHash("0"),
+        MerkleHash("abc"),
+        MerkleHash("0x0abc"),
+        MerkleHash("0x1f")
+    )
+
+    @Test
+    fun mustRestoreOriginalHashValues() {
+        val layer = suppose("layer is created from hashes") {
+            MerkleHashLayer.of(*hashes.toTypedArray())
+        }
+
+        verify("original hash values are restored") {
+            expectThat(layer.size).isEqualTo(hashes.size)
+            expectThat(hashes.indices.map { layer[it] }).isEqualTo(hashes)
+        }
+    }
+
+    @Test
+    fun mustCompareHashesByNumericValue() {
+        val layer = suppose("layer is created from hashes") {
+            MerkleHashLayer.of(*hashes.toTypedArray())
+        }
+
+        verify("hashes are compared by numeric value") {
+            for (i in hashes.indices) {
+                for (j in hashes.indices) {
+                    expectThat(Integer.signum(layer.compare(i, otherIndex = j)))
+                        .isEqualTo(Integer.signum(hashes[i].compareTo(hashes[j])))
+                }
+            }
+        }
+    }
+
+    @Test
+    fun mustFindHashInSortedLayer() {
+        val sortedHashes = listOf(hashes[1], hashes[2], hashes[4]).sorted()
+        val layer = suppose("layer is created from sorted hashes") {
+            MerkleHashLayer.of(*sortedHashes.toTypedArray())
+        }
+
+        verify("hashes are found in sorted layer") {
+            expectThat(sortedHashes.map { layer.indexOfSorted(it) }).isEqualTo(sortedHashes.indices.toList())
+            expectThat(layer.indexOfSorted(MerkleHash("0x1234"))).isEqualTo(-1)
+        }
+    }
+
+    @Test
+    fun mustReturnPlainBytesOnlyForPrefixedEvenLengthHashes() {
+        val layer = suppose("layer is created from hashes") {
+            MerkleHashLayer.of(*hashes.toTypedArray())
+        }
+
+        verify("plain bytes are returned for prefixed even length hashes") {
+            expectThat(layer.plainBytes(0)?.toList()).isEqualTo(ByteArray(32).toList())
+            expectThat(layer.plainBytes(2)).isNull()
+            expectThat(layer.plainBytes(3)?.toList()).isEqualTo(listOf(0x0a.toByte(), 0xbc.toByte()))
+        }
+    }
+}
@@ -931,6 +931,58 @@ class MerkleTreeTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustProduceVerifiablePathsForLargerKeccakMerkleTree() {
+        val balances = (1..100).map {
+            PayoutAccountBalance(WalletAddress(it.toString(16)), Balance(BigInteger.valueOf(it * 1_000L)))
+        }
+        val tree = suppose("Merkle tree with many elements is created") {
+            MerkleTree(balances.shuffled(), HashFunction.KECCAK_256)
+        }
+
+        verify("Merkle tree root hash and depth are consistent with linked nodes") {
+            expectThat(tree.rootHash).isEqualTo(tree.root.hash)
+            expectThat(tree.depth).isEqualTo(tree.root.depth)
+            expectThat(tree.depth).isEqualTo(7)
+        }
+
+        verify("Merkle tree paths lead to the root hash") {
+            balances.forEach { balance ->
+                val path = tree.pathTo(balance)!!
+                val computedRootHash = path.fold(HashFunction.KECCAK_256(balance.abiEncode())) { hash, segment ->
+                    if (segment.isLeft) {
+                        HashFunction.KECCAK_256((segment.siblingHash + hash).value)
+                    } else {
+                        HashFunction.KECCAK_256((hash + segment.siblingHash).value)
+                    }
+                }
+                val leafIndex = tree.leafNodesByAddress[balance.address]!!.index
+                val pathIndex = path.foldIndexed(0) { index, result, segment ->
+                    if (segment.isLeft) result or (1 shl index) else result
+                }
+
+                expectThat(computedRootHash).isEqualTo(tree.rootHash)
+                expectThat(pathIndex).isEqualTo(leafIndex)
+            }
+        }
+
+        verify("Merkle tree leaves can be found by address") {
+            expectThat(tree.leafByAddress(balances[42].address)).isEqualTo(balances[42])
+            expectThat(tree.leafByAddress(nonContainedBalance.address)).isNull()
+        }
+
+        verify("Merkle tree leaf paths are consistent with paths to leaves") {
+            val leafPaths = tree.leafPaths.toList()
+
+            expectThat(leafPaths.map { it.leaf }).isEqualTo(tree.leaves)
+            leafPaths.forEach {
+                expectThat(it.path).isEqualTo(tree.pathTo(it.leaf))
+                expectThat(it).isEqualTo(tree.leafPathByAddress(it.leaf.address))
+            }
+            expectThat(tree.leafPathByAddress(nonContainedBalance.address)).isNull()
+        }
+    }
+
     private fun indexedLeafNode(node: PayoutAccountBalance, hash: MerkleHash, index: Int): IndexedValue<LeafNode> =
         IndexedValue(index, LeafNode(node, hash))
 
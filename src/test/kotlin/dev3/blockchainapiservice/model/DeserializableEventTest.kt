@@ -0,0 +1,60 @@
+package dev3.blockchainapiservice.model
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.features.contract.abi.model.AddressType
+import dev3.blockchainapiservice.features.contract.abi.model.BoolType
+import dev3.blockchainapiservice.features.contract.abi.model.UintType
+import dev3.blockchainapiservice.util.Keccak256Hash
+import dev3.blockchainapiservice.util.PredefinedEvents
+import org.junit.jupiter.api.Test
+
+class DeserializableEventTest : TestBase() {
+
+    @Test
+    fun mustCorrectlyPrecomputeEventDecodingData() {
+        val event = DeserializableEvent(
+            signature = "Example(address,uint256,bool,address)",
+            inputsOrder = listOf("from", "value", "flag", "to"),
+            indexedInputs = listOf(
+                DeserializableEventInput("from", AddressType),
+                DeserializableEventInput("to", AddressType)
+            ),
+            regularInputs = listOf(
+                DeserializableEventInput("value", UintType),
+                DeserializableEventInput("flag", BoolType)
+            )
+        )
+
+        verify("selector hash is correctly computed") {
+            expectThat(event.selectorHash)
+                .isEqualTo(Keccak256Hash("Example(address,uint256,bool,address)"))
+        }
+
+        verify("regular input types are correctly computed") {
+            expectThat(event.regularInputTypes)
+                .isEqualTo(listOf(UintType, BoolType))
+        }
+
+        verify("argument positions are correctly computed") {
+            expectThat(event.argumentPositions)
+                .isEqualTo(listOf(2, 0, 1, 3))
+        }
+    }
+
+    @Test
+    fun mustFindEventBySelectorHash() {
+        val events = DeserializableEvents(listOf(PredefinedEvents.ERC20_TRANSFER, PredefinedEvents.ERC20_APPROVAL))
+
+        verify("event is found by selector hash") {
+            expectThat(events.getBySelectorHash(Keccak256Hash("Approval(address,address,uint256)")))
+                .isEqualTo(PredefinedEvents.ERC20_APPROVAL)
+            expectThat(events.getBySelectorHash(Keccak256Hash("Unknown()")))
+                .isNull()
+        }
+
+        verify("events are equal to list with the same events") {
+            expectThat(events)
+                .isEqualTo(listOf(PredefinedEvents.ERC20_TRANSFER, PredefinedEvents.ERC20_APPROVAL))
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.TestData
+import dev3.blockchainapiservice.config.ApiRateProperties
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiReadCallLog
+import dev3.blockchainapiservice.features.api.usage.repository.ApiCallLogQueue
+import dev3.blockchainapiservice.features.api.usage.repository.JooqApiRateLimitRepository
+import dev3.blockchainapiservice.features.payout.service.ManualFixedScheduler
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import java.util.UUID
+
+class ApiCallLogQueueTest : TestBase() {
+
+    @Test
+    fun mustWriteCallLogsInBatchesAndDropThemWhenBufferIsFull() {
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+        }
+
+        val jooqRepository = mock<JooqApiRateLimitRepository>()
+        val meterRegistry = SimpleMeterRegistry()
+        val queue = ApiCallLogQueue(
+            jooqApiRateLimitRepository = jooqRepository,
+            apiRateProperties = ApiRateProperties(callLogBufferSize = 3, callLogFlushBatchSize = 2),
+            meterRegistry = meterRegistry,
+            scheduledExecutorServiceProvider = executorServiceProvider
+        )
+
+        val userId = UserId(UUID.randomUUID())
+        val callLogs = (1..4).map { ApiReadCallLog(userId, "endpoint-$it", TestData.TIMESTAMP) }
+
+        suppose("some call logs are offered") {
+            callLogs.forEach { queue.offer(it) }
+        }
+
+        verify("call log which did not fit into buffer is dropped") {
+            expectThat(meterRegistry.get("api.call.log.dropped").counter().count())
+                .isEqualTo(1.0)
+            expectThat(meterRegistry.get("api.call.log.buffered").gauge().value())
+                .isEqualTo(3.0)
+        }
+
+        suppose("queue is flushed") {
+            scheduler.execute()
+        }
+
+        verify("buffered call logs are written in batches") {
+            expectInteractions(jooqRepository) {
+                once.addCallLogs(callLogs.subList(0, 2))
+                once.addCallLogs(callLogs.subList(2, 3))
+            }
+
+            expectThat(meterRegistry.get("api.call.log.buffered").gauge().value())
+                .isEqualTo(0.0)
+        }
+    }
+}
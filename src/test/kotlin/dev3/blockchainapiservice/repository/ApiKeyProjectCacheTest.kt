@@ -0,0 +1,156 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.TestData
+import dev3.blockchainapiservice.config.ApiKeyCacheProperties
+import dev3.blockchainapiservice.config.CustomHeaders
+import dev3.blockchainapiservice.features.api.access.model.result.ApiKey
+import dev3.blockchainapiservice.features.api.access.model.result.Project
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
+import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
+import dev3.blockchainapiservice.generated.jooq.id.ApiKeyId
+import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import dev3.blockchainapiservice.util.BaseUrl
+import dev3.blockchainapiservice.util.ChainId
+import dev3.blockchainapiservice.util.ContractAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.springframework.mock.web.MockHttpServletRequest
+import java.util.UUID
+
+class ApiKeyProjectCacheTest : TestBase() {
+
+    companion object {
+        private const val API_KEY_VALUE = "api-key"
+        private val PROJECT = Project(
+            id = ProjectId(UUID.randomUUID()),
+            ownerId = UserId(UUID.randomUUID()),
+            issuerContractAddress = ContractAddress("a"),
+            baseRedirectUrl = BaseUrl("base-redirect-url"),
+            chainId = ChainId(1337L),
+            customRpcUrl = "custom-rpc-url",
+            createdAt = TestData.TIMESTAMP
+        )
+        private val API_KEY = ApiKey(
+            id = ApiKeyId(UUID.randomUUID()),
+            projectId = PROJECT.id,
+            apiKey = API_KEY_VALUE,
+            createdAt = TestData.TIMESTAMP
+        )
+    }
+
+    @Test
+    fun mustLoadProjectOnceAndShareItBetweenRequests() {
+        val apiKeyRepository = mock<ApiKeyRepository>()
+
+        suppose("API key will be returned from database") {
+            call(apiKeyRepository.getByValue(API_KEY_VALUE))
+                .willReturn(API_KEY)
+        }
+
+        val projectRepository = mock<ProjectRepository>()
+
+        suppose("project will be returned from database") {
+            call(projectRepository.getById(PROJECT.id))
+                .willReturn(PROJECT)
+        }
+
+        val cache = ApiKeyProjectCache(
+            apiKeyRepository = apiKeyRepository,
+            projectRepository = projectRepository,
+            apiKeyCacheProperties = ApiKeyCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("project is loaded from database only once") {
+            val request = apiKeyRequest()
+
+            expectThat(cache.getProject(request))
+                .isEqualTo(PROJECT)
+            expectThat(cache.getProject(request))
+                .isEqualTo(PROJECT)
+            expectThat(cache.getProject(apiKeyRequest()))
+                .isEqualTo(PROJECT)
+
+            expectInteractions(apiKeyRepository) {
+                once.getByValue(API_KEY_VALUE)
+            }
+
+            expectInteractions(projectRepository) {
+                once.getById(PROJECT.id)
+            }
+        }
+    }
+
+    @Test
+    fun mustReloadUnknownApiKeyAfterInvalidation() {
+        val apiKeyRepository = mock<ApiKeyRepository>()
+
+        suppose("API key will not exist before it is created") {
+            call(apiKeyRepository.getByValue(API_KEY_VALUE))
+                .willReturn(null, API_KEY)
+        }
+
+        val projectRepository = mock<ProjectRepository>()
+
+        suppose("project will be returned from database") {
+            call(projectRepository.getById(PROJECT.id))
+                .willReturn(PROJECT)
+        }
+
+        val cache = ApiKeyProjectCache(
+            apiKeyRepository = apiKeyRepository,
+            projectRepository = projectRepository,
+            apiKeyCacheProperties = ApiKeyCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("unknown API key is cached") {
+            expectThat(cache.getProject(apiKeyRequest()))
+                .isNull()
+            expectThat(cache.getProject(apiKeyRequest()))
+                .isNull()
+
+            expectInteractions(apiKeyRepository) {
+                once.getByValue(API_KEY_VALUE)
+            }
+        }
+
+        suppose("API key is invalidated") {
+            cache.invalidateApiKey(API_KEY_VALUE)
+        }
+
+        verify("project is loaded for created API key") {
+            expectThat(cache.getProject(apiKeyRequest()))
+                .isEqualTo(PROJECT)
+
+            expectInteractions(apiKeyRepository) {
+                twice.getByValue(API_KEY_VALUE)
+            }
+        }
+    }
+
+    @Test
+    fun mustReturnNullForRequestWithoutApiKey() {
+        val apiKeyRepository = mock<ApiKeyRepository>()
+        val cache = ApiKeyProjectCache(
+            apiKeyRepository = apiKeyRepository,
+            projectRepository = mock(),
+            apiKeyCacheProperties = ApiKeyCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("null is returned") {
+            expectThat(cache.getProject(MockHttpServletRequest()))
+                .isNull()
+
+            expectNoInteractions(apiKeyRepository)
+        }
+    }
+
+    private fun apiKeyRequest() =
+        MockHttpServletRequest().apply { addHeader(CustomHeaders.API_KEY_HEADER, API_KEY_VALUE) }
+}
@@ -0,0 +1,177 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.TestData
+import dev3.blockchainapiservice.config.ApiRateProperties
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiReadCallLog
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiUsagePeriod
+import dev3.blockchainapiservice.features.api.usage.model.result.ApiWriteCallLog
+import dev3.blockchainapiservice.features.api.usage.model.result.RequestUsage
+import dev3.blockchainapiservice.features.api.usage.repository.ApiCallLogQueue
+import dev3.blockchainapiservice.features.api.usage.repository.InMemoryApiRateLimitRepository
+import dev3.blockchainapiservice.features.api.usage.repository.JooqApiRateLimitRepository
+import dev3.blockchainapiservice.features.payout.service.ManualFixedScheduler
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import dev3.blockchainapiservice.service.UtcDateTimeProvider
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.springframework.web.bind.annotation.RequestMethod
+import java.util.UUID
+import kotlin.time.Duration.Companion.days
+
+class InMemoryApiRateLimitRepositoryTest : TestBase() {
+
+    companion object {
+        private val USER_ID = UserId(UUID.randomUUID())
+        private val PERIOD = ApiUsagePeriod(
+            userId = USER_ID,
+            writeRequestUsage = RequestUsage(used = 1L, remaining = 2L),
+            readRequestUsage = RequestUsage(used = 3L, remaining = 4L),
+            startDate = TestData.TIMESTAMP,
+            endDate = TestData.TIMESTAMP + 30.days
+        )
+    }
+
+    @Test
+    fun mustCountCallsInMemoryAndFlushThemIntoDatabase() {
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+        }
+
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
+        val jooqRepository = mock<JooqApiRateLimitRepository>()
+        val flushedPeriod = PERIOD.copy(
+            writeRequestUsage = RequestUsage(used = 2L, remaining = 1L),
+            readRequestUsage = RequestUsage(used = 5L, remaining = 2L)
+        )
+
+        suppose("current API usage period will be returned") {
+            call(jooqRepository.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP))
+                .willReturn(PERIOD, flushedPeriod)
+        }
+
+        val callLogQueue = mock<ApiCallLogQueue>()
+        val repository = InMemoryApiRateLimitRepository(
+            jooqApiRateLimitRepository = jooqRepository,
+            apiCallLogQueue = callLogQueue,
+            apiRateProperties = ApiRateProperties(),
+            utcDateTimeProvider = utcDateTimeProvider,
+            scheduledExecutorServiceProvider = executorServiceProvider
+        )
+
+        suppose("some calls are made") {
+            repository.addWriteCall(USER_ID, TestData.TIMESTAMP, RequestMethod.POST, "write")
+            repository.addReadCall(USER_ID, TestData.TIMESTAMP, "read")
+            repository.addReadCall(USER_ID, TestData.TIMESTAMP, "read")
+        }
+
+        verify("remaining limits include calls which are not yet flushed") {
+            expectThat(repository.remainingWriteLimit(USER_ID, TestData.TIMESTAMP))
+                .isEqualTo(1L)
+            expectThat(repository.remainingReadLimit(USER_ID, TestData.TIMESTAMP))
+                .isEqualTo(2L)
+            expectThat(repository.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP))
+                .isEqualTo(flushedPeriod)
+
+            expectInteractions(jooqRepository) {
+                once.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP)
+            }
+        }
+
+        suppose("calls are flushed") {
+            scheduler.execute()
+        }
+
+        verify("aggregated usage is written into database") {
+            expectInteractions(jooqRepository) {
+                twice.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP)
+                once.addUsage(USER_ID, TestData.TIMESTAMP, 1L, 2L)
+            }
+        }
+
+        verify("call logs are queued") {
+            expectInteractions(callLogQueue) {
+                once.offer(ApiWriteCallLog(USER_ID, RequestMethod.POST, "write", TestData.TIMESTAMP))
+                twice.offer(ApiReadCallLog(USER_ID, "read", TestData.TIMESTAMP))
+            }
+        }
+
+        verify("reloaded usage period is used after flush") {
+            expectThat(repository.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP))
+                .isEqualTo(flushedPeriod)
+        }
+    }
+
+    @Test
+    fun mustRemoveIdleUsersAndReloadExpiredUsagePeriods() {
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+        }
+
+        val utcDateTimeProvider = mock<UtcDateTimeProvider>()
+
+        suppose("some timestamp will be returned") {
+            call(utcDateTimeProvider.getUtcDateTime())
+                .willReturn(TestData.TIMESTAMP)
+        }
+
+        val jooqRepository = mock<JooqApiRateLimitRepository>()
+        val nextPeriodTime = PERIOD.endDate + 1.days
+
+        suppose("current API usage periods will be returned") {
+            call(jooqRepository.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP))
+                .willReturn(PERIOD)
+            call(jooqRepository.getCurrentApiUsagePeriod(USER_ID, nextPeriodTime))
+                .willReturn(PERIOD.copy(startDate = PERIOD.endDate, endDate = PERIOD.endDate + 30.days))
+        }
+
+        val repository = InMemoryApiRateLimitRepository(
+            jooqApiRateLimitRepository = jooqRepository,
+            apiCallLogQueue = mock(),
+            apiRateProperties = ApiRateProperties(),
+            utcDateTimeProvider = utcDateTimeProvider,
+            scheduledExecutorServiceProvider = executorServiceProvider
+        )
+
+        suppose("idle user is flushed") {
+            repository.remainingReadLimit(USER_ID, TestData.TIMESTAMP)
+            scheduler.execute()
+            repository.remainingReadLimit(USER_ID, TestData.TIMESTAMP)
+        }
+
+        verify("usage period of idle user is reloaded") {
+            expectInteractions(jooqRepository) {
+                twice.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP)
+            }
+        }
+
+        suppose("call is made after usage period has ended") {
+            repository.addReadCall(USER_ID, TestData.TIMESTAMP, "read")
+            repository.remainingReadLimit(USER_ID, nextPeriodTime)
+        }
+
+        verify("calls are added to ended usage period and next usage period is loaded") {
+            expectInteractions(jooqRepository) {
+                twice.getCurrentApiUsagePeriod(USER_ID, TestData.TIMESTAMP)
+                once.addUsage(USER_ID, PERIOD.endDate, 0L, 1L)
+                once.getCurrentApiUsagePeriod(USER_ID, nextPeriodTime)
+            }
+        }
+    }
+}
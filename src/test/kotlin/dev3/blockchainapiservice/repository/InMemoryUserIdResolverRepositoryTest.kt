@@ -0,0 +1,82 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.UserIdResolverCacheProperties
+import dev3.blockchainapiservice.config.interceptors.annotation.IdType
+import dev3.blockchainapiservice.features.api.usage.repository.InMemoryUserIdResolverRepository
+import dev3.blockchainapiservice.features.api.usage.repository.JooqUserIdResolverRepository
+import dev3.blockchainapiservice.generated.jooq.id.ProjectId
+import dev3.blockchainapiservice.generated.jooq.id.UserId
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import java.util.UUID
+
+class InMemoryUserIdResolverRepositoryTest : TestBase() {
+
+    @Test
+    fun mustCacheResolvedUserIds() {
+        val jooqRepository = mock<JooqUserIdResolverRepository>()
+        val projectId = ProjectId(UUID.randomUUID())
+        val requestId = UUID.randomUUID()
+        val userId = UserId(UUID.randomUUID())
+
+        suppose("user IDs will be resolved from database") {
+            call(jooqRepository.getUserId(IdType.PROJECT_ID, projectId.value))
+                .willReturn(userId)
+            call(jooqRepository.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId))
+                .willReturn(userId)
+        }
+
+        val repository = InMemoryUserIdResolverRepository(
+            jooqUserIdResolverRepository = jooqRepository,
+            userIdResolverCacheProperties = UserIdResolverCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("user IDs are resolved from database only once") {
+            expectThat(repository.getByProjectId(projectId))
+                .isEqualTo(userId)
+            expectThat(repository.getUserId(IdType.PROJECT_ID, projectId.value))
+                .isEqualTo(userId)
+            expectThat(repository.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId))
+                .isEqualTo(userId)
+            expectThat(repository.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId))
+                .isEqualTo(userId)
+
+            expectInteractions(jooqRepository) {
+                once.getUserId(IdType.PROJECT_ID, projectId.value)
+                once.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId)
+            }
+        }
+    }
+
+    @Test
+    fun mustNotCacheNonExistentEntities() {
+        val jooqRepository = mock<JooqUserIdResolverRepository>()
+        val requestId = UUID.randomUUID()
+        val userId = UserId(UUID.randomUUID())
+
+        suppose("entity will be created after the first lookup") {
+            call(jooqRepository.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId))
+                .willReturn(null, userId)
+        }
+
+        val repository = InMemoryUserIdResolverRepository(
+            jooqUserIdResolverRepository = jooqRepository,
+            userIdResolverCacheProperties = UserIdResolverCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("non-existent entity is looked up again") {
+            expectThat(repository.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId))
+                .isNull()
+            expectThat(repository.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId))
+                .isEqualTo(userId)
+
+            expectInteractions(jooqRepository) {
+                twice.getUserId(IdType.ASSET_SEND_REQUEST_ID, requestId)
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.TestData
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.config.Web3jCacheProperties
+import dev3.blockchainapiservice.generated.jooq.id.FetchTransactionInfoCacheId
+import dev3.blockchainapiservice.model.EventLog
+import dev3.blockchainapiservice.model.result.BlockHeader
+import dev3.blockchainapiservice.model.result.BlockchainTransactionInfo
+import dev3.blockchainapiservice.util.AccountBalance
+import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.FunctionData
+import dev3.blockchainapiservice.util.TransactionHash
+import dev3.blockchainapiservice.util.WalletAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import java.math.BigInteger
+import java.util.UUID
+
+class InMemoryWeb3jBlockchainServiceCacheRepositoryTest : TestBase() {
+
+    companion object {
+        private val CHAIN_SPEC = ChainSpec(TestData.CHAIN_ID, null)
+        private val TX_BLOCK_NUMBER = BlockNumber(BigInteger.valueOf(100L))
+        private val TX_INFO = BlockchainTransactionInfo(
+            hash = TransactionHash("tx-hash"),
+            from = WalletAddress("a"),
+            to = WalletAddress("b"),
+            deployedContractAddress = null,
+            data = FunctionData("1234"),
+            value = Balance.ZERO,
+            blockConfirmations = BigInteger.TEN,
+            timestamp = TestData.TIMESTAMP,
+            success = true,
+            events = emptyList()
+        )
+        private val EVENT_LOGS = listOf(EventLog("data", listOf("topic")))
+        private val BLOCK_HEADER = BlockHeader(
+            blockNumber = TX_BLOCK_NUMBER,
+            hash = "0x" + "ab".repeat(32),
+            timestamp = TestData.TIMESTAMP
+        )
+    }
+
+    @Test
+    fun mustServeTransactionInfoFromMemoryAfterFirstDatabaseHit() {
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+        val currentBlockNumber = BlockNumber(TX_BLOCK_NUMBER.value + TX_INFO.blockConfirmations)
+
+        suppose("transaction info is cached in the database") {
+            call(jooqRepository.getCachedFetchTransactionInfo(CHAIN_SPEC, TX_INFO.hash, currentBlockNumber))
+                .willReturn(Pair(TX_INFO, EVENT_LOGS))
+        }
+
+        val meterRegistry = SimpleMeterRegistry()
+        val writeBehindQueue = mock<Web3jCacheWriteBehindQueue>()
+        val repository = InMemoryWeb3jBlockchainServiceCacheRepository(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheWriteBehindQueue = writeBehindQueue,
+            web3jCacheProperties = Web3jCacheProperties(),
+            meterRegistry = meterRegistry
+        )
+
+        verify("transaction info is loaded from the database") {
+            expectThat(repository.getCachedFetchTransactionInfo(CHAIN_SPEC, TX_INFO.hash, currentBlockNumber))
+                .isEqualTo(Pair(TX_INFO, EVENT_LOGS))
+        }
+
+        val laterBlockNumber = BlockNumber(currentBlockNumber.value + BigInteger.TWO)
+
+        verify("transaction info is served from memory with updated block confirmations") {
+            expectThat(repository.getCachedFetchTransactionInfo(CHAIN_SPEC, TX_INFO.hash, laterBlockNumber))
+                .isEqualTo(
+                    Pair(TX_INFO.copy(blockConfirmations = TX_INFO.blockConfirmations + BigInteger.TWO), EVENT_LOGS)
+                )
+
+            expectInteractions(jooqRepository) {
+                once.getCachedFetchTransactionInfo(CHAIN_SPEC, TX_INFO.hash, currentBlockNumber)
+            }
+        }
+
+        verify("cache hits and misses are recorded") {
+            expectThat(
+                meterRegistry.get("cache.gets").tag("cache", "web3j.transaction-info").tag("result", "hit")
+                    .functionCounter().count()
+            ).isEqualTo(1.0)
+            expectThat(
+                meterRegistry.get("cache.gets").tag("cache", "web3j.transaction-info").tag("result", "miss")
+                    .functionCounter().count()
+            ).isEqualTo(1.0)
+        }
+    }
+
+    @Test
+    fun mustOnlyLoadMissingTransactionInfosFromDatabase() {
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+        val otherTxHash = TransactionHash("other-tx-hash")
+        val currentBlockNumber = BlockNumber(TX_BLOCK_NUMBER.value + TX_INFO.blockConfirmations)
+
+        suppose("other transaction info is cached in the database") {
+            call(jooqRepository.getCachedFetchTransactionInfos(CHAIN_SPEC, setOf(otherTxHash), currentBlockNumber))
+                .willReturn(mapOf(otherTxHash to Pair(TX_INFO.copy(hash = otherTxHash), EVENT_LOGS)))
+        }
+
+        val writeBehindQueue = mock<Web3jCacheWriteBehindQueue>()
+        val repository = InMemoryWeb3jBlockchainServiceCacheRepository(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheWriteBehindQueue = writeBehindQueue,
+            web3jCacheProperties = Web3jCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        val id = FetchTransactionInfoCacheId(UUID.randomUUID())
+
+        suppose("transaction info is cached") {
+            repository.cacheFetchTransactionInfo(
+                id = id,
+                chainSpec = CHAIN_SPEC,
+                txHash = TX_INFO.hash,
+                blockNumber = TX_BLOCK_NUMBER,
+                txInfo = TX_INFO,
+                eventLogs = EVENT_LOGS
+            )
+        }
+
+        verify("in-memory and database transaction infos are returned") {
+            expectThat(
+                repository.getCachedFetchTransactionInfos(
+                    chainSpec = CHAIN_SPEC,
+                    txHashes = setOf(TX_INFO.hash, otherTxHash),
+                    currentBlockNumber = currentBlockNumber
+                )
+            ).isEqualTo(
+                mapOf(
+                    TX_INFO.hash to Pair(TX_INFO, EVENT_LOGS),
+                    otherTxHash to Pair(TX_INFO.copy(hash = otherTxHash), EVENT_LOGS)
+                )
+            )
+
+            expectInteractions(jooqRepository) {
+                once.getCachedFetchTransactionInfos(CHAIN_SPEC, setOf(otherTxHash), currentBlockNumber)
+            }
+        }
+
+        verify("database write is deferred to the write-behind queue") {
+            expectInteractions(writeBehindQueue) {
+                once.enqueue(
+                    FetchTransactionInfoCacheEntry(
+                        id = id,
+                        chainSpec = CHAIN_SPEC,
+                        txHash = TX_INFO.hash,
+                        blockNumber = TX_BLOCK_NUMBER,
+                        txInfo = TX_INFO,
+                        eventLogs = EVENT_LOGS
+                    )
+                )
+            }
+        }
+    }
+
+    @Test
+    fun mustNotCacheMissingAccountBalance() {
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+        val walletAddress = WalletAddress("abc")
+        val accountBalance = AccountBalance(
+            wallet = walletAddress,
+            blockNumber = TX_BLOCK_NUMBER,
+            timestamp = TestData.TIMESTAMP,
+            amount = Balance(BigInteger.TEN)
+        )
+
+        suppose("account balance is not cached in the database at first") {
+            call(jooqRepository.getCachedFetchAccountBalance(CHAIN_SPEC, walletAddress, TX_BLOCK_NUMBER))
+                .willReturn(null, accountBalance)
+        }
+
+        val writeBehindQueue = mock<Web3jCacheWriteBehindQueue>()
+        val repository = InMemoryWeb3jBlockchainServiceCacheRepository(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheWriteBehindQueue = writeBehindQueue,
+            web3jCacheProperties = Web3jCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        verify("missing account balance is not cached") {
+            expectThat(repository.getCachedFetchAccountBalance(CHAIN_SPEC, walletAddress, TX_BLOCK_NUMBER))
+                .isNull()
+            expectThat(repository.getCachedFetchAccountBalance(CHAIN_SPEC, walletAddress, TX_BLOCK_NUMBER))
+                .isEqualTo(accountBalance)
+            expectThat(repository.getCachedFetchAccountBalance(CHAIN_SPEC, walletAddress, TX_BLOCK_NUMBER))
+                .isEqualTo(accountBalance)
+
+            expectInteractions(jooqRepository) {
+                twice.getCachedFetchAccountBalance(CHAIN_SPEC, walletAddress, TX_BLOCK_NUMBER)
+            }
+        }
+    }
+
+    @Test
+    fun mustServeCachedBlockHeaderFromMemory() {
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+        val writeBehindQueue = mock<Web3jCacheWriteBehindQueue>()
+        val repository = InMemoryWeb3jBlockchainServiceCacheRepository(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheWriteBehindQueue = writeBehindQueue,
+            web3jCacheProperties = Web3jCacheProperties(),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        suppose("block header is cached") {
+            repository.cacheBlockHeader(CHAIN_SPEC, BLOCK_HEADER)
+        }
+
+        verify("block header is served from memory") {
+            expectThat(repository.getCachedBlockHeader(CHAIN_SPEC, TX_BLOCK_NUMBER))
+                .isEqualTo(BLOCK_HEADER)
+
+            expectInteractions(jooqRepository) {}
+        }
+
+        verify("database write is deferred to the write-behind queue") {
+            expectInteractions(writeBehindQueue) {
+                once.enqueue(BlockHeaderCacheEntry(CHAIN_SPEC, BLOCK_HEADER))
+            }
+        }
+    }
+
+    @Test
+    fun mustNotPersistBlockHeadersWhenPersistenceIsDisabled() {
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+        val writeBehindQueue = mock<Web3jCacheWriteBehindQueue>()
+        val repository = InMemoryWeb3jBlockchainServiceCacheRepository(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheWriteBehindQueue = writeBehindQueue,
+            web3jCacheProperties = Web3jCacheProperties(persistBlockHeaders = false),
+            meterRegistry = SimpleMeterRegistry()
+        )
+
+        suppose("block header is cached") {
+            repository.cacheBlockHeader(CHAIN_SPEC, BLOCK_HEADER)
+        }
+
+        verify("block header is only kept in memory") {
+            expectThat(repository.getCachedBlockHeader(CHAIN_SPEC, TX_BLOCK_NUMBER))
+                .isEqualTo(BLOCK_HEADER)
+            expectThat(repository.getCachedBlockHeader(CHAIN_SPEC, BlockNumber(BigInteger.ONE)))
+                .isNull()
+
+            expectInteractions(jooqRepository) {}
+            expectInteractions(writeBehindQueue) {}
+        }
+    }
+}
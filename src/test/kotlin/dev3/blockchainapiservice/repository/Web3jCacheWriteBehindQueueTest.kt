@@ -0,0 +1,152 @@
+package dev3.blockchainapiservice.repository
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.TestData
+import dev3.blockchainapiservice.blockchain.properties.ChainSpec
+import dev3.blockchainapiservice.config.Web3jCacheProperties
+import dev3.blockchainapiservice.features.payout.service.ManualFixedScheduler
+import dev3.blockchainapiservice.generated.jooq.id.FetchAccountBalanceCacheId
+import dev3.blockchainapiservice.service.ScheduledExecutorServiceProvider
+import dev3.blockchainapiservice.util.AccountBalance
+import dev3.blockchainapiservice.util.Balance
+import dev3.blockchainapiservice.util.BlockNumber
+import dev3.blockchainapiservice.util.WalletAddress
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.mock
+import java.math.BigInteger
+import java.util.UUID
+
+class Web3jCacheWriteBehindQueueTest : TestBase() {
+
+    companion object {
+        private val CHAIN_SPEC = ChainSpec(TestData.CHAIN_ID, null)
+    }
+
+    @Test
+    fun mustCoalesceDuplicateEntriesAndFlushThemInBatches() {
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+        }
+
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+        val queue = Web3jCacheWriteBehindQueue(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheProperties = Web3jCacheProperties(writeBehindBatchSize = 2),
+            meterRegistry = SimpleMeterRegistry(),
+            scheduledExecutorServiceProvider = executorServiceProvider
+        )
+
+        val entries = (1L..3L).map { balanceEntry(BlockNumber(BigInteger.valueOf(it))) }
+        val duplicateEntry = balanceEntry(BlockNumber(BigInteger.ONE))
+
+        suppose("some entries are enqueued") {
+            entries.forEach { queue.enqueue(it) }
+            queue.enqueue(duplicateEntry)
+        }
+
+        suppose("queue is flushed") {
+            scheduler.execute()
+        }
+
+        verify("duplicate entry is coalesced and entries are flushed in batches") {
+            val argumentCaptor = argumentCaptor<Collection<Web3jCacheEntry>>()
+
+            expectInteractions(jooqRepository) {
+                twice.cacheAll(argumentCaptor.capture())
+            }
+
+            expectThat(argumentCaptor.allValues.map { it.size })
+                .isEqualTo(listOf(2, 1))
+            expectThat(argumentCaptor.allValues.flatten().toSet())
+                .isEqualTo(entries.toSet())
+        }
+
+        verify("queue is empty after flush") {
+            queue.flush()
+
+            expectInteractions(jooqRepository) {
+                twice.cacheAll(any())
+            }
+        }
+    }
+
+    @Test
+    fun mustDropEntriesWhenQueueIsFullOrWhenTheyCannotBeWritten() {
+        val executorServiceProvider = mock<ScheduledExecutorServiceProvider>()
+        val scheduler = ManualFixedScheduler()
+
+        suppose("ManualFixedScheduler will be used") {
+            call(executorServiceProvider.newSingleThreadScheduledExecutor(any()))
+                .willReturn(scheduler)
+        }
+
+        val jooqRepository = mock<JooqWeb3jBlockchainServiceCacheRepository>()
+
+        suppose("writing entries into the database will fail") {
+            call(jooqRepository.cacheAll(any()))
+                .willThrow(RuntimeException("test"))
+        }
+
+        val meterRegistry = SimpleMeterRegistry()
+        val queue = Web3jCacheWriteBehindQueue(
+            jooqWeb3jBlockchainServiceCacheRepository = jooqRepository,
+            web3jCacheProperties = Web3jCacheProperties(writeBehindMaxPendingEntries = 2),
+            meterRegistry = meterRegistry,
+            scheduledExecutorServiceProvider = executorServiceProvider
+        )
+
+        val entries = (1L..3L).map { balanceEntry(BlockNumber(BigInteger.valueOf(it))) }
+
+        suppose("more entries than queue capacity are enqueued") {
+            entries.forEach { queue.enqueue(it) }
+        }
+
+        verify("entry which does not fit into the queue is dropped") {
+            expectThat(droppedEntries(meterRegistry, "queue_full"))
+                .isEqualTo(1.0)
+            expectThat(meterRegistry.get("web3j.cache.write.behind.pending").gauge().value())
+                .isEqualTo(2.0)
+        }
+
+        suppose("queue is flushed") {
+            scheduler.execute()
+        }
+
+        verify("entries which could not be written are dropped") {
+            val argumentCaptor = argumentCaptor<Collection<Web3jCacheEntry>>()
+
+            expectInteractions(jooqRepository) {
+                once.cacheAll(argumentCaptor.capture())
+            }
+
+            expectThat(argumentCaptor.firstValue.toSet())
+                .isEqualTo(entries.take(2).toSet())
+            expectThat(droppedEntries(meterRegistry, "write_failed"))
+                .isEqualTo(2.0)
+            expectThat(meterRegistry.get("web3j.cache.write.behind.pending").gauge().value())
+                .isZero()
+        }
+    }
+
+    private fun droppedEntries(meterRegistry: SimpleMeterRegistry, reason: String): Double =
+        meterRegistry.get("web3j.cache.write.behind.dropped").tag("reason", reason).counter().count()
+
+    private fun balanceEntry(blockNumber: BlockNumber) =
+        FetchAccountBalanceCacheEntry(
+            id = FetchAccountBalanceCacheId(UUID.randomUUID()),
+            chainSpec = CHAIN_SPEC,
+            accountBalance = AccountBalance(
+                wallet = WalletAddress("abc"),
+                blockNumber = blockNumber,
+                timestamp = TestData.TIMESTAMP,
+                amount = Balance(BigInteger.TEN)
+            )
+        )
+}
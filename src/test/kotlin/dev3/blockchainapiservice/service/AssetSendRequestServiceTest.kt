@@ -1335,8 +1335,8 @@ class AssetSendRequestServiceTest : TestBase() {
         )
 
         suppose("transaction is mined") {
-            call(blockchainService.fetchTransactionInfo(chainSpec, TX_HASH, TRANSFER_EVENTS))
-                .willReturn(transactionInfo)
+            call(blockchainService.fetchTransactionInfos(chainSpec, setOf(TX_HASH), TRANSFER_EVENTS))
+                .willReturn(mapOf(TX_HASH to transactionInfo))
         }
 
         val functionEncoderService = mock<FunctionEncoderService>()
@@ -1190,8 +1190,8 @@ class ContractDeploymentRequestServiceTest : TestBase() {
         val blockchainService = mock<BlockchainService>()
 
         suppose("transaction is mined") {
-            call(blockchainService.fetchTransactionInfo(CHAIN_SPEC, TX_HASH, EVENTS))
-                .willReturn(TRANSACTION_INFO)
+            call(blockchainService.fetchTransactionInfos(CHAIN_SPEC, setOf(TX_HASH), EVENTS))
+                .willReturn(mapOf(TX_HASH to TRANSACTION_INFO))
         }
 
         val contractDecoratorRepository = mock<ContractDecoratorRepository>()
@@ -1256,8 +1256,8 @@ class ContractDeploymentRequestServiceTest : TestBase() {
         val blockchainService = mock<BlockchainService>()
 
         suppose("transaction is mined") {
-            call(blockchainService.fetchTransactionInfo(CHAIN_SPEC, TX_HASH, EVENTS))
-                .willReturn(TRANSACTION_INFO)
+            call(blockchainService.fetchTransactionInfos(CHAIN_SPEC, setOf(TX_HASH), EVENTS))
+                .willReturn(mapOf(TX_HASH to TRANSACTION_INFO))
         }
 
         val contractDecoratorRepository = mock<ContractDecoratorRepository>()
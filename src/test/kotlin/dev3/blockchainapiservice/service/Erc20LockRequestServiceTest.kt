@@ -1012,8 +1012,8 @@ class Erc20LockRequestServiceTest : TestBase() {
         )
 
         suppose("transaction is mined") {
-            call(blockchainService.fetchTransactionInfo(chainSpec, TX_HASH, EVENTS))
-                .willReturn(transactionInfo)
+            call(blockchainService.fetchTransactionInfos(chainSpec, setOf(TX_HASH), EVENTS))
+                .willReturn(mapOf(TX_HASH to transactionInfo))
         }
 
         val functionEncoderService = mock<FunctionEncoderService>()
@@ -173,4 +173,74 @@ class EthCommonServiceTest : TestBase() {
                 .isNull()
         }
     }
+
+    @Test
+    fun mustCorrectlyFetchTransactionInfos() {
+        val chainSpec = ChainSpec(
+            chainId = TestData.CHAIN_ID,
+            customRpcUrl = "custom-rpc-url"
+        )
+        val txHash = TransactionHash("tx-hash")
+        val transactionInfo = BlockchainTransactionInfo(
+            hash = txHash,
+            from = WalletAddress("a"),
+            to = WalletAddress("b"),
+            deployedContractAddress = null,
+            data = FunctionData("data"),
+            value = Balance.ZERO,
+            blockConfirmations = BigInteger.ZERO,
+            timestamp = TestData.TIMESTAMP,
+            success = true,
+            events = emptyList()
+        )
+
+        val blockchainService = mock<BlockchainService>()
+
+        suppose("some transaction infos are fetched from blockchain") {
+            call(blockchainService.fetchTransactionInfos(chainSpec, setOf(txHash), emptyList()))
+                .willReturn(mapOf(txHash to transactionInfo))
+        }
+
+        val service = EthCommonServiceImpl(
+            uuidProvider = mock(),
+            utcDateTimeProvider = mock(),
+            blockchainService = blockchainService
+        )
+
+        verify("correct result is returned") {
+            val result = service.fetchTransactionInfos(
+                chainSpec = chainSpec,
+                txHashes = setOf(txHash),
+                events = emptyList()
+            )
+
+            expectThat(result)
+                .isEqualTo(mapOf(txHash to transactionInfo))
+        }
+    }
+
+    @Test
+    fun mustReturnEmptyMapWhenNoTxHashesAreRequested() {
+        val blockchainService = mock<BlockchainService>()
+        val service = EthCommonServiceImpl(
+            uuidProvider = mock(),
+            utcDateTimeProvider = mock(),
+            blockchainService = blockchainService
+        )
+
+        verify("empty map is returned") {
+            val result = service.fetchTransactionInfos(
+                chainSpec = ChainSpec(TestData.CHAIN_ID, null),
+                txHashes = emptySet(),
+                events = emptyList()
+            )
+
+            expectThat(result)
+                .isEmpty()
+        }
+
+        verify("blockchain service is not called") {
+            expectNoInteractions(blockchainService)
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package dev3.blockchainapiservice.service
 
 import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.exception.AbiDecodingException
 import dev3.blockchainapiservice.features.contract.abi.model.AbiType
 import dev3.blockchainapiservice.features.contract.abi.model.AddressType
 import dev3.blockchainapiservice.features.contract.abi.model.BoolType
@@ -903,12 +904,85 @@ class EthereumAbiDecoderServiceTest : TestBase() {
         }
     }
 
+    @Test
+    fun mustCorrectlyDecodeByteArrayInputStartingAtOffset() {
+        verify("dynamic types are decoded relative to the offset") {
+            val prefix = "ff".repeat(5)
+            val encodedInput = prefix +
+                "0000000000000000000000000000000000000000000000000000000000000040" + // offset
+                "000000000000000000000000000000000000000000000000000000000000007f" + // uint
+                "000000000000000000000000000000000000000000000000000000000000000a" + // length
+                "746573745f627974657300000000000000000000000000000000000000000000" // value
+            val bytes = encodedInput.chunked(2).map { it.toUByte(16).toByte() }.toByteArray()
+
+            expectThat(decoder.decode(listOf(DynamicBytesType, UintType), bytes, prefix.length / 2).withByteLists())
+                .isEqualTo(listOf("test_bytes".byteList(), BigInteger.valueOf(127L)))
+        }
+    }
+
+    @Test
+    fun mustThrowAbiDecodingExceptionForTruncatedInput() {
+        verify("AbiDecodingException is thrown") {
+            expectThrows<AbiDecodingException> {
+                decoder.decode(
+                    listOf(StringType),
+                    "0x" +
+                        "0000000000000000000000000000000000000000000000000000000000000020" + // offset
+                        "0000000000000000000000000000000000000000000000000000000000000041" + // length
+                        "736f6d655f6c6f6e675f737472696e675f76616c75655f77686963685f646f65" // truncated value
+                )
+            }
+        }
+    }
+
+    @Test
+    fun mustDecodeBytesIntoByteArray() {
+        verify("static and dynamic bytes are decoded into byte arrays") {
+            val decodedValues = decoder.decode(
+                listOf(StaticBytesType(2), DynamicBytesType),
+                "0x" +
+                    "3132000000000000000000000000000000000000000000000000000000000000" + // static bytes
+                    "0000000000000000000000000000000000000000000000000000000000000040" + // offset
+                    "0000000000000000000000000000000000000000000000000000000000000003" + // length
+                    "3132330000000000000000000000000000000000000000000000000000000000" // value
+            )
+
+            expectThat(decodedValues.map { it.javaClass })
+                .isEqualTo(listOf(ByteArray::class.java, ByteArray::class.java))
+            expectThat(decodedValues.withByteLists())
+                .isEqualTo(listOf("12".byteList(), "123".byteList()))
+        }
+    }
+
+    @Test
+    fun mustThrowAbiDecodingExceptionForOddLengthHexInput() {
+        verify("AbiDecodingException is thrown") {
+            expectThrows<AbiDecodingException> {
+                decoder.decode(
+                    listOf(UintType),
+                    "0x000000000000000000000000000000000000000000000000000000000000007f0"
+                )
+            }
+        }
+    }
+
     private fun Companion.VerifyMessage.decoding(types: List<AbiType>, encodedInput: String) =
-        expectThat(decoder.decode(types, encodedInput))
+        expectThat(decoder.decode(types, encodedInput).withByteLists())
 
     private fun ListAssert<Any>.returns(vararg expected: Any) = isEqualTo(expected.toList())
 
     private fun String.byteList() = toByteArray().toList()
 
+    // byte arrays are compared by reference, so they are converted into lists before comparison
+    private fun List<Any>.withByteLists(): List<Any> = map { it.withByteLists() }
+
+    private fun Any.withByteLists(): Any =
+        when (this) {
+            is ByteArray -> toList()
+            is List<*> -> map { it!!.withByteLists() }
+            is Tuple -> Tuple(elems.withByteLists())
+            else -> this
+        }
+
     private fun tupleOf(vararg elems: Any) = Tuple(elems.toList())
 }
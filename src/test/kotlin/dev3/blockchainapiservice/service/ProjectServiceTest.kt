@@ -7,6 +7,7 @@ import dev3.blockchainapiservice.features.api.access.model.params.CreateProjectP
 import dev3.blockchainapiservice.features.api.access.model.result.ApiKey
 import dev3.blockchainapiservice.features.api.access.model.result.Project
 import dev3.blockchainapiservice.features.api.access.model.result.UserWalletAddressIdentifier
+import dev3.blockchainapiservice.features.api.access.repository.ApiKeyProjectCache
 import dev3.blockchainapiservice.features.api.access.repository.ApiKeyRepository
 import dev3.blockchainapiservice.features.api.access.repository.ProjectRepository
 import dev3.blockchainapiservice.features.api.access.service.ProjectServiceImpl
@@ -79,7 +80,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = utcDateTimeProvider,
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("project is correctly stored into the database") {
@@ -117,7 +119,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("project is fetched from database by ID") {
@@ -146,7 +149,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("ResourceNotFoundException is thrown") {
@@ -185,7 +189,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("ResourceNotFoundException is thrown") {
@@ -224,7 +229,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("project is fetched from database by issuer address") {
@@ -255,7 +261,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("ResourceNotFoundException is thrown") {
@@ -294,7 +301,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("ResourceNotFoundException is thrown") {
@@ -343,7 +351,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("project is fetched from database by issuer address") {
@@ -403,7 +412,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = apiKeyRepository
+            apiKeyRepository = apiKeyRepository,
+            apiKeyProjectCache = mock()
         )
 
         verify("project is fetched from database by ID") {
@@ -441,7 +451,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("ResourceNotFoundException is thrown") {
@@ -510,18 +521,26 @@ class ProjectServiceTest : TestBase() {
             walletAddress = WalletAddress("b")
         )
 
+        val apiKeyProjectCache = mock<ApiKeyProjectCache>()
         val service = ProjectServiceImpl(
             uuidProvider = uuidProvider,
             utcDateTimeProvider = utcDateTimeProvider,
             randomProvider = randomProvider,
             projectRepository = projectRepository,
-            apiKeyRepository = apiKeyRepository
+            apiKeyRepository = apiKeyRepository,
+            apiKeyProjectCache = apiKeyProjectCache
         )
 
         verify("API key is correctly stored into the database") {
             expectThat(service.createApiKey(userIdentifier, project.id))
                 .isEqualTo(apiKey)
         }
+
+        verify("cached API key project is invalidated") {
+            expectInteractions(apiKeyProjectCache) {
+                once.invalidateApiKey(apiKey.apiKey)
+            }
+        }
     }
 
     @Test
@@ -553,7 +572,8 @@ class ProjectServiceTest : TestBase() {
             utcDateTimeProvider = mock(),
             randomProvider = mock(),
             projectRepository = projectRepository,
-            apiKeyRepository = mock()
+            apiKeyRepository = mock(),
+            apiKeyProjectCache = mock()
         )
 
         verify("ResourceNotFoundException is thrown") {
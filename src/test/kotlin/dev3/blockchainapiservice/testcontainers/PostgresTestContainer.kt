@@ -8,9 +8,12 @@ import dev3.blockchainapiservice.generated.jooq.tables.ApiWriteCallTable
 import dev3.blockchainapiservice.generated.jooq.tables.AssetBalanceRequestTable
 import dev3.blockchainapiservice.generated.jooq.tables.AssetMultiSendRequestTable
 import dev3.blockchainapiservice.generated.jooq.tables.AssetSendRequestTable
+import dev3.blockchainapiservice.generated.jooq.tables.AssetSnapshotHolderScanCheckpointTable
+import dev3.blockchainapiservice.generated.jooq.tables.AssetSnapshotHolderTable
 import dev3.blockchainapiservice.generated.jooq.tables.AssetSnapshotTable
 import dev3.blockchainapiservice.generated.jooq.tables.AuthorizationRequestTable
 import dev3.blockchainapiservice.generated.jooq.tables.BlacklistedAddressTable
+import dev3.blockchainapiservice.generated.jooq.tables.BlockHeaderCacheTable
 import dev3.blockchainapiservice.generated.jooq.tables.ContractArbitraryCallRequestTable
 import dev3.blockchainapiservice.generated.jooq.tables.ContractDeploymentRequestTable
 import dev3.blockchainapiservice.generated.jooq.tables.ContractDeploymentTransactionCacheTable
@@ -61,8 +64,11 @@ class PostgresTestContainer : PostgreSQLContainer<PostgresTestContainer>("postgr
             deleteFrom(FetchErc20AccountBalanceCacheTable).execute()
             deleteFrom(FetchTransactionInfoCacheTable).execute()
             deleteFrom(ContractDeploymentTransactionCacheTable).execute()
+            deleteFrom(BlockHeaderCacheTable).execute()
             deleteFrom(PromoCodeUsageTable).execute()
             deleteFrom(PromoCodeTable).execute()
+            deleteFrom(AssetSnapshotHolderScanCheckpointTable).execute()
+            deleteFrom(AssetSnapshotHolderTable).execute()
             deleteFrom(AssetSnapshotTable).execute()
             deleteFrom(MerkleTreeLeafNodeTable).execute()
             deleteFrom(MerkleTreeRootTable).execute()
@@ -0,0 +1,75 @@
+package dev3.blockchainapiservice.util
+
+import dev3.blockchainapiservice.TestBase
+import org.junit.jupiter.api.Test
+
+class AddressSetTest : TestBase() {
+
+    @Test
+    fun mustAddAddressesAndTopicsWithoutDuplicates() {
+        val set = AddressSet(expectedSize = 1)
+
+        verify("new addresses are added in insertion order") {
+            expectThat(set.add(WalletAddress("0xA")))
+                .isTrue()
+            expectThat(set.addHex("0x000000000000000000000000cafebabecafebabecafebabecafebabecafebabe"))
+                .isTrue()
+            expectThat(set.add(ZeroAddress.toWalletAddress()))
+                .isTrue()
+            expectThat(set.toList())
+                .isEqualTo(
+                    listOf(
+                        WalletAddress("a"),
+                        WalletAddress("0xCAFEBABECAFEBABECAFEBABECAFEBABECAFEBABE"),
+                        ZeroAddress.toWalletAddress()
+                    )
+                )
+        }
+
+        verify("already added addresses are not added again") {
+            expectThat(set.addHex("0x000000000000000000000000000000000000000a"))
+                .isFalse()
+            expectThat(set.add(WalletAddress("0xcafebabecafebabecafebabecafebabecafebabe")))
+                .isFalse()
+            expectThat(set.size)
+                .isEqualTo(3)
+        }
+
+        verify("set is equal to other set with same addresses") {
+            expectThat(set.toSet())
+                .isEqualTo(set)
+            expectThat(set == set.toSet())
+                .isTrue()
+        }
+    }
+
+    @Test
+    fun mustReturnInsertionIndexOfAddress() {
+        val addresses = (1..1_000).map { WalletAddress(it.toString(16)) }
+        val set = AddressSet.of(addresses)
+
+        verify("correct index is returned for each address") {
+            expectThat(addresses.map { set.indexOf(it) })
+                .isEqualTo(addresses.indices.toList())
+            expectThat(set.indexOf(WalletAddress("0xfffff")))
+                .isEqualTo(-1)
+            expectThat(set.contains(WalletAddress("0x1")))
+                .isTrue()
+        }
+    }
+
+    @Test
+    fun mustThrowIllegalArgumentExceptionForInvalidAddress() {
+        val set = AddressSet()
+
+        verify("IllegalArgumentException is thrown") {
+            expectThrows<IllegalArgumentException> {
+                set.addHex("0x123")
+            }
+
+            expectThrows<IllegalArgumentException> {
+                set.addHex("0x000000000000000000000000000000000000000g")
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev3.blockchainapiservice.util
+
+import dev3.blockchainapiservice.TestBase
+import org.junit.jupiter.api.Test
+
+class BinaryDataTest : TestBase() {
+
+    @Test
+    fun mustConvertFunctionDataToAndFromRawBytes() {
+        val functionData = FunctionData("0x0123ABcd")
+
+        verify("function data is converted into raw bytes") {
+            expectThat(functionData.binary.toList())
+                .isEqualTo(listOf(0x01, 0x23, 0xab, 0xcd).map { it.toByte() })
+        }
+
+        verify("function data is restored from raw bytes") {
+            expectThat(FunctionData(functionData.binary))
+                .isEqualTo(functionData)
+        }
+    }
+
+    @Test
+    fun mustConvertEmptyFunctionDataToAndFromRawBytes() {
+        verify("empty function data is converted into empty byte array") {
+            expectThat(FunctionData.EMPTY.binary.toList())
+                .isEqualTo(emptyList())
+            expectThat(FunctionData(ByteArray(0)))
+                .isEqualTo(FunctionData.EMPTY)
+        }
+    }
+
+    @Test
+    fun mustConvertContractBinaryDataToAndFromRawBytes() {
+        val contractBinaryData = ContractBinaryData("0x60806040")
+
+        verify("contract binary data is converted into raw bytes") {
+            expectThat(contractBinaryData.binary.toList())
+                .isEqualTo(listOf(0x60, 0x80, 0x60, 0x40).map { it.toByte() })
+        }
+
+        verify("contract binary data is restored from raw bytes") {
+            expectThat(ContractBinaryData(contractBinaryData.binary))
+                .isEqualTo(contractBinaryData)
+        }
+    }
+
+    @Test
+    fun mustRejectConversionOfNonHexFunctionDataIntoRawBytes() {
+        verify("non-hex function data is rejected") {
+            expectThrows<IllegalArgumentException> {
+                FunctionData("test").binary
+            }
+        }
+
+        verify("odd-length function data is rejected") {
+            expectThrows<IllegalArgumentException> {
+                FunctionData("0x123").binary
+            }
+        }
+    }
+
+    @Test
+    fun mustRejectConversionOfNonHexContractBinaryDataIntoRawBytes() {
+        verify("non-hex contract binary data is rejected") {
+            expectThrows<IllegalArgumentException> {
+                ContractBinaryData("xyz1").binary
+            }
+        }
+
+        verify("odd-length contract binary data is rejected") {
+            expectThrows<IllegalArgumentException> {
+                ContractBinaryData("abc1223").binary
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dev3.blockchainapiservice.util
+
+import dev3.blockchainapiservice.TestBase
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class BoundedRingBufferTest : TestBase() {
+
+    @Test
+    fun mustRejectElementsWhenBufferIsFull() {
+        val buffer = BoundedRingBuffer<Int>(3)
+
+        verify("elements are accepted until buffer is full") {
+            expectThat((1..4).map { buffer.offer(it) })
+                .isEqualTo(listOf(true, true, true, false))
+            expectThat(buffer.size)
+                .isEqualTo(3)
+        }
+
+        verify("elements are polled in insertion order") {
+            expectThat(buffer.poll(2))
+                .isEqualTo(listOf(1, 2))
+            expectThat(buffer.size)
+                .isOne()
+        }
+
+        verify("polled slots can be reused") {
+            expectThat((5..7).map { buffer.offer(it) })
+                .isEqualTo(listOf(true, true, false))
+            expectThat(buffer.poll(10))
+                .isEqualTo(listOf(3, 5, 6))
+            expectThat(buffer.poll(10))
+                .isEmpty()
+        }
+    }
+
+    @Test
+    fun mustNotLoseElementsWithConcurrentProducers() {
+        val buffer = BoundedRingBuffer<Int>(64)
+        val producers = 4
+        val elementsPerProducer = 10_000
+        val executorService = Executors.newFixedThreadPool(producers)
+        val latch = CountDownLatch(producers)
+        val polledElements = mutableListOf<Int>()
+        var rejectedElements = 0
+
+        suppose("elements are offered concurrently while being polled") {
+            val rejectedCounts = (0 until producers).map { producer ->
+                executorService.submit<Int> {
+                    val rejected = (0 until elementsPerProducer).count {
+                        buffer.offer(producer * elementsPerProducer + it).not()
+                    }
+                    latch.countDown()
+                    rejected
+                }
+            }
+
+            while (latch.count > 0L || buffer.size > 0) {
+                polledElements.addAll(buffer.poll(16))
+            }
+
+            rejectedElements = rejectedCounts.sumOf { it.get() }
+            executorService.shutdown()
+            executorService.awaitTermination(1L, TimeUnit.SECONDS)
+        }
+
+        verify("every element is either polled exactly once or rejected") {
+            expectThat(polledElements.size + rejectedElements)
+                .isEqualTo(producers * elementsPerProducer)
+            expectThat(polledElements.toSet().size)
+                .isEqualTo(polledElements.size)
+        }
+    }
+}
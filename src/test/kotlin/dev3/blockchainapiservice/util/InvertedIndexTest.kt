@@ -0,0 +1,64 @@
+package dev3.blockchainapiservice.util
+
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.model.filters.AndList
+import dev3.blockchainapiservice.model.filters.OrList
+import org.junit.jupiter.api.Test
+
+class InvertedIndexTest : TestBase() {
+
+    @Test
+    fun mustReturnKeysMatchingOrListOfAndLists() {
+        val index = InvertedIndex<String, String>()
+
+        suppose("some entries are indexed") {
+            index.put("key-1", listOf("a", "b"))
+            index.put("key-2", listOf("b", "c"))
+            index.put("key-3", listOf("c"))
+            index.put("key-4", emptyList())
+        }
+
+        verify("matching keys are returned") {
+            expectThat(index.matching(OrList(AndList("b"))))
+                .isEqualTo(setOf("key-1", "key-2"))
+            expectThat(index.matching(OrList(AndList("a", "b"), AndList("c"))))
+                .isEqualTo(setOf("key-1", "key-2", "key-3"))
+            expectThat(index.matching(OrList(AndList("a", "c"))))
+                .isEmpty()
+            expectThat(index.matching(OrList(AndList())))
+                .isEqualTo(setOf("key-1", "key-2", "key-3", "key-4"))
+            expectThat(index.matching(OrList()))
+                .isNull()
+        }
+
+        suppose("some entries are updated and removed") {
+            index.put("key-1", listOf("c"))
+            index.remove("key-2")
+        }
+
+        verify("matching keys are returned") {
+            expectThat(index.matching(OrList(AndList("b"))))
+                .isEmpty()
+            expectThat(index.matching(OrList(AndList("c"))))
+                .isEqualTo(setOf("key-1", "key-3"))
+        }
+    }
+
+    @Test
+    fun mustReturnKeysWhoseValuesAreContainedInGivenValues() {
+        val index = InvertedIndex<String, String>()
+
+        suppose("some entries are indexed") {
+            index.put("key-1", listOf("a", "b"))
+            index.put("key-2", listOf("b", "c"))
+            index.put("key-3", emptyList())
+        }
+
+        verify("keys of fully contained entries are returned") {
+            expectThat(index.containedIn(setOf("a", "b", "d")))
+                .isEqualTo(setOf("key-1", "key-3"))
+            expectThat(index.containedIn(setOf("b")))
+                .isEqualTo(setOf("key-3"))
+        }
+    }
+}
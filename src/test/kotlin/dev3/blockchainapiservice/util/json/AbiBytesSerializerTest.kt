@@ -0,0 +1,25 @@
+package dev3.blockchainapiservice.util.json
+
+import com.fasterxml.jackson.databind.JsonNode
+import dev3.blockchainapiservice.TestBase
+import dev3.blockchainapiservice.config.JsonConfig
+import org.junit.jupiter.api.Test
+
+class AbiBytesSerializerTest : TestBase() {
+
+    private val objectMapper = JsonConfig().objectMapper()
+
+    @Test
+    fun mustCorrectlySerializeBytes() {
+        val bytes = byteArrayOf(0, 1, 127, -128, -1)
+
+        val serializedBytes = suppose("bytes are serialized to JSON") {
+            objectMapper.valueToTree<JsonNode>(bytes)
+        }
+
+        verify("bytes are serialized as array of numbers") {
+            expectThat(serializedBytes)
+                .isEqualTo(objectMapper.readTree("[0, 1, 127, -128, -1]"))
+        }
+    }
+}